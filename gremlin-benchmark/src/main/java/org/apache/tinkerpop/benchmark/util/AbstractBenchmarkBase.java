@@ -22,6 +22,7 @@ import org.junit.Test;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.Profiler;
 import org.openjdk.jmh.results.format.ResultFormatType;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
@@ -29,6 +30,8 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.io.File;
 import java.text.SimpleDateFormat;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 
 /**
@@ -73,6 +76,10 @@ public abstract class AbstractBenchmarkBase {
             runnerOptions.forks(getForks());
         }
 
+        for (final Class<? extends Profiler> profiler : getProfilers()) {
+            runnerOptions.addProfiler(profiler);
+        }
+
         if (getReportDir() != null) {
             final String dtmStr = new SimpleDateFormat("yyyyMMddHHmmss").format(new Date());
             final String filePath = getReportDir() + className + "-" + dtmStr + ".json";
@@ -91,6 +98,13 @@ public abstract class AbstractBenchmarkBase {
         new Runner(runnerOptions.build()).run();
     }
 
+    /**
+     * Profilers to run along with the benchmarks of the class, none by default.
+     */
+    protected Collection<Class<? extends Profiler>> getProfilers() {
+        return Collections.emptyList();
+    }
+
     protected int getWarmupIterations() {
         return getIntProperty("warmupIterations", DEFAULT_WARMUP_ITERATIONS);
     }
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.benchmark.util;
+
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.profile.ProfilerResult;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A JMH profiler for {@code GraphComputer} benchmarks that reports, for each measurement iteration, the average
+ * number of supersteps of a job, the average time of a superstep and the peak heap (the sum of the peaks of the heap
+ * memory pools).  Benchmarks hand their results to {@link #record(ComputerResult)} so that the supersteps and runtime
+ * can be read from the {@code Memory} of each job.
+ */
+public class GraphComputerProfiler implements InternalProfiler {
+
+    private static final AtomicLong JOBS = new AtomicLong(0l);
+    private static final AtomicLong SUPERSTEPS = new AtomicLong(0l);
+    private static final AtomicLong RUNTIME = new AtomicLong(0l);
+
+    /**
+     * Record the supersteps and runtime of a completed job and return the result.
+     */
+    public static ComputerResult record(final ComputerResult result) {
+        JOBS.incrementAndGet();
+        SUPERSTEPS.addAndGet(result.memory().getIteration());
+        RUNTIME.addAndGet(result.memory().getRuntime());
+        return result;
+    }
+
+    @Override
+    public String getDescription() {
+        return "GraphComputer supersteps, superstep time and peak heap";
+    }
+
+    @Override
+    public void beforeIteration(final BenchmarkParams benchmarkParams, final IterationParams iterationParams) {
+        JOBS.set(0l);
+        SUPERSTEPS.set(0l);
+        RUNTIME.set(0l);
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP)
+                pool.resetPeakUsage();
+        }
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(final BenchmarkParams benchmarkParams, final IterationParams iterationParams,
+                                                       final IterationResult result) {
+        long peakHeap = 0l;
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP)
+                peakHeap = peakHeap + pool.getPeakUsage().getUsed();
+        }
+        final long jobs = JOBS.get();
+        final long supersteps = SUPERSTEPS.get();
+        final List<Result> results = new ArrayList<>(3);
+        results.add(new ProfilerResult("·olap.supersteps", 0 == jobs ? Double.NaN : (double) supersteps / jobs, "supersteps/job", AggregationPolicy.AVG));
+        results.add(new ProfilerResult("·olap.superstep.time", 0 == supersteps ? Double.NaN : (double) RUNTIME.get() / supersteps, "ms/superstep", AggregationPolicy.AVG));
+        results.add(new ProfilerResult("·olap.heap.peak", peakHeap / (1024d * 1024d), "MB", AggregationPolicy.MAX));
+        return results;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.benchmark.util;
+
+import org.apache.spark.JavaSparkListener;
+import org.apache.spark.SparkContext;
+import org.apache.spark.executor.TaskMetrics;
+import org.apache.spark.scheduler.SparkListenerTaskEnd;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.profile.ProfilerResult;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A JMH profiler for {@code SparkGraphComputer} benchmarks that reports, for each measurement iteration, the shuffle
+ * bytes written and read per operation.  Benchmarks hand their {@code SparkContext} to {@link #listen(SparkContext)}
+ * so that the shuffle metrics of its tasks are counted.  Spark delivers task metrics to listeners asynchronously, so
+ * the tasks of a job that ends right before an iteration ends may be counted in the next iteration.
+ */
+public class SparkShuffleProfiler implements InternalProfiler {
+
+    private static final AtomicLong SHUFFLE_WRITE = new AtomicLong(0l);
+    private static final AtomicLong SHUFFLE_READ = new AtomicLong(0l);
+
+    /**
+     * Count the shuffle bytes of the tasks of the provided context.
+     */
+    public static void listen(final SparkContext sparkContext) {
+        sparkContext.addSparkListener(new JavaSparkListener() {
+            @Override
+            public void onTaskEnd(final SparkListenerTaskEnd taskEnd) {
+                final TaskMetrics metrics = taskEnd.taskMetrics();
+                if (null == metrics)
+                    return;
+                if (metrics.shuffleWriteMetrics().isDefined())
+                    SHUFFLE_WRITE.addAndGet(metrics.shuffleWriteMetrics().get().shuffleBytesWritten());
+                if (metrics.shuffleReadMetrics().isDefined())
+                    SHUFFLE_READ.addAndGet(metrics.shuffleReadMetrics().get().totalBytesRead());
+            }
+        });
+    }
+
+    @Override
+    public String getDescription() {
+        return "Spark shuffle bytes written and read";
+    }
+
+    @Override
+    public void beforeIteration(final BenchmarkParams benchmarkParams, final IterationParams iterationParams) {
+        SHUFFLE_WRITE.set(0l);
+        SHUFFLE_READ.set(0l);
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(final BenchmarkParams benchmarkParams, final IterationParams iterationParams,
+                                                       final IterationResult result) {
+        final long operations = result.getMetadata().getMeasuredOps();
+        return Arrays.asList(
+                new ProfilerResult("·spark.shuffle.write", 0 == operations ? Double.NaN : SHUFFLE_WRITE.get() / (1024d * 1024d) / operations, "MB/op", AggregationPolicy.AVG),
+                new ProfilerResult("·spark.shuffle.read", 0 == operations ? Double.NaN : SHUFFLE_READ.get() / (1024d * 1024d) / operations, "MB/op", AggregationPolicy.AVG));
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.tinkerpop.gremlin.process;
 
 import org.apache.tinkerpop.benchmark.util.AbstractGraphBenchmark;
 import org.apache.tinkerpop.gremlin.LoadGraphWith;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.Path;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Edge;
@@ -51,6 +52,21 @@ public class GraphTraversalBenchmark extends AbstractGraphBenchmark {
         return g.V().out().out().out().toList();
     }
 
+    @Benchmark
+    public List<Object> g_V_outE_inV_outE_inV_id() throws Exception {
+        return g.V().outE().inV().outE().inV().id().toList();
+    }
+
+    @Benchmark
+    public List<String> g_V_out_out_label_isXsongX() throws Exception {
+        return g.V().out().out().label().is("song").toList();
+    }
+
+    @Benchmark
+    public List<Object> g_V_out_out_hasXperformances_gtX10XX_valuesXnameX() throws Exception {
+        return g.V().out().out().has("performances", P.gt(10)).values("name").toList();
+    }
+
     @Benchmark
     public List<Path> g_V_out_out_out_path() throws Exception {
         return g.V().out().out().out().path().toList();
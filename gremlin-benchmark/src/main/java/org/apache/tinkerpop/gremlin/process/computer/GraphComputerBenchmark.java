@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.computer;
+
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.benchmark.util.GraphComputerProfiler;
+import org.apache.tinkerpop.gremlin.process.computer.clustering.peerpressure.PeerPressureVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.TraversalVertexProgram;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.Profiler;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code GraphComputerBenchmark} benchmarks {@link PageRankVertexProgram}, {@link PeerPressureVertexProgram} and
+ * {@link TraversalVertexProgram} jobs on {@link TinkerGraphComputer} over a synthetic power-law graph that is
+ * generated by preferential attachment.  The {@link GraphComputerProfiler} adds the supersteps per job, the time of a
+ * superstep and the peak heap to the results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GraphComputerBenchmark extends AbstractBenchmarkBase {
+
+    private static final int EDGES_PER_VERTEX = 5;
+    private static final int BUCKETS = 100;
+
+    @Param({"10000", "100000"})
+    public int vertexCount;
+
+    @Param({"1", "4"})
+    public int workers;
+
+    private TinkerGraph graph;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        graph = generate(vertexCount);
+    }
+
+    /**
+     * Generate a power-law graph of the provided number of vertices by preferential attachment, where every vertex
+     * has a {@code bucket} property and links to up to {@code 5} earlier vertices.
+     */
+    public static TinkerGraph generate(final int vertexCount) {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Random random = new Random(1234567890l);
+        final Vertex[] vertices = new Vertex[vertexCount];
+        // every edge adds both of its vertices to the endpoints so a uniform pick of an endpoint is proportional to degree
+        final int[] endpoints = new int[2 * EDGES_PER_VERTEX * vertexCount];
+        int size = 0;
+        for (int i = 0; i < vertexCount; i++) {
+            vertices[i] = graph.addVertex(T.id, i, "bucket", i % BUCKETS);
+            for (int j = 0; j < Math.min(i, EDGES_PER_VERTEX); j++) {
+                final int target = 0 == size ? random.nextInt(i) : endpoints[random.nextInt(size)];
+                vertices[i].addEdge("link", vertices[target]);
+                endpoints[size++] = i;
+                endpoints[size++] = target;
+            }
+        }
+        return graph;
+    }
+
+    @Override
+    protected Collection<Class<? extends Profiler>> getProfilers() {
+        return Collections.singletonList(GraphComputerProfiler.class);
+    }
+
+    @Benchmark
+    public ComputerResult testPageRank() throws Exception {
+        return submit(PageRankVertexProgram.build().create(graph));
+    }
+
+    @Benchmark
+    public ComputerResult testPeerPressure() throws Exception {
+        return submit(PeerPressureVertexProgram.build().create(graph));
+    }
+
+    @Benchmark
+    public ComputerResult testOutOutCount() throws Exception {
+        return submit(TraversalVertexProgram.build().traversal(graph.traversal().V().out().out().count().asAdmin()).create(graph));
+    }
+
+    @Benchmark
+    public ComputerResult testGroupCount() throws Exception {
+        return submit(TraversalVertexProgram.build().traversal(graph.traversal().V().out().groupCount().by("bucket").asAdmin()).create(graph));
+    }
+
+    private ComputerResult submit(final VertexProgram vertexProgram) throws Exception {
+        final GraphComputer computer = graph.compute(TinkerGraphComputer.class);
+        // the workers of a TinkerGraphComputer are bound by the available processors
+        computer.workers(Math.min(workers, computer.features().getMaxWorkers()));
+        return GraphComputerProfiler.record(computer.program(vertexProgram).submit().get());
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.spark.process.computer;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.benchmark.util.GraphComputerProfiler;
+import org.apache.tinkerpop.benchmark.util.SparkShuffleProfiler;
+import org.apache.tinkerpop.gremlin.hadoop.Constants;
+import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopGraph;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.graphson.GraphSONInputFormat;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.graphson.GraphSONOutputFormat;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo.GryoInputFormat;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo.GryoOutputFormat;
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputerBenchmark;
+import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.clustering.peerpressure.PeerPressureVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.TraversalVertexProgram;
+import org.apache.tinkerpop.gremlin.spark.structure.Spark;
+import org.apache.tinkerpop.gremlin.spark.structure.io.gryo.GryoSerializer;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.io.IoCore;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.profile.Profiler;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code SparkGraphComputerBenchmark} benchmarks the jobs of {@link GraphComputerBenchmark} on
+ * {@link SparkGraphComputer} with a {@code local[*]} master over the same generated graph, read from and written to
+ * the file system through the {@code gryo} or {@code graphson} Hadoop input and output formats.  Along with the
+ * results of the {@link GraphComputerProfiler}, the {@link SparkShuffleProfiler} adds the shuffle bytes of a job.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SparkGraphComputerBenchmark extends AbstractBenchmarkBase {
+
+    @Param({"10000", "100000"})
+    public int vertexCount;
+
+    @Param({"gryo", "graphson"})
+    public String format;
+
+    private Path directory;
+    private HadoopGraph graph;
+
+    @Setup(Level.Trial)
+    public void prepare() throws Exception {
+        directory = Files.createTempDirectory(SparkGraphComputerBenchmark.class.getSimpleName());
+        final String inputLocation = directory.resolve("input." + format).toString();
+        final TinkerGraph tinkerGraph = GraphComputerBenchmark.generate(vertexCount);
+        if (format.equals("gryo"))
+            tinkerGraph.io(IoCore.gryo()).writeGraph(inputLocation);
+        else
+            tinkerGraph.io(IoCore.graphson()).writeGraph(inputLocation);
+        final Configuration configuration = new BaseConfiguration();
+        configuration.setProperty("spark.master", "local[*]");
+        configuration.setProperty(Constants.SPARK_SERIALIZER, GryoSerializer.class.getCanonicalName());
+        configuration.setProperty(Graph.GRAPH, HadoopGraph.class.getName());
+        configuration.setProperty(Constants.GREMLIN_HADOOP_INPUT_LOCATION, inputLocation);
+        configuration.setProperty(Constants.GREMLIN_HADOOP_OUTPUT_LOCATION, directory.resolve("output").toString());
+        configuration.setProperty(Constants.GREMLIN_HADOOP_GRAPH_READER, format.equals("gryo") ? GryoInputFormat.class.getCanonicalName() : GraphSONInputFormat.class.getCanonicalName());
+        configuration.setProperty(Constants.GREMLIN_HADOOP_GRAPH_WRITER, format.equals("gryo") ? GryoOutputFormat.class.getCanonicalName() : GraphSONOutputFormat.class.getCanonicalName());
+        configuration.setProperty(Constants.GREMLIN_HADOOP_JARS_IN_DISTRIBUTED_CACHE, false);
+        // keep one context for the trial so that its listener sees the tasks of every job
+        configuration.setProperty(Constants.GREMLIN_SPARK_PERSIST_CONTEXT, true);
+        Spark.create(configuration);
+        SparkShuffleProfiler.listen(Spark.getContext());
+        graph = HadoopGraph.open(configuration);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        Spark.close();
+        Files.walk(directory).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+
+    @Override
+    protected Collection<Class<? extends Profiler>> getProfilers() {
+        return Arrays.asList(GraphComputerProfiler.class, SparkShuffleProfiler.class);
+    }
+
+    @Benchmark
+    public ComputerResult testPageRank() throws Exception {
+        return submit(PageRankVertexProgram.build().create(graph), GraphComputer.Persist.VERTEX_PROPERTIES);
+    }
+
+    @Benchmark
+    public ComputerResult testPeerPressure() throws Exception {
+        return submit(PeerPressureVertexProgram.build().create(graph), GraphComputer.Persist.VERTEX_PROPERTIES);
+    }
+
+    @Benchmark
+    public ComputerResult testOutOutCount() throws Exception {
+        return submit(TraversalVertexProgram.build().traversal(graph.traversal().V().out().out().count().asAdmin()).create(graph), GraphComputer.Persist.NOTHING);
+    }
+
+    @Benchmark
+    public ComputerResult testGroupCount() throws Exception {
+        return submit(TraversalVertexProgram.build().traversal(graph.traversal().V().out().groupCount().by("bucket").asAdmin()).create(graph), GraphComputer.Persist.NOTHING);
+    }
+
+    private ComputerResult submit(final VertexProgram vertexProgram, final GraphComputer.Persist persist) throws Exception {
+        return GraphComputerProfiler.record(graph.compute(SparkGraphComputer.class)
+                .result(GraphComputer.ResultGraph.NEW)
+                .persist(persist)
+                .program(vertexProgram).submit().get());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.structure;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.gremlin.structure.io.IoCore;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code GraphLoadBenchmark} benchmarks loading a persisted gryo file into {@link TinkerGraph} with a varying number of
+ * loader threads as set by {@link TinkerGraph#GREMLIN_TINKERGRAPH_LOAD_THREADS}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GraphLoadBenchmark extends AbstractBenchmarkBase {
+
+    private static final int VERTICES = 100000;
+    private static final int EDGES = 1000000;
+
+    @Param({"1", "2", "4", "8"})
+    public int loadThreads;
+
+    private File graphFile;
+
+    @Setup(Level.Trial)
+    public void prepare() throws IOException {
+        graphFile = File.createTempFile("graph-load-benchmark", ".kryo");
+        final TinkerGraph graph = TinkerGraph.open();
+        final Random random = new Random(1234567890l);
+        for (int i = 0; i < VERTICES; i++) {
+            graph.addVertex(T.id, i, "name", "vertex" + i, "age", random.nextInt(100));
+        }
+        for (int i = 0; i < EDGES; i++) {
+            graph.vertices(random.nextInt(VERTICES)).next().addEdge("knows",
+                    graph.vertices(random.nextInt(VERTICES)).next(), "weight", random.nextDouble());
+        }
+        graph.io(IoCore.gryo()).writeGraph(graphFile.getAbsolutePath());
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() {
+        graphFile.delete();
+    }
+
+    @Benchmark
+    public Graph testLoadGraph() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphFile.getAbsolutePath());
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_LOAD_THREADS, loadThreads);
+        // the graph is not closed as that would write it back to the file
+        return TinkerGraph.open(conf);
+    }
+}
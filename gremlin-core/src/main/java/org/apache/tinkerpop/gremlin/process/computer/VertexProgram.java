@@ -278,5 +278,17 @@ public interface VertexProgram<M> extends Cloneable {
         public default boolean requiresEdgePropertyRemoval() {
             return false;
         }
+
+        /**
+         * Whether {@link VertexProgram#execute} does nothing (no compute key updates, messages or memory updates) for
+         * a vertex that received no messages after the initial iteration.  If so, a {@link GraphComputer} may only
+         * execute the vertices that received messages in an iteration and carry the view of every other vertex over.
+         * There is no other way for a vertex to stay active, so a vertex that has to execute in the next iteration
+         * regardless has to message itself (e.g. with {@link MessageScope.Global#of(Vertex...)}).  This saves the
+         * execution of the other vertices, not necessarily the cost of the computer visiting them.
+         */
+        public default boolean executesOnlyOnIncomingMessages() {
+            return false;
+        }
     }
 }
@@ -23,9 +23,11 @@ import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.ProfileSideEffectStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SideEffectCapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.BulkSet;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserBatch;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalExplanation;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
@@ -142,9 +144,22 @@ public interface Traversal<S, E> extends Iterator<E>, Serializable, Cloneable {
             if (!this.asAdmin().isLocked()) this.asAdmin().applyStrategies();
             // use the end step so the results are bulked
             final Step<?, E> endStep = this.asAdmin().getEndStep();
-            while (true) {
-                final Traverser<E> traverser = endStep.next();
-                TraversalHelper.addToCollection(collection, traverser.get(), traverser.bulk());
+            if (endStep instanceof AbstractStep) {
+                // every result is wanted so the end step can hand them over a batch at a time
+                final TraverserBatch<E> batch = new TraverserBatch<>();
+                do {
+                    batch.clear();
+                    ((AbstractStep<?, E>) endStep).fillBatch(batch);
+                    for (int i = 0; i < batch.size(); i++) {
+                        final Traverser<E> traverser = batch.get(i);
+                        TraversalHelper.addToCollection(collection, traverser.get(), traverser.bulk());
+                    }
+                } while (0 != batch.size());
+            } else {
+                while (true) {
+                    final Traverser<E> traverser = endStep.next();
+                    TraversalHelper.addToCollection(collection, traverser.get(), traverser.bulk());
+                }
             }
         } catch (final NoSuchElementException ignored) {
         }
@@ -163,8 +178,16 @@ public interface Traversal<S, E> extends Iterator<E>, Serializable, Cloneable {
             if (!this.asAdmin().isLocked()) this.asAdmin().applyStrategies();
             // use the end step so the results are bulked
             final Step<?, E> endStep = this.asAdmin().getEndStep();
-            while (true) {
-                endStep.next();
+            if (endStep instanceof AbstractStep) {
+                final TraverserBatch<E> batch = new TraverserBatch<>();
+                do {
+                    batch.clear();
+                    ((AbstractStep<?, E>) endStep).fillBatch(batch);
+                } while (0 != batch.size());
+            } else {
+                while (true) {
+                    endStep.next();
+                }
             }
         } catch (final NoSuchElementException ignored) {
         }
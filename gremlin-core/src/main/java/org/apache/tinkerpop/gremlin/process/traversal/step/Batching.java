@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step;
+
+/**
+ * This is a marker interface stating that the {@link org.apache.tinkerpop.gremlin.process.traversal.Step} has no
+ * side-effects and so can process its traversers a {@link org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserBatch}
+ * at a time, reading ahead of what is asked of it.  A batching step pulls a batch of traversers from a previous step
+ * that is batching too, while it only pulls one traverser at a time from a step that is not, so chains of batching
+ * steps (e.g. {@code out().has().values()}) hand arrays of traversers to each other and every other step keeps its
+ * lazy, one-at-a-time evaluation.  Batches are only pulled by a consumer that batches itself (i.e. another batching
+ * step or {@link org.apache.tinkerpop.gremlin.process.traversal.Traversal#fill} and
+ * {@link org.apache.tinkerpop.gremlin.process.traversal.Traversal#iterate} which drain the traversal anyway) so that a
+ * step that is iterated with {@code next()} is never evaluated ahead of what is asked of it.
+ * <p/>
+ * The marker is not inherited: only a step whose own class implements it batches.  A subclass of a batching step
+ * (e.g. the {@code GraphStep} of a provider) has to declare it again, and if it overrides
+ * {@link org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep#processNextStart()} it should override
+ * {@link org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep#processNextBatch} as well.
+ */
+public interface Batching {
+
+}
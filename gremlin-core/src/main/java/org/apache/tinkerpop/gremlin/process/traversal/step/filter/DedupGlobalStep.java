@@ -29,6 +29,9 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.GraphComputing;
 import org.apache.tinkerpop.gremlin.process.traversal.step.PathProcessor;
 import org.apache.tinkerpop.gremlin.process.traversal.step.Scoping;
 import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.DedupSet;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.DedupStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalUtil;
@@ -53,7 +56,7 @@ import java.util.function.BinaryOperator;
 public final class DedupGlobalStep<S> extends FilterStep<S> implements TraversalParent, Scoping, GraphComputing, Barrier<Map<Object, Traverser.Admin<S>>>, ByModulating, PathProcessor {
 
     private Traversal.Admin<S, Object> dedupTraversal = null;
-    private Set<Object> duplicateSet = new HashSet<>();
+    private DedupSet duplicateSet = null;
     private boolean onGraphComputer = false;
     private final Set<String> dedupLabels;
 
@@ -62,12 +65,33 @@ public final class DedupGlobalStep<S> extends FilterStep<S> implements Traversal
         this.dedupLabels = dedupLabels.length == 0 ? null : Collections.unmodifiableSet(new HashSet<>(Arrays.asList(dedupLabels)));
     }
 
+    @Override
+    protected Traverser.Admin<S> processNextStart() {
+        try {
+            return super.processNextStart();
+        } catch (final NoSuchElementException e) {
+            // a child traversal can be given more starts so it keeps its keys, but a root traversal is done with them
+            if (null != this.duplicateSet) {
+                if (this.getTraversal().getParent() instanceof EmptyStep)
+                    this.duplicateSet.close();
+                else
+                    this.duplicateSet.release();
+            }
+            throw e;
+        }
+    }
+
     @Override
     protected boolean filter(final Traverser.Admin<S> traverser) {
         if (this.onGraphComputer) return true;
         traverser.setBulk(1);
+        if (null == this.duplicateSet)
+            this.duplicateSet = DedupStrategy.createDedupSet(this.getTraversal().getStrategies());
         if (null == this.dedupLabels) {
             return this.duplicateSet.add(TraversalUtil.applyNullable(traverser, this.dedupTraversal));
+        } else if (1 == this.dedupLabels.size()) {
+            // a single label needs no list to hold it, which would also keep the key from being held as a primitive
+            return this.duplicateSet.add(TraversalUtil.applyNullable((S) this.getScopeValue(Pop.last, this.dedupLabels.iterator().next(), traverser), this.dedupTraversal));
         } else {
             final List<Object> objects = new ArrayList<>(this.dedupLabels.size());
             this.dedupLabels.forEach(label -> objects.add(TraversalUtil.applyNullable((S) this.getScopeValue(Pop.last, label, traverser), this.dedupTraversal)));
@@ -93,7 +117,7 @@ public final class DedupGlobalStep<S> extends FilterStep<S> implements Traversal
     @Override
     public DedupGlobalStep<S> clone() {
         final DedupGlobalStep<S> clone = (DedupGlobalStep<S>) super.clone();
-        clone.duplicateSet = new HashSet<>();
+        clone.duplicateSet = null;
         if (null != this.dedupTraversal)
             clone.dedupTraversal = this.dedupTraversal.clone();
         return clone;
@@ -118,7 +142,8 @@ public final class DedupGlobalStep<S> extends FilterStep<S> implements Traversal
     @Override
     public void reset() {
         super.reset();
-        this.duplicateSet.clear();
+        if (null != this.duplicateSet)
+            this.duplicateSet.clear();
     }
 
     @Override
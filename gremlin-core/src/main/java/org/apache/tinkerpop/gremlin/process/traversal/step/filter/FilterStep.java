@@ -21,6 +21,8 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.filter;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserBatch;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -40,5 +42,20 @@ public abstract class FilterStep<S> extends AbstractStep<S, S> {
         }
     }
 
+    @Override
+    protected void processNextBatch(final TraverserBatch<S> batch) {
+        final int from = batch.size();
+        this.starts.fillBatch(batch);
+        if (from == batch.size())
+            throw FastNoSuchElementException.instance();
+        int to = from;
+        for (int i = from; i < batch.size(); i++) {
+            final Traverser.Admin<S> traverser = batch.get(i);
+            if (this.filter(traverser))
+                batch.set(to++, traverser);
+        }
+        batch.truncate(to);
+    }
+
     protected abstract boolean filter(final Traverser.Admin<S> traverser);
 }
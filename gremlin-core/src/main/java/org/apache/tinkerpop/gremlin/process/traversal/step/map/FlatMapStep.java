@@ -21,6 +21,8 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.map;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserBatch;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
 import org.apache.tinkerpop.gremlin.util.iterator.EmptyIterator;
 
 import java.util.Iterator;
@@ -32,6 +34,7 @@ public abstract class FlatMapStep<S, E> extends AbstractStep<S, E> {
 
     private Traverser.Admin<S> head = null;
     private Iterator<E> iterator = EmptyIterator.instance();
+    private transient TraverserBatch<S> heads = null;
 
     public FlatMapStep(final Traversal.Admin traversal) {
         super(traversal);
@@ -43,7 +46,32 @@ public abstract class FlatMapStep<S, E> extends AbstractStep<S, E> {
             if (this.iterator.hasNext()) {
                 return this.head.split(this.iterator.next(), this);
             } else {
-                this.head = this.starts.next();
+                // starts left over from a batch come first
+                this.head = null != this.heads && this.heads.hasNext() ? this.heads.next() : this.starts.next();
+                this.iterator = this.flatMap(this.head);
+            }
+        }
+    }
+
+    @Override
+    protected void processNextBatch(final TraverserBatch<E> batch) {
+        final int from = batch.size();
+        while (!batch.isFull()) {
+            if (this.iterator.hasNext()) {
+                batch.add(this.head.split(this.iterator.next(), this));
+            } else {
+                if (null == this.heads)
+                    this.heads = new TraverserBatch<>();
+                if (!this.heads.hasNext()) {
+                    // only pull more starts when there is nothing to hand on yet
+                    if (from != batch.size())
+                        return;
+                    this.heads.clear();
+                    this.starts.fillBatch(this.heads);
+                    if (!this.heads.hasNext())
+                        throw FastNoSuchElementException.instance();
+                }
+                this.head = this.heads.next();
                 this.iterator = this.flatMap(this.head);
             }
         }
@@ -55,5 +83,15 @@ public abstract class FlatMapStep<S, E> extends AbstractStep<S, E> {
     public void reset() {
         super.reset();
         this.iterator = EmptyIterator.instance();
+        // a clone is reset while it still shares the heads of this step, so they are dropped rather than cleared
+        if (null != this.heads && this.heads.hasNext())
+            this.heads = null;
+    }
+
+    @Override
+    public FlatMapStep<S, E> clone() {
+        final FlatMapStep<S, E> clone = (FlatMapStep<S, E>) super.clone();
+        clone.heads = null;
+        return clone;
     }
 }
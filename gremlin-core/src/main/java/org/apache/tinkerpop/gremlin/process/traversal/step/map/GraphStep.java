@@ -24,6 +24,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.Contains;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Batching;
 import org.apache.tinkerpop.gremlin.process.traversal.step.GraphComputing;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
@@ -45,11 +46,12 @@ import java.util.function.Supplier;
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  * @author Pieter Martin
  */
-public class GraphStep<S, E extends Element> extends AbstractStep<S, E> implements GraphComputing {
+public class GraphStep<S, E extends Element> extends AbstractStep<S, E> implements GraphComputing, Batching {
 
     protected final Class<E> returnClass;
     protected Object[] ids;
     protected transient Supplier<Iterator<E>> iteratorSupplier;
+    private transient boolean defaultIteratorSupplier;
     protected boolean isStart;
     protected boolean done = false;
     private Traverser.Admin<S> head = null;
@@ -61,7 +63,12 @@ public class GraphStep<S, E extends Element> extends AbstractStep<S, E> implemen
         this.returnClass = returnClass;
         this.ids = (ids.length == 1 && ids[0] instanceof Collection) ? ((Collection) ids[0]).toArray(new Object[((Collection) ids[0]).size()]) : ids;
         this.isStart = isStart;
-        this.iteratorSupplier = () -> (Iterator<E>) (Vertex.class.isAssignableFrom(this.returnClass) ?
+        this.iteratorSupplier = this.createDefaultIteratorSupplier();
+        this.defaultIteratorSupplier = true;
+    }
+
+    private Supplier<Iterator<E>> createDefaultIteratorSupplier() {
+        return () -> (Iterator<E>) (Vertex.class.isAssignableFrom(this.returnClass) ?
                 this.getTraversal().getGraph().get().vertices(this.ids) :
                 this.getTraversal().getGraph().get().edges(this.ids));
     }
@@ -90,8 +97,14 @@ public class GraphStep<S, E extends Element> extends AbstractStep<S, E> implemen
         return this.returnClass.equals(Edge.class);
     }
 
+    /**
+     * Sets the {@code Supplier} of the elements of this step.  A supplier that refers to the step that it was set on
+     * (e.g. to read its ids) needs to be set again on clones of the step by overriding {@link #clone()}, otherwise the
+     * clone will iterate the elements of the step it was cloned from.
+     */
     public void setIteratorSupplier(final Supplier<Iterator<E>> iteratorSupplier) {
         this.iteratorSupplier = iteratorSupplier;
+        this.defaultIteratorSupplier = false;
     }
 
     public Object[] getIds() {
@@ -111,7 +124,7 @@ public class GraphStep<S, E extends Element> extends AbstractStep<S, E> implemen
 
     @Override
     public void onGraphComputer() {
-        this.iteratorSupplier = Collections::emptyIterator;
+        this.setIteratorSupplier(Collections::emptyIterator);
         convertElementsToIds();
     }
 
@@ -151,6 +164,15 @@ public class GraphStep<S, E extends Element> extends AbstractStep<S, E> implemen
         this.iterator = EmptyIterator.instance();
     }
 
+    @Override
+    public GraphStep<S, E> clone() {
+        final GraphStep<S, E> clone = (GraphStep<S, E>) super.clone();
+        clone.ids = this.ids.clone();
+        if (this.defaultIteratorSupplier)
+            clone.iteratorSupplier = clone.createDefaultIteratorSupplier();
+        return clone;
+    }
+
 
     @Override
     public int hashCode() {
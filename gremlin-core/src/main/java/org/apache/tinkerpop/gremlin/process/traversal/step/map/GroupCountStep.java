@@ -24,6 +24,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.ByModulating;
 import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.MapHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ObjectLongHashMap;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalUtil;
@@ -44,6 +45,8 @@ import java.util.function.BinaryOperator;
 public final class GroupCountStep<S, E> extends ReducingBarrierStep<S, Map<E, Long>> implements TraversalParent, ByModulating {
 
     private Traversal.Admin<S, E> keyTraversal = null;
+    // the number of keys last counted which sizes the counters when the step is reset and iterated again
+    private int lastSize = 0;
 
     public GroupCountStep(final Traversal.Admin traversal) {
         super(traversal);
@@ -58,6 +61,23 @@ public final class GroupCountStep<S, E> extends ReducingBarrierStep<S, Map<E, Lo
         return map;
     }
 
+    @Override
+    protected Map<E, Long> reduceStarts(final Map<E, Long> seed) {
+        if (!this.starts.hasNext())
+            return seed;
+        // count into primitive counters rather than a single entry map per traverser and a boxed Long per increment
+        final ObjectLongHashMap<E> counts = new ObjectLongHashMap<>(Math.max(seed.size(), this.lastSize));
+        while (this.starts.hasNext()) {
+            final Traverser.Admin<S> traverser = this.starts.next();
+            counts.add(TraversalUtil.applyNullable(traverser, this.keyTraversal), traverser.bulk());
+        }
+        this.lastSize = counts.size();
+        if (seed.isEmpty())
+            return counts.toMap();
+        counts.forEach((key, count) -> MapHelper.incr(seed, key, count));
+        return seed;
+    }
+
     @Override
     public void addLocalChild(final Traversal.Admin<?, ?> groupTraversal) {
         this.keyTraversal = this.integrateChild(groupTraversal);
@@ -32,6 +32,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.ByModulating;
 import org.apache.tinkerpop.gremlin.process.traversal.step.LambdaHolder;
 import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ObjectLongHashMap;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
@@ -101,6 +102,57 @@ public final class GroupStep<S, K, V> extends ReducingBarrierStep<S, Map<K, V>>
         return map;
     }
 
+    @Override
+    protected Map<K, V> reduceStarts(final Map<K, V> seed) {
+        final ReducingBarrierStep barrierStep = this.getReducingValueBarrier();
+        if (null == barrierStep || !this.starts.hasNext())
+            return super.reduceStarts(seed);
+        // the value of each key is reduced into a running seed of the value traversal's barrier rather than being
+        // buffered as traversers, so memory is bounded by the number of keys and not by the number of traversers
+        final Map<K, Object> reduced;
+        if (null == this.preTraversal && barrierStep instanceof CountGlobalStep && this.valueTraversal.getSteps().size() == 1) {
+            final ObjectLongHashMap<K> counts = new ObjectLongHashMap<>();
+            while (this.starts.hasNext()) {
+                final Traverser.Admin<S> traverser = this.starts.next();
+                counts.add(TraversalUtil.applyNullable(traverser, this.keyTraversal), traverser.bulk());
+            }
+            reduced = new HashMap<>(counts.size() * 2);
+            counts.forEach(reduced::put);
+        } else {
+            reduced = new HashMap<>();
+            while (this.starts.hasNext()) {
+                final Traverser.Admin<S> traverser = this.starts.next();
+                final K key = TraversalUtil.applyNullable(traverser, this.keyTraversal);
+                if (null == this.preTraversal)
+                    reduceValue(reduced, key, barrierStep, traverser);
+                else {
+                    this.preTraversal.reset();
+                    this.preTraversal.addStart(traverser);
+                    final Step<?, ?> endStep = this.preTraversal.getEndStep();
+                    while (endStep.hasNext()) {
+                        reduceValue(reduced, key, barrierStep, endStep.next());
+                    }
+                }
+            }
+        }
+        return seed.isEmpty() ? (Map<K, V>) reduced : this.reducingBiOperator.apply(seed, (Map<K, V>) reduced);
+    }
+
+    private static <K> void reduceValue(final Map<K, Object> reduced, final K key, final ReducingBarrierStep barrierStep, final Traverser.Admin traverser) {
+        final Object value = reduced.get(key);
+        reduced.put(key, barrierStep.getBiOperator().apply(null == value ? barrierStep.getSeedSupplier().get() : value, barrierStep.projectTraverser(traverser)));
+    }
+
+    /**
+     * Get the {@link ReducingBarrierStep} of the value traversal if each value can be reduced as its traversers arrive.
+     */
+    private ReducingBarrierStep getReducingValueBarrier() {
+        if (TraversalHelper.hasStepOfAssignableClassRecursively(LambdaHolder.class, this.valueTraversal))
+            return null;
+        final Barrier barrier = TraversalHelper.getFirstStepOfAssignableClass(Barrier.class, this.valueTraversal).orElse(null);
+        return barrier instanceof ReducingBarrierStep ? (ReducingBarrierStep) barrier : null;
+    }
+
     @Override
     public String toString() {
         return StringFactory.stepString(this, this.keyTraversal, this.valueTraversal);
@@ -127,6 +179,8 @@ public final class GroupStep<S, K, V> extends ReducingBarrierStep<S, Map<K, V>>
             clone.keyTraversal = this.keyTraversal.clone();
         clone.valueTraversal = this.valueTraversal.clone();
         clone.preTraversal = this.integrateChild(GroupStep.generatePreTraversal(clone.valueTraversal));
+        // the bi-operator reduces with the value traversal, so clones that reduce concurrently can not share it
+        clone.setReducingBiOperator(new GroupBiOperator<>(clone.valueTraversal));
         return clone;
     }
 
@@ -21,6 +21,8 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.map;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserBatch;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -37,6 +39,19 @@ public abstract class MapStep<S, E> extends AbstractStep<S, E> {
         return traverser.split(this.map(traverser), this);
     }
 
+    @Override
+    protected void processNextBatch(final TraverserBatch<E> batch) {
+        // the starts are mapped in place
+        final int from = batch.size();
+        this.starts.fillBatch((TraverserBatch) batch);
+        if (from == batch.size())
+            throw FastNoSuchElementException.instance();
+        for (int i = from; i < batch.size(); i++) {
+            final Traverser.Admin<S> traverser = (Traverser.Admin) batch.get(i);
+            batch.set(i, traverser.split(this.map(traverser), this));
+        }
+    }
+
     protected abstract E map(final Traverser.Admin<S> traverser);
 
 }
@@ -28,6 +28,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.ComparatorHolder;
 import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.CollectingBarrierStep;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TopKTraverserHeap;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.util.function.ChainedComparator;
@@ -56,11 +57,23 @@ public final class OrderGlobalStep<S, C extends Comparable> extends CollectingBa
         super(traversal);
     }
 
+    @Override
+    public void processAllStarts() {
+        if (Long.MAX_VALUE == this.limit || this.getChainedComparator().isShuffle()) {
+            super.processAllStarts();
+        } else if (this.starts.hasNext()) {
+            // only the first traversers up to the limit can make it past the range step that follows, so keep those
+            final TopKTraverserHeap<S> heap = new TopKTraverserHeap<>((Comparator) this.chainedComparator, this.limit);
+            heap.addAll(this.traverserSet);
+            this.traverserSet.clear();
+            this.starts.forEachRemaining(heap::add);
+            heap.drainTo(this.traverserSet);
+        }
+    }
+
     @Override
     public void barrierConsumer(final TraverserSet<S> traverserSet) {
-        if (null == this.chainedComparator)
-            this.chainedComparator = new ChainedComparator<>(true, this.comparators);
-        if (this.chainedComparator.isShuffle())
+        if (this.getChainedComparator().isShuffle())
             traverserSet.shuffle();
         else
             traverserSet.sort((Comparator) this.chainedComparator);
@@ -137,9 +150,13 @@ public final class OrderGlobalStep<S, C extends Comparable> extends CollectingBa
 
     @Override
     public MemoryComputeKey<TraverserSet<S>> getMemoryComputeKey() {
+        return MemoryComputeKey.of(this.getId(), new OrderBiOperator<>(this.getChainedComparator(), this.limit), false, true);
+    }
+
+    private ChainedComparator<S, C> getChainedComparator() {
         if (null == this.chainedComparator)
             this.chainedComparator = new ChainedComparator<>(true, this.comparators);
-        return MemoryComputeKey.of(this.getId(), new OrderBiOperator<>(this.chainedComparator, this.limit), false, true);
+        return this.chainedComparator;
     }
 
     ////////////////
@@ -162,10 +179,14 @@ public final class OrderGlobalStep<S, C extends Comparable> extends CollectingBa
         public TraverserSet<S> apply(final TraverserSet<S> setA, final TraverserSet<S> setB) {
             setA.addAll(setB);
             if (Long.MAX_VALUE != this.limit && setA.bulkSize() > this.limit) {
-                if (this.chainedComparator.isShuffle())
-                    setA.shuffle();
-                else
-                    setA.sort(this.chainedComparator);
+                if (!this.chainedComparator.isShuffle()) {
+                    final TopKTraverserHeap<S> heap = new TopKTraverserHeap<>(this.chainedComparator, this.limit);
+                    heap.addAll(setA);
+                    setA.clear();
+                    heap.drainTo(setA);
+                    return setA;
+                }
+                setA.shuffle();
                 long counter = 0l;
                 final Iterator<Traverser.Admin<S>> traversers = setA.iterator();
                 while (traversers.hasNext()) {
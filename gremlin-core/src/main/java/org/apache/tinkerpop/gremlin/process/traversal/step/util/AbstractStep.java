@@ -21,10 +21,13 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.util;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Batching;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserBatch;
 import org.apache.tinkerpop.gremlin.process.traversal.util.EmptyTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -37,12 +40,25 @@ import java.util.Set;
  */
 public abstract class AbstractStep<S, E> implements Step<S, E> {
 
+    /**
+     * A step batches if its own class is marked as {@link Batching}.  The marker is not inherited, so a subclass
+     * (e.g. the {@code GraphStep} of a provider) has to declare it again as it may override
+     * {@link #processNextStart()} without overriding {@link #processNextBatch}.
+     */
+    private static final ClassValue<Boolean> BATCHING = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            return Arrays.asList(type.getInterfaces()).contains(Batching.class);
+        }
+    };
+
     protected Set<String> labels = new LinkedHashSet<>();
     protected String id = Traverser.Admin.HALT;
     protected Traversal.Admin traversal;
     protected ExpandableStepIterator<S> starts;
     protected Traverser.Admin<E> nextEnd = null;
     protected boolean traverserStepIdAndLabelsSetByChild = false;
+    private final boolean batching = BATCHING.get(this.getClass());
 
     protected Step<?, S> previousStep = EmptyStep.instance();
     protected Step<E, ?> nextStep = EmptyStep.instance();
@@ -152,6 +168,60 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
         }
     }
 
+    /**
+     * Add the next traversers of this step to the batch until it is full, where no traversers added means that the
+     * step has no more.  A {@link Batching} step processes the traversers a batch at a time, while any other step
+     * adds at most one traverser so as to not be evaluated ahead of what is asked of it.  This is only called by
+     * consumers that batch themselves, as {@link #next()} and {@link #hasNext()} never read ahead.
+     */
+    public void fillBatch(final TraverserBatch<E> batch) {
+        if (batch.isFull())
+            return;
+        if (!this.batching) {
+            if (this.hasNext())
+                batch.add(this.next());
+            return;
+        }
+        final int size = batch.size();
+        if (null != this.nextEnd) {
+            batch.add(this.prepareTraversalForNextStep(this.nextEnd));
+            this.nextEnd = null;
+        }
+        while (size == batch.size()) {
+            if (Thread.interrupted()) throw new TraversalInterruptedException();
+            final int from = batch.size();
+            try {
+                this.processNextBatch(batch);
+            } catch (final NoSuchElementException e) {
+                return;
+            }
+            int to = from;
+            for (int i = from; i < batch.size(); i++) {
+                final Traverser.Admin<E> traverser = batch.get(i);
+                if (null != traverser.get() && 0 != traverser.bulk())
+                    batch.set(to++, this.prepareTraversalForNextStep(traverser));
+            }
+            batch.truncate(to);
+        }
+    }
+
+    /**
+     * Add the traversers that follow from processing the next starts of a {@link Batching} step to the batch, without
+     * going past its capacity.  An implementation may add no traversers at all (e.g. when filtering) but has to
+     * throw a {@link NoSuchElementException} when there are no more starts to process.  By default, this calls
+     * {@link #processNextStart()} until the batch is full or the starts run out.
+     */
+    protected void processNextBatch(final TraverserBatch<E> batch) throws NoSuchElementException {
+        batch.add(this.processNextStart());
+        try {
+            while (!batch.isFull()) {
+                batch.add(this.processNextStart());
+            }
+        } catch (final NoSuchElementException e) {
+            // the next call to processNextBatch() will throw it again
+        }
+    }
+
     @Override
     public <A, B> Traversal.Admin<A, B> getTraversal() {
         return this.traversal;
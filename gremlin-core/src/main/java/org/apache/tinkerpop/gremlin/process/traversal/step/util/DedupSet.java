@@ -0,0 +1,536 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The set of keys that a {@link org.apache.tinkerpop.gremlin.process.traversal.step.filter.DedupGlobalStep} has seen.
+ * Keys that are {@code Long} or {@code Integer} values or elements with {@code Long} or {@code Integer} identifiers
+ * are held in a {@link LongHashSet} per kind of key (e.g. vertices with {@code Long} identifiers), which is how
+ * {@link Element#equals(Object)} compares them.  All other keys are held in a {@code HashSet}.  A {@code DedupSet} is
+ * in one of three modes:
+ * <ul>
+ * <li>exact - every key is held in memory, which is the default.</li>
+ * <li>spilling - once the estimated size of the keys exceeds a memory budget, the primitive keys are written to a
+ * sorted run file.  A key is looked up in a run through a Bloom filter, then a sparse index held in memory and then
+ * a single read of a block of the file.  Keys that are not primitive are always held in memory.</li>
+ * <li>approximate - keys are only recorded in a Bloom filter of a fixed size, so the memory does not grow with the
+ * number of keys but a key that was not seen is taken for a duplicate with the configured probability.</li>
+ * </ul>
+ * The run files are deleted once they are merged into a larger run and when the set is cleared or closed.
+ */
+public final class DedupSet implements AutoCloseable {
+
+    private static final int LONG = 0;
+    private static final int VERTEX = 2;
+    private static final int EDGE = 4;
+    private static final int VERTEX_PROPERTY = 6;
+    private static final int CATEGORIES = 8;
+    private static final int OBJECT = -1;
+
+    // a rough size of a boxed key and its entry in a hash set
+    private static final long OBJECT_ENTRY_SIZE = 64l;
+    private static final int MINIMUM_SPILL_SIZE = 4096;
+    private static final int MAX_RUNS = 8;
+    private static final double RUN_FALSE_POSITIVE_PROBABILITY = 0.01d;
+    private static final int BLOCK_SIZE = 512;
+
+    private final LongHashSet[] primitives = new LongHashSet[CATEGORIES];
+    private final Set<Object> objects = new HashSet<>();
+    private final BloomFilter approximate;
+    private final long memoryBudget;
+    private final File spillDirectory;
+    private final List<Run> runs = new ArrayList<>();
+
+    /**
+     * Create an exact set with no memory budget.
+     */
+    public DedupSet() {
+        this(Long.MAX_VALUE, null);
+    }
+
+    /**
+     * Create an exact set that spills its primitive keys to files in the directory once their estimated size exceeds
+     * the budget.
+     */
+    public DedupSet(final long memoryBudget, final File spillDirectory) {
+        if (memoryBudget <= 0l)
+            throw new IllegalArgumentException("The memory budget of the dedup set must be positive: " + memoryBudget);
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = spillDirectory;
+        this.approximate = null;
+    }
+
+    private DedupSet(final BloomFilter approximate) {
+        this.memoryBudget = Long.MAX_VALUE;
+        this.spillDirectory = null;
+        this.approximate = approximate;
+    }
+
+    /**
+     * Create an approximate set which takes a key that was not seen before for a duplicate with the given probability
+     * as long as it holds no more than the expected number of keys.
+     */
+    public static DedupSet approximate(final double falsePositiveProbability, final long expectedInsertions) {
+        return new DedupSet(new BloomFilter(expectedInsertions, falsePositiveProbability));
+    }
+
+    /**
+     * Add the key and return {@code true} if it was not seen before.
+     */
+    public boolean add(final Object key) {
+        final int category = category(key);
+        if (null != this.approximate)
+            return this.approximate.add(OBJECT == category ? hash(key) : hash(category, value(key, category)));
+
+        if (OBJECT == category)
+            return this.objects.add(key);
+
+        final long value = value(key, category);
+        if (null == this.primitives[category])
+            this.primitives[category] = new LongHashSet();
+        final LongHashSet set = this.primitives[category];
+        if (set.contains(value))
+            return false;
+        for (final Run run : this.runs) {
+            if (run.contains(category, value))
+                return false;
+        }
+        set.add(value);
+        if (Long.MAX_VALUE != this.memoryBudget && this.memorySize() > this.memoryBudget)
+            this.spill();
+        return true;
+    }
+
+    /**
+     * The number of run files the primitive keys are spilled to.
+     */
+    public int getRunCount() {
+        return this.runs.size();
+    }
+
+    /**
+     * Close the files that lookups have opened to read the runs, which are opened again by the next lookup.  The keys
+     * are kept.
+     */
+    public void release() {
+        this.runs.forEach(Run::release);
+    }
+
+    /**
+     * Same as {@link #clear()}.
+     */
+    @Override
+    public void close() {
+        this.clear();
+    }
+
+    /**
+     * Remove all keys and delete the run files.
+     */
+    public void clear() {
+        for (int i = 0; i < CATEGORIES; i++) {
+            this.primitives[i] = null;
+        }
+        this.objects.clear();
+        if (null != this.approximate)
+            this.approximate.clear();
+        this.runs.forEach(Run::delete);
+        this.runs.clear();
+    }
+
+    private long memorySize() {
+        long size = this.objects.size() * OBJECT_ENTRY_SIZE;
+        for (final LongHashSet set : this.primitives) {
+            if (null != set) size = size + set.memorySize();
+        }
+        for (final Run run : this.runs) {
+            size = size + run.filter.memorySize();
+        }
+        return size;
+    }
+
+    private void spill() {
+        long count = 0l;
+        for (final LongHashSet set : this.primitives) {
+            if (null != set) count = count + set.size();
+        }
+        // the keys that can not be spilled are over the budget on their own so spilling would only make tiny runs
+        if (count < MINIMUM_SPILL_SIZE)
+            return;
+
+        final RunWriter writer = new RunWriter(count);
+        try {
+            for (int category = 0; category < CATEGORIES; category++) {
+                writer.startCategory(category);
+                if (null != this.primitives[category]) {
+                    for (final long value : this.primitives[category].toSortedArray()) {
+                        writer.write(category, value);
+                    }
+                    this.primitives[category] = null;
+                }
+            }
+        } catch (final IOException e) {
+            writer.abandon();
+            throw new IllegalStateException(String.format("Could not spill dedup keys to %s", writer.file), e);
+        }
+        this.runs.add(writer.finish());
+        if (this.runs.size() > MAX_RUNS) {
+            // merge the newest runs back to the first that is larger than all of them together so that the runs keep
+            // growing geometrically and a key is only rewritten a logarithmic number of times
+            int first = this.runs.size() - 1;
+            long newer = this.runs.get(first).size();
+            while (first > 0 && this.runs.get(first - 1).size() <= newer) {
+                first--;
+                newer = newer + this.runs.get(first).size();
+            }
+            this.merge(this.runs.subList(Math.min(first, this.runs.size() - 2), this.runs.size()));
+        }
+    }
+
+    /**
+     * Merges the runs into one, which is possible in a single pass because each run is sorted by category and then by
+     * value and no value is in more than one run.
+     */
+    private void merge(final List<Run> runs) {
+        long count = 0l;
+        for (final Run run : runs) {
+            count = count + run.size();
+        }
+        final RunWriter writer = new RunWriter(count);
+        final List<DataInputStream> ins = new ArrayList<>(runs.size());
+        try {
+            for (final Run run : runs) {
+                ins.add(new DataInputStream(new BufferedInputStream(new FileInputStream(run.file))));
+            }
+            final long[] remaining = new long[runs.size()];
+            final long[] heads = new long[runs.size()];
+            for (int category = 0; category < CATEGORIES; category++) {
+                writer.startCategory(category);
+                for (int i = 0; i < remaining.length; i++) {
+                    final Run run = runs.get(i);
+                    remaining[i] = run.starts[category + 1] - run.starts[category];
+                    if (remaining[i] > 0l) heads[i] = ins.get(i).readLong();
+                }
+                while (true) {
+                    int min = -1;
+                    for (int i = 0; i < remaining.length; i++) {
+                        if (remaining[i] > 0l && (-1 == min || heads[i] < heads[min]))
+                            min = i;
+                    }
+                    if (-1 == min)
+                        break;
+                    writer.write(category, heads[min]);
+                    if (--remaining[min] > 0l) heads[min] = ins.get(min).readLong();
+                }
+            }
+        } catch (final IOException e) {
+            writer.abandon();
+            throw new IllegalStateException(String.format("Could not merge dedup runs to %s", writer.file), e);
+        } finally {
+            for (final DataInputStream in : ins) {
+                try {
+                    in.close();
+                } catch (final IOException ignored) {
+                    // the run is deleted below
+                }
+            }
+        }
+        final Run merged = writer.finish();
+        runs.forEach(Run::delete);
+        runs.clear();
+        runs.add(merged);
+    }
+
+    private File createRunFile() {
+        try {
+            return File.createTempFile("gremlin-dedup-", ".run", this.spillDirectory);
+        } catch (final IOException e) {
+            throw new IllegalStateException(String.format("Could not create a dedup run file in %s",
+                    null == this.spillDirectory ? System.getProperty("java.io.tmpdir") : this.spillDirectory), e);
+        }
+    }
+
+    private static int category(final Object key) {
+        if (key instanceof Long)
+            return LONG;
+        else if (key instanceof Integer)
+            return LONG + 1;
+        else if (key instanceof Element) {
+            final Object id = ((Element) key).id();
+            final int offset = id instanceof Long ? 0 : id instanceof Integer ? 1 : OBJECT;
+            if (OBJECT == offset)
+                return OBJECT;
+            else if (key instanceof Vertex)
+                return VERTEX + offset;
+            else if (key instanceof Edge)
+                return EDGE + offset;
+            else if (key instanceof VertexProperty)
+                return VERTEX_PROPERTY + offset;
+        }
+        return OBJECT;
+    }
+
+    private static long value(final Object key, final int category) {
+        return ((Number) (category < VERTEX ? key : ((Element) key).id())).longValue();
+    }
+
+    private static long hash(final int category, final long value) {
+        return LongHashSet.mix64(value + category * 0x9e3779b97f4a7c15l);
+    }
+
+    private static long hash(final Object key) {
+        if (null == key)
+            return 0l;
+        final int category = category(key);
+        if (OBJECT != category)
+            return hash(category, value(key, category));
+        if (key instanceof String) {
+            // a 64 bit hash as the 32 bit hash code collides too often once there are hundreds of millions of keys
+            long hash = 0xcbf29ce484222325l;
+            final String string = (String) key;
+            for (int i = 0; i < string.length(); i++) {
+                hash = (hash ^ string.charAt(i)) * 0x100000001b3l;
+            }
+            return LongHashSet.mix64(hash);
+        } else if (key instanceof List) {
+            long hash = 1l;
+            for (final Object object : (List<?>) key) {
+                hash = 31l * hash + hash(object);
+            }
+            return LongHashSet.mix64(hash);
+        } else if (key instanceof Element) {
+            final int kind = key instanceof Vertex ? VERTEX : key instanceof Edge ? EDGE : VERTEX_PROPERTY;
+            return LongHashSet.mix64(hash(((Element) key).id()) + kind * 0x9e3779b97f4a7c15l);
+        } else
+            return LongHashSet.mix64(key.hashCode());
+    }
+
+    /**
+     * Writes the values of a run in order of category and value, sampling every {@link #BLOCK_SIZE}th value of each
+     * category into an index that is kept in memory.
+     */
+    private final class RunWriter {
+        private final File file;
+        private final DataOutputStream out;
+        private final BloomFilter filter;
+        private final long[] starts = new long[CATEGORIES + 1];
+        private final long[][] index = new long[CATEGORIES][];
+        private final List<Long> samples = new ArrayList<>();
+        private int category = -1;
+        private long position = 0l;
+
+        private RunWriter(final long count) {
+            this.file = createRunFile();
+            try {
+                this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(this.file)));
+            } catch (final IOException e) {
+                this.file.delete();
+                throw new IllegalStateException(String.format("Could not open dedup run %s", this.file), e);
+            }
+            this.filter = new BloomFilter(count, RUN_FALSE_POSITIVE_PROBABILITY);
+        }
+
+        private void startCategory(final int category) {
+            this.endCategory();
+            this.category = category;
+            this.starts[category] = this.position;
+        }
+
+        private void write(final int category, final long value) throws IOException {
+            if (0l == (this.position - this.starts[category]) % BLOCK_SIZE)
+                this.samples.add(value);
+            this.out.writeLong(value);
+            this.filter.add(hash(category, value));
+            this.position++;
+        }
+
+        private void endCategory() {
+            if (-1 != this.category) {
+                this.index[this.category] = this.samples.stream().mapToLong(Long::longValue).toArray();
+                this.samples.clear();
+            }
+        }
+
+        private Run finish() {
+            this.endCategory();
+            this.starts[CATEGORIES] = this.position;
+            try {
+                this.out.close();
+            } catch (final IOException e) {
+                this.file.delete();
+                throw new IllegalStateException(String.format("Could not write dedup run %s", this.file), e);
+            }
+            return new Run(this.file, this.starts, this.index, this.filter);
+        }
+
+        private void abandon() {
+            try {
+                this.out.close();
+            } catch (final IOException ignored) {
+                // the file is deleted regardless
+            }
+            this.file.delete();
+        }
+    }
+
+    private static final class Run {
+        private final File file;
+        // the position of the first value of each category with the number of values at the end
+        private final long[] starts;
+        private final long[][] index;
+        private final BloomFilter filter;
+        private final ByteBuffer block = ByteBuffer.allocate(8 * BLOCK_SIZE);
+        private RandomAccessFile reader;
+
+        private Run(final File file, final long[] starts, final long[][] index, final BloomFilter filter) {
+            this.file = file;
+            this.starts = starts;
+            this.index = index;
+            this.filter = filter;
+        }
+
+        private long size() {
+            return this.starts[CATEGORIES];
+        }
+
+        private boolean contains(final int category, final long value) {
+            if (!this.filter.mightContain(hash(category, value)))
+                return false;
+            final long[] samples = this.index[category];
+            int block = Arrays.binarySearch(samples, value);
+            if (block >= 0)
+                return true;
+            block = -block - 2;
+            if (block < 0)
+                return false;
+            // the value can only be in the block that starts with the greatest sample below it
+            final long from = this.starts[category] + (long) block * BLOCK_SIZE;
+            final int length = (int) Math.min(BLOCK_SIZE, this.starts[category + 1] - from);
+            try {
+                if (null == this.reader)
+                    this.reader = new RandomAccessFile(this.file, "r");
+                this.reader.seek(from * 8l);
+                this.reader.readFully(this.block.array(), 0, length * 8);
+            } catch (final IOException e) {
+                throw new IllegalStateException(String.format("Could not read dedup run %s", this.file), e);
+            }
+            int low = 0;
+            int high = length - 1;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                final long current = this.block.getLong(middle * 8);
+                if (current < value)
+                    low = middle + 1;
+                else if (current > value)
+                    high = middle - 1;
+                else
+                    return true;
+            }
+            return false;
+        }
+
+        private void release() {
+            try {
+                if (null != this.reader)
+                    this.reader.close();
+            } catch (final IOException ignored) {
+                // the run was only read
+            }
+            this.reader = null;
+        }
+
+        private void delete() {
+            this.release();
+            this.file.delete();
+        }
+    }
+
+    private static final class BloomFilter {
+        private final long[] bits;
+        private final long size;
+        private final int hashes;
+
+        private BloomFilter(final long expectedInsertions, final double falsePositiveProbability) {
+            if (falsePositiveProbability <= 0d || falsePositiveProbability >= 1d)
+                throw new IllegalArgumentException("The false positive probability must be between 0 and 1: " + falsePositiveProbability);
+            final long insertions = Math.max(1l, expectedInsertions);
+            final long optimalSize = (long) Math.ceil(-insertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+            this.bits = new long[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(1l, (optimalSize + 63l) / 64l))];
+            this.size = 64l * this.bits.length;
+            this.hashes = Math.max(1, (int) Math.round((double) optimalSize / insertions * Math.log(2)));
+        }
+
+        /**
+         * Set the bits of the hash and return whether any of them was not set before.
+         */
+        private boolean add(final long hash) {
+            final long second = LongHashSet.mix64(hash ^ 0x5851f42d4c957f2dl) | 1l;
+            boolean changed = false;
+            for (int i = 0; i < this.hashes; i++) {
+                final long bit = Long.remainderUnsigned(hash + i * second, this.size);
+                final long mask = 1l << bit;
+                final int word = (int) (bit >>> 6);
+                if (0l == (this.bits[word] & mask)) {
+                    this.bits[word] |= mask;
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+
+        private boolean mightContain(final long hash) {
+            final long second = LongHashSet.mix64(hash ^ 0x5851f42d4c957f2dl) | 1l;
+            for (int i = 0; i < this.hashes; i++) {
+                final long bit = Long.remainderUnsigned(hash + i * second, this.size);
+                if (0l == (this.bits[(int) (bit >>> 6)] & (1l << bit)))
+                    return false;
+            }
+            return true;
+        }
+
+        private long memorySize() {
+            return 8l * this.bits.length;
+        }
+
+        private void clear() {
+            Arrays.fill(this.bits, 0l);
+        }
+    }
+}
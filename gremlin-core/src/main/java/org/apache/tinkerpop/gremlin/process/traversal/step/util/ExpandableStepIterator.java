@@ -20,6 +20,7 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.util;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserBatch;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
 
 import java.io.Serializable;
@@ -53,6 +54,24 @@ public final class ExpandableStepIterator<S> implements Iterator<Traverser.Admin
         return this.traverserSet.remove();
     }
 
+    /**
+     * Add the next starts to the batch, preferring the traversers that were added to the step over pulling them from
+     * the previous step.  No traversers added means that there are no more starts.
+     */
+    public void fillBatch(final TraverserBatch<S> batch) {
+        if (!this.traverserSet.isEmpty()) {
+            while (!this.traverserSet.isEmpty() && !batch.isFull()) {
+                batch.add(this.traverserSet.remove());
+            }
+            return;
+        }
+        final Step<?, S> previousStep = this.hostStep.getPreviousStep();
+        if (previousStep instanceof AbstractStep)
+            ((AbstractStep<?, S>) previousStep).fillBatch(batch);
+        else if (!batch.isFull() && previousStep.hasNext())
+            batch.add(previousStep.next());
+    }
+
     public void add(final Iterator<Traverser.Admin<S>> iterator) {
         iterator.forEachRemaining(this.traverserSet::add);
     }
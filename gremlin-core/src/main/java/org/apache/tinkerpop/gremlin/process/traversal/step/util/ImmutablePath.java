@@ -23,19 +23,31 @@ import org.apache.tinkerpop.gremlin.process.traversal.Pop;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
 /**
+ * A persistent path in which each object is a node that points to the path it extends, so that a traverser that
+ * splits shares the whole of its path with the traversers it splits into.  Label sets are interned by
+ * {@link LabelSets}, each node caches its size and hash code and each node knows the nearest node (itself included)
+ * that has labels along with a bit mask of the labels that are somewhere in the path, so looking up a label walks only
+ * the labeled objects and a label that is not in the path is answered without walking at all.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public class ImmutablePath implements Path, ImmutablePathImpl, Serializable, Cloneable {
 
     private ImmutablePathImpl previousPath = TailPath.instance();
     private Object currentObject;
-    private Set<String> currentLabels = new LinkedHashSet<>();
+    private Set<String> currentLabels = Collections.emptySet();
+    private int size;
+    // the nearest path, this one included, with labels or the tail path if there is none
+    private ImmutablePathImpl labeledPath = TailPath.instance();
+    // a bit for the hash code of each label in the path which may give false positives but no false negatives
+    private long labelMask;
+    private transient int hashCode;
 
     protected ImmutablePath() {
 
@@ -51,60 +63,88 @@ public class ImmutablePath implements Path, ImmutablePathImpl, Serializable, Clo
         return this;
     }
 
-    private ImmutablePath(final ImmutablePathImpl previousPath, final Object currentObject, final Set<String> currentLabels) {
+    private ImmutablePath(final ImmutablePathImpl previousPath, final Object currentObject, final Set<String> internedLabels) {
         this.previousPath = previousPath;
         this.currentObject = currentObject;
-        this.currentLabels.addAll(currentLabels);
+        this.currentLabels = internedLabels;
+        this.size = previousPath.size() + 1;
+        this.labeledPath = internedLabels.isEmpty() ? labeledPath(previousPath) : this;
+        this.labelMask = (previousPath instanceof ImmutablePath ? ((ImmutablePath) previousPath).labelMask : 0l) | mask(internedLabels);
+    }
+
+    private static ImmutablePathImpl labeledPath(final ImmutablePathImpl path) {
+        return path instanceof ImmutablePath ? ((ImmutablePath) path).labeledPath : path;
+    }
+
+    private static long mask(final Set<String> labels) {
+        long mask = 0l;
+        for (final String label : labels) {
+            mask |= bit(label);
+        }
+        return mask;
+    }
+
+    private static long bit(final String label) {
+        return 1l << (label.hashCode() & 63);
+    }
+
+    private boolean mightHaveLabel(final String label) {
+        return 0l != (this.labelMask & bit(label));
     }
 
     @Override
     public int size() {
-        return this.previousPath.size() + 1;
+        return this.size;
     }
 
     @Override
     public Path extend(final Object object, final Set<String> labels) {
-        return new ImmutablePath(this, object, labels);
+        return new ImmutablePath(this, object, LabelSets.intern(labels));
     }
 
     @Override
     public Path extend(final Set<String> labels) {
-        final Set<String> temp = new LinkedHashSet<>();
-        temp.addAll(this.currentLabels);
-        temp.addAll(labels);
-        return new ImmutablePath(this.previousPath, this.currentObject, temp);
+        final Set<String> union = LabelSets.union(this.currentLabels, labels);
+        return union == this.currentLabels ? this : new ImmutablePath(this.previousPath, this.currentObject, union);
     }
 
     @Override
     public <A> A get(final int index) {
-        return (this.size() - 1) == index ? (A) this.currentObject : this.previousPath.get(index);
+        if (index < 0 || index >= this.size)
+            return TailPath.instance().get(index);
+        ImmutablePathImpl path = this;
+        for (int i = this.size - 1; i > index; i--) {
+            path = ((ImmutablePath) path).previousPath;
+        }
+        return (A) ((ImmutablePath) path).currentObject;
     }
 
     @Override
     public <A> A getSingleHead(final String label) {
-        // Recursively search for the single value to avoid building throwaway collections, and to stop looking when we
-        // find it.
-        A single;
-        // See if we have a value.
-        if (this.currentLabels.contains(label)) {
-            single = (A) this.currentObject;
-        } else {
-            // Look for a previous value.
-            single = this.previousPath.getSingleHead(label);
+        if (!this.mightHaveLabel(label))
+            return null;
+        // walk back through the labeled objects only and stop at the first with the label
+        ImmutablePathImpl path = this.labeledPath;
+        while (path instanceof ImmutablePath) {
+            final ImmutablePath current = (ImmutablePath) path;
+            if (current.currentLabels.contains(label))
+                return (A) current.currentObject;
+            path = labeledPath(current.previousPath);
         }
-        return single;
+        return null;
     }
 
     @Override
     public <A> A getSingleTail(final String label) {
-        // Recursively search for the single value to avoid building throwaway collections, and to stop looking when we
-        // find it.
-        A single = this.previousPath.getSingleTail(label);
-        if (null == single) {
-            // See if we have a value.
-            if (this.currentLabels.contains(label)) {
-                single = (A) this.currentObject;
-            }
+        if (!this.mightHaveLabel(label))
+            return null;
+        A single = null;
+        ImmutablePathImpl path = this.labeledPath;
+        while (path instanceof ImmutablePath) {
+            final ImmutablePath current = (ImmutablePath) path;
+            if (current.currentLabels.contains(label))
+                single = (A) current.currentObject;
+            path = labeledPath(current.previousPath);
         }
         return single;
     }
@@ -112,11 +152,17 @@ public class ImmutablePath implements Path, ImmutablePathImpl, Serializable, Clo
     @Override
     public <A> A get(final Pop pop, final String label) {
         if (Pop.all == pop) {
-            // Recursively build the list to avoid building objects/labels collections.
-            final List<A> list = this.previousPath.get(Pop.all, label);
-            // Add our object, if our step labels match.
-            if (this.currentLabels.contains(label))
-                list.add((A) currentObject);
+            final List<A> list = new ArrayList<>();
+            if (this.mightHaveLabel(label)) {
+                ImmutablePathImpl path = this.labeledPath;
+                while (path instanceof ImmutablePath) {
+                    final ImmutablePath current = (ImmutablePath) path;
+                    if (current.currentLabels.contains(label))
+                        list.add((A) current.currentObject);
+                    path = labeledPath(current.previousPath);
+                }
+                Collections.reverse(list);
+            }
             return (A) list;
         } else {
             // Delegate to the non-throwing, optimized head/tail calculations.
@@ -130,23 +176,29 @@ public class ImmutablePath implements Path, ImmutablePathImpl, Serializable, Clo
 
     @Override
     public boolean hasLabel(final String label) {
-        return this.currentLabels.contains(label) || this.previousPath.hasLabel(label);
+        return null != this.getSingleHead(label);
     }
 
     @Override
     public List<Object> objects() {
-        final List<Object> objectPath = new ArrayList<>();    // TODO: optimize
-        objectPath.addAll(this.previousPath.objects());
-        objectPath.add(this.currentObject);
-        return Collections.unmodifiableList(objectPath);
+        final Object[] objects = new Object[this.size];
+        ImmutablePathImpl path = this;
+        for (int i = this.size - 1; i >= 0; i--) {
+            objects[i] = ((ImmutablePath) path).currentObject;
+            path = ((ImmutablePath) path).previousPath;
+        }
+        return Collections.unmodifiableList(Arrays.asList(objects));
     }
 
     @Override
     public List<Set<String>> labels() {
-        final List<Set<String>> labelPath = new ArrayList<>();   // TODO: optimize
-        labelPath.addAll(this.previousPath.labels());
-        labelPath.add(this.currentLabels);
-        return Collections.unmodifiableList(labelPath);
+        final Set<String>[] labels = new Set[this.size];
+        ImmutablePathImpl path = this;
+        for (int i = this.size - 1; i >= 0; i--) {
+            labels[i] = ((ImmutablePath) path).currentLabels;
+            path = ((ImmutablePath) path).previousPath;
+        }
+        return Collections.unmodifiableList(Arrays.asList(labels));
     }
 
     @Override
@@ -156,20 +208,56 @@ public class ImmutablePath implements Path, ImmutablePathImpl, Serializable, Clo
 
     @Override
     public int hashCode() {
-        return this.objects().hashCode();
+        // the same as the hash code of the list of objects, computed once per node from the one of the previous path
+        if (0 == this.hashCode) {
+            final List<ImmutablePath> uncomputed = new ArrayList<>();
+            ImmutablePathImpl path = this;
+            while (path instanceof ImmutablePath && 0 == ((ImmutablePath) path).hashCode) {
+                uncomputed.add((ImmutablePath) path);
+                path = ((ImmutablePath) path).previousPath;
+            }
+            int hashCode = path.hashCode();
+            for (int i = uncomputed.size() - 1; i >= 0; i--) {
+                final ImmutablePath current = uncomputed.get(i);
+                hashCode = 31 * hashCode + (null == current.currentObject ? 0 : current.currentObject.hashCode());
+                current.hashCode = hashCode;
+            }
+        }
+        return this.hashCode;
     }
 
     @Override
     public boolean equals(final Object other) {
+        if (this == other)
+            return true;
         if (!(other instanceof Path))
             return false;
         final Path otherPath = (Path) other;
         if (otherPath.size() != this.size())
             return false;
+        if (otherPath instanceof ImmutablePath) {
+            if (this.hashCode() != otherPath.hashCode())
+                return false;
+            ImmutablePathImpl a = this;
+            ImmutablePathImpl b = (ImmutablePath) otherPath;
+            while (a instanceof ImmutablePath && a != b) {
+                final ImmutablePath pathA = (ImmutablePath) a;
+                final ImmutablePath pathB = (ImmutablePath) b;
+                if (!pathA.currentObject.equals(pathB.currentObject) || !pathA.currentLabels.equals(pathB.currentLabels))
+                    return false;
+                a = pathA.previousPath;
+                b = pathB.previousPath;
+            }
+            return true;
+        }
+        final List<Object> objects = this.objects();
+        final List<Set<String>> labels = this.labels();
+        final List<Object> otherObjects = otherPath.objects();
+        final List<Set<String>> otherLabels = otherPath.labels();
         for (int i = this.size() - 1; i >= 0; i--) {
-            if (!this.get(i).equals(otherPath.get(i)))
+            if (!objects.get(i).equals(otherObjects.get(i)))
                 return false;
-            if (!this.labels().get(i).equals(otherPath.labels().get(i)))
+            if (!labels.get(i).equals(otherLabels.get(i)))
                 return false;
         }
         return true;
@@ -190,7 +278,7 @@ public class ImmutablePath implements Path, ImmutablePathImpl, Serializable, Clo
 
         @Override
         public Path extend(final Object object, final Set<String> labels) {
-            return new ImmutablePath(TailPath.instance(), object, labels);
+            return new ImmutablePath(TailPath.instance(), object, LabelSets.intern(labels));
         }
 
         @Override
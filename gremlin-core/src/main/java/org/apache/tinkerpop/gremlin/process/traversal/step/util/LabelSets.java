@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Interns the label sets of paths.  A traversal only has a handful of distinct step labels, so the label sets of its
+ * paths can be shared (and compared by reference) rather than copied into a new set for every object of every path.
+ * The sets handed out are unmodifiable.
+ */
+final class LabelSets {
+
+    // labels are usually a small, fixed vocabulary but stop interning if they are not so the cache can not grow forever
+    private static final int MAX_INTERNED = 10000;
+    // the order of the labels matters so the sets are looked up by a hash of their labels in order
+    private static final Map<Integer, Set<String>[]> INTERNED = new ConcurrentHashMap<>();
+    private static final AtomicInteger INTERNED_COUNT = new AtomicInteger(0);
+
+    private LabelSets() {
+    }
+
+    public static Set<String> intern(final Set<String> labels) {
+        if (labels.isEmpty())
+            return Collections.emptySet();
+        int hash = 1;
+        for (final String label : labels) {
+            hash = 31 * hash + label.hashCode();
+        }
+        final Set<String>[] candidates = INTERNED.get(hash);
+        if (null != candidates) {
+            for (final Set<String> candidate : candidates) {
+                if (equalInOrder(candidate, labels))
+                    return candidate;
+            }
+        }
+        final Set<String> copy = Collections.unmodifiableSet(new LinkedHashSet<>(labels));
+        if (INTERNED_COUNT.get() >= MAX_INTERNED)
+            return copy;
+        final Set<String>[] interned = INTERNED.compute(hash, (k, existing) -> {
+            if (null == existing)
+                return new Set[]{copy};
+            for (final Set<String> candidate : existing) {
+                if (equalInOrder(candidate, copy))
+                    return existing;
+            }
+            final Set<String>[] grown = Arrays.copyOf(existing, existing.length + 1);
+            grown[existing.length] = copy;
+            return grown;
+        });
+        for (final Set<String> candidate : interned) {
+            if (equalInOrder(candidate, copy)) {
+                if (candidate == copy) INTERNED_COUNT.incrementAndGet();
+                return candidate;
+            }
+        }
+        return copy;
+    }
+
+    private static boolean equalInOrder(final Set<String> a, final Set<String> b) {
+        if (a.size() != b.size())
+            return false;
+        final Iterator<String> iterator = b.iterator();
+        for (final String label : a) {
+            if (!label.equals(iterator.next()))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get the interned union of an interned label set and another label set.
+     */
+    public static Set<String> union(final Set<String> interned, final Set<String> labels) {
+        if (interned.containsAll(labels))
+            return interned;
+        if (interned.isEmpty())
+            return intern(labels);
+        final Set<String> union = new LinkedHashSet<>(interned);
+        union.addAll(labels);
+        return intern(union);
+    }
+}
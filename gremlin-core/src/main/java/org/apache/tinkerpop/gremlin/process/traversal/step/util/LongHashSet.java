@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * A set of primitive {@code long} values backed by an open-addressing (linear probing) table, which takes eight bytes
+ * per slot rather than the boxed {@code Long} and hash entry of a {@code HashSet<Long>}.  The table is kept at most
+ * half full.
+ */
+public final class LongHashSet {
+
+    private static final int MINIMUM_CAPACITY = 16;
+    // zero marks an empty slot so it is tracked outside of the table
+    private static final long EMPTY = 0l;
+
+    private long[] table;
+    private int size;
+    private boolean containsEmpty;
+
+    public LongHashSet() {
+        this.table = new long[MINIMUM_CAPACITY];
+    }
+
+    /**
+     * Add the value and return {@code true} if it was not already in the set.
+     */
+    public boolean add(final long value) {
+        if (EMPTY == value) {
+            if (this.containsEmpty)
+                return false;
+            this.containsEmpty = true;
+            this.size++;
+            return true;
+        }
+        final int mask = this.table.length - 1;
+        int slot = mix(value) & mask;
+        while (EMPTY != this.table[slot]) {
+            if (value == this.table[slot])
+                return false;
+            slot = (slot + 1) & mask;
+        }
+        this.table[slot] = value;
+        if (++this.size * 2 > this.table.length)
+            this.resize(this.table.length * 2);
+        return true;
+    }
+
+    public boolean contains(final long value) {
+        if (EMPTY == value)
+            return this.containsEmpty;
+        final int mask = this.table.length - 1;
+        int slot = mix(value) & mask;
+        while (EMPTY != this.table[slot]) {
+            if (value == this.table[slot])
+                return true;
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return 0 == this.size;
+    }
+
+    /**
+     * The number of bytes taken by the table of the set.
+     */
+    public long memorySize() {
+        return 8l * this.table.length;
+    }
+
+    public void forEach(final LongConsumer consumer) {
+        if (this.containsEmpty)
+            consumer.accept(EMPTY);
+        for (final long value : this.table) {
+            if (EMPTY != value)
+                consumer.accept(value);
+        }
+    }
+
+    /**
+     * Get the values of the set in ascending order.
+     */
+    public long[] toSortedArray() {
+        final long[] values = new long[this.size];
+        final int[] index = {0};
+        this.forEach(value -> values[index[0]++] = value);
+        Arrays.sort(values);
+        return values;
+    }
+
+    public void clear() {
+        this.table = new long[MINIMUM_CAPACITY];
+        this.size = 0;
+        this.containsEmpty = false;
+    }
+
+    private void resize(final int capacity) {
+        final long[] old = this.table;
+        this.table = new long[capacity];
+        final int mask = capacity - 1;
+        for (final long value : old) {
+            if (EMPTY != value) {
+                int slot = mix(value) & mask;
+                while (EMPTY != this.table[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                this.table[slot] = value;
+            }
+        }
+    }
+
+    /**
+     * The finalizer of MurmurHash3 which spreads sequential values (e.g. identifiers) across the table.
+     */
+    static int mix(final long value) {
+        return (int) mix64(value);
+    }
+
+    static long mix64(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdl;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53l;
+        value ^= value >>> 33;
+        return value;
+    }
+}
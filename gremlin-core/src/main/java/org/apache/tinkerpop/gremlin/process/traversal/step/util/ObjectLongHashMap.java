@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * A map from objects to primitive {@code long} counters backed by an open-addressing (linear probing) table, so that
+ * incrementing a counter neither boxes a {@code Long} nor allocates a hash entry as a {@code HashMap<K, Long>} does.
+ * The keys are compared with {@link Object#equals(Object)} and may include {@code null}. The table is kept at most
+ * half full.
+ */
+public final class ObjectLongHashMap<K> {
+
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private Object[] keys;
+    private long[] values;
+    private int size;
+    // an empty slot is marked by a null key so the null key is tracked outside of the table
+    private boolean containsNull;
+    private long nullValue;
+
+    public ObjectLongHashMap() {
+        this(MINIMUM_CAPACITY / 2);
+    }
+
+    /**
+     * Create a map with a table that holds the expected number of keys without being resized.
+     */
+    public ObjectLongHashMap(final int expectedSize) {
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity < 2l * expectedSize && capacity < (1 << 30)) {
+            capacity = capacity << 1;
+        }
+        this.keys = new Object[capacity];
+        this.values = new long[capacity];
+    }
+
+    /**
+     * Add the delta to the counter of the key, which starts at zero, and return the new value of the counter.
+     */
+    public long add(final K key, final long delta) {
+        if (null == key) {
+            if (!this.containsNull) {
+                this.containsNull = true;
+                this.size++;
+            }
+            return this.nullValue = this.nullValue + delta;
+        }
+        final int mask = this.keys.length - 1;
+        int slot = LongHashSet.mix(key.hashCode()) & mask;
+        Object current;
+        while (null != (current = this.keys[slot])) {
+            if (key.equals(current))
+                return this.values[slot] = this.values[slot] + delta;
+            slot = (slot + 1) & mask;
+        }
+        this.keys[slot] = key;
+        this.values[slot] = delta;
+        if (++this.size * 2 > this.keys.length)
+            this.resize(this.keys.length * 2);
+        return delta;
+    }
+
+    /**
+     * Get the counter of the key or zero if the key is not in the map.
+     */
+    public long get(final K key) {
+        if (null == key)
+            return this.nullValue;
+        final int mask = this.keys.length - 1;
+        int slot = LongHashSet.mix(key.hashCode()) & mask;
+        Object current;
+        while (null != (current = this.keys[slot])) {
+            if (key.equals(current))
+                return this.values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return 0l;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return 0 == this.size;
+    }
+
+    public void forEach(final ObjLongConsumer<K> consumer) {
+        if (this.containsNull)
+            consumer.accept(null, this.nullValue);
+        for (int i = 0; i < this.keys.length; i++) {
+            if (null != this.keys[i])
+                consumer.accept((K) this.keys[i], this.values[i]);
+        }
+    }
+
+    /**
+     * Copy the counters to a {@code HashMap} that is sized to hold them without being resized.
+     */
+    public Map<K, Long> toMap() {
+        final Map<K, Long> map = new HashMap<>((int) (this.size / 0.75f) + 1);
+        this.forEach(map::put);
+        return map;
+    }
+
+    public void clear() {
+        this.keys = new Object[MINIMUM_CAPACITY];
+        this.values = new long[MINIMUM_CAPACITY];
+        this.size = 0;
+        this.containsNull = false;
+        this.nullValue = 0l;
+    }
+
+    private void resize(final int capacity) {
+        final Object[] oldKeys = this.keys;
+        final long[] oldValues = this.values;
+        this.keys = new Object[capacity];
+        this.values = new long[capacity];
+        final int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (null != oldKeys[i]) {
+                int slot = LongHashSet.mix(oldKeys[i].hashCode()) & mask;
+                while (null != this.keys[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+}
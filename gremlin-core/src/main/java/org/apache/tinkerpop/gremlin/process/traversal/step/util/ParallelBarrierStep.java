@@ -0,0 +1,306 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Barrier;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GroupCountStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MaxGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MeanGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MinGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.SumGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.TreeStep;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * {@code ParallelBarrierStep} executes the steps between a start {@link org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep}
+ * and the {@link ReducingBarrierStep} that follows them on the calling thread and the common {@link ForkJoinPool}.  The
+ * step does not own any threads, so a parallelism beyond the one of the common pool only adds workers that queue
+ * behind the others and find fewer chunks left to claim.  Each worker runs its own clone of
+ * those steps and claims chunks of the elements emitted by the graph step, which are read under a lock in the order of
+ * the graph step.  The partial barriers of the clones are merged into the original barrier with its bi-operator, the
+ * same way the partial barriers of the workers of a {@link org.apache.tinkerpop.gremlin.process.computer.GraphComputer}
+ * are merged.  If the result of the barrier depends on the order of its traversers (e.g. {@code fold()} or
+ * {@code group()}), every chunk yields its own partial barrier and the partials are merged in the order of the chunks,
+ * so the result is the same as the one of a sequential execution.  Otherwise each worker reduces all of its chunks
+ * into a single partial barrier.
+ * <p/>
+ * The step is added by {@link org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.ParallelStrategy}.
+ */
+public final class ParallelBarrierStep<S, E> extends AbstractStep<S, E> implements TraversalParent {
+
+    private static final Set<Class<? extends Step>> ORDER_INSENSITIVE_BARRIERS = new HashSet<>(Arrays.asList(
+            CountGlobalStep.class,
+            SumGlobalStep.class,
+            MaxGlobalStep.class,
+            MinGlobalStep.class,
+            MeanGlobalStep.class,
+            GroupCountStep.class,
+            TreeStep.class));
+
+    private final int parallelism;
+    private final int chunkSize;
+    private Traversal.Admin<S, E> segment;
+    private boolean executed = false;
+
+    private transient volatile boolean cancelled = false;
+    private transient int claimedChunks;
+    private transient int mergedChunks;
+    private transient Map<Integer, E> partials;
+
+    public ParallelBarrierStep(final Traversal.Admin traversal, final int parallelism, final int chunkSize, final List<Step> steps) {
+        super(traversal);
+        if (!(steps.get(steps.size() - 1) instanceof ReducingBarrierStep))
+            throw new IllegalArgumentException("The steps of a parallel barrier must end with a reducing barrier: " + steps);
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        final Segment<S, E> segment = new Segment<>();
+        steps.forEach(segment::addStep);
+        this.segment = this.integrateChild(segment);
+    }
+
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    public int getChunkSize() {
+        return this.chunkSize;
+    }
+
+    @Override
+    public List<Traversal.Admin<S, E>> getGlobalChildren() {
+        return Collections.singletonList(this.segment);
+    }
+
+    @Override
+    public Set<TraverserRequirement> getRequirements() {
+        return this.getSelfAndChildRequirements();
+    }
+
+    @Override
+    protected Traverser.Admin<E> processNextStart() throws NoSuchElementException {
+        if (!this.executed) {
+            this.executed = true;
+            this.execute();
+        }
+        return this.segment.getEndStep().next();
+    }
+
+    private void execute() {
+        final Barrier<E> barrier = (Barrier<E>) this.segment.getEndStep();
+        final boolean ordered = !ORDER_INSENSITIVE_BARRIERS.contains(barrier.getClass());
+        this.cancelled = false;
+        this.claimedChunks = 0;
+        this.mergedChunks = 0;
+        this.partials = new HashMap<>();
+        final List<Future<?>> futures = new ArrayList<>(this.parallelism - 1);
+        for (int i = 1; i < this.parallelism; i++) {
+            final Traversal.Admin<S, E> pipeline = this.pipeline();
+            futures.add(ForkJoinPool.commonPool().submit(() -> this.work(pipeline, barrier, ordered)));
+        }
+        try {
+            this.work(this.pipeline(), barrier, ordered);
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (final InterruptedException e) {
+            this.cancelled = true;
+            Thread.currentThread().interrupt();
+            throw new TraversalInterruptedException();
+        } catch (final ExecutionException e) {
+            this.cancelled = true;
+            awaitQuietly(futures);
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        } catch (final RuntimeException e) {
+            this.cancelled = true;
+            awaitQuietly(futures);
+            throw e;
+        } finally {
+            this.partials = null;
+        }
+    }
+
+    private Traversal.Admin<S, E> pipeline() {
+        final Traversal.Admin<S, E> pipeline = this.segment.clone();
+        pipeline.setSideEffects(this.getTraversal().getSideEffects());
+        return pipeline;
+    }
+
+    /**
+     * Wait for the workers that are still running after a worker failed, so none of them merges into the barrier once
+     * the failure is thrown.  A cancelled worker stops after the chunk it is working on.
+     */
+    private static void awaitQuietly(final List<Future<?>> futures) {
+        for (final Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final ExecutionException e) {
+                // the first failure is the one that is thrown
+            }
+        }
+    }
+
+    private void work(final Traversal.Admin<S, E> pipeline, final Barrier<E> barrier, final boolean ordered) {
+        final Step<S, ?> startStep = pipeline.getStartStep();
+        final Barrier<E> partialBarrier = (Barrier<E>) pipeline.getEndStep();
+        final List<Traverser.Admin<S>> chunk = new ArrayList<>(this.chunkSize);
+        boolean reduced = false;
+        int index;
+        while (-1 != (index = this.claim(chunk))) {
+            startStep.addStarts(chunk.iterator());
+            partialBarrier.processAllStarts();
+            chunk.clear();
+            if (ordered)
+                this.merge(index, partialBarrier.hasNextBarrier() ? partialBarrier.nextBarrier() : null, barrier);
+            else
+                reduced = true;
+        }
+        if (reduced)
+            this.merge(-1, partialBarrier.nextBarrier(), barrier);
+    }
+
+    /**
+     * Read the next chunk of traversers from the graph step and get its index or {@code -1} if there are none left.
+     */
+    private synchronized int claim(final List<Traverser.Admin<S>> chunk) {
+        if (this.cancelled)
+            return -1;
+        while (chunk.size() < this.chunkSize && this.starts.hasNext()) {
+            chunk.add(this.starts.next());
+        }
+        return chunk.isEmpty() ? -1 : this.claimedChunks++;
+    }
+
+    /**
+     * Merge a partial barrier into the barrier.  A partial barrier of a chunk is held back until the partial barriers
+     * of all the previous chunks are merged, whereas a partial barrier with an index of {@code -1} is merged as is.  The
+     * partial barrier of a chunk whose traversers were all filtered is {@code null}.
+     */
+    private void merge(final int index, final E partial, final Barrier<E> barrier) {
+        synchronized (barrier) {
+            if (this.cancelled)
+                return;
+            if (-1 == index) {
+                barrier.addBarrier(partial);
+                return;
+            }
+            this.partials.put(index, partial);
+            while (this.partials.containsKey(this.mergedChunks)) {
+                final E merged = this.partials.remove(this.mergedChunks++);
+                if (null != merged)
+                    barrier.addBarrier(merged);
+            }
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.executed = false;
+        this.segment.reset();
+    }
+
+    @Override
+    public ParallelBarrierStep<S, E> clone() {
+        final ParallelBarrierStep<S, E> clone = (ParallelBarrierStep<S, E>) super.clone();
+        clone.segment = this.segment.clone();
+        clone.executed = false;
+        clone.partials = null;
+        return clone;
+    }
+
+    @Override
+    public void setTraversal(final Traversal.Admin<?, ?> parentTraversal) {
+        super.setTraversal(parentTraversal);
+        this.integrateChild(this.segment);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, this.parallelism, this.segment);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ this.segment.hashCode() ^ this.parallelism;
+    }
+
+    ///////////////////////
+
+    /**
+     * The steps of a {@code ParallelBarrierStep} are compiled as part of the traversal they were taken from, so the
+     * only strategies that are applied to them are the verification strategies.  Their own child traversals have
+     * not been compiled yet and are compiled as usual.
+     */
+    private static final class Segment<S, E> extends DefaultTraversal<S, E> {
+
+        @Override
+        public void applyStrategies() throws IllegalStateException {
+            if (this.locked) throw Exceptions.traversalIsLocked();
+            for (final TraversalStrategy<?> strategy : this.strategies.toList()) {
+                if (strategy instanceof TraversalStrategy.VerificationStrategy)
+                    strategy.apply(this);
+            }
+            for (final Step<?, ?> step : this.getSteps()) {
+                if (step instanceof TraversalParent) {
+                    for (final Traversal.Admin<?, ?> globalChild : ((TraversalParent) step).getGlobalChildren()) {
+                        this.prepareChild(globalChild);
+                    }
+                    for (final Traversal.Admin<?, ?> localChild : ((TraversalParent) step).getLocalChildren()) {
+                        this.prepareChild(localChild);
+                    }
+                }
+            }
+            this.locked = true;
+        }
+
+        private void prepareChild(final Traversal.Admin<?, ?> child) {
+            child.setStrategies(this.strategies);
+            child.setSideEffects(this.sideEffects);
+            if (null != this.graph) child.setGraph(this.graph);
+            child.applyStrategies();
+        }
+    }
+}
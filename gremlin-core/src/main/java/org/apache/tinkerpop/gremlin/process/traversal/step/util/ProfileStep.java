@@ -24,59 +24,92 @@ import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.MemoryComputing;
 import org.apache.tinkerpop.gremlin.process.traversal.step.Profiling;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.ProfileStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.util.MutableMetrics;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
 
 import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.BinaryOperator;
 
 /**
+ * {@code ProfileStep} times the step before it, counts the traversers it emits and, if configured by the
+ * {@link ProfileStrategy}, records their bulk histogram and the bytes allocated.  With a sample rate of N, only one in
+ * N (on average, at random intervals so as to not beat with a periodic workload) of the calls to {@link #hasNext()} and
+ * {@link #next()} are timed and each timed call stands in for N calls.  The counts and histograms are always exact.
+ *
  * @author Bob Briody (http://bobbriody.com)
  */
 public final class ProfileStep<S> extends AbstractStep<S, S> implements MemoryComputing<MutableMetrics> {  // pseudo GraphComputing but local traversals are "GraphComputing"
     private MutableMetrics metrics;
     private boolean onGraphComputer = false;
+    private final long sampleRate;
+    private final boolean recordHistograms;
+    private final boolean recordAllocations;
+    private long countdown = 0l;
+    private long traverserCount = 0l;
+    private long elementCount = 0l;
+    private long[] bulkHistogram = null;
+    private long allocatedBytes = 0l;
+    private long allocatedBytesAtStart = 0l;
 
     public ProfileStep(final Traversal.Admin traversal) {
+        this(traversal, 1l, false, false);
+    }
+
+    public ProfileStep(final Traversal.Admin traversal, final long sampleRate, final boolean recordHistograms, final boolean recordAllocations) {
         super(traversal);
+        if (sampleRate < 1l)
+            throw new IllegalArgumentException("The sample rate must be at least 1: " + sampleRate);
+        this.sampleRate = sampleRate;
+        this.recordHistograms = recordHistograms;
+        this.recordAllocations = recordAllocations && null != Allocations.THREAD_MX_BEAN;
     }
 
     public MutableMetrics getMetrics() {
+        this.flush();
         return metrics;
     }
 
+    public long getSampleRate() {
+        return this.sampleRate;
+    }
+
     @Override
     public Traverser.Admin<S> next() {
         Traverser.Admin<S> start = null;
         this.initializeIfNeeded();
-        this.metrics.start();
+        // a traverser already pulled by hasNext() was timed there
+        final boolean sampled = null == this.nextEnd && this.startTimer();
         try {
             start = super.next();
             return start;
         } finally {
-            if (start != null) {
-                this.metrics.finish(start.bulk());
-                if (this.onGraphComputer) {
-                    this.getTraversal().getSideEffects().add(this.getId(), this.metrics);
-                    this.metrics = null;
-                }
-            } else {
-                this.metrics.stop();
-                if (this.onGraphComputer) {
-                    this.getTraversal().getSideEffects().add(this.getId(), this.metrics);
-                    this.metrics = null;
-                }
+            if (sampled)
+                this.stopTimer();
+            if (start != null)
+                this.count(start.bulk());
+            if (this.onGraphComputer) {
+                this.flush();
+                this.getTraversal().getSideEffects().add(this.getId(), this.metrics);
+                this.metrics = null;
             }
         }
     }
 
     @Override
     public boolean hasNext() {
+        if (null != this.nextEnd)
+            return true;
         initializeIfNeeded();
-        this.metrics.start();
+        final boolean sampled = this.startTimer();
         boolean ret = super.hasNext();
-        this.metrics.stop();
+        if (sampled)
+            this.stopTimer();
         return ret;
     }
 
@@ -92,6 +125,60 @@ public final class ProfileStep<S> extends AbstractStep<S, S> implements MemoryCo
             final Step<?, S> previousStep = this.getPreviousStep();
             if (previousStep instanceof Profiling)
                 ((Profiling) previousStep).setMetrics(this.metrics);
+            if (this.recordHistograms && null == this.bulkHistogram)
+                this.bulkHistogram = new long[Long.SIZE];
+        }
+    }
+
+    private boolean startTimer() {
+        if (1l != this.sampleRate) {
+            if (--this.countdown > 0l)
+                return false;
+            // intervals average out to the sample rate
+            this.countdown = 1l + ThreadLocalRandom.current().nextLong(2l * this.sampleRate - 1l);
+        }
+        if (this.recordAllocations)
+            this.allocatedBytesAtStart = Allocations.currentThreadAllocatedBytes();
+        this.metrics.start();
+        return true;
+    }
+
+    private void stopTimer() {
+        this.metrics.stop(this.sampleRate);
+        if (this.recordAllocations)
+            this.allocatedBytes += (Allocations.currentThreadAllocatedBytes() - this.allocatedBytesAtStart) * this.sampleRate;
+    }
+
+    private void count(final long bulk) {
+        this.traverserCount++;
+        this.elementCount += bulk;
+        if (null != this.bulkHistogram && bulk > 0l)
+            this.bulkHistogram[63 - Long.numberOfLeadingZeros(bulk)]++;
+    }
+
+    /**
+     * Move the counts, histogram and allocations gathered in primitive fields into the {@link MutableMetrics}.
+     */
+    private void flush() {
+        if (null == this.metrics)
+            return;
+        if (0l != this.traverserCount) {
+            this.metrics.incrementCount(TraversalMetrics.TRAVERSER_COUNT_ID, this.traverserCount);
+            this.metrics.incrementCount(TraversalMetrics.ELEMENT_COUNT_ID, this.elementCount);
+            this.traverserCount = 0l;
+            this.elementCount = 0l;
+        }
+        if (null != this.bulkHistogram) {
+            for (int i = 0; i < this.bulkHistogram.length; i++) {
+                if (0l != this.bulkHistogram[i]) {
+                    this.metrics.incrementCount(TraversalMetrics.BULK_HISTOGRAM_PREFIX + (1l << i), this.bulkHistogram[i]);
+                    this.bulkHistogram[i] = 0l;
+                }
+            }
+        }
+        if (this.recordAllocations) {
+            this.metrics.incrementCount(TraversalMetrics.ALLOCATED_BYTES_ID, this.allocatedBytes);
+            this.allocatedBytes = 0l;
         }
     }
 
@@ -104,11 +191,34 @@ public final class ProfileStep<S> extends AbstractStep<S, S> implements MemoryCo
     public ProfileStep<S> clone() {
         final ProfileStep<S> clone = (ProfileStep<S>) super.clone();
         clone.metrics = null;
+        clone.traverserCount = 0l;
+        clone.elementCount = 0l;
+        clone.bulkHistogram = null;
+        clone.allocatedBytes = 0l;
+        clone.countdown = 0l;
         return clone;
     }
 
     /////
 
+    private static final class Allocations {
+
+        private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = threadMXBean();
+
+        private static com.sun.management.ThreadMXBean threadMXBean() {
+            final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean &&
+                    ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported() &&
+                    ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemoryEnabled())
+                return (com.sun.management.ThreadMXBean) bean;
+            return null;
+        }
+
+        private static long currentThreadAllocatedBytes() {
+            return THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+
     public static class ProfileBiOperator implements BinaryOperator<MutableMetrics>, Serializable {
 
         private static final ProfileBiOperator INSTANCE = new ProfileBiOperator();
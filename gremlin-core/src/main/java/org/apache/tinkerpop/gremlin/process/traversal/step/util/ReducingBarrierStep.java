@@ -80,8 +80,18 @@ public abstract class ReducingBarrierStep<S, E> extends AbstractStep<S, E> imple
             return;
         this.hasProcessedOnce = true;
         if (this.seed == null) this.seed = this.seedSupplier.get();
+        this.seed = this.reduceStarts(this.seed);
+    }
+
+    /**
+     * Reduce all of the starts of the step into the seed and return the result. By default every traverser is
+     * projected and reduced into the seed with the reducing bi-operator, which a step may replace with a mutable
+     * accumulator as long as the result is what the bi-operator would have produced.
+     */
+    protected E reduceStarts(E seed) {
         while (this.starts.hasNext())
-            this.seed = this.reducingBiOperator.apply(this.seed, this.projectTraverser(this.starts.next()));
+            seed = this.reducingBiOperator.apply(seed, this.projectTraverser(this.starts.next()));
+        return seed;
     }
 
     @Override
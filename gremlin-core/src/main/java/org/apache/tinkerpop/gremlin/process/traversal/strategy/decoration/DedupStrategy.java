@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.DedupSet;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+
+import java.io.File;
+
+/**
+ * {@code DedupStrategy} configures how {@link org.apache.tinkerpop.gremlin.process.traversal.step.filter.DedupGlobalStep}
+ * remembers the objects it has seen in a standard traversal, which by default is in memory and exact.  Either a memory
+ * budget can be set, past which the keys that are (or are elements identified by) {@code Long} or {@code Integer}
+ * values are spilled to disk, or the step can be made approximate, in which case it only keeps a Bloom filter and
+ * drops a small fraction of the objects it has not seen before.
+ * <p/>
+ * <pre>
+ * g.withStrategies(DedupStrategy.build().memoryBudget(256 * 1024 * 1024).create()).V().out().dedup()
+ * g.withStrategies(DedupStrategy.build().approximate(0.001d).expectedInsertions(500_000_000l).create()).V().out().dedup()
+ * </pre>
+ */
+public final class DedupStrategy extends AbstractTraversalStrategy<TraversalStrategy.DecorationStrategy> implements TraversalStrategy.DecorationStrategy {
+
+    public static final long DEFAULT_EXPECTED_INSERTIONS = 10_000_000l;
+
+    private final long memoryBudget;
+    private final String spillDirectory;
+    private final double falsePositiveProbability;
+    private final long expectedInsertions;
+
+    private DedupStrategy(final long memoryBudget, final String spillDirectory,
+                          final double falsePositiveProbability, final long expectedInsertions) {
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = spillDirectory;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        // do nothing as this is simply a metadata strategy
+    }
+
+    public long getMemoryBudget() {
+        return this.memoryBudget;
+    }
+
+    public String getSpillDirectory() {
+        return this.spillDirectory;
+    }
+
+    public double getFalsePositiveProbability() {
+        return this.falsePositiveProbability;
+    }
+
+    public long getExpectedInsertions() {
+        return this.expectedInsertions;
+    }
+
+    public boolean isApproximate() {
+        return this.falsePositiveProbability > 0d;
+    }
+
+    /**
+     * Create the set of seen keys for a dedup step of a traversal with these strategies.
+     */
+    public static DedupSet createDedupSet(final TraversalStrategies strategies) {
+        final DedupStrategy strategy = (DedupStrategy) strategies.toList().stream()
+                .filter(s -> s instanceof DedupStrategy)
+                .findAny()
+                .orElse(null);
+        if (null == strategy)
+            return new DedupSet();
+        else if (strategy.isApproximate())
+            return DedupSet.approximate(strategy.falsePositiveProbability, strategy.expectedInsertions);
+        else
+            return new DedupSet(strategy.memoryBudget, null == strategy.spillDirectory ? null : new File(strategy.spillDirectory));
+    }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    public final static class Builder {
+
+        private long memoryBudget = Long.MAX_VALUE;
+        private String spillDirectory = null;
+        private double falsePositiveProbability = 0d;
+        private long expectedInsertions = DEFAULT_EXPECTED_INSERTIONS;
+
+        private Builder() {
+        }
+
+        /**
+         * The estimated number of bytes the seen keys may take before they are spilled to disk.
+         */
+        public Builder memoryBudget(final long memoryBudget) {
+            this.memoryBudget = memoryBudget;
+            return this;
+        }
+
+        /**
+         * The directory to spill to, which defaults to {@code java.io.tmpdir}.
+         */
+        public Builder spillDirectory(final String spillDirectory) {
+            this.spillDirectory = spillDirectory;
+            return this;
+        }
+
+        /**
+         * Only keep a Bloom filter of the seen keys that takes an unseen key for a duplicate with the given
+         * probability.
+         */
+        public Builder approximate(final double falsePositiveProbability) {
+            this.falsePositiveProbability = falsePositiveProbability;
+            return this;
+        }
+
+        /**
+         * The number of keys to size the Bloom filter of an approximate dedup for - past it the false positive
+         * probability rises.
+         */
+        public Builder expectedInsertions(final long expectedInsertions) {
+            this.expectedInsertions = expectedInsertions;
+            return this;
+        }
+
+        public DedupStrategy create() {
+            if (this.falsePositiveProbability < 0d || this.falsePositiveProbability >= 1d)
+                throw new IllegalArgumentException("The false positive probability must be between 0 and 1: " + this.falsePositiveProbability);
+            if (this.falsePositiveProbability > 0d && Long.MAX_VALUE != this.memoryBudget)
+                throw new IllegalArgumentException("An approximate dedup does not spill so it can not have a memory budget");
+            return new DedupStrategy(this.memoryBudget, this.spillDirectory, this.falsePositiveProbability, this.expectedInsertions);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalPlanCache;
+
+/**
+ * {@code PlanCacheStrategy} lets root traversals that only differ by the ids of their start step reuse the result of
+ * applying the other strategies to the first of them.  Plans are held in a {@link TraversalPlanCache} that is shared
+ * by every traversal spawned from the {@link org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource}
+ * the strategy was added to and which exposes the hit rate and the time spent compiling plans.
+ * <p/>
+ * <pre>
+ * final PlanCacheStrategy strategy = PlanCacheStrategy.build().maxSize(500).create();
+ * final GraphTraversalSource g = graph.traversal().withStrategies(strategy);
+ * g.V(1).out("knows").values("name").toList();
+ * g.V(2).out("knows").values("name").toList();   // reuses the plan of g.V(1)
+ * strategy.getPlanCache().getHitRate();
+ * </pre>
+ */
+public final class PlanCacheStrategy extends AbstractTraversalStrategy<TraversalStrategy.DecorationStrategy> implements TraversalStrategy.DecorationStrategy {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final transient TraversalPlanCache planCache;
+
+    private PlanCacheStrategy(final int maxSize) {
+        this.planCache = new TraversalPlanCache(maxSize);
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        // do nothing as the plan is looked up before the strategies are applied
+    }
+
+    /**
+     * Get the plan cache or {@code null} if this strategy was deserialized.
+     */
+    public TraversalPlanCache getPlanCache() {
+        return this.planCache;
+    }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    public final static class Builder {
+
+        private int maxSize = DEFAULT_MAX_SIZE;
+
+        private Builder() {
+        }
+
+        /**
+         * The maximum number of plans to keep, after which the least recently used plan is evicted.
+         */
+        public Builder maxSize(final int maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        public PlanCacheStrategy create() {
+            return new PlanCacheStrategy(this.maxSize);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Barrier;
+import org.apache.tinkerpop.gremlin.process.traversal.step.LambdaHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
+import org.apache.tinkerpop.gremlin.process.traversal.step.SideEffectCapable;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.FlatMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.FoldStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.ProfileSideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ParallelBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ProfileStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.util.function.ArrayListSupplier;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * {@code ParallelStrategy} executes a traversal that starts with a {@link GraphStep} and reduces its traversers with a
+ * {@link ReducingBarrierStep} (e.g. {@code count()}, {@code groupCount()}, {@code group()} or {@code fold()}) on
+ * multiple threads.  The steps between the graph step and the barrier are moved into a {@link ParallelBarrierStep}
+ * which runs a clone of them per thread over chunks of the elements of the graph step and merges their partial
+ * barriers.
+ * <p/>
+ * <pre>
+ * g.withStrategies(ParallelStrategy.build().parallelism(4).create()).V().out().out().groupCount() // or
+ * g.withParallelism(4).V().out().out().groupCount()
+ * </pre>
+ * <p/>
+ * The strategy only applies when the steps can not observe each other through shared state, so it leaves traversals
+ * alone that have lambdas, side-effects, mutations or barriers before the reducing barrier as well as traversals that
+ * are profiled or executed on a {@link org.apache.tinkerpop.gremlin.process.computer.GraphComputer}.  As the threads
+ * read the graph concurrently outside of the transaction of the calling thread, it also only applies to graphs that
+ * do not support transactions.
+ */
+public final class ParallelStrategy extends AbstractTraversalStrategy<TraversalStrategy.FinalizationStrategy> implements TraversalStrategy.FinalizationStrategy {
+
+    private static final Collection<Class> UNSAFE_CHILD_STEPS = Arrays.asList(
+            LambdaHolder.class,
+            SideEffectCapable.class,
+            Mutating.class);
+
+    private final int parallelism;
+    private final int chunkSize;
+
+    private ParallelStrategy(final int parallelism, final int chunkSize) {
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (!(traversal.getParent() instanceof EmptyStep) ||
+                !GraphStep.isStartStep(traversal.getStartStep()) ||
+                TraversalHelper.onGraphComputer(traversal) ||
+                TraversalHelper.hasStepOfAssignableClassRecursively(ProfileSideEffectStep.class, traversal))
+            return;
+        final Graph graph = traversal.getGraph().orElse(null);
+        if (null == graph || graph.features().graph().supportsTransactions())
+            return;
+
+        final List<Step> steps = traversal.getSteps();
+        int barrierIndex = 1;
+        while (barrierIndex < steps.size() && isParallelizable(steps.get(barrierIndex))) {
+            barrierIndex++;
+        }
+        // a graph step that is directly followed by its barrier has nothing to execute in parallel
+        if (1 == barrierIndex || barrierIndex == steps.size() || !isMergeable(steps.get(barrierIndex)))
+            return;
+
+        final List<Step> parallelSteps = new ArrayList<>(steps.subList(1, barrierIndex + 1));
+        for (int i = 0; i < parallelSteps.size(); i++) {
+            traversal.removeStep(1);
+        }
+        traversal.addStep(1, new ParallelBarrierStep<>(traversal, this.parallelism, this.chunkSize, parallelSteps));
+    }
+
+    private static boolean isParallelizable(final Step<?, ?> step) {
+        if (!(step instanceof FilterStep || step instanceof MapStep || step instanceof FlatMapStep || step instanceof NoOpBarrierStep))
+            return false;
+        if (step instanceof Barrier && !(step instanceof NoOpBarrierStep) || step instanceof ProfileStep)
+            return false;
+        return hasSafeChildren(step);
+    }
+
+    private static boolean isMergeable(final Step<?, ?> step) {
+        if (!(step instanceof ReducingBarrierStep))
+            return false;
+        // a fold() with a seed would add the seed once per partial barrier
+        if (step instanceof FoldStep && !(((FoldStep) step).getSeedSupplier() instanceof ArrayListSupplier))
+            return false;
+        return hasSafeChildren(step);
+    }
+
+    private static boolean hasSafeChildren(final Step<?, ?> step) {
+        if (UNSAFE_CHILD_STEPS.stream().anyMatch(c -> c.isInstance(step)))
+            return false;
+        if (step instanceof TraversalParent) {
+            for (final Traversal.Admin<?, ?> child : ((TraversalParent) step).getGlobalChildren()) {
+                if (TraversalHelper.hasStepOfAssignableClassRecursively(UNSAFE_CHILD_STEPS, child))
+                    return false;
+            }
+            for (final Traversal.Admin<?, ?> child : ((TraversalParent) step).getLocalChildren()) {
+                if (TraversalHelper.hasStepOfAssignableClassRecursively(UNSAFE_CHILD_STEPS, child))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    public int getChunkSize() {
+        return this.chunkSize;
+    }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    public final static class Builder {
+
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int chunkSize = 1000;
+
+        private Builder() {
+        }
+
+        /**
+         * The number of threads to execute a traversal on, which defaults to the number of available processors.
+         */
+        public Builder parallelism(final int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * The number of elements of the graph step a thread claims at a time, which defaults to 1000.
+         */
+        public Builder chunkSize(final int chunkSize) {
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        public ParallelStrategy create() {
+            if (this.parallelism < 1)
+                throw new IllegalArgumentException("The parallelism must be at least 1: " + this.parallelism);
+            if (this.chunkSize < 1)
+                throw new IllegalArgumentException("The chunk size must be at least 1: " + this.chunkSize);
+            return new ParallelStrategy(this.parallelism, this.chunkSize);
+        }
+    }
+}
@@ -29,13 +29,29 @@ import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import java.util.List;
 
 /**
+ * {@code ProfileStrategy} injects a {@link ProfileStep} after every step of a traversal that ends with
+ * {@code profile()}.  The default instance times every step exactly, which is precise but adds a couple of calls to
+ * {@code System.nanoTime()} per traverser and step.  A configured instance can time a sample of the calls instead and
+ * extrapolate from them, as well as record the bulk histogram and the (extrapolated) bytes allocated per step:
+ * <p/>
+ * <pre>
+ * g.withStrategies(ProfileStrategy.build().sampleRate(100).histograms(true).allocations(true).create()).V().out().out().profile()
+ * </pre>
+ *
  * @author Bob Briody (http://bobbriody.com)
  */
 public final class ProfileStrategy extends AbstractTraversalStrategy<TraversalStrategy.FinalizationStrategy> implements TraversalStrategy.FinalizationStrategy {
 
-    private static final ProfileStrategy INSTANCE = new ProfileStrategy();
+    private static final ProfileStrategy INSTANCE = new ProfileStrategy(1l, false, false);
+
+    private final long sampleRate;
+    private final boolean histograms;
+    private final boolean allocations;
 
-    private ProfileStrategy() {
+    private ProfileStrategy(final long sampleRate, final boolean histograms, final boolean allocations) {
+        this.sampleRate = sampleRate;
+        this.histograms = histograms;
+        this.allocations = allocations;
     }
 
     @Override
@@ -60,12 +76,69 @@ public final class ProfileStrategy extends AbstractTraversalStrategy<TraversalSt
             }
 
             // Create and inject ProfileStep
-            ProfileStep profileStep = new ProfileStep(traversal);
+            ProfileStep profileStep = new ProfileStep(traversal, this.sampleRate, this.histograms, this.allocations);
             traversal.addStep((ii * 2) + 1, profileStep);
         }
     }
 
+    public long getSampleRate() {
+        return this.sampleRate;
+    }
+
+    public boolean recordsHistograms() {
+        return this.histograms;
+    }
+
+    public boolean recordsAllocations() {
+        return this.allocations;
+    }
+
     public static ProfileStrategy instance() {
         return INSTANCE;
     }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    public final static class Builder {
+
+        private long sampleRate = 1l;
+        private boolean histograms = false;
+        private boolean allocations = false;
+
+        private Builder() {
+        }
+
+        /**
+         * Time one in {@code sampleRate} calls to each step on average and extrapolate the durations from them.
+         */
+        public Builder sampleRate(final long sampleRate) {
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        /**
+         * Count the traversers emitted by each step per power of two of their bulk.
+         */
+        public Builder histograms(final boolean histograms) {
+            this.histograms = histograms;
+            return this;
+        }
+
+        /**
+         * Record the bytes allocated by each step, which is only supported on JVMs that measure the memory allocated
+         * per thread and is otherwise ignored.
+         */
+        public Builder allocations(final boolean allocations) {
+            this.allocations = allocations;
+            return this;
+        }
+
+        public ProfileStrategy create() {
+            if (this.sampleRate < 1l)
+                throw new IllegalArgumentException("The sample rate must be at least 1: " + this.sampleRate);
+            return new ProfileStrategy(this.sampleRate, this.histograms, this.allocations);
+        }
+    }
 }
@@ -40,7 +40,15 @@ import java.util.List;
 import java.util.Set;
 
 /**
+ * {@code OrderLimitStrategy} passes the high range of a {@link RangeGlobalStep} that follows an
+ * {@link OrderGlobalStep} (with only one-to-one steps in between) to the {@link OrderGlobalStep} so that it only
+ * keeps the traversers that can make it past the range rather than sorting all of them.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
+ * @example <pre>
+ * __.order().by("score", decr).limit(10)            // the order step keeps the top 10
+ * __.order().select("a").range(5, 15)               // the order step keeps the top 15
+ * </pre>
  */
 public final class OrderLimitStrategy extends AbstractTraversalStrategy<TraversalStrategy.OptimizationStrategy> implements TraversalStrategy.OptimizationStrategy {
 
@@ -60,9 +68,6 @@ public final class OrderLimitStrategy extends AbstractTraversalStrategy<Traversa
 
     @Override
     public void apply(final Traversal.Admin<?, ?> traversal) {
-        if (!TraversalHelper.onGraphComputer(traversal))
-            return;
-
         final List<OrderGlobalStep> orders = TraversalHelper.getStepsOfClass(OrderGlobalStep.class, traversal);
         for (final OrderGlobalStep order : orders) {
             RangeGlobalStep range = null;
@@ -76,7 +81,7 @@ public final class OrderLimitStrategy extends AbstractTraversalStrategy<Traversa
                 else
                     currentStep = currentStep.getNextStep();
             }
-            if (null != range)
+            if (null != range && -1l != range.getHighRange())
                 order.setLimit(range.getHighRange());
         }
     }
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.traverser.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the first {@code limit} traversers (by bulk) of a stream as ordered by a comparator.  The traversers are held
+ * in a heap with the greatest kept traverser at its head, so a traverser that does not make the cut is dropped after
+ * a single comparison and the heap never holds more than the traversers needed to cover the limit.  Traversers that
+ * compare equal keep the order in which they were added, as they would with a stable sort.
+ */
+public final class TopKTraverserHeap<S> {
+
+    private final Comparator<Traverser<S>> comparator;
+    private final long limit;
+    private final PriorityQueue<Entry<S>> heap;
+    private long bulkSize = 0l;
+    private long sequence = 0l;
+
+    public TopKTraverserHeap(final Comparator<Traverser<S>> comparator, final long limit) {
+        if (limit < 0l)
+            throw new IllegalArgumentException("The limit of the heap must not be negative: " + limit);
+        this.comparator = comparator;
+        this.limit = limit;
+        this.heap = new PriorityQueue<>((int) Math.min(limit + 1, 1024l), (a, b) -> this.compare(b, a));
+    }
+
+    /**
+     * Add a traverser to the heap and return whether it was kept.
+     */
+    public boolean add(final Traverser.Admin<S> traverser) {
+        final Entry<S> entry = new Entry<>(traverser, this.sequence++);
+        if (this.bulkSize >= this.limit && (this.heap.isEmpty() || this.compare(entry, this.heap.peek()) >= 0))
+            return false;
+        this.heap.add(entry);
+        this.bulkSize = this.bulkSize + traverser.bulk();
+        // drop the greatest traversers for as long as the rest still cover the limit
+        while (this.bulkSize - this.heap.peek().traverser.bulk() >= this.limit) {
+            this.bulkSize = this.bulkSize - this.heap.poll().traverser.bulk();
+        }
+        return true;
+    }
+
+    public void addAll(final Iterable<Traverser.Admin<S>> traversers) {
+        traversers.forEach(this::add);
+    }
+
+    public int size() {
+        return this.heap.size();
+    }
+
+    public long bulkSize() {
+        return this.bulkSize;
+    }
+
+    /**
+     * Remove the traversers from the heap and add them to the set in order.
+     */
+    public void drainTo(final TraverserSet<S> traverserSet) {
+        final Entry<S>[] entries = new Entry[this.heap.size()];
+        for (int i = entries.length - 1; i >= 0; i--) {
+            entries[i] = this.heap.poll();
+        }
+        for (final Entry<S> entry : entries) {
+            traverserSet.add(entry.traverser);
+        }
+        this.bulkSize = 0l;
+    }
+
+    private int compare(final Entry<S> a, final Entry<S> b) {
+        final int comparison = this.comparator.compare(a.traverser, b.traverser);
+        return 0 != comparison ? comparison : Long.compare(a.sequence, b.sequence);
+    }
+
+    private static final class Entry<S> {
+        private final Traverser.Admin<S> traverser;
+        private final long sequence;
+
+        private Entry(final Traverser.Admin<S> traverser, final long sequence) {
+            this.traverser = traverser;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.traverser.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+
+import java.util.Arrays;
+
+/**
+ * A fixed capacity array of traversers that {@link org.apache.tinkerpop.gremlin.process.traversal.step.Batching}
+ * steps fill and hand to each other.  Steps can rewrite it in place by index (filtering by compacting and then
+ * truncating it) and a step that buffers its output reads it back in order through {@link #hasNext()} and
+ * {@link #next()}.
+ */
+public final class TraverserBatch<S> {
+
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final Traverser.Admin<S>[] traversers;
+    private int size = 0;
+    private int position = 0;
+
+    public TraverserBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TraverserBatch(final int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("The capacity of a batch must be at least 1: " + capacity);
+        this.traversers = (Traverser.Admin<S>[]) new Traverser.Admin[capacity];
+    }
+
+    /**
+     * Append a traverser, which the caller has to make sure fits by checking {@link #isFull()}.
+     */
+    public void add(final Traverser.Admin<S> traverser) {
+        this.traversers[this.size++] = traverser;
+    }
+
+    public Traverser.Admin<S> get(final int index) {
+        return this.traversers[index];
+    }
+
+    public void set(final int index, final Traverser.Admin<S> traverser) {
+        this.traversers[index] = traverser;
+    }
+
+    /**
+     * Drop the traversers from the given index onwards.
+     */
+    public void truncate(final int size) {
+        Arrays.fill(this.traversers, size, this.size, null);
+        this.size = size;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public int capacity() {
+        return this.traversers.length;
+    }
+
+    public boolean isFull() {
+        return this.traversers.length == this.size;
+    }
+
+    /**
+     * Whether there are traversers left to read with {@link #next()}.
+     */
+    public boolean hasNext() {
+        return this.position < this.size;
+    }
+
+    public Traverser.Admin<S> next() {
+        final Traverser.Admin<S> traverser = this.traversers[this.position];
+        this.traversers[this.position++] = null;
+        return traverser;
+    }
+
+    public void clear() {
+        Arrays.fill(this.traversers, this.position, this.size, null);
+        this.size = 0;
+        this.position = 0;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(Arrays.copyOfRange(this.traversers, this.position, this.size));
+    }
+}
@@ -20,74 +20,112 @@ package org.apache.tinkerpop.gremlin.process.traversal.traverser.util;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
-import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.Spliterator;
+import java.util.Spliterators;
 
 /**
+ * An insertion ordered set of traversers that merges the bulk of equal traversers.  Traversers are kept in an array
+ * in the order they were added and are located through an open-addressing (linear probing) table of indices into
+ * that array, so adding a traverser allocates nothing once the arrays have grown to fit the working set.  Removal
+ * leaves a hole in the array that is compacted away when the array fills up, which makes the set cheap to use as a
+ * FIFO {@link Queue}.  The bulk of a traverser is always read from the traverser itself as steps (e.g.
+ * {@code RangeGlobalStep} and {@code TailGlobalStep}) change it in place, so there is no running total of the bulk
+ * and {@link #bulkSize()} walks the traversers.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public class TraverserSet<S> extends AbstractSet<Traverser.Admin<S>> implements Set<Traverser.Admin<S>>, Queue<Traverser.Admin<S>>, Serializable {
 
-    private final Map<Traverser.Admin<S>, Traverser.Admin<S>> map = new LinkedHashMap<>();
+    private static final int MINIMUM_CAPACITY = 4;
 
-    public TraverserSet() {
+    // traversers in insertion order with null where one was removed - their hash is kept alongside
+    private transient Traverser.Admin<S>[] traversers;
+    private transient int[] hashes;
+    // index + 1 into the traverser array or 0 for an empty slot - always at least twice the length of the array
+    private transient int[] table;
+    private transient int head;
+    private transient int tail;
+    private transient int size;
+    private transient int modCount;
 
+    public TraverserSet() {
+        this.allocate(MINIMUM_CAPACITY);
     }
 
     public TraverserSet(final Traverser.Admin<S> traverser) {
-        this.map.put(traverser, traverser);
+        this();
+        this.add(traverser);
     }
 
     @Override
     public Iterator<Traverser.Admin<S>> iterator() {
-        return this.map.values().iterator();
+        return new TraverserSetIterator();
     }
 
     public Traverser.Admin<S> get(final Traverser.Admin<S> traverser) {
-        return this.map.get(traverser);
+        final int slot = this.find(traverser, hash(traverser));
+        return -1 == slot ? null : this.traversers[this.table[slot] - 1];
     }
 
     @Override
     public int size() {
-        return this.map.size();
+        return this.size;
     }
 
+    /**
+     * The sum of the bulk of the traversers, which takes time linear in the size of the set.
+     */
     public long bulkSize() {
-        return this.map.values().stream().map(Traverser::bulk).reduce(0l, (a, b) -> a + b);
+        long bulkSize = 0l;
+        for (int i = this.head; i < this.tail; i++) {
+            if (null != this.traversers[i])
+                bulkSize = bulkSize + this.traversers[i].bulk();
+        }
+        return bulkSize;
     }
 
     @Override
     public boolean isEmpty() {
-        return this.map.isEmpty();
+        return 0 == this.size;
     }
 
     @Override
     public boolean contains(final Object traverser) {
-        return this.map.containsKey(traverser);
+        return -1 != this.find(traverser, hash(traverser));
     }
 
     @Override
     public boolean add(final Traverser.Admin<S> traverser) {
-        final Traverser.Admin<S> existing = this.map.get(traverser);
-        if (null == existing) {
-            this.map.put(traverser, traverser);
-            return true;
-        } else {
-            existing.merge(traverser);
+        final int hash = hash(traverser);
+        final int slot = this.find(traverser, hash);
+        if (-1 != slot) {
+            this.traversers[this.table[slot] - 1].merge(traverser);
             return false;
         }
+        if (this.tail == this.traversers.length)
+            this.rebuild(this.size >= this.traversers.length >> 1 ? this.traversers.length << 1 : this.traversers.length);
+        final int index = this.tail++;
+        this.traversers[index] = traverser;
+        this.hashes[index] = hash;
+        this.insert(hash, index);
+        this.size++;
+        this.modCount++;
+        return true;
     }
 
     @Override
@@ -97,63 +135,220 @@ public class TraverserSet<S> extends AbstractSet<Traverser.Admin<S>> implements
 
     @Override
     public Traverser.Admin<S> remove() {  // pop, exception if empty
-        final Iterator<Traverser.Admin<S>> iterator = this.map.values().iterator();
-        if (!iterator.hasNext())
+        if (0 == this.size)
             throw FastNoSuchElementException.instance();
-        final Traverser.Admin<S> next = iterator.next();
-        iterator.remove();
+        final Traverser.Admin<S> next = this.traversers[this.head];
+        this.removeIndex(this.head);
         return next;
     }
 
     @Override
     public Traverser.Admin<S> poll() {  // pop, null if empty
-        return this.map.isEmpty() ? null : this.remove();
+        return 0 == this.size ? null : this.remove();
     }
 
     @Override
     public Traverser.Admin<S> element() { // peek, exception if empty
-        return this.iterator().next();
+        if (0 == this.size)
+            throw FastNoSuchElementException.instance();
+        return this.traversers[this.head];
     }
 
     @Override
     public Traverser.Admin<S> peek() { // peek, null if empty
-        return this.map.isEmpty() ? null : this.iterator().next();
+        return 0 == this.size ? null : this.traversers[this.head];
     }
 
     @Override
     public boolean remove(final Object traverser) {
-        return this.map.remove(traverser) != null;
+        final int slot = this.find(traverser, hash(traverser));
+        if (-1 == slot) return false;
+        this.removeIndex(this.table[slot] - 1);
+        return true;
     }
 
     @Override
     public void clear() {
-        this.map.clear();
+        if (this.traversers.length > MINIMUM_CAPACITY)
+            this.allocate(MINIMUM_CAPACITY);
+        else {
+            Arrays.fill(this.traversers, null);
+            Arrays.fill(this.table, 0);
+        }
+        this.head = 0;
+        this.tail = 0;
+        this.size = 0;
+        this.modCount++;
     }
 
     @Override
     public Spliterator<Traverser.Admin<S>> spliterator() {
-        return this.map.values().spliterator();
-    }
-
-    @Override
-    public String toString() {
-        return this.map.values().toString();
+        return Spliterators.spliterator(this, Spliterator.ORDERED | Spliterator.DISTINCT);
     }
 
     public void sort(final Comparator<Traverser<S>> comparator) {
-        final List<Traverser.Admin<S>> list = new ArrayList<>(this.map.size());
-        IteratorUtils.removeOnNext(this.map.values().iterator()).forEachRemaining(list::add);
+        final List<Traverser.Admin<S>> list = new ArrayList<>(this);
         Collections.sort(list, comparator);
-        this.map.clear();
-        list.forEach(traverser -> this.map.put(traverser, traverser));
+        this.clear();
+        list.forEach(this::add);
     }
 
     public void shuffle() {
-        final List<Traverser.Admin<S>> list = new ArrayList<>(this.map.size());
-        IteratorUtils.removeOnNext(this.map.values().iterator()).forEachRemaining(list::add);
+        final List<Traverser.Admin<S>> list = new ArrayList<>(this);
         Collections.shuffle(list);
-        this.map.clear();
-        list.forEach(traverser -> this.map.put(traverser, traverser));
+        this.clear();
+        list.forEach(this::add);
+    }
+
+    private static int hash(final Object traverser) {
+        final int h = traverser.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Find the table slot holding a traverser equal to the provided one or -1 if there is none.
+     */
+    private int find(final Object traverser, final int hash) {
+        final int mask = this.table.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            final int entry = this.table[slot];
+            if (0 == entry)
+                return -1;
+            if (this.hashes[entry - 1] == hash && this.traversers[entry - 1].equals(traverser))
+                return slot;
+        }
+    }
+
+    private void insert(final int hash, final int index) {
+        final int mask = this.table.length - 1;
+        int slot = hash & mask;
+        while (0 != this.table[slot]) {
+            slot = (slot + 1) & mask;
+        }
+        this.table[slot] = index + 1;
+    }
+
+    private void removeIndex(final int index) {
+        final int mask = this.table.length - 1;
+        int slot = this.hashes[index] & mask;
+        while (this.table[slot] != index + 1) {
+            slot = (slot + 1) & mask;
+        }
+        // shift later entries of the probe run back so that lookups never need to skip over deleted slots
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            final int entry = this.table[next];
+            if (0 == entry) break;
+            final int home = this.hashes[entry - 1] & mask;
+            if (next > slot ? (home <= slot || home > next) : (home <= slot && home > next)) {
+                this.table[slot] = entry;
+                slot = next;
+            }
+        }
+        this.table[slot] = 0;
+
+        this.traversers[index] = null;
+        this.size--;
+        this.modCount++;
+        if (0 == this.size) {
+            this.head = 0;
+            this.tail = 0;
+        } else if (index == this.head) {
+            while (null == this.traversers[this.head]) {
+                this.head++;
+            }
+        }
+    }
+
+    /**
+     * Move the remaining traversers to the front of arrays of the given capacity and re-index them.
+     */
+    private void rebuild(final int capacity) {
+        final Traverser.Admin<S>[] oldTraversers = this.traversers;
+        final int[] oldHashes = this.hashes;
+        final int oldTail = this.tail;
+        if (capacity == oldTraversers.length)
+            Arrays.fill(this.table, 0);
+        else
+            this.allocate(capacity);
+        int index = 0;
+        for (int i = this.head; i < oldTail; i++) {
+            if (null != oldTraversers[i]) {
+                this.traversers[index] = oldTraversers[i];
+                this.hashes[index] = oldHashes[i];
+                this.insert(oldHashes[i], index);
+                index++;
+            }
+        }
+        if (capacity == oldTraversers.length)
+            Arrays.fill(this.traversers, index, oldTail, null);
+        this.head = 0;
+        this.tail = index;
+        this.modCount++;
+    }
+
+    private void allocate(final int capacity) {
+        this.traversers = (Traverser.Admin<S>[]) new Traverser.Admin[capacity];
+        this.hashes = new int[capacity];
+        this.table = new int[capacity << 1];
+    }
+
+    private void writeObject(final ObjectOutputStream outputStream) throws IOException {
+        outputStream.defaultWriteObject();
+        outputStream.writeInt(this.size);
+        for (final Traverser.Admin<S> traverser : this) {
+            outputStream.writeObject(traverser);
+        }
+    }
+
+    private void readObject(final ObjectInputStream inputStream) throws IOException, ClassNotFoundException {
+        inputStream.defaultReadObject();
+        final int size = inputStream.readInt();
+        this.allocate(Math.max(MINIMUM_CAPACITY, Integer.highestOneBit(Math.max(1, size)) << 1));
+        for (int i = 0; i < size; i++) {
+            this.add((Traverser.Admin<S>) inputStream.readObject());
+        }
     }
 
+    private final class TraverserSetIterator implements Iterator<Traverser.Admin<S>> {
+
+        private int cursor = head;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            this.checkForComodification();
+            while (this.cursor < tail && null == traversers[this.cursor]) {
+                this.cursor++;
+            }
+            return this.cursor < tail;
+        }
+
+        @Override
+        public Traverser.Admin<S> next() {
+            if (!this.hasNext())
+                throw FastNoSuchElementException.instance();
+            this.last = this.cursor++;
+            return traversers[this.last];
+        }
+
+        @Override
+        public void remove() {
+            if (-1 == this.last)
+                throw new IllegalStateException();
+            this.checkForComodification();
+            removeIndex(this.last);
+            // removal leaves every other traverser where it is, so the cursor remains valid
+            if (0 == size) this.cursor = 0;
+            this.last = -1;
+            this.expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != this.expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+    }
 }
@@ -88,6 +88,22 @@ public class DefaultTraversal<S, E> implements Traversal.Admin<S, E> {
     @Override
     public void applyStrategies() throws IllegalStateException {
         if (this.locked) throw Traversal.Exceptions.traversalIsLocked();
+        final TraversalPlanCache planCache = this.parent instanceof EmptyStep ? TraversalPlanCache.of(this.strategies) : null;
+        final TraversalPlanCache.Key planKey = null == planCache ? null : planCache.key(this);
+        if (null != planKey) {
+            final DefaultTraversal<S, E> plan = planCache.get(planKey);
+            if (null != plan) {
+                this.applyPlan(plan);
+                return;
+            }
+        }
+        final long compileStart = null == planKey ? 0l : System.nanoTime();
+        this.applyStrategiesToSteps();
+        if (null != planKey)
+            planCache.put(planKey, this, System.nanoTime() - compileStart);
+    }
+
+    private void applyStrategiesToSteps() {
         TraversalHelper.reIdSteps(this.stepPosition, this);
         this.strategies.applyStrategies(this);
         boolean hasGraph = null != this.graph;
@@ -116,6 +132,42 @@ public class DefaultTraversal<S, E> implements Traversal.Admin<S, E> {
         this.locked = true;
     }
 
+    /**
+     * Replaces the steps of this traversal with those of a plan from a {@link TraversalPlanCache}.
+     */
+    private void applyPlan(final DefaultTraversal<S, E> plan) {
+        this.steps.clear();
+        for (final Step<?, ?> step : plan.getSteps()) {
+            step.setTraversal(this);
+            this.steps.add(step);
+        }
+        this.bindChildren(this);
+        this.finalEndStep = this.getEndStep();
+        this.requirements = null;
+        this.getTraverserRequirements();
+        this.locked = true;
+    }
+
+    private void bindChildren(final Traversal.Admin<?, ?> traversal) {
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            if (step instanceof TraversalParent) {
+                for (final Traversal.Admin<?, ?> globalChild : ((TraversalParent) step).getGlobalChildren()) {
+                    this.bindChild(globalChild);
+                }
+                for (final Traversal.Admin<?, ?> localChild : ((TraversalParent) step).getLocalChildren()) {
+                    this.bindChild(localChild);
+                }
+            }
+        }
+    }
+
+    private void bindChild(final Traversal.Admin<?, ?> child) {
+        child.setStrategies(this.strategies);
+        child.setSideEffects(this.sideEffects);
+        if (null != this.graph) child.setGraph(this.graph);
+        this.bindChildren(child);
+    }
+
     @Override
     public Set<TraverserRequirement> getTraverserRequirements() {
         if (null == this.requirements) {
@@ -213,6 +213,7 @@ public final class DefaultTraversalMetrics implements TraversalMetrics, Serializ
 
     private void handleNestedTraversals(Traversal.Admin traversal, MutableMetrics parentMetrics, boolean onGraphComputer) {
         long prevDur = 0;
+        long prevAllocated = 0;
         for (int ii = 0; ii < traversal.getSteps().size(); ii++) {
             Step step = (Step) traversal.getSteps().get(ii);
             if (!(step instanceof ProfileStep)) {
@@ -227,8 +228,15 @@ public final class DefaultTraversalMetrics implements TraversalMetrics, Serializ
                 // subtract upstream duration.
                 long durBeforeAdjustment = metrics.getDuration(TimeUnit.NANOSECONDS);
                 // adjust duration
-                metrics.setDuration(metrics.getDuration(TimeUnit.NANOSECONDS) - prevDur, TimeUnit.NANOSECONDS);
+                // sampled durations are estimates and so the difference can come out negative
+                metrics.setDuration(Math.max(0l, metrics.getDuration(TimeUnit.NANOSECONDS) - prevDur), TimeUnit.NANOSECONDS);
                 prevDur = durBeforeAdjustment;
+                // likewise for the allocations, when they are recorded
+                final Long allocated = metrics.getCount(ALLOCATED_BYTES_ID);
+                if (null != allocated) {
+                    metrics.setCount(ALLOCATED_BYTES_ID, Math.max(0l, allocated - prevAllocated));
+                    prevAllocated = allocated;
+                }
             }
 
             if (parentMetrics != null) {
@@ -54,9 +54,17 @@ public class MutableMetrics extends ImmutableMetrics implements Cloneable {
     }
 
     public void stop() {
+        this.stop(1l);
+    }
+
+    /**
+     * Stop the timer and add the time since it was started times the given weight to the duration, which is how a
+     * sampled measurement stands in for the ones that were not taken.
+     */
+    public void stop(final long weight) {
         if (-1 == this.tempTime)
             throw new IllegalStateException("Internal Error: Metrics has not been started. Start timer before stopping timer");
-        this.durationNs = this.durationNs + (System.nanoTime() - this.tempTime);
+        this.durationNs = this.durationNs + (System.nanoTime() - this.tempTime) * weight;
         this.tempTime = -1;
     }
 
@@ -38,6 +38,19 @@ public interface TraversalMetrics {
      */
     public static final String TRAVERSER_COUNT_ID = "traverserCount";
 
+    /**
+     * The MetricsId used to obtain the (estimated) number of bytes allocated by a step via
+     * Metrics.getCount(String countKey), which is only recorded when the {@code ProfileStrategy} is configured to.
+     */
+    public static final String ALLOCATED_BYTES_ID = "allocatedBytes";
+
+    /**
+     * The prefix of the MetricsIds used to obtain the bulk histogram of a step via Metrics.getCount(String countKey),
+     * which is only recorded when the {@code ProfileStrategy} is configured to.  The count of "bulk>=n" is the number
+     * of traversers with a bulk from n (a power of two) up to 2n-1.
+     */
+    public static final String BULK_HISTOGRAM_PREFIX = "bulk>=";
+
     /**
      * The annotation key used to obtain the percent duration via Metrics.getAnnotation(String key)
      */
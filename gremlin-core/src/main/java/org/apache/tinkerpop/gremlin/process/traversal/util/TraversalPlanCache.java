@@ -0,0 +1,462 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.util;
+
+import org.apache.tinkerpop.gremlin.process.computer.traversal.step.VertexComputing;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.PlanCacheStrategy;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, least-recently-used cache of traversals that have had their strategies applied.  A root traversal is
+ * keyed by its structure: the class, labels and fields of every step, recursing into child traversals, the identity of
+ * each of its strategies and the keys of its side-effects.  The ids of its start {@link GraphStep} are left out, so
+ * that {@code g.V(1).out()} and {@code g.V(2).out()} share one plan.  On a hit, the cached plan is cloned, given the
+ * ids of the submitted traversal and takes the place of its steps, so strategies are not applied again.
+ * <p/>
+ * A traversal is not cached if it holds an argument that can only be compared by identity (e.g. a lambda), if its
+ * strategies register side-effects or a sack, if they rewrite the ids of the start step or if they compile it for a
+ * {@link org.apache.tinkerpop.gremlin.process.computer.GraphComputer}.
+ * <p/>
+ * This class is typically accessed through a {@link PlanCacheStrategy}.
+ */
+public final class TraversalPlanCache {
+
+    private static final int MAX_DEPTH = 100;
+
+    private final Map<Key, DefaultTraversal<?, ?>> plans;
+
+    private final AtomicLong hits = new AtomicLong(0l);
+    private final AtomicLong misses = new AtomicLong(0l);
+    private final AtomicLong uncacheable = new AtomicLong(0l);
+    private final AtomicLong compileTime = new AtomicLong(0l);
+
+    public TraversalPlanCache(final int maxSize) {
+        if (maxSize < 1)
+            throw new IllegalArgumentException("The maximum size of the plan cache must be at least 1: " + maxSize);
+        this.plans = new LinkedHashMap<Key, DefaultTraversal<?, ?>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, DefaultTraversal<?, ?>> eldest) {
+                return this.size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Get the plan cache of the {@link PlanCacheStrategy} in the strategies, if there is one.
+     */
+    public static TraversalPlanCache of(final TraversalStrategies strategies) {
+        for (final TraversalStrategy<?> strategy : strategies.toList()) {
+            if (strategy instanceof PlanCacheStrategy)
+                return ((PlanCacheStrategy) strategy).getPlanCache();
+        }
+        return null;
+    }
+
+    /**
+     * Get the key of the plan of the root traversal whose strategies have not yet been applied or {@code null} if the
+     * traversal can not be cached.
+     */
+    Key key(final Traversal.Admin<?, ?> traversal) {
+        final Step<?, ?> startStep = traversal.getStartStep();
+        final Object[] ids = startStep instanceof GraphStep && ((GraphStep) startStep).isStartStep() ?
+                ((GraphStep) startStep).getIds() : null;
+        // a traversal without ids has nothing to abstract and one holding a collection of ids can not be rebuilt from it
+        final Object[] parameters = null == ids || 0 == ids.length || (1 == ids.length && ids[0] instanceof Collection) ? null : ids;
+
+        final List<Object> structure = new ArrayList<>();
+        structure.add(traversal.getGraph().map(Object::getClass).orElse(null));
+        for (final TraversalStrategy<?> strategy : traversal.getStrategies().toList()) {
+            structure.add(new Identity(strategy));
+        }
+        if (!addStructure(traversal, parameters, structure, 0)) {
+            this.uncacheable.incrementAndGet();
+            return null;
+        }
+
+        return new Key(structure, parameters,
+                new HashSet<>(traversal.getSideEffects().keys()), null != traversal.getSideEffects().getSackInitialValue());
+    }
+
+    /**
+     * Adds the structure of the object to the key or returns {@code false} if the object can only be compared by
+     * identity.  Steps contribute their class, labels and fields and the fields of other TinkerPop objects are
+     * compared rather than their {@code equals()} as steps and traversals only compare hash codes.
+     */
+    private static boolean addStructure(final Object object, final Object[] parameters, final List<Object> structure,
+                                        final int depth) {
+        if (null == object) {
+            structure.add(null);
+            return true;
+        } else if (object == parameters) {
+            // the ids of the start step only contribute how many there are
+            structure.add(parameters.length);
+            return true;
+        } else if (depth > MAX_DEPTH) {
+            // a cycle of fields (e.g. a lambda holding on to its own traversal) is not keyed
+            return false;
+        }
+
+        final Class<?> type = object.getClass();
+        switch (KINDS.get(type)) {
+            case VALUE:
+                structure.add(object);
+                return true;
+            case UNKEYED:
+                return false;
+            case ATOMIC:
+                // the running state of a step (e.g. the counter of range()) does not compare with equals()
+                structure.add(type);
+                structure.add(object.toString());
+                return true;
+            case REFERENCE:
+                // a step referenced by a field (e.g. the next step or the step a lambda belongs to) is covered by its traversal
+                structure.add(type);
+                return true;
+            case ITERABLE:
+                // collections and tuples (e.g. the traversal and comparator pairs of order()) are compared by their elements
+                structure.add(type);
+                final int sizeIndex = structure.size();
+                structure.add(null);
+                int size = 0;
+                for (final Object element : (Iterable<?>) object) {
+                    if (!addStructure(element, parameters, structure, depth + 1)) return false;
+                    size++;
+                }
+                structure.set(sizeIndex, size);
+                return true;
+            case MAP:
+                structure.add(type);
+                structure.add(((Map) object).size());
+                for (final Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                    if (!addStructure(entry.getKey(), parameters, structure, depth + 1) ||
+                            !addStructure(entry.getValue(), parameters, structure, depth + 1)) return false;
+                }
+                return true;
+            case OBJECT_ARRAY:
+                structure.add(type);
+                structure.add(((Object[]) object).length);
+                for (final Object element : (Object[]) object) {
+                    if (!addStructure(element, parameters, structure, depth + 1)) return false;
+                }
+                return true;
+            case PRIMITIVE_ARRAY:
+                structure.add(type);
+                structure.add(Array.getLength(object));
+                for (int i = 0; i < Array.getLength(object); i++) {
+                    structure.add(Array.get(object, i));
+                }
+                return true;
+            case TRAVERSAL:
+                structure.add(type);
+                for (final Step<?, ?> step : ((DefaultTraversal<?, ?>) object).getSteps()) {
+                    structure.add(step.getClass());
+                    if (!addStructure(step.getLabels(), parameters, structure, depth + 1) ||
+                            !addFields(step, parameters, structure, depth + 1))
+                        return false;
+                }
+                return addFields(object, parameters, structure, depth);
+            default:
+                structure.add(type);
+                return addFields(object, parameters, structure, depth);
+        }
+    }
+
+    private static boolean addFields(final Object object, final Object[] parameters, final List<Object> structure,
+                                     final int depth) {
+        for (final Field field : FIELDS.get(object.getClass())) {
+            try {
+                if (!addStructure(field.get(object), parameters, structure, depth + 1))
+                    return false;
+            } catch (final IllegalAccessException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * How an object of a class contributes to a key, which is worked out once per class as checking every object
+     * against each interface is about as expensive as applying the strategies.
+     */
+    private enum Kind {
+        /**
+         * Compared with {@code equals()}, such as strings, numbers, enums and elements.
+         */
+        VALUE,
+        /**
+         * Only compared by identity, such as lambdas.
+         */
+        UNKEYED,
+        /**
+         * Only contributes its class, such as a graph or a step referenced by another step.
+         */
+        REFERENCE,
+        /**
+         * An {@code AtomicBoolean}, {@code AtomicInteger} or {@code AtomicLong}, compared by its value.
+         */
+        ATOMIC,
+        ITERABLE,
+        MAP,
+        OBJECT_ARRAY,
+        PRIMITIVE_ARRAY,
+        /**
+         * A {@link DefaultTraversal} that contributes its steps and fields.
+         */
+        TRAVERSAL,
+        /**
+         * Any other TinkerPop object, which contributes its fields.
+         */
+        FIELDS
+    }
+
+    private static final ClassValue<Kind> KINDS = new ClassValue<Kind>() {
+        @Override
+        protected Kind computeValue(final Class<?> type) {
+            return kind(type);
+        }
+    };
+
+    private static final ClassValue<Field[]> FIELDS = new ClassValue<Field[]>() {
+        @Override
+        protected Field[] computeValue(final Class<?> type) {
+            return fields(type);
+        }
+    };
+
+    private static Kind kind(final Class<?> type) {
+        if (Element.class.isAssignableFrom(type) || Traverser.class.isAssignableFrom(type) ||
+                Enum.class.isAssignableFrom(type) || Class.class.equals(type))
+            return Kind.VALUE;
+        else if (Graph.class.isAssignableFrom(type) || Step.class.isAssignableFrom(type))
+            return Kind.REFERENCE;
+        else if (AtomicBoolean.class.equals(type) || AtomicInteger.class.equals(type) || AtomicLong.class.equals(type))
+            return Kind.ATOMIC;
+        else if (Iterable.class.isAssignableFrom(type))
+            return Kind.ITERABLE;
+        else if (Map.class.isAssignableFrom(type))
+            return Kind.MAP;
+        else if (type.isArray())
+            return type.getComponentType().isPrimitive() ? Kind.PRIMITIVE_ARRAY : Kind.OBJECT_ARRAY;
+        else if (type.isSynthetic())
+            // a lambda, wherever it was written
+            return Kind.UNKEYED;
+        else if (!type.getName().startsWith("org.apache.tinkerpop."))
+            // values such as strings and numbers are compared with equals() and anything else is not keyed
+            return overridesEquals(type) ? Kind.VALUE : Kind.UNKEYED;
+        else
+            return DefaultTraversal.class.isAssignableFrom(type) ? Kind.TRAVERSAL : Kind.FIELDS;
+    }
+
+    /**
+     * The instance fields of the TinkerPop classes of the type that are not transient, where the bookkeeping of
+     * {@link AbstractStep} (its id, traversal, neighbouring steps and starts) and of {@link DefaultTraversal} (its
+     * parent, side-effects and strategies) is left out.
+     */
+    private static Field[] fields(final Class<?> type) {
+        final List<Field> fields = new ArrayList<>();
+        for (Class<?> current = type; null != current && !current.equals(AbstractStep.class) && !current.equals(DefaultTraversal.class) &&
+                current.getName().startsWith("org.apache.tinkerpop."); current = current.getSuperclass()) {
+            for (final Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+        }
+        return fields.toArray(new Field[fields.size()]);
+    }
+
+    private static boolean overridesEquals(final Class<?> type) {
+        try {
+            return !type.getMethod("equals", Object.class).getDeclaringClass().equals(Object.class);
+        } catch (final NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Get a copy of the plan for the key with the ids of the traversal it was made from or {@code null} if there is
+     * no plan.
+     */
+    <S, E> DefaultTraversal<S, E> get(final Key key) {
+        final DefaultTraversal<S, E> plan;
+        synchronized (this.plans) {
+            plan = (DefaultTraversal<S, E>) this.plans.get(key);
+        }
+        if (null == plan) {
+            this.misses.incrementAndGet();
+            return null;
+        }
+
+        this.hits.incrementAndGet();
+        final DefaultTraversal<S, E> clone = plan.clone();
+        if (null != key.parameters) {
+            final GraphStep<?, ?> startStep = (GraphStep<?, ?>) clone.getStartStep();
+            startStep.clearIds();
+            startStep.addIds(key.parameters);
+        }
+        return clone;
+    }
+
+    /**
+     * Caches the plan of a root traversal whose strategies were just applied, unless the strategies did something
+     * that the plan can not be reused for.
+     */
+    void put(final Key key, final DefaultTraversal<?, ?> compiled, final long compileNanos) {
+        this.compileTime.addAndGet(compileNanos);
+
+        if (!key.sideEffectKeys.equals(compiled.getSideEffects().keys()) ||
+                key.sack != (null != compiled.getSideEffects().getSackInitialValue()) ||
+                TraversalHelper.hasStepOfAssignableClassRecursively(VertexComputing.class, compiled) ||
+                (null != key.parameters && !(compiled.getStartStep() instanceof GraphStep &&
+                        Arrays.equals(key.parameters, ((GraphStep) compiled.getStartStep()).getIds())))) {
+            this.uncacheable.incrementAndGet();
+            return;
+        }
+
+        final DefaultTraversal<?, ?> plan = compiled.clone();
+        synchronized (this.plans) {
+            // the key of the stored plan must not hold on to the ids of the traversal it was compiled from
+            this.plans.put(new Key(key.structure, null, key.sideEffectKeys, key.sack), plan);
+        }
+    }
+
+    /**
+     * The number of traversals that were given a cached plan.
+     */
+    public long getHitCount() {
+        return this.hits.get();
+    }
+
+    /**
+     * The number of cacheable traversals that had to be compiled because there was no cached plan.
+     */
+    public long getMissCount() {
+        return this.misses.get();
+    }
+
+    /**
+     * The number of traversals that could not be cached.
+     */
+    public long getUncacheableCount() {
+        return this.uncacheable.get();
+    }
+
+    /**
+     * The fraction of cacheable traversals that were given a cached plan.
+     */
+    public double getHitRate() {
+        final long hits = this.hits.get();
+        final long total = hits + this.misses.get();
+        return 0l == total ? 0d : (double) hits / total;
+    }
+
+    /**
+     * The total time spent applying strategies to traversals that were cacheable but missed.
+     */
+    public long getCompileTime(final TimeUnit unit) {
+        return unit.convert(this.compileTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    public int size() {
+        synchronized (this.plans) {
+            return this.plans.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (this.plans) {
+            this.plans.clear();
+        }
+    }
+
+    static final class Key {
+        private final List<Object> structure;
+        private final int hashCode;
+        private final Object[] parameters;
+        private final Set<String> sideEffectKeys;
+        private final boolean sack;
+
+        private Key(final List<Object> structure, final Object[] parameters, final Set<String> sideEffectKeys, final boolean sack) {
+            this.structure = structure;
+            this.hashCode = structure.hashCode() ^ sideEffectKeys.hashCode() ^ Boolean.hashCode(sack);
+            this.parameters = parameters;
+            this.sideEffectKeys = sideEffectKeys;
+            this.sack = sack;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Key && this.hashCode == ((Key) other).hashCode &&
+                    this.sack == ((Key) other).sack &&
+                    this.sideEffectKeys.equals(((Key) other).sideEffectKeys) &&
+                    this.structure.equals(((Key) other).structure);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+
+    /**
+     * Compares a strategy by identity so that two configurations of one strategy class do not share plans.
+     */
+    private static final class Identity {
+        private final Object object;
+
+        private Identity(final Object object) {
+            this.object = object;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Identity && this.object == ((Identity) other).object;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.object);
+        }
+    }
+}
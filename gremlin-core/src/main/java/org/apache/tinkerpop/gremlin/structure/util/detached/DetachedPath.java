@@ -24,6 +24,7 @@ import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.util.Attachable;
 
+import java.util.LinkedHashSet;
 import java.util.function.Function;
 
 /**
@@ -43,19 +44,19 @@ public class DetachedPath extends MutablePath implements Attachable<Path> {
         path.forEach((object, labels) -> {
             if (object instanceof DetachedElement || object instanceof DetachedProperty || object instanceof DetachedPath) {
                 this.objects.add(object);
-                this.labels.add(labels);
+                this.labels.add(new LinkedHashSet<>(labels));
             } else if (object instanceof Element) {
                 this.objects.add(DetachedFactory.detach((Element) object, withProperties));
-                this.labels.add(labels);
+                this.labels.add(new LinkedHashSet<>(labels));
             } else if (object instanceof Property) {
                 this.objects.add(DetachedFactory.detach((Property) object));
-                this.labels.add(labels);
+                this.labels.add(new LinkedHashSet<>(labels));
             } else if (object instanceof Path) {
                 this.objects.add(DetachedFactory.detach((Path) object, withProperties));
-                this.labels.add(labels);
+                this.labels.add(new LinkedHashSet<>(labels));
             } else {
                 this.objects.add(object);
-                this.labels.add(labels);
+                this.labels.add(new LinkedHashSet<>(labels));
             }
         });
     }
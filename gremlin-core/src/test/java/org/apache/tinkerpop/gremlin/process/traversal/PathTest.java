@@ -22,6 +22,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.util.ImmutablePath;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.MutablePath;
 import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedPath;
 import org.apache.tinkerpop.gremlin.structure.util.reference.ReferencePath;
+import org.apache.tinkerpop.gremlin.util.Serializer;
 import org.junit.Test;
 
 import java.util.Arrays;
@@ -334,4 +335,44 @@ public class PathTest {
             }
         }
     }
+
+    @Test
+    public void shouldShareLabelsAndStructureBetweenPaths() {
+        final Path prefix = ImmutablePath.make().extend(1, new LinkedHashSet<>(Arrays.asList("a", "b"))).extend(2, Collections.emptySet());
+        final Path pathA = prefix.extend(3, Collections.singleton("c"));
+        final Path pathB = prefix.extend(4, new HashSet<>(Collections.singletonList("c")));
+        assertSame(pathA.labels().get(0), pathB.labels().get(0));
+        assertSame(pathA.labels().get(2), pathB.labels().get(2));
+        assertSame(pathA, pathA.extend(Collections.singleton("c")));
+        assertEquals(pathA.objects().hashCode(), pathA.hashCode());
+        assertEquals(Arrays.asList(1, 2, 3), pathA.objects());
+
+        // a clone copies its label sets so extending its labels does not change the original
+        final Path mutable = MutablePath.make().extend(1, Collections.singleton("a"));
+        final Path clone = mutable.clone().extend(Collections.singleton("b"));
+        assertFalse(mutable.hasLabel("b"));
+        assertTrue(clone.hasLabel("b"));
+        assertEquals(new LinkedHashSet<>(Arrays.asList("a", "b")), clone.labels().get(0));
+    }
+
+    @Test
+    public void shouldHandleDeepImmutablePaths() throws Exception {
+        Path path = ImmutablePath.make().extend(-1, Collections.singleton("start"));
+        for (int i = 0; i < 100000; i++) {
+            path = path.extend(i, i % 1000 == 0 ? Collections.singleton("x") : Collections.emptySet());
+        }
+        assertEquals(100001, path.size());
+        assertEquals(path.objects().hashCode(), path.hashCode());
+        assertEquals(Integer.valueOf(99000), path.get(Pop.last, "x"));
+        assertEquals(Integer.valueOf(0), path.get(Pop.first, "x"));
+        assertEquals(100, path.<List<Integer>>get(Pop.all, "x").size());
+        assertEquals(Integer.valueOf(-1), path.get("start"));
+        assertEquals(Integer.valueOf(500), path.get(501));
+        assertFalse(path.hasLabel("y"));
+
+        final Path copy = (Path) Serializer.deserializeObject(Serializer.serializeObject(ImmutablePath.make()
+                .extend(1, Collections.singleton("a")).extend(2, Collections.emptySet())));
+        assertEquals(Integer.valueOf(1), copy.get("a"));
+        assertEquals(Arrays.asList(1, 2).hashCode(), copy.hashCode());
+    }
 }
@@ -18,13 +18,22 @@
  */
 package org.apache.tinkerpop.gremlin.process.traversal.step.filter;
 
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.step.StepTest;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.DedupStrategy;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 /**
  * @author Daniel Kuppitz (http://gremlin.guru)
  */
@@ -37,4 +46,29 @@ public class DedupGlobalStepTest extends StepTest {
                 __.dedup().by("name")
         );
     }
+
+    @Test
+    public void shouldDedupWithinTheMemoryBudget() {
+        final List<Object> values = new ArrayList<>();
+        for (long i = 0; i < 50000; i++) {
+            values.add(i % 20000);
+            values.add("v" + (i % 20000));
+        }
+        final GraphTraversalSource g = EmptyGraph.instance().traversal()
+                .withStrategies(DedupStrategy.build().memoryBudget(16 * 1024).create());
+        assertEquals(40000l, g.inject(values).unfold().dedup().count().next().longValue());
+        assertEquals(20000l, g.inject(values).unfold().as("a").is(P.neq("x")).dedup("a").count().next().longValue() / 2l);
+    }
+
+    @Test
+    public void shouldDedupApproximately() {
+        final List<Object> values = new ArrayList<>();
+        for (long i = 0; i < 50000; i++) {
+            values.add(i % 20000);
+        }
+        final GraphTraversalSource g = EmptyGraph.instance().traversal()
+                .withStrategies(DedupStrategy.build().approximate(0.01d).expectedInsertions(20000).create());
+        final long count = g.inject(values).unfold().dedup().count().next();
+        assertTrue(count <= 20000l && count > 19500l);
+    }
 }
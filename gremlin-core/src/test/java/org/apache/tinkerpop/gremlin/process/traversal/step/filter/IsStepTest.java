@@ -22,9 +22,16 @@ import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.step.StepTest;
+import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
 
 /**
  * @author Daniel Kuppitz (http://gremlin.guru)
@@ -39,4 +46,25 @@ public class IsStepTest extends StepTest {
                 __.count().is(1)
         );
     }
+
+    @Test
+    public void shouldFilterBatchesOfStarts() {
+        final Traversal.Admin<Integer, Integer> traversal = __.<Integer>is(P.gt(100)).is(P.lt(900)).asAdmin();
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            traversal.addStart(traversal.getTraverserGenerator().generate(i, traversal.getStartStep(), 1l));
+            if (i > 100 && i < 900)
+                expected.add(i);
+        }
+        assertEquals(expected, traversal.toList());
+    }
+
+    @Test
+    public void shouldNotReadAheadOfStepsThatAreNotBatching() {
+        final AtomicInteger pulled = new AtomicInteger(0);
+        final Traversal<Integer, Integer> traversal = __.inject(IntStream.range(0, 1000).boxed().collect(Collectors.toList()).toArray(new Integer[1000]))
+                .sideEffect(t -> pulled.incrementAndGet()).is(P.gte(10));
+        assertEquals(10, traversal.next().intValue());
+        assertEquals(11, pulled.get());
+    }
 }
@@ -19,16 +19,25 @@
 package org.apache.tinkerpop.gremlin.process.traversal.step.map;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.step.StepTest;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.B_O_Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
+import org.apache.tinkerpop.gremlin.util.function.ChainedComparator;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.outE;
+import static org.junit.Assert.assertEquals;
 
 /**
  * @author Daniel Kuppitz (http://gremlin.guru)
@@ -64,4 +73,33 @@ public class OrderGlobalStepTest extends StepTest {
             __.inject(list).unfold().order().by(__.identity(), Order.shuffle).by().iterate();
         }
     }
+
+    @Test
+    public void shouldOnlyKeepTraversersUpToTheLimit() {
+        final List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            list.add(i);
+        }
+        Collections.shuffle(list, new Random(123456789l));
+        assertEquals(Arrays.asList(9999, 9998, 9997), __.inject(list).unfold().order().by(Order.decr).limit(3).toList());
+        assertEquals(Arrays.asList(5, 6, 7, 8, 9), __.inject(list).unfold().order().range(5, 10).toList());
+        assertEquals(Arrays.asList(9, 9, 8), __.inject(list, list).unfold().unfold().is(P.lt(10)).order().by(Order.decr).limit(3).toList());
+        // traversers that compare equal are kept in the order they arrived
+        assertEquals(Arrays.asList(0, 3, 6, 9, 12), __.inject(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15)
+                .order().by(__.map(t -> (int) t.get() % 3), Order.incr).limit(5).toList());
+    }
+
+    @Test
+    public void shouldOnlyKeepTraversersUpToTheLimitWhenMerging() {
+        final OrderGlobalStep.OrderBiOperator<Integer> operator = new OrderGlobalStep.OrderBiOperator<>(
+                new ChainedComparator<>(true, Collections.emptyList()), 4);
+        final TraverserSet<Integer> setA = new TraverserSet<>();
+        final TraverserSet<Integer> setB = new TraverserSet<>();
+        for (int i = 0; i < 10; i++) {
+            (i % 2 == 0 ? setA : setB).add(new B_O_Traverser<>(10 - i, 1l));
+        }
+        final TraverserSet<Integer> merged = operator.apply(setA, setB);
+        assertEquals(4l, merged.bulkSize());
+        assertEquals(Arrays.asList(1, 2, 3, 4), IteratorUtils.list(IteratorUtils.map(merged.iterator(), Traverser::get)));
+    }
 }
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Batching;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class AbstractStepTest {
+
+    @Test
+    public void shouldNotReadAheadWhenIteratedWithNext() {
+        final AtomicInteger tested = new AtomicInteger(0);
+        final Traversal.Admin<Integer, Integer> traversal = __.<Integer>is(new P<>((a, b) -> tested.incrementAndGet() > 0, null)).asAdmin();
+        for (int i = 0; i < 1000; i++) {
+            traversal.addStart(traversal.getTraverserGenerator().generate(i, traversal.getStartStep(), 1l));
+        }
+        assertEquals(0, traversal.next().intValue());
+        assertEquals(1, tested.get());
+        assertEquals(999, traversal.toList().size());
+        assertEquals(1000, tested.get());
+    }
+
+    @Test
+    public void shouldNotBatchSubclassesThatDoNotDeclareBatching() {
+        final Traversal.Admin<Integer, Integer> traversal = __.<Integer>start().asAdmin();
+        final CountingEvenStep step = new CountingEvenStep(traversal);
+        traversal.addStep(step);
+        for (int i = 0; i < 100; i++) {
+            traversal.addStart(traversal.getTraverserGenerator().generate(i, traversal.getStartStep(), 1l));
+        }
+        assertEquals(50, traversal.toList().size());
+        // every result went through the overridden processNextStart() rather than around it
+        assertEquals(50, step.processed);
+    }
+
+    private static class EvenStep extends FilterStep<Integer> implements Batching {
+
+        private EvenStep(final Traversal.Admin traversal) {
+            super(traversal);
+        }
+
+        @Override
+        protected boolean filter(final Traverser.Admin<Integer> traverser) {
+            return traverser.get() % 2 == 0;
+        }
+    }
+
+    private static final class CountingEvenStep extends EvenStep {
+
+        private int processed = 0;
+
+        private CountingEvenStep(final Traversal.Admin traversal) {
+            super(traversal);
+        }
+
+        @Override
+        protected Traverser.Admin<Integer> processNextStart() {
+            final Traverser.Admin<Integer> traverser = super.processNextStart();
+            this.processed++;
+            return traverser;
+        }
+    }
+}
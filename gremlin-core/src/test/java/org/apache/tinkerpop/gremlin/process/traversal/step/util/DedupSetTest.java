@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.apache.tinkerpop.gremlin.TestHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.DedupStrategy;
+import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedEdge;
+import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedVertex;
+import org.apache.tinkerpop.gremlin.structure.util.reference.ReferenceVertex;
+import org.javatuples.Pair;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DedupSetTest {
+
+    @Test
+    public void shouldDedupKeysAsTheyAreEqual() {
+        final DedupSet set = new DedupSet();
+        final DetachedVertex vertex = new DetachedVertex(1l, "person", Collections.emptyMap());
+        assertTrue(set.add(vertex));
+        assertFalse(set.add(new ReferenceVertex(vertex)));
+        assertTrue(set.add(new DetachedVertex(1, "person", Collections.emptyMap())));
+        assertTrue(set.add(new DetachedEdge(1l, "knows", Collections.emptyMap(), Pair.with(1l, "person"), Pair.with(2l, "person"))));
+        assertTrue(set.add(1l));
+        assertFalse(set.add(1l));
+        assertTrue(set.add(1));
+        assertTrue(set.add(0l));
+        assertFalse(set.add(0l));
+        assertTrue(set.add("1"));
+        assertTrue(set.add(new DetachedVertex("1", "person", Collections.emptyMap())));
+        assertFalse(set.add(new DetachedVertex("1", "person", Collections.emptyMap())));
+        assertTrue(set.add(Arrays.asList(1l, "a")));
+        assertFalse(set.add(Arrays.asList(1l, "a")));
+        assertTrue(set.add(null));
+        assertFalse(set.add(null));
+
+        set.clear();
+        assertTrue(set.add(vertex));
+    }
+
+    @Test
+    public void shouldSpillPrimitiveKeysPastTheMemoryBudget() {
+        final DedupSet set = new DedupSet(32 * 1024, null);
+        final Random random = new Random(1234567890l);
+        final long[] ids = new long[100000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = random.nextLong();
+            assertTrue(set.add(new DetachedVertex(ids[i], "person", Collections.emptyMap())));
+            assertTrue(set.add("v" + i));
+        }
+        assertTrue(set.getRunCount() > 0);
+        assertTrue(set.getRunCount() <= 9);
+
+        for (int i = 0; i < ids.length; i++) {
+            assertFalse(set.add(new DetachedVertex(ids[i], "person", Collections.emptyMap())));
+            assertFalse(set.add("v" + i));
+            assertTrue(set.add(ids[i]));
+        }
+        for (final long id : ids) {
+            assertFalse(set.add(id));
+        }
+
+        set.clear();
+        assertEquals(0, set.getRunCount());
+        assertTrue(set.add(ids[0]));
+    }
+
+    @Test
+    public void shouldDeleteRunFilesOnceMergedAndWhenClosed() {
+        final File directory = TestHelper.makeTestDataPath(DedupSetTest.class, "runs");
+        final DedupSet set = new DedupSet(32 * 1024, directory);
+        for (long i = 0l; i < 100000l; i++) {
+            assertTrue(set.add(i * 7l));
+        }
+        assertTrue(set.getRunCount() > 1);
+        // merged runs are deleted right away so there is one file per run left
+        assertEquals(set.getRunCount(), directory.listFiles().length);
+
+        // a released run is opened again when it is looked up
+        set.release();
+        assertFalse(set.add(7l));
+        assertTrue(set.add(8l));
+        set.release();
+
+        set.close();
+        assertEquals(0, set.getRunCount());
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    @Test
+    public void shouldDeleteRunFilesOnceTheDedupStepIsDone() {
+        final File directory = TestHelper.makeTestDataPath(DedupSetTest.class, "step");
+        final DedupStrategy strategy = DedupStrategy.build().memoryBudget(32 * 1024).spillDirectory(directory.getAbsolutePath()).create();
+        final Long[] longs = new Long[100000];
+        for (int i = 0; i < longs.length; i++) {
+            longs[i] = (long) (i % 50000);
+        }
+        final Traversal.Admin<Long, Long> traversal = __.inject(longs).dedup().count().asAdmin();
+        traversal.setStrategies(traversal.getStrategies().clone().addStrategies(strategy));
+        assertEquals(50000l, traversal.next().longValue());
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    @Test
+    public void shouldApproximatelyDedupWithinTheFalsePositiveProbability() {
+        final DedupSet set = DedupSet.approximate(0.01d, 100000);
+        int unique = 0;
+        for (long i = 0; i < 100000; i++) {
+            if (set.add(i)) unique++;
+        }
+        assertTrue(unique > 98000);
+        for (long i = 0; i < 100000; i++) {
+            assertFalse(set.add(i));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ObjectLongHashMapTest {
+
+    @Test
+    public void shouldCountNullAndNonNullKeys() {
+        final ObjectLongHashMap<String> map = new ObjectLongHashMap<>();
+        assertTrue(map.isEmpty());
+        assertEquals(2l, map.add("a", 2l));
+        assertEquals(3l, map.add(null, 3l));
+        assertEquals(7l, map.add("a", 5l));
+        assertEquals(7l, map.get("a"));
+        assertEquals(3l, map.get(null));
+        assertEquals(0l, map.get("b"));
+        assertEquals(2, map.size());
+        assertFalse(map.isEmpty());
+        final Map<String, Long> expected = new HashMap<>();
+        expected.put("a", 7l);
+        expected.put(null, 3l);
+        assertEquals(expected, map.toMap());
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0l, map.get(null));
+    }
+
+    @Test
+    public void shouldMatchHashMapUnderRandomIncrements() {
+        final Random random = new Random(12345l);
+        final ObjectLongHashMap<Integer> map = new ObjectLongHashMap<>(4);
+        final Map<Integer, Long> model = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            final Integer key = random.nextInt(5000);
+            final long bulk = random.nextInt(10) + 1;
+            assertEquals(model.merge(key, bulk, Long::sum).longValue(), map.add(key, bulk));
+        }
+        assertEquals(model.size(), map.size());
+        assertEquals(model, map.toMap());
+        final Map<Integer, Long> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(model, visited);
+    }
+}
@@ -56,9 +56,17 @@ public class OrderLimitStrategyTest {
 
     @Test
     public void doTest() {
-        traversal.asAdmin().setParent(new TraversalVertexProgramStep(EmptyTraversal.instance(), EmptyTraversal.instance())); // trick it
+        final Traversal.Admin<?, ?> traversal = this.traversal.asAdmin().clone();
+        traversal.setParent(new TraversalVertexProgramStep(EmptyTraversal.instance(), EmptyTraversal.instance())); // trick it
         applyOrderLimitStrategyStrategy(traversal);
-        assertEquals(limit, TraversalHelper.getFirstStepOfAssignableClass(OrderGlobalStep.class, traversal.asAdmin()).get().getLimit());
+        assertEquals(limit, TraversalHelper.getFirstStepOfAssignableClass(OrderGlobalStep.class, traversal).get().getLimit());
+    }
+
+    @Test
+    public void doTestWithoutComputer() {
+        final Traversal.Admin<?, ?> traversal = this.traversal.asAdmin().clone();
+        applyOrderLimitStrategyStrategy(traversal);
+        assertEquals(limit, TraversalHelper.getFirstStepOfAssignableClass(OrderGlobalStep.class, traversal).get().getLimit());
     }
 
     @Parameterized.Parameters(name = "{0}")
@@ -67,6 +75,7 @@ public class OrderLimitStrategyTest {
                 {__.order().limit(1), 1l},
                 {__.out().order().range(7, 15), 15l},
                 {__.order().select("a").limit(7), 7l},
-                {__.order().out().limit(10), Long.MAX_VALUE}});
+                {__.order().out().limit(10), Long.MAX_VALUE},
+                {__.order().range(5, -1), Long.MAX_VALUE}});
     }
 }
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.traverser.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.B_O_Traverser;
+import org.apache.tinkerpop.gremlin.util.Serializer;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TraverserSetTest {
+
+    @Test
+    public void shouldMergeBulkOfEqualTraversers() {
+        final TraverserSet<String> set = new TraverserSet<>();
+        assertTrue(set.add(traverser("a", 2)));
+        assertTrue(set.add(traverser("b", 1)));
+        assertFalse(set.add(traverser("a", 3)));
+        assertEquals(2, set.size());
+        assertEquals(6l, set.bulkSize());
+        assertEquals(5l, set.get(traverser("a", 1)).bulk());
+        assertTrue(set.contains(traverser("b", 7)));
+        assertFalse(set.contains(traverser("c", 1)));
+        assertNull(set.get(traverser("c", 1)));
+    }
+
+    @Test
+    public void shouldMaintainInsertionOrderAcrossRemovalsAndGrowth() {
+        final TraverserSet<Integer> set = new TraverserSet<>();
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            set.add(traverser(i, 1));
+            expected.add(i);
+            if (i % 3 == 0) {
+                assertTrue(set.remove(traverser(i / 2, 1)) == expected.remove((Integer) (i / 2)));
+            }
+        }
+        assertEquals(expected, IteratorUtils.list(IteratorUtils.map(set.iterator(), Traverser::get)));
+        assertEquals(expected.size(), set.size());
+        assertEquals(expected.size(), set.bulkSize());
+        expected.forEach(i -> assertTrue(set.contains(traverser(i, 1))));
+    }
+
+    @Test
+    public void shouldBehaveAsFifoQueue() {
+        final TraverserSet<Integer> set = new TraverserSet<>();
+        int next = 0;
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < 7; i++) {
+                set.offer(traverser(round * 7 + i, 2));
+            }
+            for (int i = 0; i < 5; i++) {
+                assertEquals(next++, (int) set.peek().get());
+                assertEquals(next - 1, (int) set.poll().get());
+            }
+        }
+        assertEquals(200, set.size());
+        assertEquals(400l, set.bulkSize());
+        while (!set.isEmpty()) {
+            assertEquals(next++, (int) set.remove().get());
+        }
+        assertEquals(0l, set.bulkSize());
+        assertNull(set.poll());
+        assertNull(set.peek());
+    }
+
+    @Test
+    public void shouldRemoveThroughIterator() {
+        final TraverserSet<Integer> set = new TraverserSet<>();
+        for (int i = 0; i < 100; i++) {
+            set.add(traverser(i, i));
+        }
+        final Iterator<Traverser.Admin<Integer>> iterator = set.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().get() % 2 == 0)
+                iterator.remove();
+        }
+        assertEquals(50, set.size());
+        assertEquals(2500l, set.bulkSize());
+        assertEquals(1, (int) set.peek().get());
+        set.add(traverser(0, 1));
+        assertEquals(0, (int) IteratorUtils.list(set.iterator()).get(50).get());
+    }
+
+    @Test
+    public void shouldSortAndSerialize() throws Exception {
+        final TraverserSet<Integer> set = new TraverserSet<>();
+        final List<Integer> values = new ArrayList<>(Arrays.asList(5, 3, 9, 1, 7));
+        values.forEach(i -> set.add(traverser(i, i)));
+        set.sort(Comparator.comparing(t -> t.get()));
+        values.sort(Comparator.naturalOrder());
+        assertEquals(values, IteratorUtils.list(IteratorUtils.map(set.iterator(), Traverser::get)));
+
+        final TraverserSet<Integer> copy = (TraverserSet<Integer>) Serializer.deserializeObject(Serializer.serializeObject(set));
+        assertEquals(set, copy);
+        assertEquals(values, IteratorUtils.list(IteratorUtils.map(copy.iterator(), Traverser::get)));
+        assertEquals(25l, copy.bulkSize());
+    }
+
+    @Test
+    public void shouldMatchLinkedHashSetSemanticsUnderRandomOperations() {
+        final Random random = new Random(12345l);
+        final TraverserSet<Integer> set = new TraverserSet<>();
+        final Map<Integer, Long> model = new LinkedHashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            final int value = random.nextInt(500);
+            switch (random.nextInt(4)) {
+                case 0:
+                case 1:
+                    set.add(traverser(value, 1));
+                    model.merge(value, 1l, Long::sum);
+                    break;
+                case 2:
+                    assertEquals(null != model.remove(value), set.remove(traverser(value, 1)));
+                    break;
+                default:
+                    final Traverser.Admin<Integer> head = set.poll();
+                    if (model.isEmpty())
+                        assertNull(head);
+                    else {
+                        final Integer first = model.keySet().iterator().next();
+                        assertEquals(first, head.get());
+                        assertEquals(model.remove(first).longValue(), head.bulk());
+                    }
+            }
+        }
+        assertEquals(new ArrayList<>(model.keySet()), IteratorUtils.list(IteratorUtils.map(set.iterator(), Traverser::get)));
+        assertEquals(model.values().stream().mapToLong(Long::longValue).sum(), set.bulkSize());
+    }
+
+    @Test
+    public void shouldReadBulkChangedOutsideOfTheSet() {
+        final TraverserSet<String> set = new TraverserSet<>();
+        set.add(traverser("a", 5));
+        set.add(traverser("b", 3));
+        // steps like RangeGlobalStep and TailGlobalStep trim the bulk of a traverser in place
+        set.get(traverser("a", 1)).setBulk(2);
+        assertEquals(5l, set.bulkSize());
+        set.add(traverser("a", 1));
+        assertEquals(6l, set.bulkSize());
+        set.get(traverser("b", 1)).setBulk(1);
+        assertEquals(3l, set.remove().bulk());
+        assertEquals(1l, set.bulkSize());
+        assertTrue(set.remove(traverser("b", 1)));
+        assertEquals(0l, set.bulkSize());
+    }
+
+    @Test
+    public void shouldKeepBulkOfTraversersTrimmedByRangeAndTail() {
+        final TraverserSet<String> set = new TraverserSet<>();
+        __.inject("a", "a", "a", "b", "b", "c").barrier().range(1, 5).barrier().asAdmin().getEndStep()
+                .forEachRemaining(set::add);
+        assertEquals(2l, set.get(traverser("a", 1)).bulk());
+        assertEquals(2l, set.get(traverser("b", 1)).bulk());
+        assertEquals(4l, set.bulkSize());
+
+        set.clear();
+        __.inject("a", "a", "a", "b", "b", "c").barrier().tail(4).barrier().asAdmin().getEndStep()
+                .forEachRemaining(set::add);
+        assertEquals(1l, set.get(traverser("a", 1)).bulk());
+        assertEquals(4l, set.bulkSize());
+        assertEquals(1l, set.remove().bulk());
+        assertEquals(3l, set.bulkSize());
+    }
+
+    private static <T> Traverser.Admin<T> traverser(final T t, final long bulk) {
+        return new B_O_Traverser<>(t, bulk);
+    }
+}
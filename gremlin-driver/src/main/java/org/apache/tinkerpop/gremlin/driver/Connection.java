@@ -84,6 +84,12 @@ final class Connection {
     private final AtomicReference<CompletableFuture<Void>> closeFuture = new AtomicReference<>();
     private final AtomicBoolean shutdownInitiated = new AtomicBoolean(false);
 
+    /**
+     * The number of {@link ResultQueue} instances on this connection whose subscriber is not keeping up with the
+     * results.  Reading from the channel stops while this is greater than zero.
+     */
+    private int pausedReads = 0;
+
     public Connection(final URI uri, final ConnectionPool pool, final int maxInProcess) throws ConnectionException {
         this.uri = uri;
         this.cluster = pool.getCluster();
@@ -227,7 +233,9 @@ final class Connection {
                             return null;
                         });
 
-                        final ResultQueue handler = new ResultQueue(resultLinkedBlockingQueue, readCompleted);
+                        final ResultQueue handler = new ResultQueue(resultLinkedBlockingQueue, readCompleted,
+                                thisConnection::pauseReading, thisConnection::resumeReading,
+                                cluster.connectionPoolSettings().resultIterationBatchSize * 2);
                         pending.put(requestMessage.getRequestId(), handler);
                         future.complete(new ResultSet(handler, cluster.executor(), readCompleted));
                     }
@@ -237,6 +245,14 @@ final class Connection {
         return promise;
     }
 
+    private synchronized void pauseReading() {
+        if (pausedReads++ == 0) channel.config().setAutoRead(false);
+    }
+
+    private synchronized void resumeReading() {
+        if (--pausedReads == 0) channel.config().setAutoRead(true);
+    }
+
     public void returnToPool() {
         try {
             if (pool != null) pool.returnConnection(this);
@@ -37,6 +37,7 @@ import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
 import java.security.PrivilegedExceptionAction;
 import java.security.PrivilegedActionException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -185,16 +186,20 @@ final class Handler {
                 final ResponseStatusCode statusCode = response.getStatus().getCode();
                 if (statusCode == ResponseStatusCode.SUCCESS || statusCode == ResponseStatusCode.PARTIAL_CONTENT) {
                     final Object data = response.getResult().getData();
+                    // the results of the response are handed to the queue as a batch so that those waiting on the queue
+                    // are signalled once per response rather than once per result
+                    final List<Result> results;
                     if (data instanceof List) {
                         // unrolls the collection into individual results to be handled by the queue.
                         final List<Object> listToUnroll = (List<Object>) data;
-                        final ResultQueue queue = pending.get(response.getRequestId());
-                        listToUnroll.forEach(item -> tryUnrollTraverser(queue, item));
+                        results = new ArrayList<>(listToUnroll.size());
+                        listToUnroll.forEach(item -> tryUnrollTraverser(results, item));
                     } else {
                         // since this is not a list it can just be added to the queue
-                        final ResultQueue queue = pending.get(response.getRequestId());
-                        tryUnrollTraverser(queue, response.getResult().getData());
+                        results = new ArrayList<>(1);
+                        tryUnrollTraverser(results, response.getResult().getData());
                     }
+                    pending.get(response.getRequestId()).addAll(results);
                 } else {
                     // this is a "success" but represents no results otherwise it is an error
                     if (statusCode != ResponseStatusCode.NO_CONTENT)
@@ -211,15 +216,15 @@ final class Handler {
             }
         }
 
-        private void tryUnrollTraverser(final ResultQueue queue, final Object item) {
+        private void tryUnrollTraverser(final List<Result> results, final Object item) {
             if (unrollTraversers && item instanceof Traverser) {
                 final Traverser t = (Traverser) item;
                 final Object traverserObject = t.get();
                 for (long ix = 0; ix < t.bulk(); ix++) {
-                    queue.add(new Result(traverserObject));
+                    results.add(new Result(traverserObject));
                 }
             } else {
-                queue.add(new Result(item));
+                results.add(new Result(item));
             }
         }
 
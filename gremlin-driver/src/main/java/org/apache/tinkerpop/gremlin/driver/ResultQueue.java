@@ -28,11 +28,17 @@ import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A queue of incoming {@link ResponseMessage} objects.  The queue is updated by the
  * {@link Handler.GremlinResponseHandler} until a response terminator is identified.
+ * <p/>
+ * Once a {@link ResultSet.Subscriber} is attached, results are handed to it as it signals demand rather than to
+ * waiting futures.  In that mode the queue asks its connection to stop reading from the server whenever it holds
+ * {@code highWaterMark} or more results that the subscriber has not yet taken and to start reading again once the
+ * subscriber has taken it down to half of that.
  *
  * @author Stephen Mallette (http://stephen.genoprime.com)
  */
@@ -47,17 +53,102 @@ final class ResultQueue {
 
     private final Queue<Pair<CompletableFuture<List<Result>>,Integer>> waiting = new ConcurrentLinkedQueue<>();
 
+    private final Runnable pauseReading;
+
+    private final Runnable resumeReading;
+
+    private final int highWaterMark;
+
+    private final AtomicBoolean readingPaused = new AtomicBoolean(false);
+
+    private volatile ResultSubscription subscription = null;
+
     public ResultQueue(final LinkedBlockingQueue<Result> resultLinkedBlockingQueue, final CompletableFuture<Void> readComplete) {
+        this(resultLinkedBlockingQueue, readComplete, () -> {}, () -> {}, Integer.MAX_VALUE);
+    }
+
+    ResultQueue(final LinkedBlockingQueue<Result> resultLinkedBlockingQueue, final CompletableFuture<Void> readComplete,
+                final Runnable pauseReading, final Runnable resumeReading, final int highWaterMark) {
         this.resultLinkedBlockingQueue = resultLinkedBlockingQueue;
         this.readComplete = readComplete;
+        this.pauseReading = pauseReading;
+        this.resumeReading = resumeReading;
+        this.highWaterMark = Math.max(2, highWaterMark);
     }
 
     public void add(final Result result) {
         this.resultLinkedBlockingQueue.offer(result);
-        tryDrainNextWaiting(false);
+        afterAdd();
+    }
+
+    /**
+     * Adds all the results of a single response at once so that waiting futures or the subscriber are only
+     * signalled once for the whole batch.
+     */
+    void addAll(final List<Result> results) {
+        for (Result result : results) {
+            this.resultLinkedBlockingQueue.offer(result);
+        }
+        afterAdd();
+    }
+
+    private void afterAdd() {
+        final ResultSubscription s = subscription;
+        if (null == s)
+            tryDrainNextWaiting(false);
+        else if (s.isCancelled())
+            resultLinkedBlockingQueue.clear();
+        else {
+            if (resultLinkedBlockingQueue.size() >= highWaterMark && readingPaused.compareAndSet(false, true))
+                pauseReading.run();
+            s.signal();
+        }
+    }
+
+    /**
+     * Hands the results to the subscription rather than to waiting futures from this point forward.
+     */
+    synchronized void subscribe(final ResultSubscription subscription) {
+        if (this.subscription != null)
+            throw new IllegalStateException("The ResultSet already has a subscriber");
+        if (!waiting.isEmpty())
+            throw new IllegalStateException("The ResultSet cannot be subscribed to while results are being awaited");
+        this.subscription = subscription;
+    }
+
+    /**
+     * Takes the next result for the subscriber, resuming reads from the server once enough results were taken.
+     */
+    Result poll() {
+        final Result result = resultLinkedBlockingQueue.poll();
+        if (resultLinkedBlockingQueue.size() <= highWaterMark / 2) releaseReading();
+        return result;
+    }
+
+    /**
+     * Makes sure this queue is no longer holding back reads on the connection.
+     */
+    void releaseReading() {
+        if (readingPaused.compareAndSet(true, false))
+            resumeReading.run();
+    }
+
+    boolean isDrained() {
+        return resultLinkedBlockingQueue.isEmpty();
+    }
+
+    boolean isComplete() {
+        return readComplete.isDone();
+    }
+
+    Throwable getError() {
+        return error.get();
     }
 
     public CompletableFuture<List<Result>> await(final int items) {
+        if (subscription != null)
+            throw new IllegalStateException("Results cannot be awaited from a ResultSet that has a subscriber");
+
         final CompletableFuture<List<Result>> result = new CompletableFuture<>();
         waiting.add(Pair.with(result, items));
 
@@ -84,12 +175,19 @@ final class ResultQueue {
     void markComplete() {
         this.readComplete.complete(null);
         this.drainAllWaiting();
+        this.signalSubscription();
     }
 
     void markError(final Throwable throwable) {
         error.set(throwable);
         this.readComplete.completeExceptionally(throwable);
         this.drainAllWaiting();
+        this.signalSubscription();
+    }
+
+    private void signalSubscription() {
+        final ResultSubscription s = subscription;
+        if (s != null) s.signal();
     }
 
     /**
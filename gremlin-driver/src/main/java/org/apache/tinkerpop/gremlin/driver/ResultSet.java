@@ -41,6 +41,9 @@ import java.util.stream.StreamSupport;
  * by {@link #all()} will make it so that the {@link List} of results returned from {@link #all()} have one
  * {@link Result} missing from the total set as it was already retrieved by {@link #one}.
  * <p/>
+ * Results may alternatively be pushed to a {@link Subscriber} with {@link #subscribe(Subscriber)}, in which case
+ * the demand the subscriber signals bounds the number of results held on the client.
+ * <p/>
  * This class is not thread-safe.
  *
  * @author Stephen Mallette (http://stephen.genoprime.com)
@@ -106,6 +109,25 @@ public final class ResultSet implements Iterable<Result> {
         }, executor);
     }
 
+    /**
+     * Pushes the results to a {@link Subscriber} as it requests them, following the contract of a Reactive Streams
+     * {@code Publisher}.  The {@code Subscriber} is given its {@link Subscription} before any other signal and signals
+     * are issued from the executor of the {@link Cluster}, never from the thread reading from the server.  When the
+     * subscriber falls behind so that two batches worth of results (as set by
+     * {@link Cluster.Builder#resultIterationBatchSize(int)}) accumulate on the client, the connection stops reading
+     * from the server until the subscriber catches up, which lets the server hold back the rest of the response.
+     * Note that other requests sharing the connection are held back with it.
+     * <p/>
+     * A {@code ResultSet} can only have one {@code Subscriber} and it cannot be combined with the other methods of
+     * retrieving results.
+     */
+    public void subscribe(final Subscriber subscriber) {
+        final ResultSubscription subscription = new ResultSubscription(resultQueue, subscriber, executor);
+        resultQueue.subscribe(subscription);
+        subscriber.onSubscribe(subscription);
+        subscription.start();
+    }
+
     /**
      * Stream items with a blocking iterator.
      */
@@ -147,4 +169,47 @@ public final class ResultSet implements Iterable<Result> {
             }
         };
     }
+
+    /**
+     * Receives the results of a {@code ResultSet} given to {@link #subscribe(Subscriber)}.  The methods mirror those of
+     * a Reactive Streams {@code Subscriber} so that it can be adapted directly to any implementation of that API.
+     */
+    public interface Subscriber {
+        /**
+         * Called once, before any other method, with the {@link Subscription} through which results are requested.
+         */
+        public void onSubscribe(final Subscription subscription);
+
+        /**
+         * Called with each result, never more times than the results requested.
+         */
+        public void onNext(final Result result);
+
+        /**
+         * Called at most once if the request failed, after which no other method is called.
+         */
+        public void onError(final Throwable throwable);
+
+        /**
+         * Called at most once when all results have been delivered, after which no other method is called.
+         */
+        public void onComplete();
+    }
+
+    /**
+     * Controls the flow of results to a {@link Subscriber}.
+     */
+    public interface Subscription {
+        /**
+         * Requests more results be delivered to the {@link Subscriber}.  A request of {@code Long.MAX_VALUE} is
+         * unbounded and a request that is not positive fails the subscription.
+         */
+        public void request(final long n);
+
+        /**
+         * Stops the delivery of results to the {@link Subscriber}.  The remaining results are read from the server and
+         * discarded.
+         */
+        public void cancel();
+    }
 }
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.driver;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@link ResultSet.Subscription} that delivers the results of a {@link ResultQueue} to a
+ * {@link ResultSet.Subscriber}.  Signals to the subscriber are issued from the executor of the {@link Cluster} (never
+ * from the thread reading from the server) and never concurrently.  Every call to {@link #signal()} schedules a
+ * drain unless one is already running, in which case that drain is made to loop once more.
+ */
+final class ResultSubscription implements ResultSet.Subscription {
+
+    private final ResultQueue resultQueue;
+    private final ResultSet.Subscriber subscriber;
+    private final ExecutorService executor;
+
+    private final AtomicLong requested = new AtomicLong(0);
+    private final AtomicInteger pendingSignals = new AtomicInteger(0);
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    private volatile Throwable invalidRequest = null;
+    private volatile boolean started = false;
+    private boolean terminated = false;
+
+    ResultSubscription(final ResultQueue resultQueue, final ResultSet.Subscriber subscriber, final ExecutorService executor) {
+        this.resultQueue = resultQueue;
+        this.subscriber = subscriber;
+        this.executor = executor;
+    }
+
+    @Override
+    public void request(final long n) {
+        if (n <= 0) {
+            invalidRequest = new IllegalArgumentException(String.format("The number of results requested must be positive but was %s", n));
+        } else {
+            // demand is capped at Long.MAX_VALUE which is treated as unbounded
+            requested.accumulateAndGet(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+        }
+        signal();
+    }
+
+    @Override
+    public void cancel() {
+        if (cancelled.compareAndSet(false, true)) {
+            // results are still read from the server to keep the connection usable, but nobody will take them
+            resultQueue.releaseReading();
+        }
+    }
+
+    /**
+     * Begins delivery to the subscriber, which must happen only after it has been given this subscription.
+     */
+    void start() {
+        started = true;
+        signal();
+    }
+
+    boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    void signal() {
+        if (pendingSignals.getAndIncrement() == 0)
+            executor.execute(this::drain);
+    }
+
+    private void drain() {
+        int missed = 1;
+        do {
+            while (started && !terminated) {
+                if (cancelled.get()) {
+                    terminated = true;
+                    break;
+                }
+
+                if (invalidRequest != null) {
+                    terminate(invalidRequest);
+                    break;
+                }
+
+                // an error from the server fails the stream without delivering the results ahead of it which is
+                // consistent with the futures returned from ResultSet
+                final Throwable error = resultQueue.getError();
+                if (error != null) {
+                    terminate(error);
+                    break;
+                }
+
+                // completion needs to be read before polling or the last results might be missed
+                final boolean complete = resultQueue.isComplete();
+                if (requested.get() == 0) {
+                    if (complete && resultQueue.isDrained()) terminate(null);
+                    break;
+                }
+
+                final Result result = resultQueue.poll();
+                if (null == result) {
+                    if (complete) terminate(null);
+                    break;
+                }
+
+                if (requested.get() != Long.MAX_VALUE) requested.decrementAndGet();
+                try {
+                    subscriber.onNext(result);
+                } catch (Throwable t) {
+                    cancel();
+                    terminate(t);
+                }
+            }
+
+            missed = pendingSignals.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void terminate(final Throwable error) {
+        terminated = true;
+        resultQueue.releaseReading();
+        if (null == error)
+            subscriber.onComplete();
+        else
+            subscriber.onError(error);
+    }
+}
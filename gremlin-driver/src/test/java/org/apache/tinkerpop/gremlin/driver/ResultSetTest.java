@@ -21,17 +21,27 @@ package org.apache.tinkerpop.gremlin.driver;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 /**
@@ -174,4 +184,114 @@ public class ResultSetTest extends AbstractResultQueueTest {
 
         assertEquals(100, counter.get());
     }
+
+    @Test
+    public void shouldPushResultsToSubscriberAsRequested() throws Exception {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        resultSet.subscribe(subscriber);
+        subscriber.subscription.request(2);
+
+        resultQueue.addAll(Arrays.asList(new Result("test1"), new Result("test2"), new Result("test3")));
+        subscriber.awaitResults(2);
+        assertEquals(1, resultSet.getAvailableItemCount());
+
+        resultQueue.add(new Result("test4"));
+        resultQueue.markComplete();
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertThat(subscriber.done.await(30000, TimeUnit.MILLISECONDS), is(true));
+        assertEquals(Arrays.asList("test1", "test2", "test3", "test4"), subscriber.values());
+        assertThat(subscriber.completed.get(), is(true));
+        assertNull(subscriber.error.get());
+    }
+
+    @Test
+    public void shouldSignalErrorToSubscriber() throws Exception {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        resultSet.subscribe(subscriber);
+        subscriber.subscription.request(1);
+        resultQueue.add(new Result("test1"));
+        subscriber.awaitResults(1);
+
+        final Exception theProblem = new Exception("no worky");
+        resultQueue.markError(theProblem);
+
+        assertThat(subscriber.done.await(30000, TimeUnit.MILLISECONDS), is(true));
+        assertSame(theProblem, subscriber.error.get());
+        assertThat(subscriber.completed.get(), is(false));
+    }
+
+    @Test
+    public void shouldPauseReadingWhileSubscriberIsBehind() throws Exception {
+        final AtomicInteger pauses = new AtomicInteger(0);
+        final AtomicInteger resumes = new AtomicInteger(0);
+        final ResultQueue flowControlled = new ResultQueue(new LinkedBlockingQueue<>(), readCompleted,
+                pauses::incrementAndGet, resumes::incrementAndGet, 4);
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        new ResultSet(flowControlled, pool, readCompleted).subscribe(subscriber);
+
+        flowControlled.addAll(Arrays.asList(new Result("test1"), new Result("test2"), new Result("test3")));
+        assertEquals(0, pauses.get());
+        flowControlled.add(new Result("test4"));
+        assertEquals(1, pauses.get());
+        assertEquals(0, resumes.get());
+
+        // taking one result leaves three behind which is still above the low water mark of two
+        subscriber.subscription.request(1);
+        subscriber.awaitResults(1);
+        assertEquals(0, resumes.get());
+
+        subscriber.subscription.request(1);
+        subscriber.awaitResults(2);
+        assertEquals(1, resumes.get());
+        assertEquals(1, pauses.get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotAllowSecondSubscriber() {
+        resultSet.subscribe(new RecordingSubscriber());
+        resultSet.subscribe(new RecordingSubscriber());
+    }
+
+    private static class RecordingSubscriber implements ResultSet.Subscriber {
+        private final List<Result> results = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private final AtomicBoolean completed = new AtomicBoolean(false);
+        private final CountDownLatch done = new CountDownLatch(1);
+        private ResultSet.Subscription subscription;
+
+        @Override
+        public void onSubscribe(final ResultSet.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(final Result result) {
+            results.add(result);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            error.set(throwable);
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.set(true);
+            done.countDown();
+        }
+
+        private void awaitResults(final int count) throws InterruptedException {
+            final long start = System.currentTimeMillis();
+            while (results.size() < count && System.currentTimeMillis() - start < 30000) {
+                TimeUnit.MILLISECONDS.sleep(1);
+            }
+            assertEquals(count, results.size());
+        }
+
+        private List<String> values() {
+            return results.stream().map(Result::getString).collect(Collectors.toList());
+        }
+    }
 }
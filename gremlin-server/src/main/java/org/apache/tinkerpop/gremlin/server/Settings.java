@@ -120,6 +120,22 @@ public class Settings {
      */
     public int resultIterationBatchSize = 64;
 
+    /**
+     * The size in bytes that a serialized batch of results should aim for.  When greater than zero, the number of
+     * results in each batch is adjusted from {@link #resultIterationBatchSize} based on the measured size of the
+     * batches already serialized for the request.  Requests that specify their own batch size are not adjusted.
+     * Defaults to 0 which disables this setting.
+     */
+    public int resultIterationFrameSize = 0;
+
+    /**
+     * If set to {@code true}, result iteration for sessionless requests is suspended when the channel is no longer
+     * writeable and resumed on the gremlin thread pool when the client catches up, rather than holding the thread
+     * while it waits.  Requests that bind their iteration to a thread (in-session requests and those against
+     * graphs that support transactions) are not streamed this way.  Defaults to {@code false}.
+     */
+    public boolean resultIterationStreaming = false;
+
     /**
      * The maximum length of the initial line (e.g. {@code "GET / HTTP/1.0"}) processed in a request, which essentially
      * controls the maximum length of the submitted URI. This setting ties to the Netty {@code HttpRequestDecoder}.
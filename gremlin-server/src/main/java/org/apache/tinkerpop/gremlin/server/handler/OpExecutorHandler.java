@@ -35,6 +35,7 @@ import org.javatuples.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Queue;
 import java.util.concurrent.ScheduledExecutorService;
 
 /**
@@ -82,4 +83,27 @@ public class OpExecutorHandler extends SimpleChannelInboundHandler<Pair<RequestM
             ReferenceCountUtil.release(objects);
         }
     }
+
+    @Override
+    public void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable()) notifyWritabilityListeners(ctx);
+        super.channelWritabilityChanged(ctx);
+    }
+
+    @Override
+    public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+        // responses waiting on a closed channel need to be woken so that they can release their results
+        notifyWritabilityListeners(ctx);
+        super.channelInactive(ctx);
+    }
+
+    private static void notifyWritabilityListeners(final ChannelHandlerContext ctx) {
+        final Queue<Runnable> listeners = ctx.channel().attr(StateKey.WRITABILITY_LISTENERS).get();
+        if (null == listeners) return;
+
+        Runnable listener;
+        while ((listener = listeners.poll()) != null) {
+            listener.run();
+        }
+    }
 }
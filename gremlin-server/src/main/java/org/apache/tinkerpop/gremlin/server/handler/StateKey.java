@@ -24,6 +24,8 @@ import org.apache.tinkerpop.gremlin.server.auth.Authenticator;
 import org.apache.tinkerpop.gremlin.server.op.session.Session;
 import io.netty.util.AttributeKey;
 
+import java.util.Queue;
+
 /**
  * Keys used in the various handlers to store state in the pipeline.
  *
@@ -54,4 +56,9 @@ public class StateKey {
      * The key for the current request.
      */
     public static final AttributeKey<RequestMessage> REQUEST_MESSAGE = AttributeKey.valueOf("request");
+
+    /**
+     * The key for the callbacks of responses that are waiting for the channel to become writeable.
+     */
+    public static final AttributeKey<Queue<Runnable>> WRITABILITY_LISTENERS = AttributeKey.valueOf("writabilityListeners");
 }
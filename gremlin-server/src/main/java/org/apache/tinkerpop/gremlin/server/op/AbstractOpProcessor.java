@@ -60,6 +60,10 @@ public abstract class AbstractOpProcessor implements OpProcessor {
      * {@link Settings#serializedResponseTimeout} configuration and break the serialization process if
      * it begins to take too long to do so, throwing a {@link java.util.concurrent.TimeoutException} in such
      * cases.
+     * <p/>
+     * When {@link Settings#resultIterationStreaming} is enabled, sessionless requests against graphs that do not
+     * support transactions are iterated by a {@code StreamingResponse}, in which case this method may return before
+     * iteration is complete and errors that occur after that point are written to the client directly.
      *
      * @param context The Gremlin Server {@link Context} object containing settings, request message, etc.
      * @param itty The result to iterator
@@ -88,14 +92,19 @@ public abstract class AbstractOpProcessor implements OpProcessor {
             return;
         }
 
+        // iteration that is not bound to this thread can give the thread up while the client is catching up
+        if (settings.resultIterationStreaming && manageTransactions && !anyGraphSupportsTransactions(context.getGraphManager())) {
+            new StreamingResponse(context, itty, managedTransactionsForRequest).start();
+            return;
+        }
+
         // timer for the total serialization time
         final StopWatch stopWatch = new StopWatch();
         stopWatch.start();
 
         // the batch size can be overridden by the request
-        final int resultIterationBatchSize = (Integer) msg.optionalArgs(Tokens.ARGS_BATCH_SIZE)
-                .orElse(settings.resultIterationBatchSize);
-        List<Object> aggregate = new ArrayList<>(resultIterationBatchSize);
+        final AdaptiveBatchSize batchSize = new AdaptiveBatchSize(msg, settings);
+        List<Object> aggregate = new ArrayList<>(batchSize.get());
 
         // use an external control to manage the loop as opposed to just checking hasNext() in the while.  this
         // prevent situations where auto transactions create a new transaction after calls to commit() withing
@@ -109,12 +118,12 @@ public abstract class AbstractOpProcessor implements OpProcessor {
             // so iterating next() if the message is not written and flushed would bump the aggregate size beyond
             // the expected resultIterationBatchSize.  Total serialization time for the response remains in
             // effect so if the client is "slow" it may simply timeout.
-            if (aggregate.size() < resultIterationBatchSize) aggregate.add(itty.next());
+            if (aggregate.size() < batchSize.get()) aggregate.add(itty.next());
 
             // send back a page of results if batch size is met or if it's the end of the results being iterated.
             // also check writeability of the channel to prevent OOME for slow clients.
             if (ctx.channel().isWritable()) {
-                if (aggregate.size() == resultIterationBatchSize || !itty.hasNext()) {
+                if (aggregate.size() >= batchSize.get() || !itty.hasNext()) {
                     final ResponseStatusCode code = itty.hasNext() ? ResponseStatusCode.PARTIAL_CONTENT : ResponseStatusCode.SUCCESS;
 
                     // serialize here because in sessionless requests the serialization must occur in the same
@@ -129,10 +138,11 @@ public abstract class AbstractOpProcessor implements OpProcessor {
                         if (manageTransactions) attemptRollback(msg, context.getGraphManager(), settings.strictTransactionManagement);
                         break;
                     }
+                    batchSize.update(frame, aggregate.size());
 
                     // only need to reset the aggregation list if there's more stuff to write
                     if (itty.hasNext())
-                        aggregate = new ArrayList<>(resultIterationBatchSize);
+                        aggregate = new ArrayList<>(batchSize.get());
                     else {
                         // iteration and serialization are both complete which means this finished successfully. note that
                         // errors internal to script eval or timeout will rollback given GremlinServer's global configurations.
@@ -178,6 +188,10 @@ public abstract class AbstractOpProcessor implements OpProcessor {
         stopWatch.stop();
     }
 
+    private static boolean anyGraphSupportsTransactions(final GraphManager graphManager) {
+        return graphManager.getGraphs().values().stream().anyMatch(g -> g.features().graph().supportsTransactions());
+    }
+
     protected static Frame makeFrame(final ChannelHandlerContext ctx, final RequestMessage msg,
                                    final MessageSerializer serializer, final boolean useBinary, List<Object> aggregate,
                                    final ResponseStatusCode code) throws Exception {
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.op;
+
+import io.netty.buffer.ByteBuf;
+import org.apache.tinkerpop.gremlin.driver.Tokens;
+import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
+import org.apache.tinkerpop.gremlin.server.Settings;
+import org.apache.tinkerpop.gremlin.server.handler.Frame;
+
+import java.util.Optional;
+
+/**
+ * Determines the number of results to place in each batch of a response.  The size starts at the batch size of the
+ * request (or {@link Settings#resultIterationBatchSize}) and, if {@link Settings#resultIterationFrameSize} is set,
+ * moves toward the number of results that fills a frame of that many bytes given the average serialized size of a
+ * result seen so far.  A batch size that was explicitly requested by the client is never adjusted.
+ */
+final class AdaptiveBatchSize {
+
+    private final int frameSize;
+    private int batchSize;
+    private double bytesPerResult = 0d;
+
+    AdaptiveBatchSize(final RequestMessage msg, final Settings settings) {
+        final Optional<Integer> requested = msg.optionalArgs(Tokens.ARGS_BATCH_SIZE);
+        this.batchSize = requested.orElse(settings.resultIterationBatchSize);
+        this.frameSize = requested.isPresent() ? 0 : settings.resultIterationFrameSize;
+    }
+
+    int get() {
+        return batchSize;
+    }
+
+    /**
+     * Records the size of a serialized frame holding the specified number of results and adjusts the batch size
+     * for the next frame.
+     */
+    void update(final Frame frame, final int results) {
+        if (frameSize <= 0 || results == 0) return;
+
+        final Object msg = frame.getMsg();
+        final int bytes;
+        if (msg instanceof ByteBuf)
+            bytes = ((ByteBuf) msg).readableBytes();
+        else if (msg instanceof String)
+            bytes = ((String) msg).length();
+        else
+            return;
+
+        // smooth the measurement so that a single large result does not collapse the batch size
+        final double sample = (double) bytes / results;
+        bytesPerResult = bytesPerResult == 0d ? sample : (bytesPerResult * 3d + sample) / 4d;
+        batchSize = (int) Math.max(1L, Math.min(frameSize, Math.round(frameSize / Math.max(1d, bytesPerResult))));
+    }
+}
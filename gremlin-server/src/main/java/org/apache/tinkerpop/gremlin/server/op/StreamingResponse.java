@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.op;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.ReferenceCountUtil;
+import org.apache.commons.lang.time.StopWatch;
+import org.apache.tinkerpop.gremlin.driver.MessageSerializer;
+import org.apache.tinkerpop.gremlin.driver.Tokens;
+import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
+import org.apache.tinkerpop.gremlin.server.Context;
+import org.apache.tinkerpop.gremlin.server.Settings;
+import org.apache.tinkerpop.gremlin.server.handler.Frame;
+import org.apache.tinkerpop.gremlin.server.handler.StateKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Iterates a result back to the client without holding a thread while the client is not keeping up.  When the
+ * channel stops being writeable the iteration registers itself under {@link StateKey#WRITABILITY_LISTENERS} and
+ * returns, freeing the gremlin thread for other requests.  It is resumed on the gremlin thread pool once the
+ * {@link org.apache.tinkerpop.gremlin.server.handler.OpExecutorHandler} sees the channel become writeable again (or
+ * close), or once the response has run out of time.
+ * <p/>
+ * The next batch is always serialized while the previous one is being flushed by the event loop, so a suspended
+ * response holds at most one serialized frame that it writes as soon as it resumes.
+ * <p/>
+ * Resuming on a different thread is only safe when nothing about the iteration is bound to the thread that started
+ * it, which is why {@link AbstractOpProcessor} only streams sessionless requests against graphs that do not support
+ * transactions.
+ */
+final class StreamingResponse {
+    private static final Logger logger = LoggerFactory.getLogger(StreamingResponse.class);
+
+    private final Context context;
+    private final ChannelHandlerContext ctx;
+    private final RequestMessage msg;
+    private final Settings settings;
+    private final MessageSerializer serializer;
+    private final boolean useBinary;
+    private final Iterator itty;
+    private final boolean managedTransactionsForRequest;
+    private final AdaptiveBatchSize batchSize;
+    private final long timeout;
+    private final StopWatch stopWatch = new StopWatch();
+
+    private final AtomicBoolean suspended = new AtomicBoolean(false);
+    private final Runnable resumeListener = this::resume;
+    private volatile ScheduledFuture<?> timeoutFuture = null;
+    private boolean paused = false;
+
+    private Frame pending = null;
+    private boolean pendingIsLast = false;
+
+    StreamingResponse(final Context context, final Iterator itty, final boolean managedTransactionsForRequest) {
+        this.context = context;
+        this.ctx = context.getChannelHandlerContext();
+        this.msg = context.getRequestMessage();
+        this.settings = context.getSettings();
+        this.serializer = ctx.channel().attr(StateKey.SERIALIZER).get();
+        this.useBinary = ctx.channel().attr(StateKey.USE_BINARY).get();
+        this.itty = itty;
+        this.managedTransactionsForRequest = managedTransactionsForRequest;
+        this.batchSize = new AdaptiveBatchSize(msg, settings);
+
+        // there is no thread to interrupt while the response is suspended so the response has to time itself out
+        this.timeout = settings.serializedResponseTimeout > 0 ? settings.serializedResponseTimeout :
+                msg.optionalArgs(Tokens.ARGS_SCRIPT_EVAL_TIMEOUT).map(t -> Long.parseLong(t.toString())).orElse(settings.scriptEvaluationTimeout);
+    }
+
+    /**
+     * Starts iterating the results in the calling thread.  Errors raised before the first suspension are thrown to
+     * the caller while those raised after it are written to the client by the response itself.
+     */
+    void start() throws TimeoutException, InterruptedException {
+        stopWatch.start();
+        iterate();
+    }
+
+    private void iterate() throws TimeoutException, InterruptedException {
+        final Channel channel = ctx.channel();
+        while (true) {
+            if (Thread.interrupted()) throw new InterruptedException();
+
+            stopWatch.split();
+            if (timeout > 0 && stopWatch.getSplitTime() > timeout) {
+                final String timeoutMsg = String.format("Serialization of the entire response exceeded the configured timeout of %s ms %s", timeout,
+                        paused ? "[Gremlin Server paused writes to client as messages were not being consumed quickly enough]" : "");
+                discardPending();
+                throw new TimeoutException(timeoutMsg.trim());
+            }
+            stopWatch.unsplit();
+
+            if (!channel.isActive()) {
+                logger.debug("Abandoning response iteration for {} as the channel was closed", msg);
+                discardPending();
+                if (managedTransactionsForRequest) AbstractOpProcessor.attemptRollback(msg, context.getGraphManager(), settings.strictTransactionManagement);
+                return;
+            }
+
+            if (pending != null) {
+                if (!channel.isWritable() && suspend()) return;
+
+                ctx.writeAndFlush(pending);
+                pending = null;
+                if (pendingIsLast) {
+                    stopWatch.stop();
+                    return;
+                }
+            }
+
+            // serialize the next batch while the event loop flushes the one that was just written
+            final int size = batchSize.get();
+            final List<Object> aggregate = new ArrayList<>(size);
+            while (aggregate.size() < size && itty.hasNext()) {
+                aggregate.add(itty.next());
+            }
+
+            final boolean hasMore = itty.hasNext();
+            final ResponseStatusCode code = hasMore ? ResponseStatusCode.PARTIAL_CONTENT : ResponseStatusCode.SUCCESS;
+            try {
+                pending = AbstractOpProcessor.makeFrame(ctx, msg, serializer, useBinary, aggregate, code);
+            } catch (Exception ex) {
+                // exception is handled in makeFrame() - serialization error gets written back to driver at that point
+                if (managedTransactionsForRequest) AbstractOpProcessor.attemptRollback(msg, context.getGraphManager(), settings.strictTransactionManagement);
+                stopWatch.stop();
+                return;
+            }
+            batchSize.update(pending, aggregate.size());
+
+            // as with the blocking iteration, the commit must complete before the final frame is flushed and the
+            // iterator is not consulted again after it
+            if (!hasMore && managedTransactionsForRequest)
+                AbstractOpProcessor.attemptCommit(msg, context.getGraphManager(), settings.strictTransactionManagement);
+            pendingIsLast = !hasMore;
+        }
+    }
+
+    /**
+     * Registers the response to be resumed when the channel becomes writeable.  Returns {@code false} if the channel
+     * became writeable (or closed) in the meantime, in which case the caller should simply continue.
+     */
+    private boolean suspend() {
+        if (!paused) {
+            logger.warn("Suspending response writing as writeBufferHighWaterMark exceeded on {} - writing will resume once client has caught up", msg);
+            paused = true;
+        }
+
+        suspended.set(true);
+
+        stopWatch.split();
+        if (timeout > 0)
+            timeoutFuture = context.getScheduledExecutorService().schedule(resumeListener,
+                    Math.max(0, timeout - stopWatch.getSplitTime()) + 1, TimeUnit.MILLISECONDS);
+        stopWatch.unsplit();
+
+        listeners().offer(resumeListener);
+
+        // the channel may have drained before the listener was registered in which case no event will come for it
+        if ((ctx.channel().isWritable() || !ctx.channel().isActive()) && suspended.compareAndSet(true, false)) {
+            cancelWait();
+            return false;
+        }
+
+        return true;
+    }
+
+    private void resume() {
+        if (!suspended.compareAndSet(true, false)) return;
+        cancelWait();
+
+        try {
+            context.getGremlinExecutor().getExecutorService().submit(this::resumeIteration);
+        } catch (RejectedExecutionException ree) {
+            logger.warn(String.format("Could not resume response iteration on request [%s].", msg), ree);
+            ctx.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR)
+                    .statusMessage("Could not resume result iteration").create());
+        }
+    }
+
+    private void resumeIteration() {
+        try {
+            iterate();
+        } catch (TimeoutException ex) {
+            final String errorMessage = String.format("Response iteration exceeded the configured threshold for request [%s] - %s", msg, ex.getMessage());
+            logger.warn(errorMessage);
+            ctx.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR_TIMEOUT).statusMessage(errorMessage).create());
+            if (managedTransactionsForRequest) AbstractOpProcessor.attemptRollback(msg, context.getGraphManager(), settings.strictTransactionManagement);
+        } catch (Exception ex) {
+            logger.warn(String.format("Exception processing a result iteration on request [%s].", msg), ex);
+            final String err = ex.getMessage();
+            ctx.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR)
+                    .statusMessage(null == err || err.isEmpty() ? ex.getClass().getSimpleName() : err).create());
+            if (managedTransactionsForRequest) AbstractOpProcessor.attemptRollback(msg, context.getGraphManager(), settings.strictTransactionManagement);
+        }
+    }
+
+    private void discardPending() {
+        if (pending != null) {
+            ReferenceCountUtil.release(pending.getMsg());
+            pending = null;
+        }
+    }
+
+    private void cancelWait() {
+        listeners().remove(resumeListener);
+        if (timeoutFuture != null) {
+            timeoutFuture.cancel(false);
+            timeoutFuture = null;
+        }
+    }
+
+    private Queue<Runnable> listeners() {
+        final Queue<Runnable> listeners = new ConcurrentLinkedQueue<>();
+        final Queue<Runnable> existing = ctx.channel().attr(StateKey.WRITABILITY_LISTENERS).setIfAbsent(listeners);
+        return null == existing ? listeners : existing;
+    }
+}
@@ -150,6 +150,56 @@ public class GremlinDriverIntegrateTest extends AbstractGremlinServerIntegration
         cluster.close();
     }
 
+    @Test
+    public void shouldStreamResultsToSubscriberOnDemand() throws Exception {
+        final Cluster cluster = Cluster.build().resultIterationBatchSize(8).create();
+        final Client client = cluster.connect();
+
+        try {
+            final int resultCountToGenerate = 10000;
+            final AtomicInteger received = new AtomicInteger(0);
+            final AtomicReference<Throwable> error = new AtomicReference<>();
+            final CountDownLatch done = new CountDownLatch(1);
+
+            // the subscriber only ever asks for one result at a time so the client holds at most a couple of batches
+            client.submit("(0..<" + resultCountToGenerate + ")").subscribe(new ResultSet.Subscriber() {
+                private ResultSet.Subscription subscription;
+
+                @Override
+                public void onSubscribe(final ResultSet.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(final Result result) {
+                    if (result.getInt() != received.getAndIncrement()) error.set(new AssertionError("Out of order"));
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onError(final Throwable throwable) {
+                    error.set(throwable);
+                    done.countDown();
+                }
+
+                @Override
+                public void onComplete() {
+                    done.countDown();
+                }
+            });
+
+            assertThat(done.await(30000, TimeUnit.MILLISECONDS), is(true));
+            assertNull(error.get());
+            assertEquals(resultCountToGenerate, received.get());
+
+            // the connection should read normally again once the subscriber is done
+            assertEquals(2, client.submit("1+1").all().join().get(0).getInt());
+        } finally {
+            cluster.close();
+        }
+    }
+
     @Test
     public void shouldEventuallySucceedAfterMuchFailure() throws Exception {
         final Cluster cluster = Cluster.build().addContactPoint("localhost").create();
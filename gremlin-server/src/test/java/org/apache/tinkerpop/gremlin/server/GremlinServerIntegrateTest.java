@@ -127,6 +127,15 @@ public class GremlinServerIntegrateTest extends AbstractGremlinServerIntegration
             case "shouldBatchResultsByTwos":
                 settings.resultIterationBatchSize = 2;
                 break;
+            case "shouldAdaptBatchSizeToFrameSize":
+                settings.resultIterationBatchSize = 2;
+                settings.resultIterationFrameSize = 1;
+                break;
+            case "shouldStreamResultsToSlowClient":
+                settings.resultIterationStreaming = true;
+                settings.writeBufferHighWaterMark = 64;
+                settings.writeBufferLowWaterMark = 32;
+                break;
             case "shouldWorkOverNioTransport":
                 settings.channelizer = NioChannelizer.class.getName();
                 break;
@@ -411,6 +420,29 @@ public class GremlinServerIntegrateTest extends AbstractGremlinServerIntegration
         }
     }
 
+    @Test
+    public void shouldStreamResultsToSlowClient() throws Exception {
+        final Cluster cluster = Cluster.open();
+        final Client client = cluster.connect();
+
+        try {
+            final int resultCountToGenerate = 1000;
+            final String fatty = IntStream.range(0, 175).mapToObj(String::valueOf).collect(Collectors.joining());
+            final String fattyX = "['" + fatty + "'] * " + resultCountToGenerate;
+
+            final RequestMessage request = RequestMessage.build(Tokens.OPS_EVAL)
+                    .addArg(Tokens.ARGS_BATCH_SIZE, 3)
+                    .addArg(Tokens.ARGS_GREMLIN, fattyX).create();
+
+            // the writes are suspended many times over on the server, but every result should arrive in order
+            final List<Result> results = client.submitAsync(request).get().all().get(30000, TimeUnit.MILLISECONDS);
+            assertEquals(resultCountToGenerate, results.size());
+            assertThat(results.stream().allMatch(r -> r.getString().equals(fatty)), is(true));
+        } finally {
+            cluster.close();
+        }
+    }
+
     @Test
     public void shouldReturnInvalidRequestArgsWhenGremlinArgIsNotSupplied() throws Exception {
         try (SimpleClient client = new WebSocketClient()) {
@@ -512,6 +544,24 @@ public class GremlinServerIntegrateTest extends AbstractGremlinServerIntegration
         }
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldAdaptBatchSizeToFrameSize() throws Exception {
+        try (SimpleClient client = new WebSocketClient()) {
+            final RequestMessage request = RequestMessage.build(Tokens.OPS_EVAL)
+                    .addArg(Tokens.ARGS_GREMLIN, "[0,1,2,3,4,5,6,7,8,9]").create();
+
+            // the first batch uses the configured size and the rest shrink to fit the one byte frame size
+            final List<ResponseMessage> msgs = client.submit(request);
+            assertEquals(9, msgs.size());
+            assertEquals(2, ((List<Integer>) msgs.get(0).getResult().getData()).size());
+            for (int i = 1; i < 9; i++) {
+                assertEquals(1, ((List<Integer>) msgs.get(i).getResult().getData()).size());
+                assertEquals(i + 1, ((List<Integer>) msgs.get(i).getResult().getData()).get(0).intValue());
+            }
+        }
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void shouldBatchResultsByOnesByOverridingFromClientSide() throws Exception {
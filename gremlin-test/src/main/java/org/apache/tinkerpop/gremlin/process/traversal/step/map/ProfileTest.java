@@ -32,6 +32,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.step.Profiling;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.ProfileStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.ProfileStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.RangeByIsCountStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.VerificationException;
 import org.apache.tinkerpop.gremlin.process.traversal.util.Metrics;
@@ -148,6 +149,23 @@ public abstract class ProfileTest extends AbstractGremlinProcessTest {
         validate_g_V_out_out_profile_grateful(traversalMetrics);
     }
 
+    @Test
+    @LoadGraphWith(GRATEFUL)
+    public void grateful_V_out_out_profileXsampledX() {
+        final Traversal<Vertex, TraversalMetrics> traversal = g.withStrategies(ProfileStrategy.build().sampleRate(10).histograms(true).create()).V().out().out().profile();
+        printTraversalForm(traversal);
+        final TraversalMetrics traversalMetrics = traversal.next();
+        validate_g_V_out_out_profile_grateful(traversalMetrics);
+        for (final Metrics metrics : traversalMetrics.getMetrics()) {
+            long histogramTotal = 0;
+            for (final Map.Entry<String, Long> count : metrics.getCounts().entrySet()) {
+                if (count.getKey().startsWith(TraversalMetrics.BULK_HISTOGRAM_PREFIX))
+                    histogramTotal += count.getValue();
+            }
+            assertEquals(metrics.getCount(TraversalMetrics.TRAVERSER_COUNT_ID).longValue(), histogramTotal);
+        }
+    }
+
     private void validate_g_V_out_out_profile_grateful(TraversalMetrics traversalMetrics) {
         traversalMetrics.toString(); // ensure no exceptions are thrown
 
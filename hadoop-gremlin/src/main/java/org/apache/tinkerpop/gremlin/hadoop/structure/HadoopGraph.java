@@ -26,6 +26,8 @@ import org.apache.tinkerpop.gremlin.hadoop.Constants;
 import org.apache.tinkerpop.gremlin.hadoop.process.computer.AbstractHadoopGraphComputer;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.HadoopEdgeIterator;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.HadoopVertexIterator;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo.GryoIdIndex;
+import org.apache.tinkerpop.gremlin.hadoop.structure.util.ConfUtil;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
@@ -356,7 +358,12 @@ public final class HadoopGraph implements Graph {
                     final Class<?> firstClass = vertexIds[0].getClass();
                     if (!Stream.of(vertexIds).map(Object::getClass).allMatch(firstClass::equals))
                         throw Graph.Exceptions.idArgsMustBeEitherIdOrElement();     // todo: change exception to be ids of the same type
-                    return IteratorUtils.filter(new HadoopVertexIterator(this), vertex -> ElementHelper.idExists(vertex.id(), vertexIds));
+                    // seek directly to the vertices if the input has an id index, else scan for them
+                    final org.apache.hadoop.conf.Configuration hadoopConfiguration = ConfUtil.makeHadoopConfiguration(this.configuration);
+                    final Optional<Iterator<Vertex>> indexed = GryoIdIndex.vertices(this, hadoopConfiguration, vertexIds);
+                    return indexed.isPresent() ?
+                            indexed.get() :
+                            IteratorUtils.filter(new HadoopVertexIterator(this, hadoopConfiguration), vertex -> ElementHelper.idExists(vertex.id(), vertexIds));
                 }
             }
         } catch (final IOException e) {
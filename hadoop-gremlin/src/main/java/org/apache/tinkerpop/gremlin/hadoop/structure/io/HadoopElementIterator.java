@@ -50,9 +50,16 @@ public abstract class HadoopElementIterator<E extends Element> implements Iterat
     protected final Queue<RecordReader<NullWritable, VertexWritable>> readers = new LinkedList<>();
 
     public HadoopElementIterator(final HadoopGraph graph) {
+        this(graph, ConfUtil.makeHadoopConfiguration(graph.configuration()));
+    }
+
+    /**
+     * Read the graph with a copy of a Hadoop configuration that was already made from the graph's configuration.
+     */
+    public HadoopElementIterator(final HadoopGraph graph, final Configuration hadoopConfiguration) {
         try {
             this.graph = graph;
-            final Configuration configuration = ConfUtil.makeHadoopConfiguration(this.graph.configuration());
+            final Configuration configuration = new Configuration(hadoopConfiguration);
             final InputFormat<NullWritable, VertexWritable> inputFormat = ConfUtil.getReaderAsInputFormat(configuration);
             if (inputFormat instanceof FileInputFormat) {
                 final Storage storage = FileSystemStorage.open(configuration);
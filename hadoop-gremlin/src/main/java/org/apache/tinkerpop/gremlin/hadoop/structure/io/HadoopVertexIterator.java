@@ -18,6 +18,7 @@
  */
 package org.apache.tinkerpop.gremlin.hadoop.structure.io;
 
+import org.apache.hadoop.conf.Configuration;
 import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopGraph;
 import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopVertex;
 import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
@@ -36,6 +37,10 @@ public final class HadoopVertexIterator extends HadoopElementIterator<Vertex> {
         super(graph);
     }
 
+    public HadoopVertexIterator(final HadoopGraph graph, final Configuration hadoopConfiguration) throws IOException {
+        super(graph, hadoopConfiguration);
+    }
+
     @Override
     public Vertex next() {
         try {
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.tinkerpop.gremlin.hadoop.Constants;
+import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopGraph;
+import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopVertex;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.HadoopPools;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.HiddenFileFilter;
+import org.apache.tinkerpop.gremlin.hadoop.structure.util.ConfUtil;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoReader;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.kryoshim.KryoShimServiceLoader;
+import org.apache.tinkerpop.gremlin.structure.util.star.StarGraph;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A sidecar index of a file written by {@link GryoRecordWriter} that maps each vertex id to the byte offset of its
+ * {@link StarGraph} record.  The index is a sequence of fixed width (hash, offset) entries sorted by hash, where the
+ * hash is that of the id's {@code toString()} (the same representation that {@link HadoopGraph#vertices(Object...)}
+ * matches ids with), so it is stable across JVMs for any id type.  A lookup is a binary search over the entries that
+ * seeks to each matching offset and reads a single record rather than scanning the whole file.  The index file is
+ * named with a leading "_" so that it is ignored by the input formats reading the graph.
+ */
+public final class GryoIdIndex {
+
+    private static final String PREFIX = "_";
+    private static final String EXTENSION = ".idx";
+    private static final int ENTRY_LENGTH = 12; // int hash + long offset
+
+    private GryoIdIndex() {
+    }
+
+    public static Path getIndexPath(final Path file) {
+        return new Path(file.getParent(), PREFIX + file.getName() + EXTENSION);
+    }
+
+    /**
+     * Get the vertices with the provided ids by way of the indices of the graph's input files.  If the graph is not
+     * read with {@link GryoInputFormat} or any of its input files does not have an index, then
+     * {@link Optional#empty()} is returned and the caller is expected to scan the graph instead.  The Hadoop
+     * configuration made from the graph's configuration is passed in so that a caller that falls back to a scan can
+     * reuse it rather than make another.
+     */
+    public static Optional<Iterator<Vertex>> vertices(final HadoopGraph graph, final Configuration configuration, final Object... vertexIds) throws IOException {
+        if (!graph.configuration().containsKey(Constants.GREMLIN_HADOOP_INPUT_LOCATION))
+            return Optional.empty();
+        if (!(ConfUtil.getReaderAsInputFormat(configuration) instanceof GryoInputFormat))
+            return Optional.empty();
+        final Path location = new Path(graph.configuration().getInputLocation());
+        final FileSystem fileSystem = location.getFileSystem(configuration);
+        final Path graphLocation = new Path(Constants.getGraphLocation(graph.configuration().getInputLocation()));
+        final Path path = fileSystem.exists(graphLocation) ? graphLocation : location;
+        if (!fileSystem.exists(path))
+            return Optional.empty();
+        final List<Path> files = new ArrayList<>();
+        for (final FileStatus status : fileSystem.isDirectory(path) ? fileSystem.listStatus(path, HiddenFileFilter.instance()) : new FileStatus[]{fileSystem.getFileStatus(path)}) {
+            if (status.isDirectory() || !fileSystem.exists(getIndexPath(status.getPath())))
+                return Optional.empty();
+            files.add(status.getPath());
+        }
+
+        // the ids are matched on toString() and a vertex is returned once regardless of how often its id is provided
+        final Set<String> ids = new LinkedHashSet<>();
+        for (final Object id : vertexIds) {
+            ids.add(id.toString());
+        }
+        KryoShimServiceLoader.applyConfiguration(graph.configuration());
+        final GryoReader gryoReader = HadoopPools.getGryoPool().takeReader();
+        final GraphFilter graphFilter = new GraphFilter();
+        final List<Vertex> vertices = new ArrayList<>();
+        try {
+            for (final Path file : files) {
+                final Path indexPath = getIndexPath(file);
+                final long entries = fileSystem.getFileStatus(indexPath).getLen() / ENTRY_LENGTH;
+                try (final FSDataInputStream index = fileSystem.open(indexPath);
+                     final FSDataInputStream data = fileSystem.open(file)) {
+                    for (final String id : ids) {
+                        final int hash = id.hashCode();
+                        // entries with equal hashes are adjacent and each candidate is verified against the id
+                        for (long entry = lowerBound(index, entries, hash); entry < entries; entry++) {
+                            index.seek(entry * ENTRY_LENGTH);
+                            if (index.readInt() != hash)
+                                break;
+                            data.seek(index.readLong());
+                            final Optional<Vertex> vertex = gryoReader.readVertex(data, graphFilter);
+                            if (vertex.isPresent() && vertex.get().id().toString().equals(id)) {
+                                vertices.add(new HadoopVertex(vertex.get(), graph));
+                                break;
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            HadoopPools.getGryoPool().offerReader(gryoReader);
+        }
+        return Optional.of(vertices.iterator());
+    }
+
+    private static long lowerBound(final FSDataInputStream index, final long entries, final int hash) throws IOException {
+        long low = 0;
+        long high = entries;
+        while (low < high) {
+            final long middle = (low + high) >>> 1;
+            index.seek(middle * ENTRY_LENGTH);
+            if (index.readInt() < hash)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Accumulates the entries of an index as the records of its file are written and writes the sorted index when
+     * the file is complete.
+     */
+    static final class Writer {
+
+        private int[] hashes = new int[1024];
+        private long[] offsets = new long[1024];
+        private int size = 0;
+
+        void add(final Object id, final long offset) {
+            if (this.size == this.hashes.length) {
+                this.hashes = Arrays.copyOf(this.hashes, this.size << 1);
+                this.offsets = Arrays.copyOf(this.offsets, this.size << 1);
+            }
+            this.hashes[this.size] = id.toString().hashCode();
+            this.offsets[this.size++] = offset;
+        }
+
+        void write(final FileSystem fileSystem, final Path path) throws IOException {
+            // sort (hash, position) pairs packed into longs so that equal hashes keep the order of the file
+            final long[] keys = new long[this.size];
+            for (int i = 0; i < this.size; i++) {
+                keys[i] = ((long) this.hashes[i] << 32) | i;
+            }
+            Arrays.sort(keys);
+            try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(fileSystem.create(path, true)))) {
+                for (final long key : keys) {
+                    output.writeInt((int) (key >> 32));
+                    output.writeLong(this.offsets[(int) key]);
+                }
+            }
+        }
+    }
+}
@@ -18,9 +18,12 @@
  */
 package org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo;
 
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.RecordWriter;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.tinkerpop.gremlin.hadoop.Constants;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.CommonFileOutputFormat;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.HadoopPoolsConfigurable;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
@@ -34,7 +37,12 @@ public final class GryoOutputFormat extends CommonFileOutputFormat implements Ha
 
     @Override
     public RecordWriter<NullWritable, VertexWritable> getRecordWriter(final TaskAttemptContext job) throws IOException, InterruptedException {
-        return new GryoRecordWriter(getDataOutputStream(job), job.getConfiguration());
+        final Configuration configuration = job.getConfiguration();
+        // an index is only written for uncompressed output as offsets into a compressed stream can not be seeked to
+        final Path indexPath = configuration.getBoolean(Constants.GREMLIN_HADOOP_GRAPH_WRITER_ID_INDEX, false) && !getCompressOutput(job) ?
+                GryoIdIndex.getIndexPath(getDefaultWorkFile(job, "")) :
+                null;
+        return new GryoRecordWriter(getDataOutputStream(job), configuration, indexPath);
     }
 
 }
\ No newline at end of file
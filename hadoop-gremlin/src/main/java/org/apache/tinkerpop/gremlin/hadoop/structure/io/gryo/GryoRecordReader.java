@@ -90,7 +90,10 @@ public final class GryoRecordReader extends RecordReader<NullWritable, VertexWri
         long nextStart = start;
         final byte[] buffer = new byte[PATTERN.length];
         while (true) {
-            if ((buffer[0] = PATTERN[0]) == inputStream.readByte()) {
+            final int currentByte = inputStream.read();
+            if (-1 == currentByte)
+                return nextStart; // no vertex starts after the start of the split so the split is empty
+            if ((buffer[0] = PATTERN[0]) == (byte) currentByte) {
                 inputStream.read(nextStart + 1, buffer, 1, PATTERN.length - 1);
                 if (patternMatch(buffer)) {
                     inputStream.seek(nextStart);
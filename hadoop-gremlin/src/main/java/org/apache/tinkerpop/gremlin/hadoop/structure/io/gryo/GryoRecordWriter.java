@@ -19,6 +19,7 @@
 package org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.RecordWriter;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
@@ -30,8 +31,10 @@ import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoWriter;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.kryoshim.KryoShimServiceLoader;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -41,10 +44,26 @@ public final class GryoRecordWriter extends RecordWriter<NullWritable, VertexWri
     private final DataOutputStream outputStream;
     private final boolean hasEdges;
     private GryoWriter gryoWriter;
+    private final Configuration configuration;
+    private final Path indexPath;
+    private final GryoIdIndex.Writer idIndex;
+    private final ByteArrayOutputStream buffer;
+    private long position = 0l;
 
     public GryoRecordWriter(final DataOutputStream outputStream, final Configuration configuration) {
+        this(outputStream, configuration, null);
+    }
+
+    /**
+     * Create a writer that also writes a {@link GryoIdIndex} of its records to the provided path (if not {@code null}).
+     */
+    public GryoRecordWriter(final DataOutputStream outputStream, final Configuration configuration, final Path indexPath) {
         this.outputStream = outputStream;
         this.hasEdges = configuration.getBoolean(Constants.GREMLIN_HADOOP_GRAPH_WRITER_HAS_EDGES, true);
+        this.configuration = configuration;
+        this.indexPath = indexPath;
+        this.idIndex = null == indexPath ? null : new GryoIdIndex.Writer();
+        this.buffer = null == indexPath ? null : new ByteArrayOutputStream();
         KryoShimServiceLoader.applyConfiguration(ConfUtil.makeApacheConfiguration(configuration));
         this.gryoWriter = HadoopPools.getGryoPool().takeWriter();
     }
@@ -52,16 +71,31 @@ public final class GryoRecordWriter extends RecordWriter<NullWritable, VertexWri
     @Override
     public void write(final NullWritable key, final VertexWritable vertex) throws IOException {
         if (null != vertex) {
-            if (this.hasEdges)
-                gryoWriter.writeVertex(this.outputStream, vertex.get(), Direction.BOTH);
-            else
-                gryoWriter.writeVertex(this.outputStream, vertex.get());
+            if (null == this.idIndex)
+                this.writeVertex(this.outputStream, vertex);
+            else {
+                // the record is buffered to learn its length so the offset of the next record is known
+                this.buffer.reset();
+                this.writeVertex(this.buffer, vertex);
+                this.idIndex.add(vertex.get().id(), this.position);
+                this.buffer.writeTo(this.outputStream);
+                this.position = this.position + this.buffer.size();
+            }
         }
     }
 
+    private void writeVertex(final OutputStream outputStream, final VertexWritable vertex) throws IOException {
+        if (this.hasEdges)
+            gryoWriter.writeVertex(outputStream, vertex.get(), Direction.BOTH);
+        else
+            gryoWriter.writeVertex(outputStream, vertex.get());
+    }
+
     @Override
     public synchronized void close(final TaskAttemptContext context) throws IOException {
         this.outputStream.close();
+        if (null != this.idIndex)
+            this.idIndex.write(this.indexPath.getFileSystem(this.configuration), this.indexPath);
         if (null != this.gryoWriter) {
             HadoopPools.getGryoPool().offerWriter(this.gryoWriter);
             this.gryoWriter = null;
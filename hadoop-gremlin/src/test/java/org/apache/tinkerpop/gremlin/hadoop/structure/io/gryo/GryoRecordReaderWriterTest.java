@@ -18,11 +18,42 @@
  */
 package org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo;
 
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.InputFormat;
 import org.apache.hadoop.mapreduce.OutputFormat;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.TaskType;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.apache.tinkerpop.gremlin.TestHelper;
+import org.apache.tinkerpop.gremlin.hadoop.Constants;
+import org.apache.tinkerpop.gremlin.hadoop.HadoopGraphProvider;
+import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopGraph;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.RecordReaderWriterTest;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
+import org.apache.tinkerpop.gremlin.hadoop.structure.util.ConfUtil;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -44,4 +75,109 @@ public class GryoRecordReaderWriterTest extends RecordReaderWriterTest {
     protected Class<? extends OutputFormat<NullWritable, VertexWritable>> getOutputFormat() {
         return GryoOutputFormat.class;
     }
+
+    @Test
+    public void shouldReadEveryVertexOnceFromSplitsSmallerThanAVertex() throws Exception {
+        final File testFile = new File(HadoopGraphProvider.PATHS.get(getInputFilename()));
+        final Configuration configuration = configure(TestHelper.makeTestDataPath(GryoOutputFormat.class, "hadoop-gryo-small-splits-test"));
+        final TaskAttemptContext job = new TaskAttemptContextImpl(configuration, new TaskAttemptID(UUID.randomUUID().toString(), 0, TaskType.MAP, 0, 0));
+        // the splits past the header of the last vertex are empty
+        int vertexCount = 0;
+        for (long start = 0; start < testFile.length(); start = start + 64) {
+            final RecordReader<NullWritable, VertexWritable> reader = new GryoInputFormat().createRecordReader(
+                    new FileSplit(new Path(testFile.getAbsoluteFile().toURI().toString()), start, Math.min(64, testFile.length() - start), null), job);
+            while (reader.nextKeyValue()) {
+                vertexCount++;
+            }
+            reader.close();
+        }
+        assertEquals(808, vertexCount);
+    }
+
+    @Test
+    public void shouldLookUpVerticesWithIdIndex() throws Exception {
+        final Map<Object, String> names = new HashMap<>();
+        final File directory = writeIndexedGraph("hadoop-gryo-id-index-test", names);
+        final HadoopGraph graph = openGraph(directory);
+
+        assertTrue(GryoIdIndex.vertices(graph, ConfUtil.makeHadoopConfiguration(graph.configuration()), 1).isPresent());
+        assertEquals(808, names.size());
+        for (final Map.Entry<Object, String> entry : names.entrySet()) {
+            final List<Vertex> vertices = IteratorUtils.list(graph.vertices(entry.getKey()));
+            assertEquals(1, vertices.size());
+            assertEquals(entry.getKey(), vertices.get(0).id());
+            assertEquals(entry.getValue(), vertices.get(0).value("name"));
+        }
+        assertEquals(3, IteratorUtils.count(graph.vertices(1, 2, 3, 3, -1)));
+        assertFalse(graph.vertices(-1).hasNext());
+    }
+
+    @Test
+    public void shouldReturnVerticesOnceForDuplicateIdsWithIdIndex() throws Exception {
+        final Map<Object, String> names = new HashMap<>();
+        final HadoopGraph graph = openGraph(writeIndexedGraph("hadoop-gryo-id-index-duplicates-test", names));
+
+        // ids are matched on toString() just like a scan does, so 1 and "1" are the same id
+        final List<Vertex> vertices = IteratorUtils.list(GryoIdIndex.vertices(graph, ConfUtil.makeHadoopConfiguration(graph.configuration()), 1, 1, "1", 2, 2).get());
+        assertEquals(2, vertices.size());
+        assertEquals(1, vertices.get(0).id());
+        assertEquals(names.get(1), vertices.get(0).value("name"));
+        assertEquals(2, vertices.get(1).id());
+        assertEquals(names.get(2), vertices.get(1).value("name"));
+        assertEquals(1, IteratorUtils.count(graph.vertices(7, 7)));
+        assertEquals(IteratorUtils.set(IteratorUtils.map(IteratorUtils.filter(graph.vertices(), v -> ElementHelper.idExists(v.id(), 1, 1, "1", 2, 2)), Vertex::id)),
+                IteratorUtils.set(IteratorUtils.map(vertices.iterator(), Vertex::id)));
+    }
+
+    @Test
+    public void shouldScanWhenAnInputFileHasNoIdIndex() throws Exception {
+        final Map<Object, String> names = new HashMap<>();
+        final File indexed = writeIndexedGraph("hadoop-gryo-id-index-fallback-test", names);
+        // the input is the indexed part file and an empty part file without an index
+        final File directory = TestHelper.makeTestDataPath(GryoOutputFormat.class, "hadoop-gryo-id-index-fallback-test", "input");
+        Files.copy(new File(indexed, "part-m-00000").toPath(), new File(directory, "part-m-00000").toPath(), StandardCopyOption.REPLACE_EXISTING);
+        Files.copy(new File(indexed, "_part-m-00000.idx").toPath(), new File(directory, "_part-m-00000.idx").toPath(), StandardCopyOption.REPLACE_EXISTING);
+        new File(directory, "part-m-00001").createNewFile();
+        final HadoopGraph graph = openGraph(directory);
+
+        assertFalse(GryoIdIndex.vertices(graph, ConfUtil.makeHadoopConfiguration(graph.configuration()), 1).isPresent());
+        final List<Vertex> vertices = IteratorUtils.list(graph.vertices(1, 1, 2, -1));
+        assertEquals(2, vertices.size());
+        for (final Vertex vertex : vertices) {
+            assertEquals(names.get(vertex.id()), vertex.value("name"));
+        }
+        assertEquals(808l, IteratorUtils.count(graph.vertices()));
+    }
+
+    /**
+     * Write the test graph as a single indexed part file and return the directory the task attempt wrote it to.
+     */
+    private File writeIndexedGraph(final String name, final Map<Object, String> names) throws Exception {
+        final File testFile = new File(HadoopGraphProvider.PATHS.get(getInputFilename()));
+        final File outputDirectory = TestHelper.makeTestDataPath(GryoOutputFormat.class, name);
+        final Configuration configuration = configure(outputDirectory);
+        configuration.setBoolean(Constants.GREMLIN_HADOOP_GRAPH_WRITER_ID_INDEX, true);
+        final TaskAttemptContext job = new TaskAttemptContextImpl(configuration, new TaskAttemptID(UUID.randomUUID().toString(), 0, TaskType.MAP, 0, 0));
+
+        final RecordReader<NullWritable, VertexWritable> reader = new GryoInputFormat().createRecordReader(
+                new FileSplit(new Path(testFile.getAbsoluteFile().toURI().toString()), 0, testFile.length(), null), job);
+        final RecordWriter<NullWritable, VertexWritable> writer = new GryoOutputFormat().getRecordWriter(job);
+        while (reader.nextKeyValue()) {
+            writer.write(NullWritable.get(), reader.getCurrentValue());
+            names.put(reader.getCurrentValue().get().id(), reader.getCurrentValue().get().value("name"));
+        }
+        reader.close();
+        writer.close(job);
+
+        final File attemptDirectory = new File(outputDirectory.getAbsoluteFile() + "/_temporary/0/_temporary/" + job.getTaskAttemptID().getTaskID().toString().replace("task", "attempt") + "_0");
+        assertTrue(new File(attemptDirectory, "_part-m-00000.idx").exists());
+        return attemptDirectory;
+    }
+
+    private static HadoopGraph openGraph(final File inputDirectory) {
+        final BaseConfiguration graphConfiguration = new BaseConfiguration();
+        graphConfiguration.setProperty(Constants.GREMLIN_HADOOP_GRAPH_READER, GryoInputFormat.class.getCanonicalName());
+        graphConfiguration.setProperty(Constants.GREMLIN_HADOOP_INPUT_LOCATION, inputDirectory.getAbsolutePath());
+        return HadoopGraph.open(graphConfiguration);
+    }
 }
@@ -32,20 +32,17 @@ import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
 import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
 import org.apache.tinkerpop.gremlin.process.computer.util.ComputerGraph;
 import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramHelper;
+import org.apache.tinkerpop.gremlin.spark.process.computer.payload.ColumnarView;
 import org.apache.tinkerpop.gremlin.spark.process.computer.payload.MessagePayload;
 import org.apache.tinkerpop.gremlin.spark.process.computer.payload.Payload;
 import org.apache.tinkerpop.gremlin.spark.process.computer.payload.ViewIncomingPayload;
 import org.apache.tinkerpop.gremlin.spark.process.computer.payload.ViewOutgoingPayload;
 import org.apache.tinkerpop.gremlin.spark.process.computer.payload.ViewPayload;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.kryoshim.KryoShimServiceLoader;
-import org.apache.tinkerpop.gremlin.structure.util.Attachable;
-import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedFactory;
-import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedVertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.star.StarGraph;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import scala.Tuple2;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -74,6 +71,13 @@ public final class SparkExecutor {
     // VERTEX PROGRAM //
     ////////////////////
 
+    /**
+     * Execute one iteration of the vertex program and message pass its outgoing messages.  If the program
+     * {@link VertexProgram.Features#executesOnlyOnIncomingMessages() executes only on incoming messages}, then after
+     * the initial iteration only the vertices with incoming messages are executed.  Every other vertex is still joined
+     * with its view and its view is still reduced with the messages, so an iteration saves the execution of the
+     * silent vertices but its join and shuffle still scale with the graph rather than with the message frontier.
+     */
     public static <M> JavaPairRDD<Object, ViewIncomingPayload<M>> executeVertexProgramIteration(
             final JavaPairRDD<Object, VertexWritable> graphRDD,
             final JavaPairRDD<Object, ViewIncomingPayload<M>> viewIncomingRDD,
@@ -94,28 +98,37 @@ public final class SparkExecutor {
                     final VertexProgram<M> workerVertexProgram = VertexProgram.createVertexProgram(HadoopGraph.open(graphComputerConfiguration), vertexProgramConfiguration); // each partition(Spark)/worker(TP3) has a local copy of the vertex program (a worker's task)
                     final String[] vertexComputeKeysArray = VertexProgramHelper.vertexComputeKeysAsArray(workerVertexProgram.getVertexComputeKeys()); // the compute keys as an array
                     final SparkMessenger<M> messenger = new SparkMessenger<>();
+                    final boolean onlyMessagedVertices = !memory.isInitialIteration() && workerVertexProgram.getFeatures().executesOnlyOnIncomingMessages(); // only execute the frontier of the iteration
                     workerVertexProgram.workerIterationStart(memory.asImmutable()); // start the worker
                     return () -> IteratorUtils.map(partitionIterator, vertexViewIncoming -> {
                         final StarGraph.StarVertex vertex = vertexViewIncoming._2()._1().get(); // get the vertex from the vertex writable
                         final boolean hasViewAndMessages = vertexViewIncoming._2()._2().isPresent(); // if this is the first iteration, then there are no views or messages
-                        final List<DetachedVertexProperty<Object>> previousView = hasViewAndMessages ? vertexViewIncoming._2()._2().get().getView() : memory.isInitialIteration() ? new ArrayList<>() : Collections.emptyList();
-                        // revive compute properties if they already exist
-                        if (memory.isInitialIteration() && vertexComputeKeysArray.length > 0)
-                            vertex.properties(vertexComputeKeysArray).forEachRemaining(vertexProperty -> previousView.add(DetachedFactory.detach(vertexProperty, true)));
+                        if (onlyMessagedVertices && (!hasViewAndMessages || vertexViewIncoming._2()._2().get().getIncomingMessages().isEmpty())) {
+                            // the vertex received no messages so it is not executed and its view is carried over as is
+                            if (!partitionIterator.hasNext())
+                                workerVertexProgram.workerIterationEnd(memory.asImmutable()); // if no more vertices in the partition, end the worker's iteration
+                            return hasViewAndMessages && vertexViewIncoming._2()._2().get().hasView() ?
+                                    new Tuple2<>(vertex.id(), new ViewOutgoingPayload<>(vertexViewIncoming._2()._2().get().getView(), Collections.<Tuple2<Object, M>>emptyList())) :
+                                    null;
+                        }
+                        final ColumnarView previousView = hasViewAndMessages ?
+                                vertexViewIncoming._2()._2().get().getView() :
+                                memory.isInitialIteration() && vertexComputeKeysArray.length > 0 ?
+                                        ColumnarView.of(vertex.properties(vertexComputeKeysArray)) :  // revive compute properties if they already exist
+                                        ColumnarView.empty();
                         // drop any computed properties that are cached in memory
                         vertex.dropVertexProperties(vertexComputeKeysArray);
                         final List<M> incomingMessages = hasViewAndMessages ? vertexViewIncoming._2()._2().get().getIncomingMessages() : Collections.emptyList();
-                        IteratorUtils.removeOnNext(previousView.iterator()).forEachRemaining(property -> property.attach(Attachable.Method.create(vertex)));  // attach the view to the vertex
-                        assert previousView.isEmpty();
+                        previousView.attach(vertex);  // attach the view to the vertex
                         // do the vertex's vertex program iteration
                         messenger.setVertexAndIncomingMessages(vertex, incomingMessages); // set the messenger with the incoming messages
                         workerVertexProgram.execute(ComputerGraph.vertexProgram(vertex, workerVertexProgram), messenger, memory); // execute the vertex program on this vertex for this iteration
                         // assert incomingMessages.isEmpty();  // maybe the program didn't read all the messages
                         incomingMessages.clear();
                         // detached the compute property view from the vertex
-                        final List<DetachedVertexProperty<Object>> nextView = vertexComputeKeysArray.length == 0 ?  // not all vertex programs have compute keys
-                                Collections.emptyList() :
-                                IteratorUtils.list(IteratorUtils.map(vertex.properties(vertexComputeKeysArray), vertexProperty -> DetachedFactory.detach(vertexProperty, true)));
+                        final ColumnarView nextView = vertexComputeKeysArray.length == 0 ?  // not all vertex programs have compute keys
+                                ColumnarView.empty() :
+                                ColumnarView.of(vertex.properties(vertexComputeKeysArray));
                         // drop compute property view as it has now been detached from the vertex
                         vertex.dropVertexProperties(vertexComputeKeysArray);
                         final List<Tuple2<Object, M>> outgoingMessages = messenger.getOutgoingMessages(); // get the outgoing messages being sent by this vertex
@@ -189,11 +202,8 @@ public final class SparkExecutor {
                     final StarGraph.StarVertex vertex = tuple._1().get();
                     vertex.dropVertexProperties(vertexComputeKeysArray); // drop all existing compute keys
                     // attach the final computed view to the cached graph
-                    final List<DetachedVertexProperty<Object>> view = tuple._2().isPresent() ? tuple._2().get().getView() : Collections.emptyList();
-                    for (final DetachedVertexProperty<Object> property : view) {
-                        if (!VertexProgramHelper.isTransientVertexComputeKey(property.key(), vertexComputeKeys))
-                            property.attach(Attachable.Method.create(vertex));
-                    }
+                    if (tuple._2().isPresent())
+                        tuple._2().get().getView().attach(vertex, key -> !VertexProgramHelper.isTransientVertexComputeKey(key, vertexComputeKeys));
                     return tuple._1();
                 });
     }
@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.spark.process.computer.payload;
+
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The compute key properties of a vertex (its "view") encoded as columns.  Each property is a row of the columns: an
+ * index into the distinct keys of the view, a type tag, a primitive value and its id.  Numeric values (e.g. the
+ * {@code pageRank} and {@code edgeCount} of {@code PageRankVertexProgram}) are held in a {@code long[]} so a view
+ * serializes to a handful of primitive arrays rather than to a {@code DetachedVertexProperty} (and its detached vertex
+ * and property map) per property.  Values of any other type and meta-properties are held in object columns that are
+ * only allocated when needed.  The meta-properties of all properties share one flat key/value column, where the
+ * key/values of the property in row {@code i} run from {@code metaOffsets[i]} to {@code metaOffsets[i + 1]}, so a view
+ * only holds array types that Gryo registers.
+ */
+public final class ColumnarView implements Serializable {
+
+    private static final ColumnarView EMPTY = new ColumnarView(new String[0], new short[0], new byte[0], new long[0], null, new Object[0], null, null);
+
+    private static final byte OBJECT = 0;
+    private static final byte LONG = 1;
+    private static final byte INTEGER = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte FLOAT = 4;
+
+    private String[] keys;
+    private short[] keyIndices;
+    private byte[] types;
+    private long[] primitives;
+    private Object[] objects;
+    private Object[] ids;
+    private Object[] metaKeyValues;
+    private int[] metaOffsets;
+
+    private ColumnarView() {
+    }
+
+    private ColumnarView(final String[] keys, final short[] keyIndices, final byte[] types, final long[] primitives,
+                         final Object[] objects, final Object[] ids, final Object[] metaKeyValues, final int[] metaOffsets) {
+        this.keys = keys;
+        this.keyIndices = keyIndices;
+        this.types = types;
+        this.primitives = primitives;
+        this.objects = objects;
+        this.ids = ids;
+        this.metaKeyValues = metaKeyValues;
+        this.metaOffsets = metaOffsets;
+    }
+
+    public static ColumnarView empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Encode the provided vertex properties as a view.
+     */
+    public static ColumnarView of(final Iterator<? extends VertexProperty<?>> properties) {
+        if (!properties.hasNext())
+            return EMPTY;
+        final List<VertexProperty<?>> list = new ArrayList<>();
+        properties.forEachRemaining(list::add);
+        final int size = list.size();
+        final List<String> keys = new ArrayList<>(1);
+        final short[] keyIndices = new short[size];
+        final byte[] types = new byte[size];
+        final long[] primitives = new long[size];
+        final Object[] ids = new Object[size];
+        Object[] objects = null;
+        List<Object> metaKeyValues = null;
+        int[] metaOffsets = null;
+        for (int i = 0; i < size; i++) {
+            final VertexProperty<?> property = list.get(i);
+            int keyIndex = keys.indexOf(property.key());
+            if (-1 == keyIndex) {
+                keyIndex = keys.size();
+                if (keyIndex > Short.MAX_VALUE)
+                    throw new IllegalStateException("A view can not hold more than " + (Short.MAX_VALUE + 1) + " distinct keys");
+                keys.add(property.key());
+            }
+            keyIndices[i] = (short) keyIndex;
+            ids[i] = property.id();
+            final Object value = property.value();
+            if (value instanceof Long) {
+                types[i] = LONG;
+                primitives[i] = (Long) value;
+            } else if (value instanceof Integer) {
+                types[i] = INTEGER;
+                primitives[i] = (Integer) value;
+            } else if (value instanceof Double) {
+                types[i] = DOUBLE;
+                primitives[i] = Double.doubleToRawLongBits((Double) value);
+            } else if (value instanceof Float) {
+                types[i] = FLOAT;
+                primitives[i] = Float.floatToRawIntBits((Float) value);
+            } else {
+                types[i] = OBJECT;
+                if (null == objects)
+                    objects = new Object[size];
+                objects[i] = value;
+            }
+            final Iterator<? extends Property<?>> metaIterator = property.properties();
+            if (metaIterator.hasNext() && null == metaKeyValues) {
+                // the offsets of the rows before the first meta-property are all zero
+                metaKeyValues = new ArrayList<>();
+                metaOffsets = new int[size + 1];
+            }
+            while (metaIterator.hasNext()) {
+                final Property<?> meta = metaIterator.next();
+                metaKeyValues.add(meta.key());
+                metaKeyValues.add(meta.value());
+            }
+            if (null != metaOffsets)
+                metaOffsets[i + 1] = metaKeyValues.size();
+        }
+        return new ColumnarView(keys.toArray(new String[keys.size()]), keyIndices, types, primitives, objects, ids,
+                null == metaKeyValues ? null : metaKeyValues.toArray(), metaOffsets);
+    }
+
+    public int size() {
+        return this.types.length;
+    }
+
+    public boolean isEmpty() {
+        return 0 == this.types.length;
+    }
+
+    /**
+     * Get a view with the properties of this view followed by the properties of the provided view.
+     */
+    public ColumnarView concat(final ColumnarView other) {
+        if (other.isEmpty())
+            return this;
+        if (this.isEmpty())
+            return other;
+        final int size = this.size() + other.size();
+        final List<String> keys = new ArrayList<>(Arrays.asList(this.keys));
+        final short[] keyIndices = Arrays.copyOf(this.keyIndices, size);
+        for (int i = 0; i < other.size(); i++) {
+            final String key = other.keys[other.keyIndices[i]];
+            int keyIndex = keys.indexOf(key);
+            if (-1 == keyIndex) {
+                keyIndex = keys.size();
+                keys.add(key);
+            }
+            keyIndices[this.size() + i] = (short) keyIndex;
+        }
+        final byte[] types = Arrays.copyOf(this.types, size);
+        System.arraycopy(other.types, 0, types, this.size(), other.size());
+        final long[] primitives = Arrays.copyOf(this.primitives, size);
+        System.arraycopy(other.primitives, 0, primitives, this.size(), other.size());
+        final Object[] ids = Arrays.copyOf(this.ids, size);
+        System.arraycopy(other.ids, 0, ids, this.size(), other.size());
+        if (null == this.metaKeyValues && null == other.metaKeyValues)
+            return new ColumnarView(keys.toArray(new String[keys.size()]), keyIndices, types, primitives,
+                    concat(this.objects, other.objects, this.size(), other.size()), ids, null, null);
+        final int length = null == this.metaKeyValues ? 0 : this.metaKeyValues.length;
+        final Object[] metaKeyValues = new Object[length + (null == other.metaKeyValues ? 0 : other.metaKeyValues.length)];
+        final int[] metaOffsets = new int[size + 1];
+        if (null != this.metaKeyValues) {
+            System.arraycopy(this.metaKeyValues, 0, metaKeyValues, 0, length);
+            System.arraycopy(this.metaOffsets, 0, metaOffsets, 0, this.size() + 1);
+        }
+        for (int i = 1; i <= other.size(); i++) {
+            metaOffsets[this.size() + i] = length + (null == other.metaOffsets ? 0 : other.metaOffsets[i]);
+        }
+        if (null != other.metaKeyValues)
+            System.arraycopy(other.metaKeyValues, 0, metaKeyValues, length, other.metaKeyValues.length);
+        return new ColumnarView(keys.toArray(new String[keys.size()]), keyIndices, types, primitives,
+                concat(this.objects, other.objects, this.size(), other.size()), ids, metaKeyValues, metaOffsets);
+    }
+
+    private static <T> T[] concat(final T[] a, final T[] b, final int sizeA, final int sizeB) {
+        if (null == a && null == b)
+            return null;
+        final T[] c = Arrays.copyOf(null == a ? b : a, sizeA + sizeB);
+        if (null == a)
+            Arrays.fill(c, 0, sizeA, null);
+        if (null != b)
+            System.arraycopy(b, 0, c, sizeA, sizeB);
+        return c;
+    }
+
+    /**
+     * Add every property of the view to the vertex.
+     */
+    public void attach(final Vertex vertex) {
+        this.attach(vertex, key -> true);
+    }
+
+    /**
+     * Add the properties of the view whose keys pass the filter to the vertex.
+     */
+    public void attach(final Vertex vertex, final Predicate<String> keyFilter) {
+        final VertexProperty.Cardinality[] cardinalities = new VertexProperty.Cardinality[this.keys.length];
+        for (int i = 0; i < this.types.length; i++) {
+            final String key = this.keys[this.keyIndices[i]];
+            if (!keyFilter.test(key))
+                continue;
+            if (null == cardinalities[this.keyIndices[i]])
+                cardinalities[this.keyIndices[i]] = vertex.graph().features().vertex().getCardinality(key);
+            final VertexProperty<Object> vertexProperty = vertex.graph().features().vertex().properties().willAllowId(this.ids[i]) ?
+                    vertex.property(cardinalities[this.keyIndices[i]], key, this.value(i), T.id, this.ids[i]) :
+                    vertex.property(cardinalities[this.keyIndices[i]], key, this.value(i));
+            if (null != this.metaOffsets) {
+                for (int j = this.metaOffsets[i]; j < this.metaOffsets[i + 1]; j = j + 2) {
+                    vertexProperty.property((String) this.metaKeyValues[j], this.metaKeyValues[j + 1]);
+                }
+            }
+        }
+    }
+
+    private Object value(final int index) {
+        switch (this.types[index]) {
+            case LONG:
+                return this.primitives[index];
+            case INTEGER:
+                return (int) this.primitives[index];
+            case DOUBLE:
+                return Double.longBitsToDouble(this.primitives[index]);
+            case FLOAT:
+                return Float.intBitsToFloat((int) this.primitives[index]);
+            default:
+                return this.objects[index];
+        }
+    }
+}
@@ -19,7 +19,6 @@
 package org.apache.tinkerpop.gremlin.spark.process.computer.payload;
 
 import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
-import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedVertexProperty;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -30,7 +29,7 @@ import java.util.List;
  */
 public final class ViewIncomingPayload<M> implements Payload {
 
-    private List<DetachedVertexProperty<Object>> view = null;
+    private ColumnarView view = null;
     private List<M> incomingMessages;
 
 
@@ -55,8 +54,8 @@ public final class ViewIncomingPayload<M> implements Payload {
     }
 
 
-    public List<DetachedVertexProperty<Object>> getView() {
-        return null == this.view ? Collections.emptyList() : this.view;
+    public ColumnarView getView() {
+        return null == this.view ? ColumnarView.empty() : this.view;
     }
 
 
@@ -82,7 +81,7 @@ public final class ViewIncomingPayload<M> implements Payload {
         if (this.view == null)
             this.view = viewIncomingPayload.view;
         else
-            this.view.addAll(viewIncomingPayload.getView());
+            this.view = this.view.concat(viewIncomingPayload.getView());
 
         for (final M message : viewIncomingPayload.getIncomingMessages()) {
             this.mergeMessage(message, messageCombiner);
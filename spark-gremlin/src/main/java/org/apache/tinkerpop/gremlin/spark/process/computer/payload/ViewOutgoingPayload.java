@@ -18,7 +18,6 @@
  */
 package org.apache.tinkerpop.gremlin.spark.process.computer.payload;
 
-import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedVertexProperty;
 import scala.Tuple2;
 
 import java.util.Collections;
@@ -29,14 +28,14 @@ import java.util.List;
  */
 public final class ViewOutgoingPayload<M> implements Payload {
 
-    private List<DetachedVertexProperty<Object>> view;
+    private ColumnarView view;
     private List<Tuple2<Object, M>> outgoingMessages;
 
     private ViewOutgoingPayload() {
 
     }
 
-    public ViewOutgoingPayload(final List<DetachedVertexProperty<Object>> view, final List<Tuple2<Object, M>> outgoingMessages) {
+    public ViewOutgoingPayload(final ColumnarView view, final List<Tuple2<Object, M>> outgoingMessages) {
         this.view = view.isEmpty() ? null : view;
         this.outgoingMessages = outgoingMessages.isEmpty() ? null : outgoingMessages;
     }
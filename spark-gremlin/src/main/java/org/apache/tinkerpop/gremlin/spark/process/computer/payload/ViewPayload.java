@@ -18,26 +18,21 @@
  */
 package org.apache.tinkerpop.gremlin.spark.process.computer.payload;
 
-import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedVertexProperty;
-
-import java.util.Collections;
-import java.util.List;
-
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public final class ViewPayload implements Payload {
 
-    private List<DetachedVertexProperty<Object>> view;
+    private ColumnarView view;
 
     private ViewPayload() {
     }
 
-    public ViewPayload(final List<DetachedVertexProperty<Object>> view) {
+    public ViewPayload(final ColumnarView view) {
         this.view = view;
     }
 
-    public List<DetachedVertexProperty<Object>> getView() {
-        return null == this.view ? Collections.emptyList() : this.view;
+    public ColumnarView getView() {
+        return null == this.view ? ColumnarView.empty() : this.view;
     }
 }
@@ -25,7 +25,6 @@ import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
 import org.apache.tinkerpop.gremlin.process.computer.ProgramPhase;
 import org.apache.tinkerpop.gremlin.process.computer.traversal.MemoryTraversalSideEffects;
 import org.apache.tinkerpop.gremlin.process.computer.traversal.TraversalVertexProgram;
-import org.apache.tinkerpop.gremlin.process.traversal.NumberHelper;
 import org.apache.tinkerpop.gremlin.process.traversal.Scope;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
@@ -49,14 +48,18 @@ import org.apache.tinkerpop.gremlin.spark.process.computer.SparkMemory;
 import org.apache.tinkerpop.gremlin.spark.process.computer.traversal.strategy.SparkVertexProgramInterceptor;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
-import org.apache.tinkerpop.gremlin.util.function.ArrayListSupplier;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.function.BinaryOperator;
 
 /**
+ * Executes a local star graph traversal that ends with a {@link ReducingBarrierStep} as a single pass over the graph
+ * RDD.  Each partition clones the traversal once, reuses it for every vertex of the partition and reduces the results
+ * with the end step, where a {@link FoldStep} starts from its first result rather than its seed.  The partial result
+ * of each partition is then reduced into a single seed, so a seed like the one of {@code fold(10,sum)} is applied once.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public final class SparkStarBarrierInterceptor implements SparkVertexProgramInterceptor<TraversalVertexProgram> {
@@ -77,73 +80,43 @@ public final class SparkStarBarrierInterceptor implements SparkVertexProgramInte
         traversal.setStrategies(traversal.clone().getStrategies().removeStrategies(ComputerVerificationStrategy.class)); // no longer a computer job, but parallel standard jobs
         traversal.applyStrategies();                                // compile
         boolean identityTraversal = traversal.getSteps().isEmpty(); // if the traversal is empty, just return the vertex (fast)
+        // the seeds of the other end steps (e.g. 0 for count() or an empty map for groupCount()) do not change a result
+        final boolean foldStep = endStep instanceof FoldStep;
         ///////////////////////////////
         MemoryTraversalSideEffects.setMemorySideEffects(traversal, memory, ProgramPhase.EXECUTE); // any intermediate sideEffect steps are backed by SparkMemory
         memory.setInExecute(true);
-        final JavaRDD<Traverser.Admin<Object>> nextRDD = inputRDD.values()
+        final JavaRDD<Object> partialRDD = inputRDD.values()
                 .filter(vertexWritable -> ElementHelper.idExists(vertexWritable.get().id(), graphStepIds)) // ensure vertex ids are in V(x)
-                .flatMap(vertexWritable -> {
+                .mapPartitions(partitionIterator -> {
+                    // the traversal and the end step are cloned once per partition rather than once per vertex
+                    final ReducingBarrierStep partitionEndStep = (ReducingBarrierStep) endStep.clone();
+                    final Iterator<Traverser.Admin<Object>> traversers;
                     if (identityTraversal)                          // g.V.count()-style (identity)
-                        return () -> IteratorUtils.of(traversal.getTraverserGenerator().generate(vertexWritable.get(), (Step) graphStep, 1l));
-                    else {                                          // add the vertex to head of the traversal
-                        return () -> {                              // and iterate it for its results
-                            final Traversal.Admin<Vertex, ?> clone = traversal.clone(); // need a unique clone for each vertex to isolate the computation
-                            clone.getStartStep().addStart(clone.getTraverserGenerator().generate(vertexWritable.get(), graphStep, 1l));
-                            return (Step) clone.getEndStep();
-                        };
+                        traversers = IteratorUtils.map(partitionIterator,
+                                vertexWritable -> traversal.getTraverserGenerator().generate(vertexWritable.get(), (Step) graphStep, 1l));
+                    else {                                          // add each vertex to the head of the traversal
+                        final Traversal.Admin<Vertex, Object> partitionTraversal = traversal.clone();
+                        traversers = IteratorUtils.flatMap(partitionIterator, vertexWritable -> {
+                            partitionTraversal.reset();             // the previous vertex has been fully iterated so reuse the pipeline
+                            partitionTraversal.getStartStep().addStart(partitionTraversal.getTraverserGenerator().generate(vertexWritable.get(), graphStep, 1l));
+                            return (Step<?, Object>) partitionTraversal.getEndStep();
+                        });
                     }
+                    if (!traversers.hasNext())
+                        return Collections.emptyList();
+                    // pre-aggregate the partition with the end step itself so only one result per partition is shuffled
+                    if (foldStep)                                   // the seed of fold(10,sum) is applied once below
+                        partitionEndStep.addBarrier(partitionEndStep.projectTraverser(traversers.next()));
+                    partitionEndStep.addStarts(traversers);
+                    return Collections.singletonList(partitionEndStep.nextBarrier());
                 });
-        // USE SPARK DSL FOR THE RESPECTIVE END REDUCING BARRIER STEP OF THE TRAVERSAL
-        final Object result;
-        if (endStep instanceof CountGlobalStep)
-            result = nextRDD.map(Traverser::bulk).fold(0l, (a, b) -> a + b);
-        else if (endStep instanceof SumGlobalStep)
-            result = nextRDD
-                    .map(traverser -> NumberHelper.mul(traverser.bulk(), (Number) traverser.get()))
-                    .fold(0, NumberHelper::add);
-        else if (endStep instanceof MeanGlobalStep)
-            result = nextRDD
-                    .map(traverser -> new MeanGlobalStep.MeanNumber((Number) traverser.get(), traverser.bulk()))
-                    .fold(new MeanGlobalStep.MeanNumber(), MeanGlobalStep.MeanNumber::add)
-                    .getFinal();
-        else if (endStep instanceof MinGlobalStep)
-            result = nextRDD
-                    .map(traverser -> (Number) traverser.get())
-                    .fold(Integer.MAX_VALUE, NumberHelper::min);
-        else if (endStep instanceof MaxGlobalStep)
-            result = nextRDD
-                    .map(traverser -> (Number) traverser.get())
-                    .fold(Integer.MIN_VALUE, NumberHelper::max);
-        else if (endStep instanceof FoldStep) {
-            final BinaryOperator biOperator = endStep.getBiOperator();
-            result = nextRDD.map(traverser -> {
-                if (endStep.getSeedSupplier() instanceof ArrayListSupplier) {
-                    final List list = new ArrayList<>();
-                    for (long i = 0; i < traverser.bulk(); i++) {
-                        list.add(traverser.get());
-                    }
-                    return list;
-                } else {
-                    return traverser.get();
-                }
-            }).fold(endStep.getSeedSupplier().get(), biOperator::apply);
-        } else if (endStep instanceof GroupStep) {
-            final GroupStep.GroupBiOperator<Object, Object> biOperator = (GroupStep.GroupBiOperator) endStep.getBiOperator();
-            result = ((GroupStep) endStep).generateFinalResult(nextRDD.
-                    mapPartitions(partitions -> {
-                        final GroupStep<Object, Object, Object> clone = (GroupStep) endStep.clone();
-                        return () -> IteratorUtils.map(partitions, clone::projectTraverser);
-                    }).fold(((GroupStep<Object, Object, Object>) endStep).getSeedSupplier().get(), biOperator::apply));
-        } else if (endStep instanceof GroupCountStep) {
-            final GroupCountStep.GroupCountBiOperator<Object> biOperator = GroupCountStep.GroupCountBiOperator.instance();
-            result = nextRDD
-                    .mapPartitions(partitions -> {
-                        final GroupCountStep<Object, Object> clone = (GroupCountStep) endStep.clone();
-                        return () -> IteratorUtils.map(partitions, clone::projectTraverser);
-                    })
-                    .fold(((GroupCountStep<Object, Object>) endStep).getSeedSupplier().get(), biOperator::apply);
-        } else
-            throw new IllegalArgumentException("The end step is an unsupported barrier: " + endStep);
+        // RDD.fold() would apply the seed to every partition, so the partitions are reduced into the seed here
+        final BinaryOperator<Object> biOperator = endStep.getBiOperator();
+        Object reduced = endStep.getSeedSupplier().get();
+        for (final Object partial : partialRDD.collect()) {
+            reduced = biOperator.apply(reduced, partial);
+        }
+        final Object result = endStep.generateFinalResult(reduced);
         memory.setInExecute(false);
         ///////////////////////////////
 
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.spark.process.computer;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.TestHelper;
+import org.apache.tinkerpop.gremlin.hadoop.Constants;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo.GryoInputFormat;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo.GryoOutputFormat;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.Memory;
+import org.apache.tinkerpop.gremlin.process.computer.MemoryComputeKey;
+import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.apache.tinkerpop.gremlin.process.computer.Messenger;
+import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+import org.apache.tinkerpop.gremlin.process.computer.util.StaticVertexProgram;
+import org.apache.tinkerpop.gremlin.process.traversal.Operator;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.spark.AbstractSparkTest;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.IoCore;
+import org.apache.tinkerpop.gremlin.structure.util.GraphFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Runs a vertex program that only executes on incoming messages, which {@link SparkGraphComputer} uses to only
+ * execute the vertices that were messaged, and compares its results with those of {@link TinkerGraphComputer}, which
+ * executes every vertex in every iteration.
+ */
+public class SparkFrontierTest extends AbstractSparkTest {
+
+    @Test
+    public void shouldOnlyExecuteMessagedVerticesWithTheSameResultAsTinkerGraphComputer() throws Exception {
+        final String inputLocation = SparkHadoopGraphProvider.PATHS.get("grateful-dead.kryo");
+
+        final TinkerGraph tinkerGraph = TinkerGraph.open();
+        tinkerGraph.io(IoCore.gryo()).readGraph(inputLocation);
+        final Map<Object, Integer> expected = hops(tinkerGraph.compute(TinkerGraphComputer.class)
+                .program(new HopsVertexProgram("89")).submit().get().graph());
+
+        final Configuration configuration = getBaseConfiguration();
+        configuration.setProperty(Constants.GREMLIN_HADOOP_INPUT_LOCATION, inputLocation);
+        configuration.setProperty(Constants.GREMLIN_HADOOP_GRAPH_READER, GryoInputFormat.class.getCanonicalName());
+        configuration.setProperty(Constants.GREMLIN_HADOOP_GRAPH_WRITER, GryoOutputFormat.class.getCanonicalName());
+        configuration.setProperty(Constants.GREMLIN_HADOOP_OUTPUT_LOCATION, TestHelper.makeTestDataDirectory(SparkFrontierTest.class) + UUID.randomUUID().toString());
+        configuration.setProperty(Constants.GREMLIN_SPARK_PERSIST_CONTEXT, false);
+        final Graph sparkGraph = GraphFactory.open(configuration);
+        final Map<Object, Integer> actual = hops(sparkGraph.compute(SparkGraphComputer.class)
+                .program(new HopsVertexProgram("89")).submit().get().graph());
+
+        // the source reaches part of the graph only and takes several iterations to do so
+        assertEquals(452, expected.size());
+        assertEquals(6, expected.values().stream().mapToInt(Integer::intValue).max().getAsInt());
+        assertEquals(expected, actual);
+    }
+
+    private static Map<Object, Integer> hops(final Graph graph) {
+        final Map<Object, Integer> hops = new HashMap<>();
+        graph.vertices().forEachRemaining(vertex -> {
+            if (vertex.property(HopsVertexProgram.HOPS).isPresent())
+                hops.put(vertex.id().toString(), vertex.value(HopsVertexProgram.HOPS));
+        });
+        return hops;
+    }
+
+    /**
+     * Computes the number of hops along out-edges from a source vertex, where a vertex only does anything when it
+     * is given a shorter number of hops than it has.
+     */
+    public static final class HopsVertexProgram extends StaticVertexProgram<Integer> {
+
+        private static final String HOPS = "hops";
+        private static final String SOURCE = "gremlin.hopsVertexProgram.source";
+        private static final String CHANGED = "gremlin.hopsVertexProgram.changed";
+        private static final MessageScope.Local<Integer> OUT = MessageScope.Local.of(__::outE);
+
+        private String source;
+
+        private HopsVertexProgram() {
+        }
+
+        private HopsVertexProgram(final String source) {
+            this.source = source;
+        }
+
+        @Override
+        public void loadState(final Graph graph, final Configuration configuration) {
+            this.source = configuration.getString(SOURCE);
+        }
+
+        @Override
+        public void storeState(final Configuration configuration) {
+            super.storeState(configuration);
+            configuration.setProperty(SOURCE, this.source);
+        }
+
+        @Override
+        public Set<VertexComputeKey> getVertexComputeKeys() {
+            return Collections.singleton(VertexComputeKey.of(HOPS, false));
+        }
+
+        @Override
+        public Set<MemoryComputeKey> getMemoryComputeKeys() {
+            return Collections.singleton(MemoryComputeKey.of(CHANGED, Operator.or, false, true));
+        }
+
+        @Override
+        public Set<MessageScope> getMessageScopes(final Memory memory) {
+            return Collections.singleton(OUT);
+        }
+
+        @Override
+        public void setup(final Memory memory) {
+            memory.set(CHANGED, false);
+        }
+
+        @Override
+        public void execute(final Vertex vertex, final Messenger<Integer> messenger, final Memory memory) {
+            final int hops = memory.isInitialIteration() ?
+                    (vertex.id().toString().equals(this.source) ? 0 : Integer.MAX_VALUE) :
+                    IteratorUtils.reduce(messenger.receiveMessages(), Integer.MAX_VALUE, Math::min);
+            if (hops < vertex.<Integer>property(HOPS).orElse(Integer.MAX_VALUE)) {
+                vertex.property(VertexProperty.Cardinality.single, HOPS, hops);
+                messenger.sendMessage(OUT, hops + 1);
+                memory.add(CHANGED, true);
+            }
+        }
+
+        @Override
+        public boolean terminate(final Memory memory) {
+            if (!memory.<Boolean>get(CHANGED))
+                return true;
+            memory.set(CHANGED, false);
+            return false;
+        }
+
+        @Override
+        public GraphComputer.ResultGraph getPreferredResultGraph() {
+            return GraphComputer.ResultGraph.NEW;
+        }
+
+        @Override
+        public GraphComputer.Persist getPreferredPersist() {
+            return GraphComputer.Persist.VERTEX_PROPERTIES;
+        }
+
+        @Override
+        public Features getFeatures() {
+            return new Features() {
+                @Override
+                public boolean executesOnlyOnIncomingMessages() {
+                    return true;
+                }
+            };
+        }
+    }
+}
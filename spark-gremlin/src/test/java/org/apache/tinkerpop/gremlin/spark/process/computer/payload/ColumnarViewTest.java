@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.spark.process.computer.payload;
+
+import org.apache.spark.SparkConf;
+import org.apache.spark.serializer.KryoSerializer;
+import org.apache.spark.serializer.SerializerInstance;
+import org.apache.tinkerpop.gremlin.spark.structure.io.gryo.GryoRegistrator;
+import org.apache.tinkerpop.gremlin.spark.structure.io.gryo.GryoSerializer;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.star.StarGraph;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.junit.Test;
+import scala.reflect.ClassTag;
+import scala.reflect.ClassTag$;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnarViewTest {
+
+    @Test
+    public void shouldEncodeAndAttachComputeKeysWithGryoSerializer() throws Exception {
+        shouldEncodeAndAttachComputeKeys(new GryoSerializer(sparkConfiguration()).newInstance());
+    }
+
+    @Test
+    public void shouldEncodeAndAttachComputeKeysWithGryoRegistrator() throws Exception {
+        shouldEncodeAndAttachComputeKeys(new KryoSerializer(sparkConfiguration().set("spark.kryo.registrator", GryoRegistrator.class.getCanonicalName())).newInstance());
+    }
+
+    private static void shouldEncodeAndAttachComputeKeys(final SerializerInstance serializer) {
+        final StarGraph starGraph = StarGraph.open();
+        final StarGraph.StarVertex vertex = (StarGraph.StarVertex) starGraph.addVertex(T.id, 1, "name", "marko");
+        vertex.property(VertexProperty.Cardinality.single, "pageRank", 0.15d);
+        vertex.property(VertexProperty.Cardinality.single, "edgeCount", 3l);
+        vertex.property(VertexProperty.Cardinality.list, "rank", 1, "since", 2009);
+        vertex.property(VertexProperty.Cardinality.list, "rank", 2.5f);
+        vertex.property(VertexProperty.Cardinality.list, "rank", new ArrayList<>(Arrays.asList("a", "b")));
+        final String[] keys = {"pageRank", "edgeCount", "rank"};
+
+        final ClassTag<ColumnarView> classTag = ClassTag$.MODULE$.apply(ColumnarView.class);
+        final ColumnarView view = serializer.deserialize(serializer.serialize(ColumnarView.of(vertex.properties(keys)), classTag), classTag);
+        assertEquals(5, view.size());
+        final List<Object> ids = IteratorUtils.list(IteratorUtils.map(vertex.properties(keys), VertexProperty::id));
+        vertex.dropVertexProperties(keys);
+        assertFalse(vertex.properties(keys).hasNext());
+
+        view.attach(vertex, key -> !key.equals("edgeCount"));
+        assertFalse(vertex.property("edgeCount").isPresent());
+        assertEquals(0.15d, vertex.value("pageRank"), 0.0d);
+        assertEquals(Arrays.asList(1, 2.5f, Arrays.asList("a", "b")), IteratorUtils.list(vertex.values("rank")));
+        assertEquals(2009, (int) vertex.properties("rank").next().value("since"));
+        assertTrue(ids.containsAll(IteratorUtils.list(IteratorUtils.map(vertex.properties(keys), VertexProperty::id))));
+        assertEquals("marko", vertex.value("name"));
+    }
+
+    @Test
+    public void shouldConcatViews() {
+        final StarGraph.StarVertex vertex = (StarGraph.StarVertex) StarGraph.open().addVertex(T.id, 1);
+        vertex.property(VertexProperty.Cardinality.list, "a", 1l);
+        final ColumnarView first = ColumnarView.of(vertex.properties("a"));
+        vertex.property(VertexProperty.Cardinality.list, "b", "x", "meta", true);
+        final ColumnarView second = ColumnarView.of(vertex.properties("b"));
+        vertex.dropVertexProperties("a", "b");
+
+        assertTrue(ColumnarView.empty().isEmpty());
+        assertEquals(first, first.concat(ColumnarView.empty()));
+        assertEquals(second, ColumnarView.empty().concat(second));
+        final ColumnarView both = first.concat(second);
+        assertEquals(2, both.size());
+        both.attach(vertex);
+        assertEquals(1l, (long) vertex.value("a"));
+        assertEquals("x", vertex.value("b"));
+        assertTrue(vertex.properties("b").next().value("meta"));
+
+        // the meta-properties keep to their rows whichever side of the concatenation they come from
+        vertex.dropVertexProperties("a", "b");
+        second.concat(first).concat(second).attach(vertex);
+        assertEquals(Arrays.asList("x", "x"), IteratorUtils.list(vertex.values("b")));
+        vertex.properties("b").forEachRemaining(property -> assertTrue(property.value("meta")));
+        assertFalse(vertex.properties("a").next().properties().hasNext());
+    }
+
+    private static SparkConf sparkConfiguration() {
+        return new SparkConf().set("spark.kryo.registrationRequired", "true");
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.spark.process.computer.traversal.strategy.optimization.interceptor;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.TestHelper;
+import org.apache.tinkerpop.gremlin.hadoop.Constants;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo.GryoInputFormat;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.step.map.TraversalVertexProgramStep;
+import org.apache.tinkerpop.gremlin.process.traversal.Operator;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.spark.AbstractSparkTest;
+import org.apache.tinkerpop.gremlin.spark.process.computer.SparkGraphComputer;
+import org.apache.tinkerpop.gremlin.spark.process.computer.SparkHadoopGraphProvider;
+import org.apache.tinkerpop.gremlin.spark.structure.io.PersistedOutputRDD;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.util.GraphFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.junit.Test;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * The partitions of the graph RDD are each reduced by a clone of the end step, so the results must not depend on how
+ * the graph is partitioned, including partitions without vertices, and the seed of the end step must only be applied
+ * once.
+ */
+public class SparkStarBarrierInterceptorTest extends AbstractSparkTest {
+
+    @Test
+    public void shouldReduceBarriersOverSeveralPartitionsIncludingEmptyOnes() throws Exception {
+        final Configuration configuration = getBaseConfiguration();
+        configuration.setProperty(Constants.GREMLIN_HADOOP_INPUT_LOCATION, SparkHadoopGraphProvider.PATHS.get("tinkerpop-modern.kryo"));
+        configuration.setProperty(Constants.GREMLIN_HADOOP_GRAPH_READER, GryoInputFormat.class.getCanonicalName());
+        configuration.setProperty(Constants.GREMLIN_HADOOP_GRAPH_WRITER, PersistedOutputRDD.class.getCanonicalName());
+        configuration.setProperty(Constants.GREMLIN_HADOOP_OUTPUT_LOCATION, TestHelper.makeTestDataDirectory(SparkStarBarrierInterceptorTest.class, UUID.randomUUID().toString()));
+        configuration.setProperty(Constants.GREMLIN_HADOOP_DEFAULT_GRAPH_COMPUTER, SparkGraphComputer.class.getCanonicalName());
+        configuration.setProperty(Constants.GREMLIN_SPARK_PERSIST_CONTEXT, true);
+        // the modern graph is less than a kilobyte, so splits this small leave more partitions than vertices
+        configuration.setProperty("mapreduce.input.fileinputformat.split.maxsize", 64);
+        final GraphTraversalSource g = GraphFactory.open(configuration).traversal().withComputer();
+        final GraphTraversalSource expected = TinkerFactory.createModern().traversal();
+
+        test(g, expected, s -> s.V().count());
+        test(g, expected, s -> s.V().hasLabel("software").count());
+        test(g, expected, s -> s.V().has("age", P.gt(100)).count());
+        test(g, expected, s -> s.V().out().count());
+        test(g, expected, s -> s.V().has("age").values("age").sum());
+        test(g, expected, s -> s.V().has("age", P.gt(100)).values("age").sum());
+        test(g, expected, s -> s.V().hasLabel("person").values("age").min());
+        test(g, expected, s -> s.V().hasLabel("person").values("age").max());
+        test(g, expected, s -> s.V().hasLabel("person").values("age").mean());
+        test(g, expected, s -> s.V().hasLabel("person").values("age").fold(0l, Operator.sum));
+        test(g, expected, s -> s.V().hasLabel("person").values("age").fold(10l, Operator.sum));
+        test(g, expected, s -> s.V().has("age", P.gt(100)).values("age").fold(10l, Operator.sum));
+        test(g, expected, s -> s.V().hasLabel("software").values("name").fold());
+        test(g, expected, s -> s.V().groupCount().by(T.label));
+        test(g, expected, s -> s.V().outE().groupCount().by(T.label));
+        test(g, expected, s -> s.V().group().by(T.label).by(__.values("age").sum()));
+        test(g, expected, s -> s.V().group().by(T.label).by(__.count()));
+        test(g, expected, s -> s.V().has("age", P.gt(100)).group().by(T.label).by(__.count()));
+    }
+
+    private static void test(final GraphTraversalSource g, final GraphTraversalSource expected,
+                             final Function<GraphTraversalSource, Traversal<?, ?>> traversal) {
+        final Traversal.Admin<?, ?> sparkTraversal = traversal.apply(g).asAdmin();
+        final Traversal.Admin<?, ?> clone = sparkTraversal.clone();
+        clone.applyStrategies();
+        assertEquals(SparkStarBarrierInterceptor.class.getCanonicalName(),
+                TraversalHelper.getFirstStepOfAssignableClass(TraversalVertexProgramStep.class, clone).get()
+                        .getComputer().getConfiguration().get(Constants.GREMLIN_HADOOP_VERTEX_PROGRAM_INTERCEPTOR));
+        assertEquals(traversal.apply(expected).next(), sparkTraversal.next());
+    }
+}
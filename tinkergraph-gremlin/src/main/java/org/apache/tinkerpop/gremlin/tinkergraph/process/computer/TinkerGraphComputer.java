@@ -37,10 +37,10 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
@@ -154,24 +154,30 @@ public final class TinkerGraphComputer implements GraphComputer {
 
         // initialize the memory
         this.memory = new TinkerMemory(this.vertexProgram, this.mapReducers);
-        return computerService.submit(() -> {
+        final Future<ComputerResult> result = computerService.submit(() -> {
             final long time = System.currentTimeMillis();
             final TinkerGraphComputerView view;
             final TinkerWorkerPool workers = new TinkerWorkerPool(this.workers);
+            final Vertex[] vertices;
             try {
                 if (null != this.vertexProgram) {
                     view = TinkerHelper.createGraphComputerView(this.graph, this.graphFilter, this.vertexProgram.getVertexComputeKeys());
+                    // the computer can not add or remove vertices so the same (filtered) vertices are scheduled for every iteration
+                    vertices = IteratorUtils.list(this.graph.vertices()).toArray(new Vertex[0]);
+                    TinkerHelper.setComputerIndices(vertices);
+                    this.messageBoard.initialize(this.graph, vertices, this.vertexProgram.getMessageCombiner().isPresent());
                     // execute the vertex program
                     this.vertexProgram.setup(this.memory);
                     while (true) {
                         if (Thread.interrupted()) throw new TraversalInterruptedException();
                         this.memory.completeSubRound();
                         workers.setVertexProgram(this.vertexProgram);
-                        final SynchronizedIterator<Vertex> vertices = new SynchronizedIterator<>(this.graph.vertices());
+                        final TinkerWorkScheduler<Vertex> scheduler = new TinkerWorkScheduler<>(vertices, this.workers);
                         workers.executeVertexProgram(vertexProgram -> {
+                            final TinkerWorkScheduler<Vertex>.Worker worker = scheduler.worker();
                             vertexProgram.workerIterationStart(this.memory.asImmutable());
                             while (true) {
-                                final Vertex vertex = vertices.next();
+                                final Vertex vertex = worker.next();
                                 if (Thread.interrupted()) throw new TraversalInterruptedException();
                                 if (null == vertex) break;
                                 vertexProgram.execute(
@@ -195,18 +201,20 @@ public final class TinkerGraphComputer implements GraphComputer {
                 } else {
                     // MapReduce only
                     view = TinkerHelper.createGraphComputerView(this.graph, this.graphFilter, Collections.emptySet());
+                    vertices = IteratorUtils.list(this.graph.vertices()).toArray(new Vertex[0]);
                 }
 
                 // execute mapreduce jobs
                 for (final MapReduce mapReduce : mapReducers) {
                     final TinkerMapEmitter<?, ?> mapEmitter = new TinkerMapEmitter<>(mapReduce.doStage(MapReduce.Stage.REDUCE));
-                    final SynchronizedIterator<Vertex> vertices = new SynchronizedIterator<>(this.graph.vertices());
+                    final TinkerWorkScheduler<Vertex> scheduler = new TinkerWorkScheduler<>(vertices, this.workers);
                     workers.setMapReduce(mapReduce);
                     workers.executeMapReduce(workerMapReduce -> {
+                        final TinkerWorkScheduler<Vertex>.Worker worker = scheduler.worker();
                         workerMapReduce.workerStart(MapReduce.Stage.MAP);
                         while (true) {
                             if (Thread.interrupted()) throw new TraversalInterruptedException();
-                            final Vertex vertex = vertices.next();
+                            final Vertex vertex = worker.next();
                             if (null == vertex) break;
                             workerMapReduce.map(ComputerGraph.mapReduce(vertex), mapEmitter);
                         }
@@ -218,12 +226,14 @@ public final class TinkerGraphComputer implements GraphComputer {
                     // no need to run combiners as this is single machine
                     if (mapReduce.doStage(MapReduce.Stage.REDUCE)) {
                         final TinkerReduceEmitter<?, ?> reduceEmitter = new TinkerReduceEmitter<>();
-                        final SynchronizedIterator<Map.Entry<?, Queue<?>>> keyValues = new SynchronizedIterator((Iterator) mapEmitter.reduceMap.entrySet().iterator());
+                        final TinkerWorkScheduler<Map.Entry<?, Queue<?>>> keyValues = new TinkerWorkScheduler<>(
+                                (Map.Entry<?, Queue<?>>[]) mapEmitter.reduceMap.entrySet().toArray(new Map.Entry[0]), this.workers);
                         workers.executeMapReduce(workerMapReduce -> {
+                            final TinkerWorkScheduler<Map.Entry<?, Queue<?>>>.Worker worker = keyValues.worker();
                             workerMapReduce.workerStart(MapReduce.Stage.REDUCE);
                             while (true) {
                                 if (Thread.interrupted()) throw new TraversalInterruptedException();
-                                final Map.Entry<?, Queue<?>> entry = keyValues.next();
+                                final Map.Entry<?, Queue<?>> entry = worker.next();
                                 if (null == entry) break;
                                 workerMapReduce.reduce(entry.getKey(), entry.getValue().iterator(), reduceEmitter);
                             }
@@ -252,6 +262,9 @@ public final class TinkerGraphComputer implements GraphComputer {
                 workers.close();
             }
         });
+        // a computer is only executed once so its boss thread can end with the job
+        this.computerService.shutdown();
+        return result;
     }
 
     @Override
@@ -259,19 +272,6 @@ public final class TinkerGraphComputer implements GraphComputer {
         return StringFactory.graphComputerString(this);
     }
 
-    private static class SynchronizedIterator<V> {
-
-        private final Iterator<V> iterator;
-
-        public SynchronizedIterator(final Iterator<V> iterator) {
-            this.iterator = iterator;
-        }
-
-        public synchronized V next() {
-            return this.iterator.hasNext() ? this.iterator.next() : null;
-        }
-    }
-
     @Override
     public Features features() {
         return new Features() {
@@ -18,29 +18,108 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
 
+import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
 import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.wrapped.WrappedVertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
 
 import java.util.HashSet;
-import java.util.Map;
+import java.util.Iterator;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Stream;
 
 /**
+ * Holds the messages of a {@link TinkerGraphComputer} job in two arrays with one slot per vertex (indexed by the
+ * position of the vertex in the array scheduled by the computer), one that is written in the current iteration and
+ * one that is read from the previous iteration.  When the vertex program has a {@link MessageCombiner} each slot
+ * holds the single combined message and sending a message is a compare-and-set on that slot, otherwise each slot
+ * holds a lazily created queue of messages.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 final class TinkerMessageBoard<M> {
 
-    public Map<Vertex, Queue<M>> sendMessages = new ConcurrentHashMap<>();
-    public Map<Vertex, Queue<M>> receiveMessages = new ConcurrentHashMap<>();
     public Set<MessageScope> previousMessageScopes = new HashSet<>();
-    public Set<MessageScope> currentMessageScopes = new HashSet<>();
+    public Set<MessageScope> currentMessageScopes = ConcurrentHashMap.newKeySet();
+
+    private TinkerGraph graph;
+    private Vertex[] vertices = new Vertex[0];
+    private boolean combine = false;
+    private AtomicReferenceArray<Object> sendMessages = new AtomicReferenceArray<>(0);
+    private AtomicReferenceArray<Object> receiveMessages = new AtomicReferenceArray<>(0);
+
+    /**
+     * Size the board to the vertices being computed on, which must have been given their position in the array
+     * through {@link TinkerHelper#setComputerIndices(Vertex[])}.
+     */
+    public void initialize(final TinkerGraph graph, final Vertex[] vertices, final boolean combine) {
+        this.graph = graph;
+        this.vertices = vertices;
+        this.combine = combine;
+        this.sendMessages = new AtomicReferenceArray<>(vertices.length);
+        this.receiveMessages = new AtomicReferenceArray<>(vertices.length);
+    }
+
+    public void sendMessage(final Vertex vertex, final M message, final MessageCombiner<M> combiner) {
+        final int index = this.index(vertex);
+        if (-1 == index) return; // the vertex is not part of the computation so the message can never be received
+
+        if (this.combine) {
+            while (true) {
+                final M current = (M) this.sendMessages.get(index);
+                if (this.sendMessages.compareAndSet(index, current, null == current ? message : combiner.combine(current, message)))
+                    return;
+            }
+        } else {
+            Queue<M> queue = (Queue<M>) this.sendMessages.get(index);
+            if (null == queue) {
+                queue = new ConcurrentLinkedQueue<>();
+                if (!this.sendMessages.compareAndSet(index, null, queue))
+                    queue = (Queue<M>) this.sendMessages.get(index);
+            }
+            queue.add(message);
+        }
+    }
+
+    public Iterator<M> receiveMessages(final Vertex vertex) {
+        final int index = this.index(vertex);
+        final Object messages = -1 == index ? null : this.receiveMessages.get(index);
+        if (null == messages)
+            return Stream.<M>empty().iterator();
+        return this.combine ? Stream.of((M) messages).iterator() : ((Queue<M>) messages).iterator();
+    }
 
     public void completeIteration() {
+        final AtomicReferenceArray<Object> messages = this.receiveMessages;
         this.receiveMessages = this.sendMessages;
-        this.sendMessages = new ConcurrentHashMap<>();
+        for (int i = 0; i < messages.length(); i++) {
+            messages.set(i, null);
+        }
+        this.sendMessages = messages;
         this.previousMessageScopes = this.currentMessageScopes;
-        this.currentMessageScopes = new HashSet<>();
+        this.currentMessageScopes = ConcurrentHashMap.newKeySet();
+    }
+
+    private int index(final Vertex vertex) {
+        Vertex base = vertex;
+        while (base instanceof WrappedVertex) {
+            base = ((WrappedVertex<Vertex>) base).getBaseVertex();
+        }
+        if (!(base instanceof TinkerVertex)) {
+            // detached or referenced vertices are resolved against the graph being computed on
+            final Iterator<Vertex> iterator = this.graph.vertices(base.id());
+            if (!iterator.hasNext()) return -1;
+            base = iterator.next();
+        }
+        final int index = TinkerHelper.getComputerIndex((TinkerVertex) base);
+        // a vertex may carry a stale index from an earlier job on a different (e.g. filtered) set of vertices
+        return index >= 0 && index < this.vertices.length && this.vertices[index] == base ? index : -1;
     }
 }
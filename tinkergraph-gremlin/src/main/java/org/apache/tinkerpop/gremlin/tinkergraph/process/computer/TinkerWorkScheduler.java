@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Hands out a fixed array of items (typically vertices) to the workers of a {@link TinkerWorkerPool}.  The array is
+ * split into one contiguous partition per worker and each partition is consumed in chunks, so a worker only touches
+ * shared state (a single atomic add) once per chunk rather than once per item.  A worker that drains its own
+ * partition steals the remaining chunks of the other partitions, which keeps every worker busy when the cost per item
+ * is skewed (e.g. by high degree vertices).
+ */
+final class TinkerWorkScheduler<T> {
+
+    private static final int MAX_CHUNK_SIZE = 1024;
+    private static final int CHUNKS_PER_PARTITION = 16;
+
+    private final T[] items;
+    private final int partitions;
+    private final int chunkSize;
+    private final AtomicIntegerArray cursors;
+    private final int[] ends;
+    private final AtomicInteger nextPartition = new AtomicInteger(0);
+
+    TinkerWorkScheduler(final T[] items, final int partitions) {
+        this.items = items;
+        this.partitions = Math.max(1, partitions);
+        this.chunkSize = Math.max(1, Math.min(MAX_CHUNK_SIZE, items.length / (this.partitions * CHUNKS_PER_PARTITION)));
+        this.cursors = new AtomicIntegerArray(this.partitions);
+        this.ends = new int[this.partitions];
+        for (int i = 0; i < this.partitions; i++) {
+            this.cursors.set(i, (int) ((long) items.length * i / this.partitions));
+            this.ends[i] = (int) ((long) items.length * (i + 1) / this.partitions);
+        }
+    }
+
+    /**
+     * Get a consumer of the items that starts on the next unassigned partition.  Each worker thread should get its own.
+     */
+    Worker worker() {
+        return new Worker(this.nextPartition.getAndIncrement() % this.partitions);
+    }
+
+    final class Worker {
+
+        private final int partition;
+        private int position = 0;
+        private int end = 0;
+
+        private Worker(final int partition) {
+            this.partition = partition;
+        }
+
+        /**
+         * Get the next item for this worker or {@code null} if every partition has been consumed.
+         */
+        T next() {
+            if (this.position == this.end && !this.claim())
+                return null;
+            return items[this.position++];
+        }
+
+        private boolean claim() {
+            for (int i = 0; i < partitions; i++) {
+                final int stolen = (this.partition + i) % partitions;
+                if (cursors.get(stolen) >= ends[stolen])
+                    continue;
+                final int start = cursors.getAndAdd(stolen, chunkSize);
+                if (start < ends[stolen]) {
+                    this.position = start;
+                    this.end = Math.min(start + chunkSize, ends[stolen]);
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Batching;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerEdge;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A {@link VertexStep} that returns edges and answers the {@link HasContainer}s of the steps that followed it, as
+ * well as the order and limit of an {@code order().by(key).limit(n)} that follows it, from the vertex-centric indices
+ * of TinkerGraph when the edge labels of the step are indexed. Without such an index it behaves like the
+ * {@link VertexStep} and {@code HasStep}s it replaced.
+ */
+public final class TinkerVertexStep<E extends Element> extends VertexStep<E> implements HasContainerHolder, Batching {
+
+    private List<HasContainer> hasContainers = new ArrayList<>();
+    private String orderKey = null;
+    private Order order = null;
+    private long limit = Long.MAX_VALUE;
+
+    public TinkerVertexStep(final VertexStep<E> originalVertexStep) {
+        super(originalVertexStep.getTraversal(), originalVertexStep.getReturnClass(), originalVertexStep.getDirection(), originalVertexStep.getEdgeLabels());
+        originalVertexStep.getLabels().forEach(this::addLabel);
+    }
+
+    @Override
+    protected Iterator<E> flatMap(final Traverser.Admin<Vertex> traverser) {
+        final Vertex vertex = traverser.get();
+        Iterator<TinkerEdge> indexedEdges = null;
+        if (vertex instanceof TinkerVertex) {
+            if (null != this.orderKey)
+                indexedEdges = TinkerHelper.queryVertexCentricIndex((TinkerVertex) vertex, this.getDirection(), this.getEdgeLabels(),
+                        this.orderKey, Order.decr == this.order, this.limit, edge -> HasContainer.testAll(edge, this.hasContainers));
+            if (null == indexedEdges && !this.hasContainers.isEmpty())
+                indexedEdges = TinkerHelper.queryVertexCentricIndex((TinkerVertex) vertex, this.getDirection(), this.getEdgeLabels(), this.hasContainers);
+        }
+        final Iterator<E> edges = null == indexedEdges ? super.flatMap(traverser) : (Iterator<E>) indexedEdges;
+        return this.hasContainers.isEmpty() ?
+                edges :
+                IteratorUtils.filter(edges, edge -> HasContainer.testAll(edge, this.hasContainers));
+    }
+
+    /**
+     * Let the step return only the first edges of each vertex in the order of their value for the key when the key
+     * is indexed, as only the first {@code limit} edges of each vertex can make it past the order and range steps
+     * that follow.
+     */
+    public void setOrderLimit(final String orderKey, final Order order, final long limit) {
+        if (Order.incr != order && Order.decr != order)
+            throw new IllegalArgumentException("The order of the edges must be either incr or decr: " + order);
+        this.orderKey = orderKey;
+        this.order = order;
+        this.limit = limit;
+    }
+
+    @Override
+    public List<HasContainer> getHasContainers() {
+        return Collections.unmodifiableList(this.hasContainers);
+    }
+
+    @Override
+    public void addHasContainer(final HasContainer hasContainer) {
+        this.hasContainers.add(hasContainer);
+    }
+
+    @Override
+    public TinkerVertexStep<E> clone() {
+        final TinkerVertexStep<E> clone = (TinkerVertexStep<E>) super.clone();
+        clone.hasContainers = new ArrayList<>(this.hasContainers);
+        return clone;
+    }
+
+    @Override
+    public String toString() {
+        return this.hasContainers.isEmpty() ?
+                super.toString() :
+                StringFactory.stepString(this, this.getDirection(), Arrays.asList(this.getEdgeLabels()), Edge.class.getSimpleName().toLowerCase(), this.hasContainers);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ this.hasContainers.hashCode();
+    }
+}
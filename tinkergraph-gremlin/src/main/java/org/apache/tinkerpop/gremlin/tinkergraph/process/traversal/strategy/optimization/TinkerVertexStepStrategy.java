@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.ElementValueTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.OrderLimitStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerVertexStep;
+import org.javatuples.Pair;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@code TinkerVertexStepStrategy} replaces a {@link VertexStep} that returns edges with a {@link TinkerVertexStep}
+ * and folds the {@link HasStep}s that follow it into that step so that the edges can be looked up in the
+ * vertex-centric indices of TinkerGraph. When the edges are then ordered by a property and limited, which
+ * {@link OrderLimitStrategy} records on the {@link OrderGlobalStep}, the step is told to return only the first edges
+ * of each vertex in that order. The order and range steps remain in place.
+ *
+ * @example <pre>
+ * __.outE("rated").has("stars", gt(4))                 // is replaced by __.outE("rated")[stars.gt(4)]
+ * __.outE("rated").order().by("ts", decr).limit(10)   // each vertex yields its 10 latest edges to the order step
+ * </pre>
+ */
+public final class TinkerVertexStepStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final TinkerVertexStepStrategy INSTANCE = new TinkerVertexStepStrategy();
+
+    private TinkerVertexStepStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal))
+            return;
+
+        for (final VertexStep<?> originalVertexStep : TraversalHelper.getStepsOfClass(VertexStep.class, traversal)) {
+            if (!originalVertexStep.returnsEdge())
+                continue;
+            final TinkerVertexStep<?> tinkerVertexStep = new TinkerVertexStep<>(originalVertexStep);
+            TraversalHelper.replaceStep((Step) originalVertexStep, (Step) tinkerVertexStep, traversal);
+            Step<?, ?> currentStep = tinkerVertexStep.getNextStep();
+            while (currentStep instanceof HasStep) {
+                ((HasStep<?>) currentStep).getHasContainers().forEach(tinkerVertexStep::addHasContainer);
+                currentStep.getLabels().forEach(tinkerVertexStep::addLabel);
+                traversal.removeStep(currentStep);
+                currentStep = currentStep.getNextStep();
+            }
+            if (currentStep instanceof OrderGlobalStep && Long.MAX_VALUE != ((OrderGlobalStep) currentStep).getLimit()) {
+                final List<Pair<Traversal.Admin, Comparator>> comparators = ((OrderGlobalStep) currentStep).getComparators();
+                if (1 == comparators.size() && comparators.get(0).getValue0() instanceof ElementValueTraversal &&
+                        (Order.incr == comparators.get(0).getValue1() || Order.decr == comparators.get(0).getValue1()))
+                    tinkerVertexStep.setOrderLimit(((ElementValueTraversal) comparators.get(0).getValue0()).getPropertyKey(),
+                            (Order) comparators.get(0).getValue1(), ((OrderGlobalStep) currentStep).getLimit());
+            }
+        }
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return Collections.singleton(TinkerGraphStepStrategy.class);
+    }
+
+    public static TinkerVertexStepStrategy instance() {
+        return INSTANCE;
+    }
+}
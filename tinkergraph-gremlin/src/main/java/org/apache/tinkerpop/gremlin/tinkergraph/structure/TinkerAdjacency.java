@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A compact, array-packed adjacency list for one direction of a {@link TinkerVertex}. Edges are grouped by label
+ * into one slot per label where each slot is a plain {@code Edge[]} with a fill count, so an incident edge costs a
+ * single array reference rather than the hash set entry of the default {@code Map<String, Set<Edge>>} layout. Labels
+ * are matched with {@code equals()} as the labels of a query are not the instances the edges were created with.
+ * <p/>
+ * Additions append in place and removals shift the tail of the slot array in place, unless an iterator has been
+ * handed the slot array since it was last copied, in which case the removal copies it.  So iterators work over a
+ * snapshot of the slot they are walking and are not disturbed by a {@code drop()} of the edges they return.
+ */
+final class TinkerAdjacency {
+
+    private static final Edge[] EMPTY_EDGES = new Edge[0];
+    private static final int INITIAL_CAPACITY = 2;
+
+    private String[] labels = new String[1];
+    private Edge[][] edges = new Edge[1][];
+    private int[] counts = new int[1];
+    private boolean[] shared = new boolean[1];
+    private int size = 0;
+
+    protected void add(final String label, final Edge edge) {
+        int slot = this.slot(label);
+        if (-1 == slot) {
+            if (this.size == this.labels.length) {
+                final int capacity = this.size + 1;
+                this.labels = Arrays.copyOf(this.labels, capacity);
+                this.edges = Arrays.copyOf(this.edges, capacity);
+                this.counts = Arrays.copyOf(this.counts, capacity);
+                this.shared = Arrays.copyOf(this.shared, capacity);
+            }
+            slot = this.size++;
+            this.labels[slot] = label;
+            this.edges[slot] = new Edge[INITIAL_CAPACITY];
+        }
+        final int count = this.counts[slot];
+        if (count == this.edges[slot].length) {
+            this.edges[slot] = Arrays.copyOf(this.edges[slot], count + (count >> 1) + 1);
+            this.shared[slot] = false;
+        }
+        this.edges[slot][count] = edge;
+        this.counts[slot] = count + 1;
+    }
+
+    protected void remove(final String label, final Edge edge) {
+        final int slot = this.slot(label);
+        if (-1 == slot) return;
+        final Edge[] current = this.edges[slot];
+        final int count = this.counts[slot];
+        for (int i = 0; i < count; i++) {
+            if (current[i] == edge) {
+                if (this.shared[slot]) {
+                    final Edge[] copy = count == 1 ? EMPTY_EDGES : new Edge[count - 1];
+                    System.arraycopy(current, 0, copy, 0, i);
+                    System.arraycopy(current, i + 1, copy, i, count - i - 1);
+                    this.edges[slot] = copy;
+                    this.shared[slot] = false;
+                } else {
+                    System.arraycopy(current, i + 1, current, i, count - i - 1);
+                    current[count - 1] = null;
+                }
+                this.counts[slot] = count - 1;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Walk the edges with the specified labels (or all edges if no labels are provided). When {@code direction} is
+     * non-null, the iterator emits the vertex at that end of each edge instead of the edge itself.
+     */
+    protected <E> Iterator<E> iterator(final Direction direction, final String... edgeLabels) {
+        return new AdjacencyIterator<>(direction, edgeLabels);
+    }
+
+    private int slot(final String label) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.labels[i].equals(label))
+                return i;
+        }
+        return -1;
+    }
+
+    private final class AdjacencyIterator<E> implements Iterator<E> {
+
+        private final Direction direction;
+        private final String[] edgeLabels;
+        private int nextSlot = 0;
+        private Edge[] current = EMPTY_EDGES;
+        private int currentCount = 0;
+        private int position = 0;
+
+        private AdjacencyIterator(final Direction direction, final String[] edgeLabels) {
+            this.direction = direction;
+            this.edgeLabels = edgeLabels;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (this.position == this.currentCount) {
+                if (!this.advance())
+                    return false;
+            }
+            return true;
+        }
+
+        @Override
+        public E next() {
+            if (!this.hasNext())
+                throw new NoSuchElementException();
+            final TinkerEdge edge = (TinkerEdge) this.current[this.position++];
+            if (null == this.direction)
+                return (E) edge;
+            else
+                return (E) (Direction.OUT == this.direction ? edge.outVertex : edge.inVertex);
+        }
+
+        private boolean advance() {
+            final int slot;
+            if (0 == this.edgeLabels.length) {
+                if (this.nextSlot >= size) return false;
+                slot = this.nextSlot++;
+            } else {
+                int found = -1;
+                while (-1 == found && this.nextSlot < this.edgeLabels.length) {
+                    found = slot(this.edgeLabels[this.nextSlot++]);
+                }
+                if (-1 == found) return false;
+                slot = found;
+            }
+            this.current = edges[slot];
+            this.currentCount = counts[slot];
+            shared[slot] = true;
+            this.position = 0;
+            return true;
+        }
+    }
+}
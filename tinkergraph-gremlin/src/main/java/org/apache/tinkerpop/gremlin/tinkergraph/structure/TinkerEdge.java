@@ -60,6 +60,9 @@ public final class TinkerEdge extends TinkerElement implements Edge {
         if (null == this.properties) this.properties = new HashMap<>();
         this.properties.put(key, newProperty);
         TinkerHelper.autoUpdateIndex(this, key, value, oldProperty.isPresent() ? oldProperty.value() : null);
+        TinkerHelper.autoUpdateVertexCentricIndex(this, key, value, oldProperty.isPresent() ? oldProperty.value() : null);
+        final TinkerGraph graph = (TinkerGraph) this.graph();
+        if (null != graph.mutationLog && graph.edges.containsKey(this.id)) graph.mutationLog.setProperty(newProperty);
         return newProperty;
 
     }
@@ -79,6 +82,12 @@ public final class TinkerEdge extends TinkerElement implements Edge {
         final TinkerVertex outVertex = (TinkerVertex) this.outVertex;
         final TinkerVertex inVertex = (TinkerVertex) this.inVertex;
 
+        if (null != outVertex && null != inVertex)
+            TinkerHelper.removeVertexCentricIndex(this);
+        if (null != outVertex && null != outVertex.outAdjacency)
+            outVertex.outAdjacency.remove(this.label(), this);
+        if (null != inVertex && null != inVertex.inAdjacency)
+            inVertex.inAdjacency.remove(this.label(), this);
         if (null != outVertex && null != outVertex.outEdges) {
             final Set<Edge> edges = outVertex.outEdges.get(this.label());
             if (null != edges)
@@ -91,7 +100,9 @@ public final class TinkerEdge extends TinkerElement implements Edge {
         }
 
         TinkerHelper.removeElementIndex(this);
-        ((TinkerGraph) this.graph()).edges.remove(this.id());
+        final TinkerGraph graph = (TinkerGraph) this.graph();
+        if (null != graph.edges.remove(this.id()) && null != graph.mutationLog)
+            graph.mutationLog.removeEdge(this);
         this.properties = null;
         this.removed = true;
     }
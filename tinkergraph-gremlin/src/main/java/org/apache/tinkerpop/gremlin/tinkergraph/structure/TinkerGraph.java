@@ -22,6 +22,7 @@ import org.apache.commons.configuration.BaseConfiguration;
 import org.apache.commons.configuration.Configuration;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
@@ -36,11 +37,15 @@ import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerView;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphStepStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerVertexStepStrategy;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -71,7 +76,7 @@ import java.util.stream.Stream;
 public final class TinkerGraph implements Graph {
 
     static {
-        TraversalStrategies.GlobalCache.registerStrategies(TinkerGraph.class, TraversalStrategies.GlobalCache.getStrategies(Graph.class).clone().addStrategies(TinkerGraphStepStrategy.instance()));
+        TraversalStrategies.GlobalCache.registerStrategies(TinkerGraph.class, TraversalStrategies.GlobalCache.getStrategies(Graph.class).clone().addStrategies(TinkerGraphStepStrategy.instance(), TinkerVertexStepStrategy.instance()));
     }
 
     private static final Configuration EMPTY_CONFIGURATION = new BaseConfiguration() {{
@@ -115,6 +120,10 @@ public final class TinkerGraph implements Graph {
     public static final String GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY = "gremlin.tinkergraph.defaultVertexPropertyCardinality";
     public static final String GREMLIN_TINKERGRAPH_GRAPH_LOCATION = "gremlin.tinkergraph.graphLocation";
     public static final String GREMLIN_TINKERGRAPH_GRAPH_FORMAT = "gremlin.tinkergraph.graphFormat";
+    public static final String GREMLIN_TINKERGRAPH_ADJACENCY = "gremlin.tinkergraph.adjacency";
+    public static final String GREMLIN_TINKERGRAPH_MUTATION_LOG = "gremlin.tinkergraph.mutationLog";
+    public static final String GREMLIN_TINKERGRAPH_SNAPSHOT_THRESHOLD = "gremlin.tinkergraph.snapshotThreshold";
+    public static final String GREMLIN_TINKERGRAPH_LOAD_THREADS = "gremlin.tinkergraph.loadThreads";
 
     private final TinkerGraphFeatures features = new TinkerGraphFeatures();
 
@@ -126,11 +135,14 @@ public final class TinkerGraph implements Graph {
     protected TinkerGraphComputerView graphComputerView = null;
     protected TinkerIndex<TinkerVertex> vertexIndex = null;
     protected TinkerIndex<TinkerEdge> edgeIndex = null;
+    protected final Map<String, Set<String>> vertexCentricKeys = new ConcurrentHashMap<>();
 
     protected final IdManager<?> vertexIdManager;
     protected final IdManager<?> edgeIdManager;
     protected final IdManager<?> vertexPropertyIdManager;
     protected final VertexProperty.Cardinality defaultVertexPropertyCardinality;
+    protected final boolean packedAdjacency;
+    protected TinkerMutationLog mutationLog = null;
 
     private final Configuration configuration;
     private final String graphLocation;
@@ -147,6 +159,12 @@ public final class TinkerGraph implements Graph {
         defaultVertexPropertyCardinality = VertexProperty.Cardinality.valueOf(
                 configuration.getString(GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, VertexProperty.Cardinality.single.name()));
 
+        final String adjacency = configuration.getString(GREMLIN_TINKERGRAPH_ADJACENCY, "map");
+        if (!adjacency.equals("map") && !adjacency.equals("packed"))
+            throw new IllegalStateException(String.format("The %s must be either 'map' or 'packed' but was '%s'",
+                    GREMLIN_TINKERGRAPH_ADJACENCY, adjacency));
+        packedAdjacency = adjacency.equals("packed");
+
         graphLocation = configuration.getString(GREMLIN_TINKERGRAPH_GRAPH_LOCATION, null);
         graphFormat = configuration.getString(GREMLIN_TINKERGRAPH_GRAPH_FORMAT, null);
 
@@ -154,7 +172,17 @@ public final class TinkerGraph implements Graph {
             throw new IllegalStateException(String.format("The %s and %s must both be specified if either is present",
                     GREMLIN_TINKERGRAPH_GRAPH_LOCATION, GREMLIN_TINKERGRAPH_GRAPH_FORMAT));
 
+        final boolean logMutations = configuration.getBoolean(GREMLIN_TINKERGRAPH_MUTATION_LOG, false);
+        if (logMutations && (null == graphLocation || !graphFormat.equals("gryo")))
+            throw new IllegalStateException(String.format("The %s requires %s to be set and %s to be 'gryo'",
+                    GREMLIN_TINKERGRAPH_MUTATION_LOG, GREMLIN_TINKERGRAPH_GRAPH_LOCATION, GREMLIN_TINKERGRAPH_GRAPH_FORMAT));
+
         if (graphLocation != null) loadGraph();
+
+        // the log replays into the graph before it is attached so that replayed mutations are not logged again
+        if (logMutations)
+            mutationLog = new TinkerMutationLog(this, graphLocation,
+                    configuration.getLong(GREMLIN_TINKERGRAPH_SNAPSHOT_THRESHOLD, 1000000l));
     }
 
     /**
@@ -203,6 +231,7 @@ public final class TinkerGraph implements Graph {
 
         final Vertex vertex = new TinkerVertex(idValue, label, this);
         this.vertices.put(vertex.id(), vertex);
+        if (null != this.mutationLog) this.mutationLog.addVertex((TinkerVertex) vertex);
 
         ElementHelper.attachProperties(vertex, VertexProperty.Cardinality.list, keyValues);
         return vertex;
@@ -244,12 +273,27 @@ public final class TinkerGraph implements Graph {
         this.currentId.set(-1l);
         this.vertexIndex = null;
         this.edgeIndex = null;
+        this.vertexCentricKeys.clear();
         this.graphComputerView = null;
+        if (null != this.mutationLog) this.mutationLog.clear();
+    }
+
+    /**
+     * Compact the mutation log into a new gryo snapshot at the configured graph location.  This happens automatically
+     * every {@link #GREMLIN_TINKERGRAPH_SNAPSHOT_THRESHOLD} mutations and on {@link #close()}.
+     */
+    public void snapshot() {
+        if (null == this.mutationLog)
+            throw new IllegalStateException(String.format("Snapshots require %s to be enabled", GREMLIN_TINKERGRAPH_MUTATION_LOG));
+        this.mutationLog.snapshot();
     }
 
     @Override
     public void close() {
-        if (graphLocation != null) saveGraph();
+        if (null != this.mutationLog) {
+            this.mutationLog.close();
+            this.mutationLog = null;
+        } else if (graphLocation != null) saveGraph();
     }
 
     @Override
@@ -281,7 +325,13 @@ public final class TinkerGraph implements Graph {
                 } else if (graphFormat.equals("graphson")) {
                     io(IoCore.graphson()).readGraph(graphLocation);
                 } else if (graphFormat.equals("gryo")) {
-                    io(IoCore.gryo()).readGraph(graphLocation);
+                    final int loadThreads = configuration.getInt(GREMLIN_TINKERGRAPH_LOAD_THREADS, 1);
+                    if (loadThreads > 1) {
+                        try (final InputStream stream = new FileInputStream(f)) {
+                            TinkerGryoLoader.load(this, stream, loadThreads);
+                        }
+                    } else
+                        io(IoCore.gryo()).readGraph(graphLocation);
                 } else {
                     io(IoCore.createIoBuilder(graphFormat)).readGraph(graphLocation);
                 }
@@ -499,6 +549,48 @@ public final class TinkerGraph implements Graph {
         }
     }
 
+    /**
+     * Create a sorted index for said element class ({@link Vertex} or {@link Edge}) and said property key. A sorted
+     * index answers exact matches like {@link #createIndex(String, Class)} does and can also answer range predicates
+     * such as {@code gt}, {@code lte} and {@code between}. Dropping the key with {@link #dropIndex(String, Class)}
+     * drops the sorted index as well.
+     *
+     * @param key          the property key to index
+     * @param elementClass the element class to index
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createSortedIndex(final String key, final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
+            this.vertexIndex.createSortedKeyIndex(key);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
+            this.edgeIndex.createSortedKeyIndex(key);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Create a composite index for said element class ({@link Vertex} or {@link Edge}) over two or more property
+     * keys. The index is used when a traversal tests all of the keys for equality.
+     *
+     * @param elementClass the element class to index
+     * @param keys         the property keys to index together
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createCompositeIndex(final Class<E> elementClass, final String... keys) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
+            this.vertexIndex.createCompositeKeyIndex(keys);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
+            this.edgeIndex.createCompositeKeyIndex(keys);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
     /**
      * Drop the index for the specified element class ({@link Vertex} or {@link Edge}) and key.
      *
@@ -516,6 +608,23 @@ public final class TinkerGraph implements Graph {
         }
     }
 
+    /**
+     * Drop the composite index for the specified element class ({@link Vertex} or {@link Edge}) and keys.
+     *
+     * @param elementClass the element class of the index to drop
+     * @param keys         the property keys of the composite index
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void dropCompositeIndex(final Class<E> elementClass, final String... keys) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null != this.vertexIndex) this.vertexIndex.dropCompositeKeyIndex(keys);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null != this.edgeIndex) this.edgeIndex.dropCompositeKeyIndex(keys);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
     /**
      * Return all the keys currently being index for said element class  ({@link Vertex} or {@link Edge}).
      *
@@ -533,6 +642,100 @@ public final class TinkerGraph implements Graph {
         }
     }
 
+    /**
+     * Return the keys that have a sorted index for said element class ({@link Vertex} or {@link Edge}).
+     *
+     * @param elementClass the element class to get the sorted keys for
+     * @param <E>          The type of the element class
+     * @return the set of keys currently being indexed in sorted order
+     */
+    public <E extends Element> Set<String> getSortedIndexedKeys(final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return null == this.vertexIndex ? Collections.emptySet() : this.vertexIndex.getSortedIndexedKeys();
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return null == this.edgeIndex ? Collections.emptySet() : this.edgeIndex.getSortedIndexedKeys();
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Return the key lists of the composite indices for said element class ({@link Vertex} or {@link Edge}).
+     *
+     * @param elementClass the element class to get the composite keys for
+     * @param <E>          The type of the element class
+     * @return the set of key lists currently being indexed together
+     */
+    public <E extends Element> Set<List<String>> getCompositeIndexedKeys(final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return null == this.vertexIndex ? Collections.emptySet() : this.vertexIndex.getCompositeIndexedKeys();
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return null == this.edgeIndex ? Collections.emptySet() : this.edgeIndex.getCompositeIndexedKeys();
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Create a vertex-centric index over the edges of said label that sorts the incident edges of every vertex by
+     * said property key. A traversal like {@code outE("rated").has("stars", gt(4))} or
+     * {@code outE("rated").order().by("ts").limit(10)} then looks up the edges of a vertex rather than scanning all
+     * of them. When the index is created, the existing edges of the label are indexed.
+     *
+     * @param label the edge label to index
+     * @param key   the edge property key to sort the edges of the label by
+     */
+    public void createVertexCentricIndex(final String label, final String key) {
+        if (null == label)
+            throw Graph.Exceptions.argumentCanNotBeNull("label");
+        if (null == key)
+            throw Graph.Exceptions.argumentCanNotBeNull("key");
+        if (label.isEmpty() || key.isEmpty())
+            throw new IllegalArgumentException("The label and key for the vertex-centric index cannot be an empty string");
+
+        if (!this.vertexCentricKeys.computeIfAbsent(label, l -> ConcurrentHashMap.newKeySet()).add(key))
+            return;
+        this.edges.values().stream().filter(edge -> edge.label().equals(label)).forEach(edge -> {
+            TinkerHelper.addVertexCentricIndex((TinkerVertex) edge.outVertex(), Direction.OUT, label, key, edge);
+            TinkerHelper.addVertexCentricIndex((TinkerVertex) edge.inVertex(), Direction.IN, label, key, edge);
+        });
+    }
+
+    /**
+     * Drop the vertex-centric index for the specified edge label and key.
+     *
+     * @param label the edge label of the index to drop
+     * @param key   the edge property key of the index to drop
+     */
+    public void dropVertexCentricIndex(final String label, final String key) {
+        final Set<String> keys = this.vertexCentricKeys.get(label);
+        if (null == keys || !keys.remove(key))
+            return;
+        if (keys.isEmpty())
+            this.vertexCentricKeys.remove(label);
+        this.vertices.values().forEach(v -> {
+            final TinkerVertex vertex = (TinkerVertex) v;
+            if (null != vertex.outEdgeIndex) {
+                vertex.outEdgeIndex.drop(label, key);
+                if (vertex.outEdgeIndex.isEmpty()) vertex.outEdgeIndex = null;
+            }
+            if (null != vertex.inEdgeIndex) {
+                vertex.inEdgeIndex.drop(label, key);
+                if (vertex.inEdgeIndex.isEmpty()) vertex.inEdgeIndex = null;
+            }
+        });
+    }
+
+    /**
+     * Return the keys that the edges of said label are sorted by in vertex-centric indices.
+     *
+     * @param label the edge label to get the indexed keys for
+     * @return the set of keys currently being indexed for the label
+     */
+    public Set<String> getVertexCentricIndexedKeys(final String label) {
+        return Collections.unmodifiableSet(this.vertexCentricKeys.getOrDefault(label, Collections.emptySet()));
+    }
+
     /**
      * Construct an {@link TinkerGraph.IdManager} from the TinkerGraph {@code Configuration}.
      */
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.io.IoCore;
+import org.apache.tinkerpop.gremlin.structure.util.Attachable;
+import org.apache.tinkerpop.gremlin.structure.util.star.StarGraph;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Loads a gryo file written by {@link org.apache.tinkerpop.gremlin.structure.io.gryo.GryoWriter#writeGraph} into a
+ * {@link TinkerGraph} with a pool of worker threads.  The calling thread deserializes the star graphs from the stream
+ * (the format has no record lengths, so it cannot be split without reading it) and hands them to the workers in
+ * batches, which proceeds in three phases:
+ * <ol>
+ * <li>the workers create vertices and their properties while the stream is still being read and keep only the
+ * identifiers, labels and properties of the edges of their batch, so that a batch of star graphs is released as soon
+ * as it is materialized,</li>
+ * <li>each worker creates the out-edges of its batch and links them to their out-vertex,</li>
+ * <li>each worker links the in-edges of its batch to their in-vertex.</li>
+ * </ol>
+ * Every vertex belongs to exactly one batch, so in any phase the adjacency of a vertex is only ever touched by the
+ * worker that owns it.  The reader checks the batches the workers have finished as it goes, so a failed batch fails
+ * the load without reading the rest of the stream, and it waits for the workers once it is a few batches ahead of them.
+ */
+final class TinkerGryoLoader {
+
+    private static final BasicThreadFactory THREAD_FACTORY_LOADER = new BasicThreadFactory.Builder().namingPattern("tinker-loader-%d").build();
+    private static final int BATCH_SIZE = 1000;
+
+    private TinkerGryoLoader() {
+    }
+
+    static void load(final TinkerGraph graph, final InputStream inputStream, final int numberOfThreads) throws IOException, InterruptedException {
+        final ExecutorService loaderPool = Executors.newFixedThreadPool(numberOfThreads, THREAD_FACTORY_LOADER);
+        try {
+            final Iterator<Vertex> starVertices = graph.io(IoCore.gryo()).reader().create()
+                    .readVertices(inputStream, Attachable::get, null, Direction.BOTH);
+
+            final CompletionService<List<StarEdges>> vertexLoader = new ExecutorCompletionService<>(loaderPool);
+            final List<List<StarEdges>> batches = new ArrayList<>();
+            int pending = 0;
+            List<StarGraph.StarVertex> batch = new ArrayList<>(BATCH_SIZE);
+            while (starVertices.hasNext()) {
+                batch.add((StarGraph.StarVertex) starVertices.next());
+                if (batch.size() == BATCH_SIZE || !starVertices.hasNext()) {
+                    final List<StarGraph.StarVertex> vertexBatch = batch;
+                    vertexLoader.submit(() -> addVertices(graph, vertexBatch));
+                    pending++;
+                    batch = new ArrayList<>(BATCH_SIZE);
+                    // fail as soon as a batch fails and do not read further ahead of the workers than they can keep up
+                    Future<List<StarEdges>> done;
+                    while (null != (done = pending > 2 * numberOfThreads ? vertexLoader.take() : vertexLoader.poll())) {
+                        batches.add(get(done));
+                        pending--;
+                    }
+                }
+            }
+            for (; pending > 0; pending--) {
+                batches.add(get(vertexLoader.take()));
+            }
+
+            execute(loaderPool, batches, star -> addOutEdges(graph, star));
+            execute(loaderPool, batches, star -> addInEdges(graph, star));
+        } finally {
+            loaderPool.shutdownNow();
+        }
+    }
+
+    private static List<StarEdges> addVertices(final TinkerGraph graph, final List<StarGraph.StarVertex> batch) {
+        final List<StarEdges> edges = new ArrayList<>(batch.size());
+        for (final StarGraph.StarVertex star : batch) {
+            star.attach(Attachable.Method.create(graph));
+            edges.add(new StarEdges(star));
+        }
+        return edges;
+    }
+
+    private static void addOutEdges(final TinkerGraph graph, final StarEdges star) {
+        final TinkerVertex outVertex = vertex(graph, star.vertexId);
+        for (final OutEdge outEdge : star.outEdges) {
+            final TinkerVertex inVertex = vertex(graph, outEdge.inVertexId);
+            final Object idValue = graph.edgeIdManager.convert(outEdge.id);
+            final TinkerEdge edge = new TinkerEdge(idValue, outVertex, outEdge.label, inVertex);
+            for (int i = 0; i < outEdge.keyValues.length; i = i + 2) {
+                edge.property((String) outEdge.keyValues[i], outEdge.keyValues[i + 1]);
+            }
+            if (null != graph.edges.putIfAbsent(idValue, edge))
+                throw Graph.Exceptions.edgeWithIdAlreadyExists(idValue);
+            TinkerHelper.addOutEdge(outVertex, outEdge.label, edge);
+        }
+    }
+
+    private static void addInEdges(final TinkerGraph graph, final StarEdges star) {
+        final TinkerVertex inVertex = vertex(graph, star.vertexId);
+        for (final Object inEdgeId : star.inEdgeIds) {
+            final Edge edge = graph.edges.get(graph.edgeIdManager.convert(inEdgeId));
+            if (null == edge)
+                throw new IllegalStateException(String.format("The in-edge %s of vertex %s was not written as an out-edge",
+                        inEdgeId, star.vertexId));
+            TinkerHelper.addInEdge(inVertex, edge.label(), edge);
+        }
+    }
+
+    private static TinkerVertex vertex(final TinkerGraph graph, final Object id) {
+        final Vertex vertex = graph.vertices.get(graph.vertexIdManager.convert(id));
+        if (null == vertex)
+            throw new IllegalStateException(String.format("The vertex %s is referenced by an edge but was not found in the graph", id));
+        return (TinkerVertex) vertex;
+    }
+
+    private static void execute(final ExecutorService loaderPool, final List<List<StarEdges>> batches,
+                                final Consumer<StarEdges> worker) throws InterruptedException {
+        final List<Future<?>> futures = new ArrayList<>(batches.size());
+        for (final List<StarEdges> batch : batches) {
+            futures.add(loaderPool.submit(() -> batch.forEach(worker)));
+        }
+        for (final Future<?> future : futures) {
+            get(future);
+        }
+    }
+
+    private static <V> V get(final Future<V> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * What is left of a star graph once its vertex is created - the edges that still have to be created or linked.
+     */
+    private static final class StarEdges {
+        private final Object vertexId;
+        private final OutEdge[] outEdges;
+        private final Object[] inEdgeIds;
+
+        private StarEdges(final StarGraph.StarVertex star) {
+            this.vertexId = star.id();
+            final List<OutEdge> outEdges = new ArrayList<>();
+            star.edges(Direction.OUT).forEachRemaining(edge -> outEdges.add(new OutEdge(edge)));
+            this.outEdges = outEdges.toArray(new OutEdge[outEdges.size()]);
+            final List<Object> inEdgeIds = new ArrayList<>();
+            star.edges(Direction.IN).forEachRemaining(edge -> inEdgeIds.add(edge.id()));
+            this.inEdgeIds = inEdgeIds.toArray();
+        }
+    }
+
+    private static final class OutEdge {
+        private final Object id;
+        private final String label;
+        private final Object inVertexId;
+        private final Object[] keyValues;
+
+        private OutEdge(final Edge edge) {
+            this.id = edge.id();
+            this.label = edge.label();
+            this.inVertexId = edge.inVertex().id();
+            final List<Object> keyValues = new ArrayList<>();
+            edge.properties().forEachRemaining(property -> {
+                keyValues.add(property.key());
+                keyValues.add(property.value());
+            });
+            this.keyValues = keyValues.toArray();
+        }
+    }
+}
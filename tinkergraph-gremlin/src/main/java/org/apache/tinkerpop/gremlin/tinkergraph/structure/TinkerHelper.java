@@ -20,15 +20,19 @@ package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
 import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerView;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -37,6 +41,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
@@ -64,13 +69,20 @@ public final class TinkerHelper {
         edge = new TinkerEdge(idValue, outVertex, label, inVertex);
         ElementHelper.attachProperties(edge, keyValues);
         graph.edges.put(edge.id(), edge);
-        TinkerHelper.addOutEdge(outVertex, label, edge);
-        TinkerHelper.addInEdge(inVertex, label, edge);
+        TinkerHelper.addOutEdge(outVertex, edge.label(), edge);
+        TinkerHelper.addInEdge(inVertex, edge.label(), edge);
+        if (null != graph.mutationLog) graph.mutationLog.addEdge((TinkerEdge) edge);
         return edge;
 
     }
 
     protected static void addOutEdge(final TinkerVertex vertex, final String label, final Edge edge) {
+        addVertexCentricIndex(vertex, Direction.OUT, label, edge);
+        if (((TinkerGraph) vertex.graph()).packedAdjacency) {
+            if (null == vertex.outAdjacency) vertex.outAdjacency = new TinkerAdjacency();
+            vertex.outAdjacency.add(label, edge);
+            return;
+        }
         if (null == vertex.outEdges) vertex.outEdges = new HashMap<>();
         Set<Edge> edges = vertex.outEdges.get(label);
         if (null == edges) {
@@ -81,6 +93,12 @@ public final class TinkerHelper {
     }
 
     protected static void addInEdge(final TinkerVertex vertex, final String label, final Edge edge) {
+        addVertexCentricIndex(vertex, Direction.IN, label, edge);
+        if (((TinkerGraph) vertex.graph()).packedAdjacency) {
+            if (null == vertex.inAdjacency) vertex.inAdjacency = new TinkerAdjacency();
+            vertex.inAdjacency.add(label, edge);
+            return;
+        }
         if (null == vertex.inEdges) vertex.inEdges = new HashMap<>();
         Set<Edge> edges = vertex.inEdges.get(label);
         if (null == edges) {
@@ -90,6 +108,139 @@ public final class TinkerHelper {
         edges.add(edge);
     }
 
+    /**
+     * File the edge in the vertex-centric indices of the vertex for every key that is indexed for its label.
+     */
+    protected static void addVertexCentricIndex(final TinkerVertex vertex, final Direction direction, final String label, final Edge edge) {
+        final Set<String> keys = ((TinkerGraph) vertex.graph()).vertexCentricKeys.get(label);
+        if (null == keys || keys.isEmpty())
+            return;
+        for (final String key : keys) {
+            addVertexCentricIndex(vertex, direction, label, key, edge);
+        }
+    }
+
+    protected static void addVertexCentricIndex(final TinkerVertex vertex, final Direction direction, final String label, final String key, final Edge edge) {
+        final Property<?> property = edge.property(key);
+        if (Direction.OUT == direction) {
+            if (null == vertex.outEdgeIndex) vertex.outEdgeIndex = new TinkerVertexCentricIndex();
+            vertex.outEdgeIndex.put(label, key, property.isPresent() ? property.value() : null, edge);
+        } else {
+            if (null == vertex.inEdgeIndex) vertex.inEdgeIndex = new TinkerVertexCentricIndex();
+            vertex.inEdgeIndex.put(label, key, property.isPresent() ? property.value() : null, edge);
+        }
+    }
+
+    /**
+     * Move an edge that is incident to its vertices within their vertex-centric indices as its value for the key
+     * changes from the old value to the new value, where a {@code null} value stands for the absence of the key.
+     */
+    public static void autoUpdateVertexCentricIndex(final TinkerEdge edge, final String key, final Object newValue, final Object oldValue) {
+        final TinkerGraph graph = (TinkerGraph) edge.graph();
+        final Set<String> keys = graph.vertexCentricKeys.get(edge.label());
+        if (null == keys || !keys.contains(key) || !graph.edges.containsKey(edge.id()))
+            return;
+        final TinkerVertex outVertex = (TinkerVertex) edge.outVertex;
+        final TinkerVertex inVertex = (TinkerVertex) edge.inVertex;
+        if (null != outVertex.outEdgeIndex) outVertex.outEdgeIndex.remove(edge.label(), key, oldValue, edge);
+        if (null != inVertex.inEdgeIndex) inVertex.inEdgeIndex.remove(edge.label(), key, oldValue, edge);
+        addVertexCentricIndex(outVertex, Direction.OUT, edge.label(), key, edge);
+        addVertexCentricIndex(inVertex, Direction.IN, edge.label(), key, edge);
+    }
+
+    /**
+     * Remove an edge from the vertex-centric indices of its vertices, which must happen before its properties are.
+     */
+    public static void removeVertexCentricIndex(final TinkerEdge edge) {
+        final TinkerGraph graph = (TinkerGraph) edge.graph();
+        final Set<String> keys = graph.vertexCentricKeys.get(edge.label());
+        if (null == keys || keys.isEmpty())
+            return;
+        final TinkerVertex outVertex = (TinkerVertex) edge.outVertex;
+        final TinkerVertex inVertex = (TinkerVertex) edge.inVertex;
+        for (final String key : keys) {
+            final Property<?> property = edge.property(key);
+            final Object value = property.isPresent() ? property.value() : null;
+            if (null != outVertex.outEdgeIndex) outVertex.outEdgeIndex.remove(edge.label(), key, value, edge);
+            if (null != inVertex.inEdgeIndex) inVertex.inEdgeIndex.remove(edge.label(), key, value, edge);
+        }
+    }
+
+    /**
+     * Query the vertex-centric indices of the vertex for the edges of the labels that satisfy the range that the
+     * provided {@link HasContainer} list places on an indexed key, or return {@code null} if there are no labels or
+     * some label has no indexed key that the containers bound. The edges must still be filtered by the containers.
+     */
+    public static Iterator<TinkerEdge> queryVertexCentricIndex(final TinkerVertex vertex, final Direction direction, final String[] edgeLabels,
+                                                               final List<HasContainer> hasContainers) {
+        final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        if (0 == edgeLabels.length || graph.vertexCentricKeys.isEmpty() || inComputerMode(graph))
+            return null;
+        final List<Iterator<Edge>> iterators = new ArrayList<>();
+        for (final String label : edgeLabels) {
+            final Set<String> keys = graph.vertexCentricKeys.getOrDefault(label, Collections.emptySet());
+            final List<Iterator<Edge>> labelIterators = hasContainers.stream()
+                    .map(HasContainer::getKey)
+                    .filter(keys::contains)
+                    .map(key -> queryVertexCentricIndex(vertex, direction, label, key, hasContainers))
+                    .filter(Objects::nonNull)
+                    .findFirst().orElse(null);
+            if (null == labelIterators)
+                return null;
+            iterators.addAll(labelIterators);
+        }
+        return (Iterator) IteratorUtils.concat(iterators.toArray(new Iterator[iterators.size()]));
+    }
+
+    private static List<Iterator<Edge>> queryVertexCentricIndex(final TinkerVertex vertex, final Direction direction, final String label,
+                                                                final String key, final List<HasContainer> hasContainers) {
+        final List<Iterator<Edge>> iterators = new ArrayList<>(2);
+        for (final TinkerVertexCentricIndex index : vertexCentricIndices(vertex, direction)) {
+            final Iterator<Edge> edges = null == index ?
+                    TinkerIndex.range(null, key, hasContainers) :
+                    index.get(label, key, hasContainers);
+            if (null == edges)
+                return null;
+            iterators.add(edges);
+        }
+        return iterators;
+    }
+
+    /**
+     * Query the vertex-centric indices of the vertex for the first edges of the labels in the order of their value
+     * for the key, so that at least the first {@code limit} edges of every label and direction that pass the filter
+     * are returned along with every edge that lacks a sortable value for the key. Returns {@code null} if there are
+     * no labels or the key is not indexed for some label.
+     */
+    public static Iterator<TinkerEdge> queryVertexCentricIndex(final TinkerVertex vertex, final Direction direction, final String[] edgeLabels,
+                                                               final String key, final boolean descending, final long limit,
+                                                               final Predicate<Edge> filter) {
+        final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        if (0 == edgeLabels.length || graph.vertexCentricKeys.isEmpty() || inComputerMode(graph))
+            return null;
+        final List<Iterator<Edge>> iterators = new ArrayList<>();
+        for (final String label : edgeLabels) {
+            if (!graph.vertexCentricKeys.getOrDefault(label, Collections.emptySet()).contains(key))
+                return null;
+            for (final TinkerVertexCentricIndex index : vertexCentricIndices(vertex, direction)) {
+                if (null != index)
+                    iterators.add(index.ordered(label, key, descending, limit, filter));
+            }
+        }
+        return (Iterator) IteratorUtils.concat(iterators.toArray(new Iterator[iterators.size()]));
+    }
+
+    private static List<TinkerVertexCentricIndex> vertexCentricIndices(final TinkerVertex vertex, final Direction direction) {
+        switch (direction) {
+            case OUT:
+                return Collections.singletonList(vertex.outEdgeIndex);
+            case IN:
+                return Collections.singletonList(vertex.inEdgeIndex);
+            default:
+                return Arrays.asList(vertex.outEdgeIndex, vertex.inEdgeIndex);
+        }
+    }
+
     public static List<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final String key, final Object value) {
         return null == graph.vertexIndex ? Collections.emptyList() : graph.vertexIndex.get(key, value);
     }
@@ -98,6 +249,24 @@ public final class TinkerHelper {
         return null == graph.edgeIndex ? Collections.emptyList() : graph.edgeIndex.get(key, value);
     }
 
+    /**
+     * Query the vertex indices with the most selective index that can answer some part of the provided
+     * {@link HasContainer} list or return {@code null} if no index applies. The elements are streamed from the
+     * index rather than copied, so the iterator must be drained before the indexed keys of its elements are changed.
+     */
+    public static Iterator<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final List<HasContainer> hasContainers) {
+        return null == graph.vertexIndex ? null : graph.vertexIndex.get(hasContainers);
+    }
+
+    /**
+     * Query the edge indices with the most selective index that can answer some part of the provided
+     * {@link HasContainer} list or return {@code null} if no index applies. The elements are streamed from the
+     * index rather than copied, so the iterator must be drained before the indexed keys of its elements are changed.
+     */
+    public static Iterator<TinkerEdge> queryEdgeIndex(final TinkerGraph graph, final List<HasContainer> hasContainers) {
+        return null == graph.edgeIndex ? null : graph.edgeIndex.get(hasContainers);
+    }
+
     public static boolean inComputerMode(final TinkerGraph graph) {
         return null != graph.graphComputerView;
     }
@@ -114,6 +283,20 @@ public final class TinkerHelper {
         graph.graphComputerView = null;
     }
 
+    /**
+     * Record the position of each vertex in the provided array so that computer state can be kept in arrays indexed
+     * by vertex.  An index is only meaningful while the array it was assigned from is in use.
+     */
+    public static void setComputerIndices(final Vertex[] vertices) {
+        for (int i = 0; i < vertices.length; i++) {
+            ((TinkerVertex) vertices[i]).computerIndex = i;
+        }
+    }
+
+    public static int getComputerIndex(final TinkerVertex vertex) {
+        return vertex.computerIndex;
+    }
+
     public static Map<String, List<VertexProperty>> getProperties(final TinkerVertex vertex) {
         return null == vertex.properties ? Collections.emptyMap() : vertex.properties;
     }
@@ -145,16 +328,18 @@ public final class TinkerHelper {
     public static void removeIndex(final TinkerVertex vertex, final String key, final Object value) {
         final TinkerGraph graph = (TinkerGraph) vertex.graph();
         if (graph.vertexIndex != null)
-            graph.vertexIndex.remove(key, value, vertex);
+            graph.vertexIndex.autoRemove(key, value, vertex);
     }
 
     public static void removeIndex(final TinkerEdge edge, final String key, final Object value) {
         final TinkerGraph graph = (TinkerGraph) edge.graph();
         if (graph.edgeIndex != null)
-            graph.edgeIndex.remove(key, value, edge);
+            graph.edgeIndex.autoRemove(key, value, edge);
     }
 
     public static Iterator<TinkerEdge> getEdges(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
+        if (((TinkerGraph) vertex.graph()).packedAdjacency)
+            return getAdjacent(vertex, direction, false, edgeLabels);
         final List<Edge> edges = new ArrayList<>();
         if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
             if (vertex.outEdges != null) {
@@ -180,6 +365,8 @@ public final class TinkerHelper {
     }
 
     public static Iterator<TinkerVertex> getVertices(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
+        if (((TinkerGraph) vertex.graph()).packedAdjacency)
+            return getAdjacent(vertex, direction, true, edgeLabels);
         final List<Vertex> vertices = new ArrayList<>();
         if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
             if (vertex.outEdges != null) {
@@ -203,4 +390,14 @@ public final class TinkerHelper {
         }
         return (Iterator) vertices.iterator();
     }
+
+    private static <E> Iterator<E> getAdjacent(final TinkerVertex vertex, final Direction direction, final boolean vertices, final String... edgeLabels) {
+        final Iterator<E> out = direction.equals(Direction.IN) || null == vertex.outAdjacency ?
+                Collections.emptyIterator() :
+                vertex.outAdjacency.iterator(vertices ? Direction.IN : null, edgeLabels);
+        final Iterator<E> in = direction.equals(Direction.OUT) || null == vertex.inAdjacency ?
+                Collections.emptyIterator() :
+                vertex.inAdjacency.iterator(vertices ? Direction.OUT : null, edgeLabels);
+        return direction.equals(Direction.BOTH) ? IteratorUtils.concat(out, in) : direction.equals(Direction.OUT) ? out : in;
+    }
 }
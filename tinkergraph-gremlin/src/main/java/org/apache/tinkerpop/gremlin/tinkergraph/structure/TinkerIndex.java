@@ -18,27 +18,71 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 final class TinkerIndex<T extends Element> {
 
+    private static final int HISTOGRAM_BUCKETS = 64;
+
+    /**
+     * Orders the values of a sorted index. All {@link Number} values sort before any other type and are compared
+     * by magnitude regardless of their class, while all other values are grouped by class and compared with
+     * {@link Comparable#compareTo(Object)}. Numbers of equal magnitude but different class (e.g. {@code 1} and
+     * {@code 1l}) remain distinct so that the sorted index has the same keys as the exact match index, and a
+     * {@link Bound} sorts just before or after all values of its magnitude.
+     */
+    static final Comparator<Object> SORTED_ORDER = (a, b) -> {
+        final boolean aBound = a instanceof Bound;
+        final boolean bBound = b instanceof Bound;
+        final int compare = compareValues(aBound ? ((Bound) a).value : a, bBound ? ((Bound) b).value : b);
+        if (0 != compare)
+            return compare;
+        else if (aBound || bBound)
+            return (aBound ? ((Bound) a).side : 0) - (bBound ? ((Bound) b).side : 0);
+        else
+            return a.getClass().getName().compareTo(b.getClass().getName());
+    };
+
     protected Map<String, Map<Object, Set<T>>> index = new ConcurrentHashMap<>();
+    protected Map<String, NavigableMap<Object, Set<T>>> sortedIndex = new ConcurrentHashMap<>();
+    protected Map<List<String>, Map<List<Object>, Set<T>>> compositeIndex = new ConcurrentHashMap<>();
+    protected Map<String, KeyStatistics> statistics = new ConcurrentHashMap<>();
     protected final Class<T> indexClass;
-    private final Set<String> indexedKeys = new HashSet<>();
+    private final Set<String> indexedKeys = ConcurrentHashMap.newKeySet();
+    private final Set<String> sortedKeys = ConcurrentHashMap.newKeySet();
+    private final Set<List<String>> compositeKeys = ConcurrentHashMap.newKeySet();
     private final TinkerGraph graph;
 
     public TinkerIndex(final TinkerGraph graph, final Class<T> indexClass) {
@@ -47,30 +91,41 @@ final class TinkerIndex<T extends Element> {
     }
 
     protected void put(final String key, final Object value, final T element) {
-        Map<Object, Set<T>> keyMap = this.index.get(key);
-        if (keyMap == null) {
-            keyMap = new ConcurrentHashMap<>();
-            this.index.put(key, keyMap);
-        }
-        Set<T> objects = keyMap.get(value);
-        if (null == objects) {
-            objects = new HashSet<>();
-            keyMap.put(value, objects);
-        }
-        objects.add(element);
-
+        final Map<Object, Set<T>> keyMap = this.index.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+        final KeyStatistics keyStatistics = this.statistics.computeIfAbsent(key, k -> new KeyStatistics());
+        keyMap.compute(value, (v, objects) -> {
+            final Set<T> set = null == objects ? ConcurrentHashMap.newKeySet() : objects;
+            if (null == objects) {
+                // the sorted index shares the element sets of the exact match index so it only costs a node per value
+                final NavigableMap<Object, Set<T>> sortedMap = this.sortedIndex.get(key);
+                if (null != sortedMap && isSortable(v))
+                    sortedMap.put(v, set);
+            }
+            if (set.add(element))
+                keyStatistics.update(1);
+            return set;
+        });
     }
 
     public List<T> get(final String key, final Object value) {
+        final List<T> list = new ArrayList<>();
+        this.iterator(key, value).forEachRemaining(list::add);
+        return list;
+    }
+
+    /**
+     * Get a lazy view of the elements indexed under the value of the key. The iterator is weakly consistent: it
+     * never throws {@code ConcurrentModificationException} and may or may not reflect index updates made while
+     * iterating, so an element whose value is changed while iterating may be skipped or returned twice. Callers that
+     * mutate the elements must read the iterator into a collection first as {@link #get(String, Object)} does.
+     */
+    public Iterator<T> iterator(final String key, final Object value) {
         final Map<Object, Set<T>> keyMap = this.index.get(key);
         if (null == keyMap) {
-            return Collections.emptyList();
+            return Collections.emptyIterator();
         } else {
-            Set<T> set = keyMap.get(value);
-            if (null == set)
-                return Collections.emptyList();
-            else
-                return new ArrayList<>(set);
+            final Set<T> set = keyMap.get(value);
+            return null == set ? Collections.emptyIterator() : set.iterator();
         }
     }
 
@@ -87,22 +142,199 @@ final class TinkerIndex<T extends Element> {
         }
     }
 
+    /**
+     * Get the elements of a sorted index whose value falls between the two bounds where a {@code null} bound leaves
+     * that side of the range open. Only values of the same type group as the bounds (i.e. all numbers or all
+     * instances of the same class) are returned.
+     */
+    public Iterator<T> getRange(final String key, final Object low, final boolean lowInclusive, final Object high, final boolean highInclusive) {
+        return IteratorUtils.flatMap(this.range(key, low, lowInclusive, high, highInclusive), Set::iterator);
+    }
+
+    public long countRange(final String key, final Object low, final boolean lowInclusive, final Object high, final boolean highInclusive) {
+        long count = 0;
+        final Iterator<Set<T>> sets = this.range(key, low, lowInclusive, high, highInclusive);
+        while (sets.hasNext()) {
+            count = count + sets.next().size();
+        }
+        return count;
+    }
+
+    public Iterator<T> getComposite(final List<String> keys, final List<Object> values) {
+        final Map<List<Object>, Set<T>> keyMap = this.compositeIndex.get(keys);
+        if (null == keyMap) {
+            return Collections.emptyIterator();
+        } else {
+            final Set<T> set = keyMap.get(values);
+            return null == set ? Collections.emptyIterator() : set.iterator();
+        }
+    }
+
+    public long countComposite(final List<String> keys, final List<Object> values) {
+        final Map<List<Object>, Set<T>> keyMap = this.compositeIndex.get(keys);
+        if (null == keyMap) {
+            return 0;
+        } else {
+            final Set<T> set = keyMap.get(values);
+            return null == set ? 0 : set.size();
+        }
+    }
+
+    /**
+     * Select the most selective index that can answer the provided {@link HasContainer} list by comparing the
+     * cardinality each candidate index reports for its part of the query. Exact match and composite indices report
+     * the size of their posting, while sorted indices estimate the size of a range from the histogram of their
+     * {@link KeyStatistics}. The elements of the most selective index are intersected with the postings of the other
+     * exact match and composite candidates, which is a hash lookup per element rather than a property read. Returns
+     * {@code null} if none of the containers can be answered by an index. The returned elements must still be
+     * filtered by all of the containers and are streamed from the index with the same weakly consistent semantics as
+     * {@link #iterator(String, Object)}.
+     */
+    public Iterator<T> get(final List<HasContainer> hasContainers) {
+        final List<Postings<T>> candidates = new ArrayList<>();
+        final Map<String, Object> equalities = new HashMap<>();
+        final Map<String, Range> ranges = new HashMap<>();
+        for (final HasContainer hasContainer : hasContainers) {
+            final String key = hasContainer.getKey();
+            final P<?> predicate = hasContainer.getPredicate();
+            final Object value = predicate.getValue();
+            if (predicate.getBiPredicate() == Compare.eq)
+                equalities.put(key, value);
+            if (!this.indexedKeys.contains(key))
+                continue;
+
+            if (predicate.getBiPredicate() == Compare.eq) {
+                final Map<Object, Set<T>> keyMap = this.index.get(key);
+                candidates.add(Postings.of(null == keyMap ? null : keyMap.get(value)));
+            } else if (predicate.getBiPredicate() == Contains.within && value instanceof Collection) {
+                final Map<Object, Set<T>> keyMap = this.index.get(key);
+                final List<Set<T>> sets = new ArrayList<>();
+                long count = 0;
+                for (final Object v : (Collection) value) {
+                    final Set<T> set = null == keyMap ? null : keyMap.get(v);
+                    if (null != set) {
+                        sets.add(set);
+                        count = count + set.size();
+                    }
+                }
+                candidates.add(new Postings<>(count, () -> this.within(key, (Collection) value), element -> {
+                    for (final Set<T> set : sets) {
+                        if (set.contains(element))
+                            return true;
+                    }
+                    return false;
+                }));
+            } else if (this.sortedKeys.contains(key)) {
+                // predicates that can't narrow the range are left to the filter that follows the index lookup
+                ranges.computeIfAbsent(key, k -> new Range()).intersect(predicate);
+            }
+        }
+
+        for (final Map.Entry<String, Range> entry : ranges.entrySet()) {
+            final String key = entry.getKey();
+            final Range range = entry.getValue();
+            if (!range.isValid())
+                continue;
+            candidates.add(new Postings<>(this.estimateRange(key, range),
+                    () -> this.getRange(key, range.low, range.lowInclusive, range.high, range.highInclusive), null));
+        }
+
+        for (final List<String> keys : this.compositeKeys) {
+            if (!equalities.keySet().containsAll(keys))
+                continue;
+            final List<Object> values = new ArrayList<>(keys.size());
+            keys.forEach(k -> values.add(equalities.get(k)));
+            final Map<List<Object>, Set<T>> keyMap = this.compositeIndex.get(keys);
+            candidates.add(Postings.of(null == keyMap ? null : keyMap.get(values)));
+        }
+
+        if (candidates.isEmpty())
+            return null;
+        Postings<T> best = candidates.get(0);
+        for (final Postings<T> candidate : candidates) {
+            if (candidate.count < best.count)
+                best = candidate;
+        }
+        if (0 == best.count && null != best.membership)
+            return Collections.emptyIterator();
+
+        final List<Predicate<T>> intersections = new ArrayList<>(candidates.size() - 1);
+        for (final Postings<T> candidate : candidates) {
+            if (candidate != best && null != candidate.membership)
+                intersections.add(candidate.membership);
+        }
+        final Iterator<T> elements = best.elements.get();
+        return intersections.isEmpty() ?
+                elements :
+                IteratorUtils.filter(elements, element -> {
+                    for (final Predicate<T> intersection : intersections) {
+                        if (!intersection.test(element))
+                            return false;
+                    }
+                    return true;
+                });
+    }
+
+    /**
+     * Get the number of elements indexed under the key, counting an element once for each of its values.
+     */
+    public long count(final String key) {
+        final KeyStatistics keyStatistics = this.statistics.get(key);
+        return null == keyStatistics ? 0 : keyStatistics.count.sum();
+    }
+
+    /**
+     * Get the number of distinct values indexed under the key.
+     */
+    public long distinctCount(final String key) {
+        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        return null == keyMap ? 0 : keyMap.size();
+    }
+
+    /**
+     * Estimate the number of elements of a sorted index whose value falls between the two bounds where a
+     * {@code null} bound leaves that side of the range open. The estimate never undercounts the range by more than
+     * the elements of other type groups and overcounts it by at most the two buckets of the histogram that hold its
+     * bounds.
+     */
+    public long estimateRange(final String key, final Object low, final boolean lowInclusive, final Object high, final boolean highInclusive) {
+        final KeyStatistics keyStatistics = this.statistics.get(key);
+        final NavigableMap<Object, Set<T>> sortedMap = this.sortedIndex.get(key);
+        if (null == keyStatistics || null == sortedMap || (null == low && null == high))
+            return 0;
+        return keyStatistics.histogram(sortedMap).estimate(low, lowInclusive, high, highInclusive);
+    }
+
+    private long estimateRange(final String key, final Range range) {
+        return this.estimateRange(key, range.low, range.lowInclusive, range.high, range.highInclusive);
+    }
+
     public void remove(final String key, final Object value, final T element) {
         final Map<Object, Set<T>> keyMap = this.index.get(key);
         if (null != keyMap) {
-            Set<T> objects = keyMap.get(value);
-            if (null != objects) {
-                objects.remove(element);
-                if (objects.size() == 0) {
-                    keyMap.remove(value);
-                }
-            }
+            keyMap.computeIfPresent(value, (v, objects) -> {
+                if (objects.remove(element))
+                    this.statistics.get(key).update(-1);
+                if (!objects.isEmpty())
+                    return objects;
+                final NavigableMap<Object, Set<T>> sortedMap = this.sortedIndex.get(key);
+                if (null != sortedMap && isSortable(v))
+                    sortedMap.remove(v);
+                return null;
+            });
         }
     }
 
     public void removeElement(final T element) {
         if (this.indexClass.isAssignableFrom(element.getClass())) {
-            for (Map<Object, Set<T>> map : index.values()) {
+            for (final Map.Entry<String, Map<Object, Set<T>>> entry : this.index.entrySet()) {
+                final KeyStatistics keyStatistics = this.statistics.get(entry.getKey());
+                for (final Set<T> set : entry.getValue().values()) {
+                    if (set.remove(element) && null != keyStatistics)
+                        keyStatistics.update(-1);
+                }
+            }
+            for (Map<List<Object>, Set<T>> map : compositeIndex.values()) {
                 for (Set<T> set : map.values()) {
                     set.remove(element);
                 }
@@ -116,11 +348,22 @@ final class TinkerIndex<T extends Element> {
                 this.remove(key, oldValue, element);
             this.put(key, newValue, element);
         }
+        for (final List<String> keys : this.compositeKeys) {
+            if (keys.contains(key)) {
+                if (oldValue != null)
+                    this.removeComposite(keys, key, oldValue, element);
+                this.putComposite(keys, key, newValue, element);
+            }
+        }
     }
 
     public void autoRemove(final String key, final Object oldValue, final T element) {
         if (this.indexedKeys.contains(key))
             this.remove(key, oldValue, element);
+        for (final List<String> keys : this.compositeKeys) {
+            if (keys.contains(key))
+                this.removeComposite(keys, key, oldValue, element);
+        }
     }
 
     public void createKeyIndex(final String key) {
@@ -141,14 +384,407 @@ final class TinkerIndex<T extends Element> {
                 .forEach(a -> this.put(key, ((Property) a[0]).value(), (T) a[1]));
     }
 
+    public void createSortedKeyIndex(final String key) {
+        this.createKeyIndex(key);
+        if (this.sortedKeys.contains(key))
+            return;
+        this.sortedKeys.add(key);
+
+        final NavigableMap<Object, Set<T>> sortedMap = new ConcurrentSkipListMap<>(SORTED_ORDER);
+        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        if (null != keyMap) {
+            keyMap.forEach((value, objects) -> {
+                if (isSortable(value))
+                    sortedMap.put(value, objects);
+            });
+        }
+        this.sortedIndex.put(key, sortedMap);
+    }
+
+    public void createCompositeKeyIndex(final String... keys) {
+        if (keys.length < 2)
+            throw new IllegalArgumentException("A composite index requires at least two keys: " + Arrays.toString(keys));
+        for (final String key : keys) {
+            if (null == key)
+                throw Graph.Exceptions.argumentCanNotBeNull("key");
+            if (key.isEmpty())
+                throw new IllegalArgumentException("The key for the index cannot be an empty string");
+        }
+
+        final List<String> compositeKey = Collections.unmodifiableList(Arrays.asList(keys.clone()));
+        if (this.compositeKeys.contains(compositeKey))
+            return;
+        this.compositeKeys.add(compositeKey);
+
+        (Vertex.class.isAssignableFrom(this.indexClass) ?
+                this.graph.vertices.values().<T>stream() :
+                this.graph.edges.values().<T>stream())
+                .forEach(e -> this.putComposite(compositeKey, null, null, (T) e));
+    }
+
     public void dropKeyIndex(final String key) {
         if (this.index.containsKey(key))
             this.index.remove(key).clear();
+        if (this.sortedIndex.containsKey(key))
+            this.sortedIndex.remove(key).clear();
+        this.statistics.remove(key);
 
         this.indexedKeys.remove(key);
+        this.sortedKeys.remove(key);
+    }
+
+    public void dropCompositeKeyIndex(final String... keys) {
+        final List<String> compositeKey = Arrays.asList(keys);
+        if (this.compositeIndex.containsKey(compositeKey))
+            this.compositeIndex.remove(compositeKey).clear();
+
+        this.compositeKeys.remove(compositeKey);
     }
 
     public Set<String> getIndexedKeys() {
         return this.indexedKeys;
     }
+
+    public Set<String> getSortedIndexedKeys() {
+        return this.sortedKeys;
+    }
+
+    public Set<List<String>> getCompositeIndexedKeys() {
+        return this.compositeKeys;
+    }
+
+    private Iterator<Set<T>> range(final String key, final Object low, final boolean lowInclusive, final Object high, final boolean highInclusive) {
+        return range(this.sortedIndex.get(key), low, lowInclusive, high, highInclusive);
+    }
+
+    /**
+     * Get the values of a map ordered by {@link #SORTED_ORDER} whose keys satisfy the {@link Compare} predicates
+     * that the provided {@link HasContainer} list places on the property key, or {@code null} if none of them bound
+     * a range. An equality is treated as a range that holds a single magnitude, so {@code 1} also finds {@code 1l}.
+     */
+    static <V> Iterator<V> range(final NavigableMap<Object, V> sortedMap, final String key, final List<HasContainer> hasContainers) {
+        final Range range = new Range();
+        for (final HasContainer hasContainer : hasContainers) {
+            if (hasContainer.getKey().equals(key))
+                range.intersect(hasContainer.getPredicate());
+        }
+        return range.isValid() ? range(sortedMap, range.low, range.lowInclusive, range.high, range.highInclusive) : null;
+    }
+
+    private static <V> Iterator<V> range(final NavigableMap<Object, V> sortedMap, final Object low, final boolean lowInclusive, final Object high, final boolean highInclusive) {
+        if (null == sortedMap || (null == low && null == high))
+            return Collections.emptyIterator();
+
+        final Object bound = null == low ? high : low;
+        final NavigableMap<Object, V> subMap;
+        if (null != low && null != high) {
+            if (!sameGroup(low, high) || compareValues(low, high) > 0)
+                return Collections.emptyIterator();
+            subMap = sortedMap.subMap(new Bound(low, lowInclusive ? -1 : 1), false, new Bound(high, highInclusive ? 1 : -1), false);
+        } else if (null != low)
+            subMap = sortedMap.tailMap(new Bound(low, lowInclusive ? -1 : 1), false);
+        else
+            subMap = sortedMap.headMap(new Bound(high, highInclusive ? 1 : -1), false).descendingMap();
+
+        // the type groups are contiguous in the sorted order so walking stops at the first value of another group
+        final Iterator<Map.Entry<Object, V>> entries = subMap.entrySet().iterator();
+        return new Iterator<V>() {
+            private V next = null;
+
+            @Override
+            public boolean hasNext() {
+                if (null == this.next && entries.hasNext()) {
+                    final Map.Entry<Object, V> entry = entries.next();
+                    if (sameGroup(bound, entry.getKey()))
+                        this.next = entry.getValue();
+                }
+                return null != this.next;
+            }
+
+            @Override
+            public V next() {
+                if (!this.hasNext())
+                    throw new NoSuchElementException();
+                final V value = this.next;
+                this.next = null;
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Stream the elements indexed under any of the values without collecting them first. An element that is filed
+     * under more than one of the values (i.e. a multi-property) is only returned for the first of them.
+     */
+    private Iterator<T> within(final String key, final Collection<?> values) {
+        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        if (null == keyMap)
+            return Collections.emptyIterator();
+        final List<Set<T>> sets = new ArrayList<>(values.size());
+        for (final Object value : values) {
+            final Set<T> set = keyMap.get(value);
+            if (null != set)
+                sets.add(set);
+        }
+        return IteratorUtils.flatMap(IntStream.range(0, sets.size()).iterator(), i -> IteratorUtils.filter(sets.get(i).iterator(), element -> {
+            for (int j = 0; j < i; j++) {
+                if (sets.get(j).contains(element))
+                    return false;
+            }
+            return true;
+        }));
+    }
+
+    private void putComposite(final List<String> keys, final String key, final Object value, final T element) {
+        final Map<List<Object>, Set<T>> keyMap = this.compositeIndex.computeIfAbsent(keys, k -> new ConcurrentHashMap<>());
+        for (final List<Object> values : compositeValues(keys, key, value, element)) {
+            keyMap.compute(values, (v, objects) -> {
+                final Set<T> set = null == objects ? ConcurrentHashMap.newKeySet() : objects;
+                set.add(element);
+                return set;
+            });
+        }
+    }
+
+    private void removeComposite(final List<String> keys, final String key, final Object value, final T element) {
+        final Map<List<Object>, Set<T>> keyMap = this.compositeIndex.get(keys);
+        if (null == keyMap)
+            return;
+        for (final List<Object> values : compositeValues(keys, key, value, element)) {
+            keyMap.computeIfPresent(values, (v, objects) -> {
+                objects.remove(element);
+                return objects.isEmpty() ? null : objects;
+            });
+        }
+    }
+
+    /**
+     * Generate the value tuples under which an element is filed in a composite index, using the provided value for
+     * {@code key} in place of whatever the element currently holds. Multi-properties contribute one tuple per value.
+     */
+    private static <T extends Element> List<List<Object>> compositeValues(final List<String> keys, final String key, final Object value, final T element) {
+        List<List<Object>> tuples = Collections.singletonList(Collections.emptyList());
+        for (final String k : keys) {
+            final List<Object> values = new ArrayList<>();
+            if (k.equals(key))
+                values.add(value);
+            else
+                element.properties(k).forEachRemaining(p -> values.add(((Property) p).value()));
+            if (values.isEmpty())
+                return Collections.emptyList();
+
+            final List<List<Object>> extended = new ArrayList<>(tuples.size() * values.size());
+            for (final List<Object> tuple : tuples) {
+                for (final Object v : values) {
+                    final List<Object> copy = new ArrayList<>(tuple);
+                    copy.add(v);
+                    extended.add(copy);
+                }
+            }
+            tuples = extended;
+        }
+        return tuples;
+    }
+
+    static boolean isSortable(final Object value) {
+        if (value instanceof Double)
+            return !((Double) value).isNaN() && !((Double) value).isInfinite();
+        else if (value instanceof Float)
+            return !((Float) value).isNaN() && !((Float) value).isInfinite();
+        else
+            return value instanceof Comparable;
+    }
+
+    private static int compareValues(final Object a, final Object b) {
+        final boolean aNumber = a instanceof Number;
+        final boolean bNumber = b instanceof Number;
+        if (aNumber && bNumber)
+            return a.getClass().equals(b.getClass()) && a instanceof Comparable ?
+                    ((Comparable) a).compareTo(b) :
+                    new BigDecimal(a.toString()).compareTo(new BigDecimal(b.toString()));
+        else if (aNumber != bNumber)
+            return aNumber ? -1 : 1;
+        else if (!a.getClass().equals(b.getClass()))
+            return a.getClass().getName().compareTo(b.getClass().getName());
+        else
+            return ((Comparable) a).compareTo(b);
+    }
+
+    private static boolean sameGroup(final Object a, final Object b) {
+        return a instanceof Number ? b instanceof Number : a.getClass().equals(b.getClass());
+    }
+
+    /**
+     * A search key that sorts just before ({@code side} of -1) or just after ({@code side} of 1) every value that is
+     * equal in magnitude to {@code value}.
+     */
+    private static final class Bound {
+        private final Object value;
+        private final int side;
+
+        private Bound(final Object value, final int side) {
+            this.value = value;
+            this.side = side;
+        }
+    }
+
+    /**
+     * The bounds of a range query built up from the {@link Compare} predicates on a single key.
+     */
+    private static final class Range {
+        private Object low = null;
+        private boolean lowInclusive = false;
+        private Object high = null;
+        private boolean highInclusive = false;
+
+        /**
+         * Narrow the range by the bounds of the predicate. A predicate that can't narrow the range (e.g. one that is
+         * not a comparison or that bounds another type group than the current bound) leaves it unchanged, so the
+         * range always holds every value that satisfies all of the predicates it was intersected with.
+         */
+        private void intersect(final P<?> predicate) {
+            if (predicate instanceof AndP) {
+                for (final P<?> p : ((AndP<?>) predicate).getPredicates()) {
+                    this.intersect(p);
+                }
+                return;
+            }
+
+            final Object value = predicate.getValue();
+            if (!isSortable(value))
+                return;
+            if (predicate.getBiPredicate() == Compare.eq) {
+                this.intersect(P.gte(value));
+                this.intersect(P.lte(value));
+            } else if (predicate.getBiPredicate() == Compare.gt || predicate.getBiPredicate() == Compare.gte) {
+                final boolean inclusive = predicate.getBiPredicate() == Compare.gte;
+                if (null == this.low || (sameGroup(value, this.low) &&
+                        (compareValues(value, this.low) > 0 || (compareValues(value, this.low) == 0 && !inclusive)))) {
+                    this.low = value;
+                    this.lowInclusive = inclusive;
+                }
+            } else if (predicate.getBiPredicate() == Compare.lt || predicate.getBiPredicate() == Compare.lte) {
+                final boolean inclusive = predicate.getBiPredicate() == Compare.lte;
+                if (null == this.high || (sameGroup(value, this.high) &&
+                        (compareValues(value, this.high) < 0 || (compareValues(value, this.high) == 0 && !inclusive)))) {
+                    this.high = value;
+                    this.highInclusive = inclusive;
+                }
+            }
+        }
+
+        private boolean isValid() {
+            return null != this.low || null != this.high;
+        }
+    }
+
+    /**
+     * A candidate index for a query: the number of elements it yields, a supplier of those elements and, for
+     * exact match and composite indices, a test of whether an element is part of the posting.
+     */
+    private static final class Postings<T> {
+        private final long count;
+        private final Supplier<Iterator<T>> elements;
+        private final Predicate<T> membership;
+
+        private Postings(final long count, final Supplier<Iterator<T>> elements, final Predicate<T> membership) {
+            this.count = count;
+            this.elements = elements;
+            this.membership = membership;
+        }
+
+        private static <T> Postings<T> of(final Set<T> set) {
+            return null == set ?
+                    new Postings<>(0, Collections::emptyIterator, element -> false) :
+                    new Postings<>(set.size(), set::iterator, set::contains);
+        }
+    }
+
+    /**
+     * Statistics of the values of an indexed key which are maintained as elements are indexed and removed. The
+     * number of distinct values is the size of the exact match index itself. For a sorted index, an equi-depth
+     * histogram over its values is built on demand and rebuilt once the index has been modified by more than a tenth
+     * of the elements it was built from.
+     */
+    static final class KeyStatistics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder modifications = new LongAdder();
+        private volatile Histogram histogram = null;
+
+        private void update(final int delta) {
+            this.count.add(delta);
+            this.modifications.increment();
+        }
+
+        private Histogram histogram(final NavigableMap<Object, ? extends Set<?>> sortedMap) {
+            final long modifications = this.modifications.sum();
+            Histogram histogram = this.histogram;
+            if (null == histogram || modifications - histogram.modifications > Math.max(HISTOGRAM_BUCKETS, histogram.total / 10))
+                this.histogram = histogram = new Histogram(sortedMap, this.count.sum(), modifications);
+            return histogram;
+        }
+    }
+
+    /**
+     * An equi-depth histogram over the values of a sorted index.  Each bucket holds the last value it covers in the
+     * sorted order along with the number of elements up to and including that value.
+     */
+    private static final class Histogram {
+        private final Object[] bounds;
+        private final long[] counts;
+        private final long total;
+        private final long modifications;
+
+        private Histogram(final NavigableMap<Object, ? extends Set<?>> sortedMap, final long expectedTotal, final long modifications) {
+            final long depth = Math.max(1, expectedTotal / HISTOGRAM_BUCKETS);
+            final List<Object> bounds = new ArrayList<>(HISTOGRAM_BUCKETS + 1);
+            final List<Long> counts = new ArrayList<>(HISTOGRAM_BUCKETS + 1);
+            long count = 0;
+            long lastBound = 0;
+            Object last = null;
+            for (final Map.Entry<Object, ? extends Set<?>> entry : sortedMap.entrySet()) {
+                count = count + entry.getValue().size();
+                last = entry.getKey();
+                if (count - lastBound >= depth) {
+                    bounds.add(last);
+                    counts.add(count);
+                    lastBound = count;
+                }
+            }
+            if (lastBound != count) {
+                bounds.add(last);
+                counts.add(count);
+            }
+            this.bounds = bounds.toArray();
+            this.counts = counts.stream().mapToLong(Long::longValue).toArray();
+            this.total = count;
+            this.modifications = modifications;
+        }
+
+        private long estimate(final Object low, final boolean lowInclusive, final Object high, final boolean highInclusive) {
+            if (0 == this.bounds.length)
+                return 0;
+            final int first = null == low ? 0 : this.bucket(new Bound(low, lowInclusive ? -1 : 1));
+            final int last = null == high ? this.bounds.length - 1 : Math.min(this.bounds.length - 1, this.bucket(new Bound(high, highInclusive ? 1 : -1)));
+            if (first >= this.bounds.length || first > last)
+                return 0;
+            return this.counts[last] - (0 == first ? 0 : this.counts[first - 1]);
+        }
+
+        /**
+         * Get the first bucket whose last value sorts after the bound.
+         */
+        private int bucket(final Bound bound) {
+            int low = 0;
+            int high = this.bounds.length;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (SORTED_ORDER.compare(this.bounds[middle], bound) < 0)
+                    low = middle + 1;
+                else
+                    high = middle;
+            }
+            return low;
+        }
+    }
 }
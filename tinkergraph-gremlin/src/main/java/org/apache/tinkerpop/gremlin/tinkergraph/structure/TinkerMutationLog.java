@@ -0,0 +1,342 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.IoCore;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
+import org.apache.tinkerpop.shaded.kryo.Kryo;
+import org.apache.tinkerpop.shaded.kryo.KryoException;
+import org.apache.tinkerpop.shaded.kryo.io.Input;
+import org.apache.tinkerpop.shaded.kryo.io.Output;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * An append-only log of the mutations made to a {@link TinkerGraph} that is persisted with
+ * {@link TinkerGraph#GREMLIN_TINKERGRAPH_MUTATION_LOG}. Every mutation is written as a small gryo record next to the
+ * gryo snapshot at {@code graphLocation} and flushed before the mutating call returns, so a process that dies without
+ * calling {@link TinkerGraph#close()} loses at most the record that was being written. Once the configured number of
+ * mutations has been logged the graph is compacted into a fresh snapshot and the log is truncated.
+ * <p/>
+ * Replay is idempotent (additions of elements that already exist and removals of elements that do not are skipped),
+ * which keeps recovery correct if the process stops between moving a new snapshot into place and truncating the log.
+ */
+final class TinkerMutationLog {
+
+    private static final byte ADD_VERTEX = 0;
+    private static final byte REMOVE_VERTEX = 1;
+    private static final byte ADD_EDGE = 2;
+    private static final byte REMOVE_EDGE = 3;
+    private static final byte ADD_VERTEX_PROPERTY = 4;
+    private static final byte REMOVE_VERTEX_PROPERTY = 5;
+    private static final byte SET_VERTEX_PROPERTY_PROPERTY = 6;
+    private static final byte REMOVE_VERTEX_PROPERTY_PROPERTY = 7;
+    private static final byte SET_EDGE_PROPERTY = 8;
+    private static final byte REMOVE_EDGE_PROPERTY = 9;
+    private static final byte CLEAR = 10;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final TinkerGraph graph;
+    private final File snapshotFile;
+    private final File logFile;
+    private final long snapshotThreshold;
+    private final Kryo kryo;
+    private Output output;
+    private long mutations = 0;
+
+    /**
+     * Replays any existing log into the graph (which is expected to already hold the snapshot) and opens the log for
+     * appending. The graph must not reference this log until construction completes so that replay is not logged
+     * again.
+     */
+    TinkerMutationLog(final TinkerGraph graph, final String graphLocation, final long snapshotThreshold) {
+        this.graph = graph;
+        this.snapshotFile = new File(graphLocation);
+        this.logFile = new File(graphLocation + ".log");
+        this.snapshotThreshold = snapshotThreshold;
+        this.kryo = GryoMapper.build().addRegistry(TinkerIoRegistry.getInstance()).create().createMapper();
+
+        final File parent = this.logFile.getAbsoluteFile().getParentFile();
+        if (!parent.exists()) parent.mkdirs();
+
+        try {
+            final long valid = this.logFile.exists() ? this.replay() : 0l;
+            // drop a record that was only partially written when the process stopped so appends start clean
+            if (this.logFile.exists() && this.logFile.length() > valid) {
+                try (final RandomAccessFile file = new RandomAccessFile(this.logFile, "rw")) {
+                    file.setLength(valid);
+                }
+            }
+            this.output = new Output(new FileOutputStream(this.logFile, true), BUFFER_SIZE);
+        } catch (IOException ex) {
+            throw new RuntimeException(String.format("Could not open mutation log at %s", this.logFile), ex);
+        }
+    }
+
+    synchronized void addVertex(final TinkerVertex vertex) {
+        this.output.writeByte(ADD_VERTEX);
+        this.kryo.writeClassAndObject(this.output, vertex.id());
+        this.output.writeString(vertex.label());
+        this.append();
+    }
+
+    synchronized void removeVertex(final TinkerVertex vertex) {
+        this.output.writeByte(REMOVE_VERTEX);
+        this.kryo.writeClassAndObject(this.output, vertex.id());
+        this.append();
+    }
+
+    /**
+     * Edges are logged once they are fully attached to the graph, so the record carries the properties the edge was
+     * created with.
+     */
+    synchronized void addEdge(final TinkerEdge edge) {
+        this.output.writeByte(ADD_EDGE);
+        this.kryo.writeClassAndObject(this.output, edge.id());
+        this.kryo.writeClassAndObject(this.output, edge.outVertex.id());
+        this.output.writeString(edge.label());
+        this.kryo.writeClassAndObject(this.output, edge.inVertex.id());
+        final List<Property> properties = null == edge.properties ? new ArrayList<>() : new ArrayList<>(edge.properties.values());
+        this.output.writeInt(properties.size(), true);
+        for (final Property property : properties) {
+            this.output.writeString(property.key());
+            this.kryo.writeClassAndObject(this.output, property.value());
+        }
+        this.append();
+    }
+
+    synchronized void removeEdge(final TinkerEdge edge) {
+        this.output.writeByte(REMOVE_EDGE);
+        this.kryo.writeClassAndObject(this.output, edge.id());
+        this.append();
+    }
+
+    synchronized void addVertexProperty(final VertexProperty<?> vertexProperty) {
+        this.output.writeByte(ADD_VERTEX_PROPERTY);
+        this.kryo.writeClassAndObject(this.output, vertexProperty.element().id());
+        this.kryo.writeClassAndObject(this.output, vertexProperty.id());
+        this.output.writeString(vertexProperty.key());
+        this.kryo.writeClassAndObject(this.output, vertexProperty.value());
+        this.append();
+    }
+
+    synchronized void removeVertexProperty(final VertexProperty<?> vertexProperty) {
+        this.output.writeByte(REMOVE_VERTEX_PROPERTY);
+        this.kryo.writeClassAndObject(this.output, vertexProperty.element().id());
+        this.kryo.writeClassAndObject(this.output, vertexProperty.id());
+        this.append();
+    }
+
+    synchronized void setProperty(final Property<?> property) {
+        if (property.element() instanceof Edge) {
+            this.output.writeByte(SET_EDGE_PROPERTY);
+            this.kryo.writeClassAndObject(this.output, property.element().id());
+        } else {
+            final VertexProperty<?> vertexProperty = (VertexProperty<?>) property.element();
+            this.output.writeByte(SET_VERTEX_PROPERTY_PROPERTY);
+            this.kryo.writeClassAndObject(this.output, vertexProperty.element().id());
+            this.kryo.writeClassAndObject(this.output, vertexProperty.id());
+        }
+        this.output.writeString(property.key());
+        this.kryo.writeClassAndObject(this.output, property.value());
+        this.append();
+    }
+
+    synchronized void removeProperty(final Property<?> property) {
+        if (property.element() instanceof Edge) {
+            this.output.writeByte(REMOVE_EDGE_PROPERTY);
+            this.kryo.writeClassAndObject(this.output, property.element().id());
+        } else {
+            final VertexProperty<?> vertexProperty = (VertexProperty<?>) property.element();
+            this.output.writeByte(REMOVE_VERTEX_PROPERTY_PROPERTY);
+            this.kryo.writeClassAndObject(this.output, vertexProperty.element().id());
+            this.kryo.writeClassAndObject(this.output, vertexProperty.id());
+        }
+        this.output.writeString(property.key());
+        this.append();
+    }
+
+    synchronized void clear() {
+        this.output.writeByte(CLEAR);
+        this.append();
+    }
+
+    /**
+     * Write the current state of the graph to a new gryo snapshot, move it over the previous one and truncate the
+     * log.
+     */
+    synchronized void snapshot() {
+        final File temporary = new File(this.snapshotFile.getPath() + ".tmp");
+        try {
+            this.graph.io(IoCore.gryo()).writeGraph(temporary.getPath());
+            Files.move(temporary.toPath(), this.snapshotFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.output.close();
+            this.output = new Output(new FileOutputStream(this.logFile, false), BUFFER_SIZE);
+            this.mutations = 0;
+        } catch (IOException ex) {
+            throw new RuntimeException(String.format("Could not write snapshot at %s", this.snapshotFile), ex);
+        }
+    }
+
+    synchronized void close() {
+        this.snapshot();
+        this.output.close();
+    }
+
+    private void append() {
+        try {
+            this.output.flush();
+        } catch (KryoException ex) {
+            throw new RuntimeException(String.format("Could not write to mutation log at %s", this.logFile), ex);
+        }
+        if (++this.mutations >= this.snapshotThreshold)
+            this.snapshot();
+    }
+
+    /**
+     * Apply every complete record in the log to the graph and return the number of bytes they occupy. Each record is
+     * fully read before it is applied so a truncated tail record leaves the graph untouched.
+     */
+    private long replay() throws IOException {
+        long valid = 0l;
+        try (final Input input = new Input(new FileInputStream(this.logFile), BUFFER_SIZE)) {
+            while (!input.eof()) {
+                final byte operation = input.readByte();
+                switch (operation) {
+                    case ADD_VERTEX: {
+                        final Object id = this.kryo.readClassAndObject(input);
+                        final String label = input.readString();
+                        if (!this.graph.vertices.containsKey(id))
+                            this.graph.addVertex(T.id, id, T.label, label);
+                        break;
+                    }
+                    case REMOVE_VERTEX: {
+                        final Vertex vertex = this.graph.vertices.get(this.kryo.readClassAndObject(input));
+                        if (null != vertex) vertex.remove();
+                        break;
+                    }
+                    case ADD_EDGE: {
+                        final Object id = this.kryo.readClassAndObject(input);
+                        final Object outId = this.kryo.readClassAndObject(input);
+                        final String label = input.readString();
+                        final Object inId = this.kryo.readClassAndObject(input);
+                        final int size = input.readInt(true);
+                        final Object[] keyValues = new Object[2 + size * 2];
+                        keyValues[0] = T.id;
+                        keyValues[1] = id;
+                        for (int i = 2; i < keyValues.length; i = i + 2) {
+                            keyValues[i] = input.readString();
+                            keyValues[i + 1] = this.kryo.readClassAndObject(input);
+                        }
+                        final Vertex outVertex = this.graph.vertices.get(outId);
+                        final Vertex inVertex = this.graph.vertices.get(inId);
+                        if (!this.graph.edges.containsKey(id) && null != outVertex && null != inVertex)
+                            outVertex.addEdge(label, inVertex, keyValues);
+                        break;
+                    }
+                    case REMOVE_EDGE: {
+                        final Edge edge = this.graph.edges.get(this.kryo.readClassAndObject(input));
+                        if (null != edge) edge.remove();
+                        break;
+                    }
+                    case ADD_VERTEX_PROPERTY: {
+                        final Vertex vertex = this.graph.vertices.get(this.kryo.readClassAndObject(input));
+                        final Object id = this.kryo.readClassAndObject(input);
+                        final String key = input.readString();
+                        final Object value = this.kryo.readClassAndObject(input);
+                        if (null != vertex && null == vertexProperty(vertex, id))
+                            vertex.property(VertexProperty.Cardinality.list, key, value, T.id, id);
+                        break;
+                    }
+                    case REMOVE_VERTEX_PROPERTY: {
+                        final Vertex vertex = this.graph.vertices.get(this.kryo.readClassAndObject(input));
+                        final VertexProperty<?> vertexProperty = vertexProperty(vertex, this.kryo.readClassAndObject(input));
+                        if (null != vertexProperty) vertexProperty.remove();
+                        break;
+                    }
+                    case SET_VERTEX_PROPERTY_PROPERTY: {
+                        final Vertex vertex = this.graph.vertices.get(this.kryo.readClassAndObject(input));
+                        final VertexProperty<?> vertexProperty = vertexProperty(vertex, this.kryo.readClassAndObject(input));
+                        final String key = input.readString();
+                        final Object value = this.kryo.readClassAndObject(input);
+                        if (null != vertexProperty) vertexProperty.property(key, value);
+                        break;
+                    }
+                    case REMOVE_VERTEX_PROPERTY_PROPERTY: {
+                        final Vertex vertex = this.graph.vertices.get(this.kryo.readClassAndObject(input));
+                        final VertexProperty<?> vertexProperty = vertexProperty(vertex, this.kryo.readClassAndObject(input));
+                        final String key = input.readString();
+                        if (null != vertexProperty) vertexProperty.property(key).remove();
+                        break;
+                    }
+                    case SET_EDGE_PROPERTY: {
+                        final Edge edge = this.graph.edges.get(this.kryo.readClassAndObject(input));
+                        final String key = input.readString();
+                        final Object value = this.kryo.readClassAndObject(input);
+                        if (null != edge) edge.property(key, value);
+                        break;
+                    }
+                    case REMOVE_EDGE_PROPERTY: {
+                        final Edge edge = this.graph.edges.get(this.kryo.readClassAndObject(input));
+                        final String key = input.readString();
+                        if (null != edge) edge.property(key).remove();
+                        break;
+                    }
+                    case CLEAR:
+                        this.graph.clear();
+                        break;
+                    default:
+                        throw new IllegalStateException(String.format("Unknown mutation log record %s in %s", operation, this.logFile));
+                }
+                valid = input.total();
+                this.mutations++;
+            }
+        } catch (KryoException ex) {
+            // the tail record was only partially written - everything before it has been applied
+        }
+        return valid;
+    }
+
+    private static VertexProperty<?> vertexProperty(final Vertex vertex, final Object id) {
+        if (null == vertex) return null;
+        final Iterator<VertexProperty<Object>> properties = vertex.properties();
+        while (properties.hasNext()) {
+            final VertexProperty<?> vertexProperty = properties.next();
+            if (vertexProperty.id().equals(id))
+                return vertexProperty;
+        }
+        return null;
+    }
+}
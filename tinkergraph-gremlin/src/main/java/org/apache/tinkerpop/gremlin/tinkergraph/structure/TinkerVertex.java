@@ -45,6 +45,11 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
     protected Map<String, List<VertexProperty>> properties;
     protected Map<String, Set<Edge>> outEdges;
     protected Map<String, Set<Edge>> inEdges;
+    protected TinkerAdjacency outAdjacency;
+    protected TinkerAdjacency inAdjacency;
+    protected TinkerVertexCentricIndex outEdgeIndex;
+    protected TinkerVertexCentricIndex inEdgeIndex;
+    protected int computerIndex = -1;
     private final TinkerGraph graph;
 
     protected TinkerVertex(final Object id, final String label, final TinkerGraph graph) {
@@ -105,6 +110,7 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
             list.add(vertexProperty);
             this.properties.put(key, list);
             TinkerHelper.autoUpdateIndex(this, key, value, null);
+            if (null != this.graph.mutationLog) this.graph.mutationLog.addVertexProperty(vertexProperty);
             ElementHelper.attachProperties(vertexProperty, keyValues);
             return vertexProperty;
         }
@@ -132,7 +138,8 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
         edges.stream().filter(edge -> !((TinkerEdge) edge).removed).forEach(Edge::remove);
         this.properties = null;
         TinkerHelper.removeElementIndex(this);
-        this.graph.vertices.remove(this.id);
+        if (null != this.graph.vertices.remove(this.id) && null != this.graph.mutationLog)
+            this.graph.mutationLog.removeVertex(this);
         this.removed = true;
     }
 
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * The vertex-centric indices of one direction of a {@link TinkerVertex}. For every edge label and property key
+ * registered with {@link TinkerGraph#createVertexCentricIndex(String, String)}, the incident edges of that label are
+ * kept sorted by their value for the key in the order of a sorted {@link TinkerIndex}, so a range predicate or an
+ * ordered limit over the edges of a super-node costs a logarithmic lookup plus the edges it returns rather than a
+ * scan of all of them. Edges that lack the key (or hold a value that can't be sorted) are kept aside so that they
+ * are never lost to a query that has to see them.
+ * <p/>
+ * Like the adjacency it indexes, the index is not safe for concurrent writers and its queries return a snapshot of
+ * the matching edges so that a traversal may mutate the edges it walks.
+ */
+final class TinkerVertexCentricIndex {
+
+    private final Map<String, Map<String, SortedEdges>> index = new HashMap<>();
+
+    protected void put(final String label, final String key, final Object value, final Edge edge) {
+        this.index.computeIfAbsent(label, l -> new HashMap<>()).computeIfAbsent(key, k -> new SortedEdges()).add(value, edge);
+    }
+
+    protected void remove(final String label, final String key, final Object value, final Edge edge) {
+        final Map<String, SortedEdges> keyMap = this.index.get(label);
+        final SortedEdges sortedEdges = null == keyMap ? null : keyMap.get(key);
+        if (null != sortedEdges)
+            sortedEdges.remove(value, edge);
+    }
+
+    protected void drop(final String label, final String key) {
+        final Map<String, SortedEdges> keyMap = this.index.get(label);
+        if (null != keyMap) {
+            keyMap.remove(key);
+            if (keyMap.isEmpty())
+                this.index.remove(label);
+        }
+    }
+
+    protected boolean isEmpty() {
+        return this.index.isEmpty();
+    }
+
+    /**
+     * Get the edges of the label whose value for the key falls within the range that the provided
+     * {@link HasContainer} list places on it, or {@code null} if the containers do not bound a range on the key.
+     * The returned edges must still be filtered by the containers.
+     */
+    protected Iterator<Edge> get(final String label, final String key, final List<HasContainer> hasContainers) {
+        final SortedEdges sortedEdges = this.sortedEdges(label, key);
+        final Iterator<Set<Edge>> sets = TinkerIndex.range(null == sortedEdges ? null : sortedEdges.sorted, key, hasContainers);
+        if (null == sets)
+            return null;
+        final List<Edge> edges = new ArrayList<>();
+        sets.forEachRemaining(edges::addAll);
+        return edges.iterator();
+    }
+
+    /**
+     * Get the first edges of the label in the order of their value for the key, which are the first {@code limit}
+     * edges that pass the filter followed by all the edges that lack a sortable value. The limit is ignored when the
+     * values are not all of the same class as {@link org.apache.tinkerpop.gremlin.process.traversal.Order} can only
+     * compare those, so that the comparison of the values fails just as it would without the index.
+     */
+    protected Iterator<Edge> ordered(final String label, final String key, final boolean descending, final long limit, final Predicate<Edge> filter) {
+        final SortedEdges sortedEdges = this.sortedEdges(label, key);
+        if (null == sortedEdges)
+            return Collections.emptyIterator();
+        final boolean limited = sortedEdges.classes.size() < 2;
+        final List<Edge> edges = new ArrayList<>();
+        long count = 0;
+        for (final Set<Edge> set : (descending ? sortedEdges.sorted.descendingMap() : sortedEdges.sorted).values()) {
+            for (final Edge edge : set) {
+                if (filter.test(edge)) {
+                    edges.add(edge);
+                    count++;
+                }
+            }
+            if (limited && count >= limit)
+                break;
+        }
+        sortedEdges.unsorted.stream().filter(filter).forEach(edges::add);
+        return edges.iterator();
+    }
+
+    private SortedEdges sortedEdges(final String label, final String key) {
+        final Map<String, SortedEdges> keyMap = this.index.get(label);
+        return null == keyMap ? null : keyMap.get(key);
+    }
+
+    /**
+     * The edges of one label sorted by their value for one key along with the number of values of each class.
+     */
+    private static final class SortedEdges {
+        private final NavigableMap<Object, Set<Edge>> sorted = new TreeMap<>(TinkerIndex.SORTED_ORDER);
+        private final Set<Edge> unsorted = new HashSet<>();
+        private final Map<Class<?>, Integer> classes = new HashMap<>();
+
+        private void add(final Object value, final Edge edge) {
+            if (null == value || !TinkerIndex.isSortable(value))
+                this.unsorted.add(edge);
+            else if (this.sorted.computeIfAbsent(value, v -> new HashSet<>()).add(edge))
+                this.classes.merge(value.getClass(), 1, Integer::sum);
+        }
+
+        private void remove(final Object value, final Edge edge) {
+            if (null == value || !TinkerIndex.isSortable(value)) {
+                this.unsorted.remove(edge);
+                return;
+            }
+            final Set<Edge> set = this.sorted.get(value);
+            if (null != set && set.remove(edge)) {
+                if (set.isEmpty())
+                    this.sorted.remove(value);
+                this.classes.computeIfPresent(value.getClass(), (c, count) -> 1 == count ? null : count - 1);
+            }
+        }
+    }
+}
@@ -120,6 +120,8 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
         final Property<U> property = new TinkerProperty<>(this, key, value);
         if (this.properties == null) this.properties = new HashMap<>();
         this.properties.put(key, property);
+        final TinkerGraph graph = (TinkerGraph) this.vertex.graph();
+        if (null != graph.mutationLog && !TinkerHelper.inComputerMode(graph)) graph.mutationLog.setProperty(property);
         return property;
     }
 
@@ -144,6 +146,8 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
             if (delete.get()) TinkerHelper.removeIndex(this.vertex, this.key, this.value);
             this.properties = null;
             this.removed = true;
+            final TinkerGraph graph = (TinkerGraph) this.vertex.graph();
+            if (null != graph.mutationLog && !TinkerHelper.inComputerMode(graph)) graph.mutationLog.removeVertexProperty(this);
         }
     }
 
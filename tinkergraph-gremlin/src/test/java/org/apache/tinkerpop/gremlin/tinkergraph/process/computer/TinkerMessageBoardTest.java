@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class TinkerMessageBoardTest {
+
+    private static final MessageCombiner<Integer> SUM = (a, b) -> a + b;
+
+    @Test
+    public void shouldDeliverMessagesInTheNextIterationOnly() {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final Vertex[] vertices = vertices(graph);
+        final TinkerMessageBoard<String> board = new TinkerMessageBoard<>();
+        board.initialize(graph, vertices, false);
+
+        board.sendMessage(vertices[0], "a", null);
+        board.sendMessage(vertices[0], "b", null);
+        board.sendMessage(vertices[1], "c", null);
+        // messages are only received once the iteration they are sent in completes
+        assertFalse(board.receiveMessages(vertices[0]).hasNext());
+
+        board.completeIteration();
+        assertEquals(Arrays.asList("a", "b"), IteratorUtils.list(board.receiveMessages(vertices[0])));
+        assertEquals(Collections.singletonList("c"), IteratorUtils.list(board.receiveMessages(vertices[1])));
+        assertFalse(board.receiveMessages(vertices[2]).hasNext());
+
+        board.sendMessage(vertices[2], "d", null);
+        board.completeIteration();
+        // the messages of the iteration before are gone
+        assertFalse(board.receiveMessages(vertices[0]).hasNext());
+        assertFalse(board.receiveMessages(vertices[1]).hasNext());
+        assertEquals(Collections.singletonList("d"), IteratorUtils.list(board.receiveMessages(vertices[2])));
+
+        board.completeIteration();
+        assertFalse(board.receiveMessages(vertices[2]).hasNext());
+    }
+
+    @Test
+    public void shouldCombineMessagesWithinAnIterationOnly() {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final Vertex[] vertices = vertices(graph);
+        final TinkerMessageBoard<Integer> board = new TinkerMessageBoard<>();
+        board.initialize(graph, vertices, true);
+
+        board.sendMessage(vertices[0], 1, SUM);
+        board.sendMessage(vertices[0], 2, SUM);
+        board.sendMessage(vertices[0], 3, SUM);
+        board.sendMessage(vertices[1], 10, SUM);
+        board.completeIteration();
+        assertEquals(Collections.singletonList(6), IteratorUtils.list(board.receiveMessages(vertices[0])));
+        assertEquals(Collections.singletonList(10), IteratorUtils.list(board.receiveMessages(vertices[1])));
+
+        board.sendMessage(vertices[0], 5, SUM);
+        board.completeIteration();
+        assertEquals(Collections.singletonList(5), IteratorUtils.list(board.receiveMessages(vertices[0])));
+        assertFalse(board.receiveMessages(vertices[1]).hasNext());
+    }
+
+    @Test
+    public void shouldCombineMessagesSentConcurrently() throws Exception {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final Vertex[] vertices = vertices(graph);
+        final TinkerMessageBoard<Integer> board = new TinkerMessageBoard<>();
+        board.initialize(graph, vertices, true);
+        final TinkerMessageBoard<Integer> queues = new TinkerMessageBoard<>();
+        queues.initialize(graph, vertices, false);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int iteration = 1; iteration <= 3; iteration++) {
+                final int message = iteration;
+                final List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    futures.add(executor.submit(() -> {
+                        for (int j = 0; j < 10000; j++) {
+                            board.sendMessage(vertices[j % vertices.length], message, SUM);
+                            queues.sendMessage(vertices[j % vertices.length], message, null);
+                        }
+                    }));
+                }
+                for (final Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+                board.completeIteration();
+                queues.completeIteration();
+                for (int i = 0; i < vertices.length; i++) {
+                    final int sent = 4 * (10000 / vertices.length + (i < 10000 % vertices.length ? 1 : 0));
+                    assertEquals(Collections.singletonList(sent * message), IteratorUtils.list(board.receiveMessages(vertices[i])));
+                    assertEquals(sent, IteratorUtils.count(queues.receiveMessages(vertices[i])));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldResolveDetachedVerticesAndDropMessagesToVerticesOutsideTheComputation() {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final Vertex[] vertices = vertices(graph);
+        final TinkerMessageBoard<String> board = new TinkerMessageBoard<>();
+        // only the first half of the vertices take part in the computation
+        final Vertex[] computed = Arrays.copyOf(vertices, 3);
+        TinkerHelper.setComputerIndices(computed);
+        board.initialize(graph, computed, false);
+
+        board.sendMessage(DetachedFactory.detach(vertices[1], false), "a", null);
+        board.sendMessage(vertices[4], "b", null);
+        board.completeIteration();
+        assertEquals(Collections.singletonList("a"), IteratorUtils.list(board.receiveMessages(vertices[1])));
+        assertEquals(Collections.singletonList("a"), IteratorUtils.list(board.receiveMessages(DetachedFactory.detach(vertices[1], false))));
+        assertFalse(board.receiveMessages(vertices[4]).hasNext());
+    }
+
+    private static Vertex[] vertices(final TinkerGraph graph) {
+        final Vertex[] vertices = IteratorUtils.list(graph.vertices()).toArray(new Vertex[0]);
+        TinkerHelper.setComputerIndices(vertices);
+        return vertices;
+    }
+}
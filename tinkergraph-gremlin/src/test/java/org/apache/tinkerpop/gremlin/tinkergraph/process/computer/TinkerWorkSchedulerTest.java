@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TinkerWorkSchedulerTest {
+
+    @Test
+    public void shouldHandOutEveryItemOnceToConcurrentWorkers() throws Exception {
+        for (final int size : new int[]{0, 1, 3, 7, 100, 12345, 100000}) {
+            for (final int partitions : new int[]{1, 2, 3, 8}) {
+                final Integer[] items = items(size);
+                final AtomicIntegerArray seen = new AtomicIntegerArray(size);
+                final TinkerWorkScheduler<Integer> scheduler = new TinkerWorkScheduler<>(items, partitions);
+                final ExecutorService executor = Executors.newFixedThreadPool(partitions);
+                try {
+                    final CountDownLatch start = new CountDownLatch(1);
+                    final List<Future<?>> futures = new ArrayList<>();
+                    for (int i = 0; i < partitions; i++) {
+                        futures.add(executor.submit(() -> {
+                            final TinkerWorkScheduler<Integer>.Worker worker = scheduler.worker();
+                            start.await();
+                            Integer item;
+                            while (null != (item = worker.next())) {
+                                seen.incrementAndGet(item);
+                            }
+                            return null;
+                        }));
+                    }
+                    start.countDown();
+                    for (final Future<?> future : futures) {
+                        future.get(30, TimeUnit.SECONDS);
+                    }
+                } finally {
+                    executor.shutdownNow();
+                }
+                for (int i = 0; i < size; i++) {
+                    assertEquals(String.format("item %s of %s in %s partitions", i, size, partitions), 1, seen.get(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldStartOnItsOwnPartitionAndStealTheOthers() {
+        final Integer[] items = items(1000);
+        final TinkerWorkScheduler<Integer> scheduler = new TinkerWorkScheduler<>(items, 4);
+        final TinkerWorkScheduler<Integer>.Worker first = scheduler.worker();
+        final TinkerWorkScheduler<Integer>.Worker second = scheduler.worker();
+
+        // the second worker owns the second quarter of the items
+        assertEquals(250, second.next().intValue());
+        final boolean[] seen = new boolean[items.length];
+        seen[250] = true;
+        int count = 1;
+        Integer item;
+        while (null != (item = second.next())) {
+            assertTrue(!seen[item]);
+            seen[item] = true;
+            // the own partition is drained before any other is stolen from
+            if (count < 250)
+                assertTrue(item >= 250 && item < 500);
+            count++;
+        }
+        assertEquals(items.length, count);
+        assertNull(first.next());
+    }
+
+    @Test
+    public void shouldShareAPartitionBetweenItsOwnerAndAThief() {
+        final Integer[] items = items(64 * 16 * 2);
+        final TinkerWorkScheduler<Integer> scheduler = new TinkerWorkScheduler<>(items, 2);
+        final TinkerWorkScheduler<Integer>.Worker first = scheduler.worker();
+        final TinkerWorkScheduler<Integer>.Worker second = scheduler.worker();
+        final boolean[] seen = new boolean[items.length];
+        int firstCount = 0;
+        int secondCount = 0;
+        Integer item;
+        // the second worker is twice as fast, so it drains its own partition and then steals chunks from the first
+        while (null != (item = first.next())) {
+            assertTrue(!seen[item]);
+            seen[item] = true;
+            firstCount++;
+            for (int i = 0; i < 2; i++) {
+                final Integer stolen = second.next();
+                if (null != stolen) {
+                    assertTrue(!seen[stolen]);
+                    seen[stolen] = true;
+                    secondCount++;
+                }
+            }
+        }
+        assertNull(second.next());
+        assertEquals(items.length, firstCount + secondCount);
+        assertTrue(firstCount < items.length / 2);
+    }
+
+    private static Integer[] items(final int size) {
+        final Integer[] items = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            items[i] = i;
+        }
+        return items;
+    }
+}
@@ -21,12 +21,23 @@ package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 import org.apache.commons.configuration.BaseConfiguration;
 import org.apache.commons.configuration.Configuration;
 import org.apache.tinkerpop.gremlin.TestHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.Operator;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ParallelBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.PlanCacheStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.ParallelStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalPlanCache;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.io.Io;
 import org.apache.tinkerpop.gremlin.structure.io.GraphReader;
 import org.apache.tinkerpop.gremlin.structure.io.GraphWriter;
@@ -58,15 +69,22 @@ import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -222,6 +240,220 @@ public class TinkerGraphTest {
         }, 35)).has("name", "stephen").count().next());
     }
 
+    @Test
+    public void shouldUseSortedVertexIndexForRanges() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createSortedIndex("age", Vertex.class);
+
+        g.addVertex("name", "marko", "age", 29);
+        g.addVertex("name", "vadas", "age", 27);
+        g.addVertex("name", "josh", "age", 32L);
+        final Vertex peter = g.addVertex("name", "peter", "age", 35);
+        g.addVertex("name", "lop", "age", "unknown");
+
+        // spy into the pipeline to be sure that only the vertices within the range came out of the index
+        assertEquals(new Long(2), g.traversal().V().has("name", P.test((t, u) -> {
+            assertTrue(t.equals("josh") || t.equals("peter"));
+            return true;
+        }, "x")).has("age", P.gt(30)).count().next());
+        assertEquals(new Long(2), g.traversal().V().has("name", P.test((t, u) -> {
+            assertTrue(t.equals("marko") || t.equals("josh"));
+            return true;
+        }, "x")).has("age", P.between(28, 35)).count().next());
+        assertEquals(new Long(3), g.traversal().V().has("age", P.lte(32)).count().next());
+        assertEquals(new Long(1), g.traversal().V().has("age", 29).count().next());
+
+        peter.property("age", 25);
+        assertEquals(new Long(1), g.traversal().V().has("age", P.gt(30)).count().next());
+        assertEquals(new Long(2), g.traversal().V().has("age", P.lt(28)).count().next());
+
+        peter.remove();
+        assertEquals(new Long(1), g.traversal().V().has("age", P.lt(28)).count().next());
+
+        g.dropIndex("age", Vertex.class);
+        assertEquals(0, g.getSortedIndexedKeys(Vertex.class).size());
+        assertEquals(0, g.getIndexedKeys(Vertex.class).size());
+    }
+
+    @Test
+    public void shouldUseCompositeVertexIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.addVertex("name", "marko", "lang", "java", "age", 29);
+        g.addVertex("name", "josh", "lang", "java", "age", 32);
+        final Vertex peter = g.addVertex("name", "peter", "lang", "groovy", "age", 32);
+
+        g.createCompositeIndex(Vertex.class, "lang", "age");
+        assertEquals(1, g.getCompositeIndexedKeys(Vertex.class).size());
+
+        // spy into the pipeline to be sure that only the composite match came out of the index
+        assertEquals(new Long(1), g.traversal().V().has("name", P.test((t, u) -> {
+            assertEquals("josh", t);
+            return true;
+        }, "x")).has("lang", "java").has("age", 32).count().next());
+
+        peter.property("lang", "java");
+        assertEquals(new Long(2), g.traversal().V().has("lang", "java").has("age", 32).count().next());
+        assertEquals(new Long(0), g.traversal().V().has("lang", "groovy").has("age", 32).count().next());
+
+        peter.property("lang").remove();
+        assertEquals(new Long(1), g.traversal().V().has("lang", "java").has("age", 32).count().next());
+
+        g.dropCompositeIndex(Vertex.class, "lang", "age");
+        assertEquals(0, g.getCompositeIndexedKeys(Vertex.class).size());
+    }
+
+    @Test
+    public void shouldSelectMostSelectiveVertexIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("type", Vertex.class);
+        g.createIndex("name", Vertex.class);
+        for (int i = 0; i < 100; i++) {
+            g.addVertex("type", "person", "name", "person" + i);
+        }
+
+        // both keys are indexed but only the "name" index yields a single vertex to filter
+        assertEquals(new Long(1), g.traversal().V().has("type", P.test((t, u) -> {
+            assertEquals("person", t);
+            return true;
+        }, "person")).has("type", "person").has("name", "person42").count().next());
+        assertEquals(new Long(2), g.traversal().V().has("name", P.within("person1", "person2", "unknown")).count().next());
+    }
+
+    @Test
+    public void shouldIntersectVertexIndicesAndEstimateRanges() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("type", Vertex.class);
+        g.createIndex("team", Vertex.class);
+        g.createSortedIndex("age", Vertex.class);
+        for (int i = 0; i < 1000; i++) {
+            g.addVertex("type", i % 2 == 0 ? "a" : "b", "team", "t" + (i % 10), "age", i);
+        }
+        assertEquals(1000, g.vertexIndex.count("team"));
+        assertEquals(10, g.vertexIndex.distinctCount("team"));
+        assertTrue(g.vertexIndex.estimateRange("age", 990, false, null, false) >= 9);
+        assertTrue(g.vertexIndex.estimateRange("age", 990, false, null, false) < 100);
+
+        // the "team" index is the most selective but none of its vertices are in the "type" index posting
+        final AtomicInteger filtered = new AtomicInteger(0);
+        assertEquals(new Long(0), g.traversal().V().has("type", P.test((t, u) -> {
+            filtered.incrementAndGet();
+            return true;
+        }, "a")).has("type", "a").has("team", "t3").count().next());
+        assertEquals(0, filtered.get());
+
+        // the estimated range is chosen over the "type" index and only its even ages reach the filter
+        assertEquals(new Long(4), g.traversal().V().has("type", P.test((t, u) -> {
+            filtered.incrementAndGet();
+            return true;
+        }, "a")).has("type", "a").has("age", P.gt(990)).count().next());
+        assertEquals(4, filtered.get());
+
+        g.vertices().next().remove();
+        assertEquals(999, g.vertexIndex.count("team"));
+        assertEquals(999, g.vertexIndex.count("age"));
+        assertEquals(10, g.vertexIndex.distinctCount("team"));
+    }
+
+    @Test
+    public void shouldUseVertexCentricIndices() {
+        final TinkerGraph g = TinkerGraph.open();
+        final Vertex user = g.addVertex("name", "user");
+        for (int i = 0; i < 500; i++) {
+            user.addEdge("rated", g.addVertex("name", "item" + i), "stars", i % 5 + 1, "ts", i);
+        }
+        g.createVertexCentricIndex("rated", "stars");
+        g.createVertexCentricIndex("rated", "ts");
+        for (int i = 500; i < 1000; i++) {
+            user.addEdge("rated", g.addVertex("name", "item" + i), "stars", i % 5 + 1, "ts", i);
+        }
+        user.addEdge("rated", g.addVertex("name", "unrated"));
+        assertEquals(new HashSet<>(Arrays.asList("stars", "ts")), g.getVertexCentricIndexedKeys("rated"));
+
+        // spy into the pipeline to be sure that only the edges within the range came out of the index
+        final AtomicInteger filtered = new AtomicInteger(0);
+        assertEquals(new Long(200), g.traversal().V(user).outE("rated").has("stars", P.test((t, u) -> {
+            filtered.incrementAndGet();
+            return true;
+        }, 0)).has("stars", P.gt(4)).count().next());
+        assertEquals(200, filtered.get());
+        assertEquals(new Long(1), g.traversal().V().has("name", "item42").inE("rated").has("stars", 3).count().next());
+
+        assertEquals(Arrays.asList(999, 998, 997), g.traversal().V(user).outE("rated").has("ts").order().by("ts", Order.decr).limit(3).values("ts").toList());
+        assertEquals(Arrays.asList(0, 1, 2), g.traversal().V(user).outE("rated").has("ts").order().by("ts", Order.incr).limit(3).values("ts").toList());
+
+        // the index follows updates and removals of the edges
+        final Edge edge = g.traversal().V(user).outE("rated").has("ts", 500).next();
+        edge.property("ts", 5000);
+        g.traversal().V(user).outE("rated").has("ts", 999).drop().iterate();
+        assertEquals(Arrays.asList(5000, 998), g.traversal().V(user).outE("rated").has("ts").order().by("ts", Order.decr).limit(2).values("ts").toList());
+        edge.property("ts").remove();
+        assertEquals(new Long(0), g.traversal().V(user).outE("rated").has("ts", P.gte(1000)).count().next());
+        assertEquals(new Long(2), g.traversal().V(user).outE("rated").hasNot("ts").count().next());
+
+        g.dropVertexCentricIndex("rated", "ts");
+        assertEquals(Collections.singleton("stars"), g.getVertexCentricIndexedKeys("rated"));
+        assertEquals(Arrays.asList(998, 997), g.traversal().V(user).outE("rated").has("ts").order().by("ts", Order.decr).limit(2).values("ts").toList());
+    }
+
+    @Test
+    public void shouldStreamIndexedVerticesWhileMutatingThem() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("name", Vertex.class);
+        for (int i = 0; i < 100; i++) {
+            g.addVertex("name", i % 2 == 0 ? "even" : "odd");
+        }
+
+        g.traversal().V().has("name", "even").property("name", "odd").iterate();
+        assertEquals(new Long(0), g.traversal().V().has("name", "even").count().next());
+        g.traversal().V().has("name", "odd").drop().iterate();
+        assertEquals(new Long(0), g.traversal().V().count().next());
+    }
+
+    @Test
+    public void shouldVisitIndexedVerticesOnceWhileMutatingTheIndexedKey() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createSortedIndex("age", Vertex.class);
+        g.createIndex("name", Vertex.class);
+        for (int i = 0; i < 100; i++) {
+            g.addVertex("age", i, "name", i % 2 == 0 ? "a" : "c");
+        }
+
+        // moving a vertex to a higher age would visit it again if the sorted index were streamed
+        final List<Object> aged = g.traversal().V().has("age", P.gt(30)).property("age", 99).id().toList();
+        assertEquals(69, aged.size());
+        assertEquals(69, new HashSet<>(aged).size());
+        assertEquals(new Long(69), g.traversal().V().has("age", 99).count().next());
+
+        // moving a vertex from "a" to "b" would visit it again if the posting of "b" were streamed
+        final List<Object> renamed = g.traversal().V().has("name", P.within("a", "b")).property("name", "b").id().toList();
+        assertEquals(50, renamed.size());
+        assertEquals(50, new HashSet<>(renamed).size());
+        assertEquals(new Long(50), g.traversal().V().has("name", "b").count().next());
+    }
+
+    @Test
+    public void shouldUpdateVertexIndexFromConcurrentWriters() throws Exception {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("name", Vertex.class);
+
+        final List<Thread> writers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            writers.add(new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    g.addVertex("name", "name" + (j % 10));
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        for (final Thread writer : writers) {
+            writer.join();
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(new Long(400), g.traversal().V().has("name", "name" + i).count().next());
+        }
+    }
+
     @Test
     public void shouldUpdateEdgeIndicesInNewGraph() {
         final TinkerGraph g = TinkerGraph.open();
@@ -385,6 +617,86 @@ public class TinkerGraphTest {
         TinkerGraph.open(conf);
     }
 
+    @Test(expected = IllegalStateException.class)
+    public void shouldRequireKnownAdjacencyLayout() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_ADJACENCY, "linked");
+        TinkerGraph.open(conf);
+    }
+
+    @Test
+    public void shouldTraverseWithPackedAdjacency() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_ADJACENCY, "packed");
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        IoTest.assertModernGraph(graph, true, false);
+
+        final GraphTraversalSource g = graph.traversal();
+        assertEquals(3, g.V(1).out().count().next().intValue());
+        assertEquals(2, g.V(1).out("knows").count().next().intValue());
+        assertEquals(3, g.V(1).bothE("knows", "created").count().next().intValue());
+        assertEquals(3, g.V(3).in("created").count().next().intValue());
+        assertEquals(0, g.V(3).out().count().next().intValue());
+        assertEquals(Arrays.asList("lop", "lop", "lop", "ripple"), g.V().out("created").<String>values("name").order().toList());
+
+        // labels built at runtime are distinct instances from the labels the edges were added with
+        final String knows = new StringBuilder("kno").append("ws").toString();
+        assertEquals(2, g.V(1).out(knows).count().next().intValue());
+        g.V(1).outE(knows).limit(1).drop().iterate();
+        assertEquals(1, g.V(1).out("knows").count().next().intValue());
+        graph.vertices(1).next().addEdge(new StringBuilder("cre").append("ated").toString(), graph.vertices(2).next());
+        assertEquals(2, g.V(1).out("created").count().next().intValue());
+    }
+
+    @Test
+    public void shouldDropEdgesWhileIteratingPackedAdjacency() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_ADJACENCY, "packed");
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        final Vertex v = graph.addVertex();
+        for (int i = 0; i < 100; i++) {
+            v.addEdge(i % 2 == 0 ? "even" : "odd", graph.addVertex());
+        }
+
+        final GraphTraversalSource g = graph.traversal();
+        g.V(v).outE("even").drop().iterate();
+        assertEquals(50, IteratorUtils.count(v.edges(Direction.OUT)));
+        assertEquals(0, IteratorUtils.count(v.edges(Direction.OUT, "even")));
+        assertEquals(50, g.V().in("odd").count().next().intValue());
+
+        g.V(v).bothE().drop().iterate();
+        assertEquals(0, IteratorUtils.count(v.edges(Direction.BOTH)));
+        assertEquals(0, IteratorUtils.count(graph.edges()));
+    }
+
+    @Test
+    public void shouldKeepTheOrderOfPackedAdjacencyOnRemoval() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_ADJACENCY, "packed");
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        final Vertex v = graph.addVertex();
+        final List<Edge> edges = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            edges.add(v.addEdge("knows", graph.addVertex()));
+        }
+
+        // removals that no iterator has seen compact the slot in place
+        edges.remove(9).remove();
+        edges.remove(4).remove();
+        edges.remove(0).remove();
+        assertEquals(edges, IteratorUtils.list(v.edges(Direction.OUT, "knows")));
+
+        // an iterator keeps walking the edges it started with
+        final Iterator<Edge> iterator = v.edges(Direction.OUT, "knows");
+        assertEquals(edges.get(0), iterator.next());
+        edges.remove(1).remove();
+        edges.remove(1).remove();
+        edges.add(v.addEdge("knows", graph.addVertex()));
+        assertEquals(6, IteratorUtils.count(iterator));
+        assertEquals(edges, IteratorUtils.list(v.edges(Direction.OUT, "knows")));
+    }
+
     @Test
     public void shouldPersistToGraphML() {
         final String graphLocation = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldPersistToGraphML.xml";
@@ -439,6 +751,289 @@ public class TinkerGraphTest {
         reloadedGraph.close();
     }
 
+    @Test
+    public void shouldLoadGryoWithMultipleThreads() {
+        final String graphLocation = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldLoadGryoWithMultipleThreads.kryo";
+        final File f = new File(graphLocation);
+        if (f.exists() && f.isFile()) f.delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, "list");
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        final Random random = new Random(1234567890l);
+        for (int i = 0; i < 5000; i++) {
+            final Vertex v = graph.addVertex(T.id, i, T.label, i % 2 == 0 ? "person" : "software", "name", "v" + i);
+            v.property(VertexProperty.Cardinality.list, "name", "alias" + i, "since", i);
+        }
+        for (int i = 0; i < 20000; i++) {
+            graph.vertices(random.nextInt(5000)).next().addEdge(i % 3 == 0 ? "knows" : "created",
+                    graph.vertices(random.nextInt(5000)).next(), T.id, i, "weight", random.nextDouble());
+        }
+        graph.close();
+
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_LOAD_THREADS, 4);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_ADJACENCY, "packed");
+        final TinkerGraph loadedGraph = TinkerGraph.open(conf);
+        assertEquals(5000l, loadedGraph.traversal().V().count().next().longValue());
+        assertEquals(20000l, loadedGraph.traversal().E().count().next().longValue());
+        graph.vertices().forEachRemaining(v -> {
+            final Vertex loaded = loadedGraph.vertices(v.id()).next();
+            assertEquals(v.label(), loaded.label());
+            assertEquals(IteratorUtils.set(IteratorUtils.map(v.values("name"), Object::toString)),
+                    IteratorUtils.set(IteratorUtils.map(loaded.values("name"), Object::toString)));
+            assertEquals(IteratorUtils.set(IteratorUtils.map(v.edges(Direction.OUT), Edge::id)),
+                    IteratorUtils.set(IteratorUtils.map(loaded.edges(Direction.OUT), Edge::id)));
+            assertEquals(IteratorUtils.set(IteratorUtils.map(v.vertices(Direction.IN), Vertex::id)),
+                    IteratorUtils.set(IteratorUtils.map(loaded.vertices(Direction.IN), Vertex::id)));
+        });
+        graph.edges().forEachRemaining(e -> assertEquals((Object) e.value("weight"), loadedGraph.edges(e.id()).next().value("weight")));
+    }
+
+    @Test(timeout = 30000)
+    public void shouldFailLoadingGryoWithMultipleThreadsWithoutReadingTheRestOfTheStream() throws Exception {
+        final TinkerGraph modern = TinkerFactory.createModern();
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        modern.io(IoCore.gryo()).writer().create().writeGraph(os, modern);
+        final byte[] bytes = os.toByteArray();
+
+        // the vertices of the modern graph repeat without end, so the load can only end by failing on a duplicate id
+        final InputStream endless = new InputStream() {
+            private int position = 0;
+
+            @Override
+            public int read() {
+                final int b = bytes[this.position] & 0xff;
+                this.position = (this.position + 1) % bytes.length;
+                return b;
+            }
+        };
+        try {
+            TinkerGryoLoader.load(TinkerGraph.open(), endless, 2);
+            fail("The load should have failed on the first duplicate vertex");
+        } catch (final IllegalStateException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRequireGryoForMutationLog() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "graphson");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldRequireGryoForMutationLog.json");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG, true);
+        TinkerGraph.open(conf);
+    }
+
+    @Test
+    public void shouldRecoverFromMutationLogWithoutClose() {
+        final Configuration conf = mutationLogConfiguration("shouldRecoverFromMutationLogWithoutClose.kryo");
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        graph.vertices(6).next().remove();
+        graph.edges(7).next().property("weight", 0.75d);
+        graph.edges(8).next().property("weight").remove();
+        final Vertex marko = graph.vertices(1).next();
+        marko.property("age").remove();
+        marko.property(VertexProperty.Cardinality.list, "location", "santa fe", "startTime", 2005).property("endTime", 2010);
+        graph.vertices(2).next().addEdge("knows", graph.vertices(3).next(), T.id, 100, "weight", 0.1d);
+
+        // no close() - the second graph recovers purely from the log
+        final TinkerGraph recoveredGraph = TinkerGraph.open(conf);
+        assertEquals(5l, recoveredGraph.traversal().V().count().next().longValue());
+        assertEquals(6l, recoveredGraph.traversal().E().count().next().longValue());
+        assertEquals(0.75d, recoveredGraph.edges(7).next().value("weight"), 0.0001d);
+        assertFalse(recoveredGraph.edges(8).next().property("weight").isPresent());
+        final Vertex recoveredMarko = recoveredGraph.vertices(1).next();
+        assertFalse(recoveredMarko.property("age").isPresent());
+        final VertexProperty<String> location = recoveredMarko.property("location");
+        assertEquals("santa fe", location.value());
+        assertEquals(2005, (int) location.value("startTime"));
+        assertEquals(2010, (int) location.value("endTime"));
+        assertEquals(0.1d, recoveredGraph.edges(100).next().value("weight"), 0.0001d);
+        recoveredGraph.close();
+    }
+
+    @Test
+    public void shouldSnapshotMutationLogAtThreshold() {
+        final Configuration conf = mutationLogConfiguration("shouldSnapshotMutationLogAtThreshold.kryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_SNAPSHOT_THRESHOLD, 5);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        assertTrue(new File(conf.getString(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION)).exists());
+
+        final TinkerGraph recoveredGraph = TinkerGraph.open(conf);
+        IoTest.assertModernGraph(recoveredGraph, true, false);
+        recoveredGraph.close();
+
+        graph.snapshot();
+        assertEquals(0l, new File(conf.getString(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION) + ".log").length());
+    }
+
+    @Test
+    public void shouldIgnorePartiallyWrittenMutationLogRecord() throws Exception {
+        final Configuration conf = mutationLogConfiguration("shouldIgnorePartiallyWrittenMutationLogRecord.kryo");
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+
+        // an ADD_VERTEX opcode with nothing after it, as if the process died mid-write
+        try (final FileOutputStream log = new FileOutputStream(conf.getString(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION) + ".log", true)) {
+            log.write(0);
+        }
+
+        final TinkerGraph recoveredGraph = TinkerGraph.open(conf);
+        IoTest.assertModernGraph(recoveredGraph, true, false);
+        recoveredGraph.addVertex(T.id, 100);
+
+        final TinkerGraph secondRecoveredGraph = TinkerGraph.open(conf);
+        assertEquals(7l, secondRecoveredGraph.traversal().V().count().next().longValue());
+        secondRecoveredGraph.close();
+    }
+
+    @Test
+    public void shouldReusePlansOfTraversalsThatOnlyDifferByIds() {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final PlanCacheStrategy strategy = PlanCacheStrategy.build().create();
+        final GraphTraversalSource g = graph.traversal().withStrategies(strategy);
+        final TraversalPlanCache planCache = strategy.getPlanCache();
+
+        assertEquals(Arrays.asList("josh", "vadas"), g.V(1).out("knows").<String>values("name").order().toList());
+        assertEquals(0l, planCache.getHitCount());
+        assertEquals(1l, planCache.getMissCount());
+        assertEquals(1, planCache.size());
+
+        assertEquals(Collections.emptyList(), g.V(4).out("knows").<String>values("name").order().toList());
+        assertEquals(1l, planCache.getHitCount());
+
+        // a different number of ids is a different plan
+        assertEquals(Arrays.asList("josh", "vadas"), g.V(1, 4).out("knows").<String>values("name").order().toList());
+        assertEquals(Arrays.asList("josh", "vadas"), g.V(4, 1).out("knows").<String>values("name").order().toList());
+        assertEquals(2l, planCache.getHitCount());
+        assertEquals(2l, planCache.getMissCount());
+
+        // child traversals of a cached plan are bound to the traversal that reuses it
+        assertEquals(Arrays.asList("marko"), g.V(1).where(__.out("created")).<String>values("name").toList());
+        assertEquals(Collections.emptyList(), g.V(2).where(__.out("created")).<String>values("name").toList());
+        assertEquals(Arrays.asList("josh"), g.V(4).where(__.out("created")).<String>values("name").toList());
+        assertEquals(4l, planCache.getHitCount());
+        assertEquals(3l, planCache.getMissCount());
+
+        // the same ids with a different step argument is a different plan
+        assertEquals(Arrays.asList("lop"), g.V(1).out("created").<String>values("name").toList());
+        assertEquals(4l, planCache.getMissCount());
+        assertEquals(4, planCache.size());
+        assertEquals(0.5d, planCache.getHitRate(), 0.0001d);
+        assertTrue(planCache.getCompileTime(TimeUnit.NANOSECONDS) > 0l);
+
+        // the running state of a step (e.g. the counter of limit()) does not keep it from being reused
+        assertEquals(Arrays.asList("ripple"), g.V(4).out("created").order().by("name", Order.decr).limit(1).values("name").toList());
+        assertEquals(Arrays.asList("lop"), g.V(1).out("created").order().by("name", Order.decr).limit(1).values("name").toList());
+        assertEquals(Arrays.asList("lop"), g.V(4).out("created").order().by("name", Order.incr).limit(1).values("name").toList());
+        assertEquals(5l, planCache.getHitCount());
+        assertEquals(6l, planCache.getMissCount());
+        assertEquals(0l, planCache.getUncacheableCount());
+
+        planCache.clear();
+        assertEquals(0, planCache.size());
+    }
+
+    @Test
+    public void shouldNotCachePlansThatCanNotBeReused() {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final PlanCacheStrategy strategy = PlanCacheStrategy.build().maxSize(2).create();
+        final GraphTraversalSource g = graph.traversal().withStrategies(strategy);
+        final TraversalPlanCache planCache = strategy.getPlanCache();
+
+        // lambdas can not be keyed
+        assertEquals(2l, g.V().filter(t -> t.get().label().equals("software")).count().next().longValue());
+        assertEquals(1l, planCache.getUncacheableCount());
+        assertEquals(0, planCache.size());
+
+        // the ids of the start step are rewritten by the strategies
+        g.V(1).hasId(1).toList();
+        assertEquals(2l, planCache.getUncacheableCount());
+        assertEquals(0, planCache.size());
+
+        // the least recently used plan is evicted
+        g.V(1).out().toList();
+        g.V(1).in().toList();
+        g.V(1).both().toList();
+        assertEquals(2, planCache.size());
+        g.V(2).out().toList();
+        assertEquals(0l, planCache.getHitCount());
+        g.V(2).both().toList();
+        assertEquals(1l, planCache.getHitCount());
+    }
+
+    @Test
+    public void shouldExecuteReducingTraversalsInParallel() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Random random = new Random(1234567890l);
+        for (int i = 0; i < 1000; i++) {
+            graph.addVertex(T.id, i, "name", "vertex" + (i % 100), "age", random.nextInt(100));
+        }
+        for (int i = 0; i < 10000; i++) {
+            graph.vertices(random.nextInt(1000)).next().addEdge("knows", graph.vertices(random.nextInt(1000)).next());
+        }
+        final GraphTraversalSource g = graph.traversal();
+        final GraphTraversalSource p = graph.traversal().withStrategies(ParallelStrategy.build().parallelism(4).chunkSize(7).create());
+
+        final Traversal.Admin<?, ?> traversal = p.V().out().out().count().asAdmin();
+        traversal.applyStrategies();
+        assertEquals(2, traversal.getSteps().size());
+        assertTrue(traversal.getSteps().get(1) instanceof ParallelBarrierStep);
+
+        assertEquals(g.V().out().out().count().next(), p.V().out().out().count().next());
+        assertEquals(g.V().out().out().groupCount().by("name").next(), p.V().out().out().groupCount().by("name").next());
+        assertEquals(g.V().has("age", P.gt(50)).out().values("age").sum().next(), p.V().has("age", P.gt(50)).out().values("age").sum().next());
+        assertEquals(g.V().out().values("age").max().next(), p.V().out().values("age").max().next());
+        assertEquals(g.V().where(__.out().count().is(P.gt(10))).out().count().next(), p.V().where(__.out().count().is(P.gt(10))).out().count().next());
+        assertEquals(g.V().out().groupCount().by("name").unfold().count().next(), graph.traversal().withParallelism(2).V().out().groupCount().by("name").unfold().count().next());
+
+        // barriers that depend on the order of their traversers get the same result as a sequential execution
+        assertEquals(g.V().out().values("name").fold().next(), p.V().out().values("name").fold().next());
+        assertEquals(g.V().out().group().by("name").by(__.values("age").fold()).next(), p.V().out().group().by("name").by(__.values("age").fold()).next());
+        assertEquals(g.V().out().group().by("name").by(__.count()).next(), p.V().out().group().by("name").by(__.count()).next());
+
+        // the workers run on the calling thread and the common pool rather than on pools of their own
+        for (int parallelism = 1; parallelism < 8; parallelism++) {
+            assertEquals(g.V().out().out().count().next(), graph.traversal().withParallelism(parallelism).V().out().out().count().next());
+        }
+        assertFalse(Thread.getAllStackTraces().keySet().stream().anyMatch(t -> t.getName().matches("ForkJoinPool-\\d+-worker-\\d+")));
+    }
+
+    @Test
+    public void shouldNotExecuteTraversalsInParallelThatShareState() {
+        final GraphTraversalSource p = TinkerFactory.createModern().traversal().withParallelism(4);
+        final List<Traversal.Admin<?, ?>> traversals = Arrays.asList(
+                p.V().out().sideEffect(t -> {
+                }).count().asAdmin(),
+                p.V().out().dedup().count().asAdmin(),
+                p.V().out().limit(2).count().asAdmin(),
+                p.V().out().aggregate("x").count().asAdmin(),
+                p.V().values("age").fold(0, Operator.sum).asAdmin(),
+                p.V().count().asAdmin(),
+                p.V().out().values("name").asAdmin());
+        for (final Traversal.Admin<?, ?> traversal : traversals) {
+            traversal.applyStrategies();
+            assertFalse(TraversalHelper.hasStepOfClass(ParallelBarrierStep.class, traversal));
+        }
+        assertEquals(123, p.V().values("age").fold(0, Operator.sum).next());
+    }
+
+    private static Configuration mutationLogConfiguration(final String fileName) {
+        final String graphLocation = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + fileName;
+        new File(graphLocation).delete();
+        new File(graphLocation + ".log").delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG, true);
+        return conf;
+    }
+
     @Test
     public void shouldPersistToAnyGraphFormat() {
         final String graphLocation = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldPersistToAnyGraphFormat.dat";